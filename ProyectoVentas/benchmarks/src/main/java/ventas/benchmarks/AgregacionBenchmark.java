@@ -0,0 +1,69 @@
+package ventas.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Procesamiento completo de un archivo de ventas (AgregadorVentas.procesarArchivoVentas)
+// Incluye la lectura del disco, que después de la primera vez sale de la caché del sistema operativo
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AgregacionBenchmark {
+
+    @Param({"1000", "100000"})
+    int tamanoCatalogo;
+
+    @Param({"1000", "100000"})
+    int lineasPorArchivo;
+
+    // txt = archivo de texto original, vcol = el mismo archivo convertido al formato columnar, gz = comprimido con gzip
+    @Param({"txt", "vcol", "gz"})
+    String formato;
+
+    private ConjuntoDatos conjunto;
+    private Object agregador;
+    private File archivo;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Throwable {
+        conjunto = ConjuntoDatos.generar(tamanoCatalogo, 1, lineasPorArchivo);
+        Object catalogo = (Object) ProyectoVentas.CARGAR_CATALOGO_TEXTO.invokeExact(conjunto.archivo("productos.txt"));
+        agregador = (Object) ProyectoVentas.NUEVO_AGREGADOR.invokeExact(catalogo);
+
+        archivo = conjunto.archivo("ventas_1000000000.txt");
+        if (formato.equals("vcol")) {
+            File columnar = conjunto.archivo("ventas_1000000000.vcol");
+            conjunto.silenciarConsola();
+            boolean convertido = (boolean) ProyectoVentas.CONVERTIR.invokeExact(archivo, columnar, false, 64 * 1024);
+            conjunto.restaurarConsola();
+            if (!convertido) {
+                throw new IllegalStateException("No se pudo convertir " + archivo);
+            }
+            archivo = columnar;
+        } else if (formato.equals("gz")) {
+            File comprimido = conjunto.archivo("ventas_1000000000.txt.gz");
+            try (OutputStream salida = new GZIPOutputStream(new FileOutputStream(comprimido))) {
+                Files.copy(archivo.toPath(), salida);
+            }
+            archivo = comprimido;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws Exception {
+        conjunto.borrar();
+    }
+
+    @Benchmark
+    public Object procesarArchivo() throws Throwable {
+        return (Object) ProyectoVentas.PROCESAR_ARCHIVO.invokeExact(agregador, archivo);
+    }
+}
@@ -0,0 +1,77 @@
+package ventas.benchmarks;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Búsqueda de precio y nombre en el catálogo, y carga del catálogo desde texto y desde el formato binario
+// Las búsquedas se hacen sobre un lote fijo de IDs al azar para no medir siempre el mismo producto
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogoBenchmark {
+
+    private static final int CONSULTAS = 1024;
+
+    @Param({"1000", "100000"})
+    int tamanoCatalogo;
+
+    private ConjuntoDatos conjunto;
+    private Object catalogo;
+    private File archivoTexto;
+    private File archivoBinario;
+    private int[] ids;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Throwable {
+        conjunto = ConjuntoDatos.generar(tamanoCatalogo, 1, 1);
+        archivoTexto = conjunto.archivo("productos.txt");
+        archivoBinario = conjunto.archivo("productos_catalogo.bin");
+        catalogo = (Object) ProyectoVentas.CARGAR_CATALOGO_TEXTO.invokeExact(archivoTexto);
+        ProyectoVentas.GUARDAR_CATALOGO_BINARIO.invokeExact(catalogo, archivoBinario);
+
+        Random aleatorio = new Random(ConjuntoDatos.SEMILLA);
+        ids = new int[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            ids[i] = 100 + aleatorio.nextInt(tamanoCatalogo);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws Exception {
+        conjunto.borrar();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONSULTAS)
+    public long precioPorId() throws Throwable {
+        long suma = 0;
+        for (int id : ids) {
+            suma += (long) ProyectoVentas.PRECIO.invokeExact(catalogo, id);
+        }
+        return suma;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONSULTAS)
+    public void nombrePorId(Blackhole sumidero) throws Throwable {
+        for (int id : ids) {
+            sumidero.consume((String) ProyectoVentas.NOMBRE.invokeExact(catalogo, id));
+        }
+    }
+
+    @Benchmark
+    public Object cargarDesdeTexto() throws Throwable {
+        return (Object) ProyectoVentas.CARGAR_CATALOGO_TEXTO.invokeExact(archivoTexto);
+    }
+
+    @Benchmark
+    public Object cargarDesdeBinario() throws Throwable {
+        return (Object) ProyectoVentas.CARGAR_CATALOGO_BINARIO.invokeExact(archivoBinario);
+    }
+}
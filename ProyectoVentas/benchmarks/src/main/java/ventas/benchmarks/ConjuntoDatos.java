@@ -0,0 +1,65 @@
+package ventas.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// Directorio temporal con un conjunto de datos generado por GenerateInfoFiles
+// Siempre se usa la misma semilla para que todas las ejecuciones midan exactamente los mismos archivos
+final class ConjuntoDatos {
+
+    static final long SEMILLA = 20240521L;
+
+    private static final PrintStream SALIDA_NULA = new PrintStream(OutputStream.nullOutputStream());
+
+    private final File directorio;
+    private PrintStream salidaOriginal;
+    private PrintStream erroresOriginal;
+
+    private ConjuntoDatos(File directorio) {
+        this.directorio = directorio;
+    }
+
+    static ConjuntoDatos generar(int productos, int vendedores, int ventasPorArchivo) throws Throwable {
+        File directorio = Files.createTempDirectory("ventas-benchmark").toFile();
+        ProyectoVentas.GENERAR_CONJUNTO.invokeExact(directorio, productos, vendedores, ventasPorArchivo, SEMILLA);
+        return new ConjuntoDatos(directorio);
+    }
+
+    File getDirectorio() {
+        return directorio;
+    }
+
+    File archivo(String nombre) {
+        return new File(directorio, nombre);
+    }
+
+    // El procesamiento escribe mucho en consola; mientras se mide se descarta para no medir la terminal
+    void silenciarConsola() {
+        salidaOriginal = System.out;
+        erroresOriginal = System.err;
+        System.setOut(SALIDA_NULA);
+        System.setErr(SALIDA_NULA);
+    }
+
+    void restaurarConsola() {
+        if (salidaOriginal != null) {
+            System.setOut(salidaOriginal);
+            System.setErr(erroresOriginal);
+        }
+    }
+
+    void borrar() throws IOException {
+        restaurarConsola();
+        try (Stream<Path> rutas = Files.walk(directorio.toPath())) {
+            for (Path ruta : (Iterable<Path>) rutas.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(ruta);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ventas.benchmarks;
+
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Interpretación de líneas de venta "idProducto;cantidad;" directamente desde bytes
+// Se mide un archivo completo ya cargado en memoria, sin lectura de disco
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({"1000", "100000"})
+    int lineasPorArchivo;
+
+    private ConjuntoDatos conjunto;
+    private Object parser;
+    private byte[] datos;
+    private int[] inicios;
+    private int[] fines;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Throwable {
+        conjunto = ConjuntoDatos.generar(1000, 1, lineasPorArchivo);
+        parser = (Object) ProyectoVentas.NUEVO_PARSER.invokeExact();
+        datos = Files.readAllBytes(conjunto.archivo("ventas_1000000000.txt").toPath());
+
+        // Ubicamos las líneas de antemano (sin el encabezado) para medir solo la interpretación
+        inicios = new int[lineasPorArchivo];
+        fines = new int[lineasPorArchivo];
+        int linea = -1;
+        int inicio = 0;
+        for (int i = 0; i < datos.length; i++) {
+            if (datos[i] == '\n') {
+                if (linea >= 0) {
+                    inicios[linea] = inicio;
+                    fines[linea] = i;
+                }
+                linea++;
+                inicio = i + 1;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws Exception {
+        conjunto.borrar();
+    }
+
+    @Benchmark
+    public long interpretarArchivo() throws Throwable {
+        long validas = 0;
+        for (int i = 0; i < inicios.length; i++) {
+            int estado = (int) ProyectoVentas.INTERPRETAR.invokeExact(parser, datos, inicios[i], fines[i]);
+            if (estado == 0) {
+                validas++;
+            }
+        }
+        return validas;
+    }
+}
@@ -0,0 +1,47 @@
+package ventas.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Ejecución completa de Main: catálogo, índice de archivos, todos los vendedores y los dos reportes
+// Main escribe los reportes en el directorio actual, igual que al usarlo normalmente
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"1000", "100000"})
+    int tamanoCatalogo;
+
+    @Param({"100", "1000"})
+    int vendedores;
+
+    @Param({"100", "10000"})
+    int lineasPorArchivo;
+
+    @Param({"1", "4"})
+    int hilos;
+
+    private ConjuntoDatos conjunto;
+    private String[] argumentos;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Throwable {
+        conjunto = ConjuntoDatos.generar(tamanoCatalogo, vendedores, lineasPorArchivo);
+        argumentos = new String[] {"--datos=" + conjunto.getDirectorio().getPath(), "--hilos=" + hilos};
+        conjunto.silenciarConsola();
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws Exception {
+        conjunto.borrar();
+    }
+
+    @Benchmark
+    public void ejecutarMain() throws Throwable {
+        ProyectoVentas.MAIN.invokeExact(argumentos);
+    }
+}
@@ -0,0 +1,95 @@
+package ventas.benchmarks;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+// Acceso a las clases del proyecto, que están en el paquete por defecto
+// JMH no acepta benchmarks sin paquete y desde un paquete no se puede importar el paquete por defecto,
+// así que se usan MethodHandles: guardados en campos static final, el JIT los llama como llamadas directas
+// Los tipos del proyecto se ven como Object
+final class ProyectoVentas {
+
+    // GenerateInfoFiles.generarConjuntoPrueba(File, int productos, int vendedores, int ventasPorArchivo, long semilla)
+    static final MethodHandle GENERAR_CONJUNTO = metodo("GenerateInfoFiles", "generarConjuntoPrueba",
+        File.class, int.class, int.class, int.class, long.class);
+
+    static final MethodHandle NUEVO_PARSER = constructor("ParserLineaVenta");
+    static final MethodHandle INTERPRETAR = metodo("ParserLineaVenta", "interpretar", byte[].class, int.class, int.class);
+
+    static final MethodHandle CARGAR_CATALOGO_TEXTO = metodo("CatalogoProductos", "cargar", File.class);
+    static final MethodHandle CARGAR_CATALOGO_BINARIO = metodo("CatalogoProductos", "cargarBinario", File.class);
+    static final MethodHandle GUARDAR_CATALOGO_BINARIO = metodo("CatalogoProductos", "guardarBinario", File.class);
+    static final MethodHandle PRECIO = metodo("CatalogoProductos", "precioCentavos", int.class);
+    static final MethodHandle NOMBRE = metodo("CatalogoProductos", "nombre", int.class);
+
+    static final MethodHandle NUEVO_AGREGADOR = constructor("AgregadorVentas", clase("CatalogoProductos"));
+    static final MethodHandle PROCESAR_ARCHIVO = metodo("AgregadorVentas", "procesarArchivoVentas", File.class);
+    static final MethodHandle CONVERTIR = metodo("ConvertidorVentas", "convertir",
+        File.class, File.class, boolean.class, int.class);
+
+    static final MethodHandle CONFIGURACION = metodo("ConfiguracionEjecucion", "desdeArgumentos", String[].class);
+
+    static final MethodHandle NUEVOS_TOTALES_VENDEDOR = constructor("TotalesPorVendedor", int.class);
+    static final MethodHandle ASIGNAR_TOTAL = metodo("TotalesPorVendedor", "asignar", long.class, long.class);
+    static final MethodHandle NUEVAS_UNIDADES_PRODUCTO = constructor("UnidadesPorProducto", int.class);
+    static final MethodHandle SUMAR_UNIDADES = metodo("UnidadesPorProducto", "sumar", int.class, long.class);
+
+    static final MethodHandle MAIN = metodo("Main", "main", String[].class);
+    static final MethodHandle REPORTE_VENDEDORES = metodo("Main", "generarReporteVendedores",
+        clase("TotalesPorVendedor"), File.class, clase("ConfiguracionEjecucion"));
+    static final MethodHandle REPORTE_PRODUCTOS = metodo("Main", "generarReporteProductos",
+        clase("UnidadesPorProducto"), clase("CatalogoProductos"), clase("ConfiguracionEjecucion"));
+
+    private ProyectoVentas() {
+    }
+
+    static Class<?> clase(String nombre) {
+        try {
+            return Class.forName(nombre);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("No se encontró la clase del proyecto: " + nombre, e);
+        }
+    }
+
+    private static MethodHandle metodo(String clase, String nombre, Class<?>... parametros) {
+        try {
+            Method metodo = clase(clase).getDeclaredMethod(nombre, parametros);
+            metodo.setAccessible(true);
+            return generico(MethodHandles.lookup().unreflect(metodo));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se encontró " + clase + "." + nombre, e);
+        }
+    }
+
+    private static MethodHandle constructor(String clase, Class<?>... parametros) {
+        try {
+            Constructor<?> constructor = clase(clase).getDeclaredConstructor(parametros);
+            constructor.setAccessible(true);
+            return generico(MethodHandles.lookup().unreflectConstructor(constructor));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se encontró el constructor de " + clase, e);
+        }
+    }
+
+    // Cambia los tipos del proyecto por Object para poder usar invokeExact desde este paquete
+    private static MethodHandle generico(MethodHandle metodo) {
+        MethodType tipo = metodo.type();
+        for (int i = 0; i < tipo.parameterCount(); i++) {
+            if (esDelProyecto(tipo.parameterType(i))) {
+                tipo = tipo.changeParameterType(i, Object.class);
+            }
+        }
+        if (esDelProyecto(tipo.returnType())) {
+            tipo = tipo.changeReturnType(Object.class);
+        }
+        return metodo.asType(tipo);
+    }
+
+    private static boolean esDelProyecto(Class<?> tipo) {
+        return !tipo.isPrimitive() && !tipo.isArray() && tipo.getPackageName().isEmpty();
+    }
+}
@@ -0,0 +1,74 @@
+package ventas.benchmarks;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Escritura de reporte_vendedores.csv y reporte_productos.csv a partir de totales ya calculados
+// Los reportes se escriben en el directorio actual, como lo hace Main
+// Los nombres de los vendedores se leen de un vendedores.txt generado para la prueba, igual que en una ejecución real
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportesBenchmark {
+
+    @Param({"1000", "100000"})
+    int tamanoCatalogo;
+
+    @Param({"1000", "100000"})
+    int vendedores;
+
+    // 0 = ranking completo, K = solo los K mejores
+    @Param({"0", "100"})
+    int top;
+
+    private ConjuntoDatos conjunto;
+    private Object catalogo;
+    private Object configuracion;
+    private Object ventasPorVendedor;
+    private Object productosVendidos;
+    private File archivoVendedores;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Throwable {
+        conjunto = ConjuntoDatos.generar(tamanoCatalogo, 1, 1);
+        catalogo = (Object) ProyectoVentas.CARGAR_CATALOGO_TEXTO.invokeExact(conjunto.archivo("productos.txt"));
+        configuracion = (Object) ProyectoVentas.CONFIGURACION.invokeExact(new String[] {"--top=" + top});
+
+        Random aleatorio = new Random(ConjuntoDatos.SEMILLA);
+        archivoVendedores = conjunto.archivo("vendedores_reporte.txt");
+        ventasPorVendedor = (Object) ProyectoVentas.NUEVOS_TOTALES_VENDEDOR.invokeExact(vendedores);
+        try (PrintWriter salida = new PrintWriter(archivoVendedores)) {
+            for (int i = 0; i < vendedores; i++) {
+                long documento = 1_000_000_000L + i;
+                salida.println("CC;" + documento + ";Vendedor;" + i);
+                ProyectoVentas.ASIGNAR_TOTAL.invokeExact(ventasPorVendedor, documento, 100L * aleatorio.nextInt(50_000_000));
+            }
+        }
+        productosVendidos = (Object) ProyectoVentas.NUEVAS_UNIDADES_PRODUCTO.invokeExact(tamanoCatalogo);
+        for (int i = 0; i < tamanoCatalogo; i++) {
+            ProyectoVentas.SUMAR_UNIDADES.invokeExact(productosVendidos, 100 + i, (long) (1 + aleatorio.nextInt(100_000)));
+        }
+        conjunto.silenciarConsola();
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws Exception {
+        conjunto.borrar();
+    }
+
+    @Benchmark
+    public void reporteVendedores() throws Throwable {
+        ProyectoVentas.REPORTE_VENDEDORES.invokeExact(ventasPorVendedor, archivoVendedores, configuracion);
+    }
+
+    @Benchmark
+    public void reporteProductos() throws Throwable {
+        ProyectoVentas.REPORTE_PRODUCTOS.invokeExact(productosVendidos, catalogo, configuracion);
+    }
+}
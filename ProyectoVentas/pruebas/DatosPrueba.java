@@ -0,0 +1,71 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+// Conjuntos de datos generados y ejecuciones completas de Main, para comparar los reportes de cada modo
+// Main escribe los reportes en el directorio actual, así que cada ejecución corre en otro proceso
+public final class DatosPrueba {
+
+    private DatosPrueba() {
+    }
+
+    // Genera con GeneradorDatos un conjunto chico en un directorio temporal; la semilla fija lo hace reproducible
+    public static File generar(String... opciones) throws IOException {
+        File directorio = Verificar.directorioTemporal();
+        List<String> argumentos = new ArrayList<>(List.of("--destino=" + directorio.getPath(), "--semilla=42",
+            "--productos=50", "--vendedores=40", "--ventas-min=5", "--ventas-max=400", "--archivos-por-vendedor=3"));
+        argumentos.addAll(List.of(opciones));
+        GeneradorDatos.desdeArgumentos(argumentos.toArray(new String[0])).generar();
+        return directorio;
+    }
+
+    // Ejecuta Main sobre los datos en un directorio de trabajo nuevo y lo devuelve
+    public static File ejecutar(File datos, String... opciones) throws Exception {
+        return ejecutarEn(Verificar.directorioTemporal(), datos, opciones);
+    }
+
+    // Igual, en un directorio de trabajo dado (el checkpoint y los parciales quedan ahí entre ejecuciones)
+    // La salida de consola queda en salida.txt
+    public static File ejecutarEn(File trabajo, File datos, String... opciones) throws Exception {
+        Process proceso = iniciar(trabajo, datos, opciones);
+        int codigo = proceso.waitFor();
+        Verificar.igual(0, codigo, "Código de salida de Main " + List.of(opciones) + "\n" + salida(trabajo));
+        return trabajo;
+    }
+
+    // Inicia Main sin esperar a que termine, para el modo vigilancia; la salida de consola va a salida.txt
+    public static Process iniciar(File trabajo, File datos, String... opciones) throws IOException {
+        List<String> comando = new ArrayList<>(List.of(
+            new File(System.getProperty("java.home"), "bin/java").getPath(),
+            "-cp", classpathAbsoluto(), "Main", "--datos=" + datos.getAbsolutePath()));
+        comando.addAll(List.of(opciones));
+
+        return new ProcessBuilder(comando).directory(trabajo).redirectErrorStream(true)
+            .redirectOutput(new File(trabajo, "salida.txt")).start();
+    }
+
+    public static String salida(File trabajo) throws IOException {
+        return new String(Files.readAllBytes(new File(trabajo, "salida.txt").toPath()), StandardCharsets.UTF_8);
+    }
+
+    // Los dos reportes de una ejecución son idénticos byte a byte a los de la otra
+    public static void mismosReportes(File esperado, File obtenido) throws IOException {
+        Verificar.mismoContenido(new File(esperado, "reporte_vendedores.csv"), new File(obtenido, "reporte_vendedores.csv"));
+        Verificar.mismoContenido(new File(esperado, "reporte_productos.csv"), new File(obtenido, "reporte_productos.csv"));
+    }
+
+    // El proceso hijo corre en otro directorio: las entradas relativas del classpath se resuelven desde aquí
+    private static String classpathAbsoluto() {
+        StringBuilder classpath = new StringBuilder();
+        for (String entrada : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (classpath.length() > 0) {
+                classpath.append(File.pathSeparator);
+            }
+            classpath.append(new File(entrada).getAbsolutePath());
+        }
+        return classpath.toString();
+    }
+}
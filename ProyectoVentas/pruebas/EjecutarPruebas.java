@@ -0,0 +1,92 @@
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// Ejecuta las pruebas del proyecto sin dependencias externas, desde el directorio ProyectoVentas:
+//   javac -encoding UTF-8 -d /tmp/pruebas src/*.java pruebas/*.java
+//   java -cp /tmp/pruebas EjecutarPruebas [ClaseDePruebas...]
+// Cada clase aporta sus métodos static void prueba...(); el proceso termina con código 1 si alguno falla
+public class EjecutarPruebas {
+
+    private static final Class<?>[] CLASES = {
+        PruebasIndiceEnteros.class,
+        PruebasCatalogoProductos.class,
+        PruebasParserLineaVenta.class,
+        PruebasCheckpointVentas.class,
+        PruebasLecturaAgregada.class,
+        PruebasArchivoColumnar.class,
+        PruebasReporteOrdenado.class,
+        PruebasFechasYTiendas.class,
+        PruebasParticiones.class,
+        PruebasProcesamientoPorTandas.class,
+        PruebasArchivoComprimido.class,
+        PruebasCuarentenaVentas.class,
+        PruebasServidorConsultas.class,
+        PruebasImporteCentavos.class,
+        PruebasMetricasEjecucion.class,
+        PruebasNombresRepetidos.class,
+    };
+
+    // Directorios temporales de las pruebas, se borran al terminar
+    private static final List<File> temporales = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        List<Class<?>> clases = new ArrayList<>();
+        for (Class<?> clase : CLASES) {
+            if (args.length == 0 || Arrays.asList(args).contains(clase.getName())) {
+                clases.add(clase);
+            }
+        }
+
+        int ejecutadas = 0;
+        List<String> fallidas = new ArrayList<>();
+        try {
+            for (Class<?> clase : clases) {
+                for (Method prueba : pruebasDe(clase)) {
+                    String nombre = clase.getName() + "." + prueba.getName();
+                    ejecutadas++;
+                    try {
+                        prueba.invoke(null);
+                        System.out.println("OK    " + nombre);
+                    } catch (InvocationTargetException e) {
+                        fallidas.add(nombre);
+                        System.out.println("FALLA " + nombre);
+                        e.getCause().printStackTrace(System.out);
+                    }
+                }
+            }
+        } finally {
+            for (File directorio : temporales) {
+                Verificar.borrar(directorio);
+            }
+        }
+
+        System.out.println(ejecutadas + " pruebas, " + fallidas.size() + " fallidas");
+        if (!fallidas.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    // Los métodos static void prueba...() sin parámetros, en orden alfabético para que la salida sea estable
+    private static List<Method> pruebasDe(Class<?> clase) {
+        List<Method> pruebas = new ArrayList<>();
+        for (Method metodo : clase.getDeclaredMethods()) {
+            if (metodo.getName().startsWith("prueba") && Modifier.isStatic(metodo.getModifiers())
+                    && metodo.getParameterCount() == 0) {
+                metodo.setAccessible(true);
+                pruebas.add(metodo);
+            }
+        }
+        pruebas.sort(Comparator.comparing(Method::getName));
+        return pruebas;
+    }
+
+    static void borrarAlTerminar(File directorio) {
+        temporales.add(directorio);
+    }
+}
@@ -0,0 +1,202 @@
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Lector de JSON mínimo para revisar lo que responde el servidor y lo que exportan las métricas
+// Objetos como LinkedHashMap, arreglos como List, números como BigDecimal (conservan su escala), true, false y null
+// Cualquier texto que no sea JSON válido lanza IllegalArgumentException con la posición
+public final class Json {
+
+    private final String texto;
+    private int posicion;
+
+    private Json(String texto) {
+        this.texto = texto;
+    }
+
+    public static Object leer(String texto) {
+        Json lector = new Json(texto);
+        Object valor = lector.valor();
+        lector.espacios();
+        if (lector.posicion != texto.length()) {
+            throw lector.error("Sobra texto después del valor");
+        }
+        return valor;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> objeto(String texto) {
+        Object valor = leer(texto);
+        if (!(valor instanceof Map)) {
+            throw new IllegalArgumentException("Se esperaba un objeto JSON: " + texto);
+        }
+        return (Map<String, Object>) valor;
+    }
+
+    private Object valor() {
+        espacios();
+        if (posicion >= texto.length()) {
+            throw error("Falta un valor");
+        }
+        char c = texto.charAt(posicion);
+        switch (c) {
+            case '{': return leerObjeto();
+            case '[': return leerArreglo();
+            case '"': return leerTexto();
+            case 't': return palabra("true", Boolean.TRUE);
+            case 'f': return palabra("false", Boolean.FALSE);
+            case 'n': return palabra("null", null);
+            default: return leerNumero();
+        }
+    }
+
+    private Map<String, Object> leerObjeto() {
+        Map<String, Object> objeto = new LinkedHashMap<>();
+        posicion++;
+        espacios();
+        if (consumir('}')) {
+            return objeto;
+        }
+        do {
+            espacios();
+            if (posicion >= texto.length() || texto.charAt(posicion) != '"') {
+                throw error("Se esperaba el nombre de un campo");
+            }
+            String nombre = leerTexto();
+            espacios();
+            if (!consumir(':')) {
+                throw error("Se esperaba ':'");
+            }
+            if (objeto.put(nombre, valor()) != null) {
+                throw error("Campo repetido: " + nombre);
+            }
+            espacios();
+        } while (consumir(','));
+        if (!consumir('}')) {
+            throw error("Se esperaba ',' o '}'");
+        }
+        return objeto;
+    }
+
+    private List<Object> leerArreglo() {
+        List<Object> arreglo = new ArrayList<>();
+        posicion++;
+        espacios();
+        if (consumir(']')) {
+            return arreglo;
+        }
+        do {
+            arreglo.add(valor());
+            espacios();
+        } while (consumir(','));
+        if (!consumir(']')) {
+            throw error("Se esperaba ',' o ']'");
+        }
+        return arreglo;
+    }
+
+    private String leerTexto() {
+        StringBuilder valor = new StringBuilder();
+        posicion++;
+        while (posicion < texto.length()) {
+            char c = texto.charAt(posicion++);
+            if (c == '"') {
+                return valor.toString();
+            }
+            if (c < 0x20) {
+                throw error("Carácter de control sin escapar");
+            }
+            if (c != '\\') {
+                valor.append(c);
+                continue;
+            }
+            if (posicion >= texto.length()) {
+                break;
+            }
+            char escapado = texto.charAt(posicion++);
+            switch (escapado) {
+                case '"': case '\\': case '/': valor.append(escapado); break;
+                case 'b': valor.append('\b'); break;
+                case 'f': valor.append('\f'); break;
+                case 'n': valor.append('\n'); break;
+                case 'r': valor.append('\r'); break;
+                case 't': valor.append('\t'); break;
+                case 'u':
+                    if (posicion + 4 > texto.length()) {
+                        throw error("Escape \\u incompleto");
+                    }
+                    try {
+                        valor.append((char) Integer.parseInt(texto.substring(posicion, posicion + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Escape \\u inválido");
+                    }
+                    posicion += 4;
+                    break;
+                default:
+                    throw error("Escape inválido: \\" + escapado);
+            }
+        }
+        throw error("Texto sin cerrar");
+    }
+
+    // La sintaxis de JSON es más estricta que la de BigDecimal: sin '+', sin ceros a la izquierda, sin '.' suelto
+    private BigDecimal leerNumero() {
+        int inicio = posicion;
+        consumir('-');
+        if (consumir('0')) {
+            // Un cero solo, sin más dígitos pegados
+        } else if (!digitos()) {
+            throw error("Valor inválido");
+        }
+        if (consumir('.') && !digitos()) {
+            throw error("Faltan decimales");
+        }
+        if (consumir('e') || consumir('E')) {
+            if (!consumir('+')) {
+                consumir('-');
+            }
+            if (!digitos()) {
+                throw error("Falta el exponente");
+            }
+        }
+        return new BigDecimal(texto.substring(inicio, posicion));
+    }
+
+    private boolean digitos() {
+        int inicio = posicion;
+        while (posicion < texto.length() && Character.isDigit(texto.charAt(posicion)) && texto.charAt(posicion) < 0x80) {
+            posicion++;
+        }
+        return posicion > inicio;
+    }
+
+    private Object palabra(String palabra, Object valor) {
+        if (!texto.startsWith(palabra, posicion)) {
+            throw error("Valor inválido");
+        }
+        posicion += palabra.length();
+        return valor;
+    }
+
+    private boolean consumir(char c) {
+        if (posicion < texto.length() && texto.charAt(posicion) == c) {
+            posicion++;
+            return true;
+        }
+        return false;
+    }
+
+    private void espacios() {
+        while (posicion < texto.length() && " \t\r\n".indexOf(texto.charAt(posicion)) >= 0) {
+            posicion++;
+        }
+    }
+
+    private IllegalArgumentException error(String mensaje) {
+        int desde = Math.max(0, posicion - 20);
+        return new IllegalArgumentException(mensaje + " en la posición " + posicion + ": ..."
+            + texto.substring(desde, Math.min(texto.length(), posicion + 20)));
+    }
+}
@@ -0,0 +1,96 @@
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Formato columnar (.vcol): lo que se escribe se lee igual, y Main da los mismos reportes que con los .txt
+public class PruebasArchivoColumnar {
+
+    // Escribe filas al azar (con líneas descartadas entre medio) y las lee de vuelta segmento por segmento
+    private static void idaYVuelta(boolean comprimir) throws Exception {
+        File archivo = new File(Verificar.directorioTemporal(), "ventas_123.vcol");
+        SplittableRandom aleatorio = new SplittableRandom(comprimir ? 1 : 2);
+        List<Long> escritas = new ArrayList<>();
+        long descartadas = 0;
+        try (ArchivoColumnar.Escritor escritor = new ArchivoColumnar.Escritor(archivo, "CC;123", comprimir, 7)) {
+            for (int i = 0; i < 1000; i++) {
+                if (aleatorio.nextInt(10) == 0) {
+                    escritor.descartar();
+                    descartadas++;
+                    continue;
+                }
+                int id = i % 100 == 0 ? Integer.MIN_VALUE : i % 101 == 0 ? Integer.MAX_VALUE : 100 + aleatorio.nextInt(50);
+                int cantidad = i % 37 == 0 ? -aleatorio.nextInt(5) : 1 + aleatorio.nextInt(10);
+                escritor.agregar(id, cantidad);
+                escritas.add(((long) id << 32) | (cantidad & 0xFFFFFFFFL));
+            }
+            escritor.terminar();
+        }
+
+        List<Long> leidas = new ArrayList<>();
+        long descartadasLeidas = 0;
+        int segmentos = 0;
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            ArchivoColumnar.Segmento segmento = new ArchivoColumnar.Segmento();
+            long posicion = ArchivoColumnar.finDeEncabezado(canal);
+            Verificar.verdadero(posicion > 0, "Encabezado columnar");
+            while ((posicion = ArchivoColumnar.leerSegmento(canal, posicion, segmento)) > 0) {
+                segmentos++;
+                descartadasLeidas += segmento.descartadas;
+                for (int i = 0; i < segmento.filas; i++) {
+                    leidas.add(((long) segmento.ids[i] << 32) | (segmento.cantidades[i] & 0xFFFFFFFFL));
+                }
+            }
+        }
+
+        Verificar.igual(escritas, leidas, "Filas leídas");
+        Verificar.igual(descartadas, descartadasLeidas, "Líneas descartadas");
+        Verificar.verdadero(segmentos >= escritas.size() / 7, "Varios segmentos: " + segmentos);
+    }
+
+    static void pruebaIdaYVueltaSinComprimir() throws Exception {
+        idaYVuelta(false);
+    }
+
+    static void pruebaIdaYVueltaComprimido() throws Exception {
+        idaYVuelta(true);
+    }
+
+    // Un segmento a medio escribir no se lee; los anteriores sí
+    static void pruebaSegmentoCortado() throws Exception {
+        File archivo = new File(Verificar.directorioTemporal(), "ventas_123.vcol");
+        try (ArchivoColumnar.Escritor escritor = new ArchivoColumnar.Escritor(archivo, "CC;123", false, 2)) {
+            for (int i = 0; i < 4; i++) {
+                escritor.agregar(100 + i, 1);
+            }
+            escritor.terminar();
+        }
+        try (RandomAccessFile recorte = new RandomAccessFile(archivo, "rw")) {
+            recorte.setLength(recorte.length() - 3);
+        }
+
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            ArchivoColumnar.Segmento segmento = new ArchivoColumnar.Segmento();
+            long posicion = ArchivoColumnar.leerSegmento(canal, ArchivoColumnar.finDeEncabezado(canal), segmento);
+            Verificar.verdadero(posicion > 0, "El primer segmento está completo");
+            Verificar.igual(2, segmento.filas, "Filas del primer segmento");
+            Verificar.igual(-1L, ArchivoColumnar.leerSegmento(canal, posicion, segmento), "El segundo está cortado");
+        }
+    }
+
+    // Los mismos datos convertidos a .vcol (con y sin compresión) dan reportes idénticos a los de texto
+    static void pruebaMainIgualQueConTexto() throws Exception {
+        File texto = DatosPrueba.ejecutar(DatosPrueba.generar("--errores=0.01"));
+        for (boolean comprimir : new boolean[] {false, true}) {
+            File datos = DatosPrueba.generar("--errores=0.01");
+            ConvertidorVentas.convertirDirectorio(datos, comprimir, 16);
+            File columnar = DatosPrueba.ejecutar(datos);
+            Verificar.verdadero(datos.list((directorio, nombre) -> nombre.endsWith(ArchivoColumnar.EXTENSION)).length > 0,
+                "Se generaron archivos columnares");
+            DatosPrueba.mismosReportes(texto, columnar);
+        }
+    }
+}
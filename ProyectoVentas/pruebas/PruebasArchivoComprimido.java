@@ -0,0 +1,147 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Los .gz se leen igual que su texto, descomprimidos en el hilo actual o en segundo plano
+public class PruebasArchivoComprimido {
+
+    private static byte[] comprimir(byte[] datos) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        }
+        return salida.toByteArray();
+    }
+
+    // Texto de varios bloques, poco comprimible para que el .gz también tenga varios
+    private static byte[] textoAlAzar(int tamano) {
+        SplittableRandom aleatorio = new SplittableRandom(21);
+        byte[] texto = new byte[tamano];
+        for (int i = 0; i < tamano; i++) {
+            texto[i] = (byte) (i % 40 == 39 ? '\n' : '0' + aleatorio.nextInt(10));
+        }
+        return texto;
+    }
+
+    // Lee todo de a pedazos de tamaños variados, para cruzar los bordes de los bloques de cualquier forma
+    private static byte[] leerTodo(InputStream entrada) throws IOException {
+        ByteArrayOutputStream leido = new ByteArrayOutputStream();
+        byte[] pedazo = new byte[70_000];
+        int largo = 1;
+        int n;
+        while ((n = entrada.read(pedazo, 0, largo)) >= 0) {
+            leido.write(pedazo, 0, n);
+            largo = largo * 7 % pedazo.length + 1;
+        }
+        return leido.toByteArray();
+    }
+
+    static void pruebaMismosBytesQueGzip() throws Exception {
+        byte[] comprimido = comprimir(textoAlAzar(3 * 1024 * 1024 + 17));
+        byte[] esperado;
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+            esperado = gzip.readAllBytes();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (ExecutorService conPool : new ExecutorService[] {null, pool}) {
+                try (InputStream entrada = ArchivoComprimido.abrir(new ByteArrayInputStream(comprimido), "prueba.gz", conPool)) {
+                    Verificar.verdadero(Arrays.equals(esperado, leerTodo(entrada)), "Descomprimido con pool " + conPool);
+                    Verificar.igual(-1, entrada.read(), "Después del final");
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Corrupto en la mitad, cortado o sin cabecera: el error nombra al archivo, con o sin pool
+    static void pruebaArchivoDanado() throws Exception {
+        byte[] comprimido = comprimir(textoAlAzar(1024 * 1024));
+        byte[] corrupto = comprimido.clone();
+        for (int i = corrupto.length / 2; i < corrupto.length / 2 + 64; i++) {
+            corrupto[i] ^= 0x5A;
+        }
+        byte[] cortado = Arrays.copyOf(comprimido, comprimido.length / 2);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (ExecutorService conPool : new ExecutorService[] {null, pool}) {
+                for (byte[] datos : new byte[][] {corrupto, cortado, "101;2\n".getBytes(StandardCharsets.UTF_8)}) {
+                    try (InputStream entrada = ArchivoComprimido.abrir(new ByteArrayInputStream(datos), "ventas_1.txt.gz", conPool)) {
+                        leerTodo(entrada);
+                        throw new AssertionError("Se leyó un archivo dañado sin error (pool " + conPool + ")");
+                    } catch (IOException e) {
+                        Verificar.igual("Archivo comprimido dañado: ventas_1.txt.gz", e.getMessage(), "Mensaje");
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Si el lector cierra antes del final, el hilo del pool deja de descomprimir y queda libre
+    static void pruebaCerrarAntesDelFinal() throws Exception {
+        byte[] comprimido = comprimir(textoAlAzar(4 * 1024 * 1024));
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            try (InputStream entrada = ArchivoComprimido.abrir(new ByteArrayInputStream(comprimido), "prueba.gz", pool)) {
+                entrada.readNBytes(1000);
+            }
+            // Un segundo archivo en el mismo hilo solo se lee si el primero lo liberó
+            try (InputStream entrada = ArchivoComprimido.abrir(new ByteArrayInputStream(comprimir(new byte[] {'x'})),
+                    "otro.gz", pool)) {
+                Verificar.igual('x', entrada.read(), "Segundo archivo");
+            }
+        } finally {
+            pool.shutdown();
+        }
+        Verificar.verdadero(pool.awaitTermination(10, TimeUnit.SECONDS), "El hilo del pool no terminó");
+    }
+
+    // Los mismos datos con todas las ventas en .txt.gz (uno grande, leído en segundo plano) dan los mismos reportes
+    static void pruebaComprimidosIgualQueTexto() throws Exception {
+        File datos = DatosPrueba.generar("--vendedores=12", "--ventas-min=5", "--ventas-max=120000",
+            "--dias=365", "--tiendas=5", "--errores=0.01");
+        File comprimidos = Verificar.directorioTemporal();
+        boolean hayGrande = false;
+        for (File archivo : datos.listFiles()) {
+            if (!archivo.getName().startsWith("ventas_")) {
+                Files.copy(archivo.toPath(), new File(comprimidos, archivo.getName()).toPath());
+                continue;
+            }
+            File gz = new File(comprimidos, archivo.getName() + ArchivoComprimido.EXTENSION);
+            try (OutputStream salida = new GZIPOutputStream(new FileOutputStream(gz))) {
+                Files.copy(archivo.toPath(), salida);
+            }
+            hayGrande |= gz.length() >= ArchivoComprimido.MINIMO_EN_SEGUNDO_PLANO;
+        }
+        Verificar.verdadero(hayGrande, "Ningún .gz llega a " + ArchivoComprimido.MINIMO_EN_SEGUNDO_PLANO + " bytes");
+
+        File texto = DatosPrueba.ejecutar(datos);
+        DatosPrueba.mismosReportes(texto, DatosPrueba.ejecutar(comprimidos));
+        DatosPrueba.mismosReportes(texto, DatosPrueba.ejecutar(comprimidos, "--hilos=3"));
+
+        // En modo incremental el hash se calcula sobre el .gz mientras se descomprime
+        File trabajo = DatosPrueba.ejecutar(comprimidos, "--incremental", "--hilos=3");
+        DatosPrueba.mismosReportes(texto, trabajo);
+        DatosPrueba.ejecutarEn(trabajo, comprimidos, "--incremental");
+        Verificar.verdadero(DatosPrueba.salida(trabajo).contains(" 0 procesados"), "La segunda ejecución no lee nada");
+        DatosPrueba.mismosReportes(texto, trabajo);
+    }
+}
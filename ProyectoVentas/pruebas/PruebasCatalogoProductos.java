@@ -0,0 +1,52 @@
+import java.io.File;
+
+// Carga de productos.txt y del catálogo binario: líneas inválidas, IDs repetidos y precios exactos en centavos
+public class PruebasCatalogoProductos {
+
+    static void pruebaCasosBordeDeProductosTxt() throws Exception {
+        File directorio = Verificar.directorioTemporal();
+        File productos = Verificar.escribir(directorio, "productos.txt",
+            "100;Portatil;2800000\n"
+            + "\n"
+            + "sin punto y coma\n"
+            + "abc;Nombre;10\n"
+            + "101;Mouse;19.99\n"
+            + "100;Repetido;5\n"
+            + "102;Sin precio\n"
+            + "102;Precio tardío;7.5\n"
+            + "-2147483648;Mínimo;1\n");
+
+        CatalogoProductos catalogo = CatalogoProductos.obtener(productos.getPath());
+        Verificar.igual(4, catalogo.tamano(), "Productos válidos");
+        Verificar.igual("Portatil", catalogo.nombre(100), "Un ID repetido conserva la primera línea");
+        Verificar.igual(280_000_000L, catalogo.precioCentavos(100), "Precio del primero");
+        Verificar.igual(1999L, catalogo.precioCentavos(101), "Centavos exactos");
+        Verificar.igual(750L, catalogo.precioCentavos(102), "Precio de una línea posterior si la primera no tenía");
+        Verificar.igual("Mínimo", catalogo.nombre(Integer.MIN_VALUE), "ID Integer.MIN_VALUE");
+        Verificar.igual(100L, catalogo.precioCentavos(Integer.MIN_VALUE), "Precio del ID mínimo");
+        Verificar.igual("Producto Desconocido", catalogo.nombre(999), "ID inexistente");
+        Verificar.igual(0L, catalogo.precioCentavos(999), "Precio de un ID inexistente");
+        Verificar.igual(-1, catalogo.posicion(999), "Posición de un ID inexistente");
+    }
+
+    // El binario guardado desde el catálogo de texto se carga con los mismos nombres y precios
+    static void pruebaCatalogoBinarioIgualAlTexto() throws Exception {
+        File directorio = Verificar.directorioTemporal();
+        File productos = Verificar.escribir(directorio, "productos.txt",
+            "100;Portatil;2800000\n101;Cañón;19.99\n102;Sin precio\n-2147483648;Mínimo;0.01\n");
+        CatalogoProductos texto = CatalogoProductos.obtener(productos.getPath());
+
+        File binario = new File(directorio, CatalogoBinario.NOMBRE_ARCHIVO);
+        texto.guardarBinario(binario);
+        binario.setLastModified(productos.lastModified() + 1000);
+        CatalogoProductos cargado = CatalogoProductos.obtener(productos.getPath());
+
+        Verificar.igual(binario.getPath(), cargado.getRutaArchivo(), "Se carga el binario");
+        Verificar.igual(texto.tamano(), cargado.tamano(), "Tamaño");
+        for (int id : new int[] {100, 101, 102, Integer.MIN_VALUE, 999}) {
+            Verificar.igual(texto.nombre(id), cargado.nombre(id), "Nombre de " + id);
+            Verificar.igual(texto.precioCentavos(id), cargado.precioCentavos(id), "Precio de " + id);
+            Verificar.igual(texto.precioCatalogoCentavos(id), cargado.precioCatalogoCentavos(id), "Precio de catálogo de " + id);
+        }
+    }
+}
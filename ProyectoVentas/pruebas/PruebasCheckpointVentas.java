@@ -0,0 +1,145 @@
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+// El checkpoint reutiliza un archivo solo si su contenido es el mismo que cuando se procesó
+public class PruebasCheckpointVentas {
+
+    private static final String CONTENIDO = "CC;123\n100;2;\n101;5;\n";
+
+    // Conteos que no caben en un int, para comprobar que el checkpoint los guarda completos
+    private static final long LINEAS = 3_000_000_007L;
+    private static final long ERRORES = 2_147_483_648L;
+
+    // Registra el archivo como lo hace el agregador: leyéndolo entero a través del flujo que calcula el hash
+    private static CheckpointVentas procesarYGuardar(File checkpoint, CatalogoProductos catalogo, File ventas)
+            throws Exception {
+        CheckpointVentas nuevo = CheckpointVentas.cargar(checkpoint, catalogo, false, 0, 0);
+        long tamano = ventas.length();
+        long fecha = ventas.lastModified();
+        try (CheckpointVentas.LecturaConHash lectura = new CheckpointVentas.LecturaConHash(new FileInputStream(ventas))) {
+            lectura.readAllBytes();
+            ParcialArchivo parcial = parcial(LINEAS);
+            parcial.errores = ERRORES;
+            nuevo.registrar(ventas, tamano, fecha, parcial, lectura, new byte[16]);
+        }
+        nuevo.guardar();
+        return nuevo;
+    }
+
+    private static ParcialArchivo parcial(long lineas) {
+        ParcialArchivo parcial = new ParcialArchivo();
+        parcial.encabezadoValido = true;
+        parcial.lineas = lineas;
+        parcial.total.sumar(1234);
+        parcial.productos.sumar(100, 2);
+        return parcial;
+    }
+
+    private static ParcialArchivo buscar(File checkpoint, CatalogoProductos catalogo, File ventas) throws Exception {
+        CheckpointVentas cargado = CheckpointVentas.cargar(checkpoint, catalogo, false, 0, 0);
+        ParcialArchivo parcial = cargado.buscar(ventas, new byte[16], false);
+        cargado.guardar();
+        return parcial;
+    }
+
+    static void pruebaReutilizaSoloElMismoContenido() throws Exception {
+        File directorio = Verificar.directorioTemporal();
+        CatalogoProductos catalogo = CatalogoProductos.obtener(
+            Verificar.escribir(directorio, "productos.txt", "100;A;10\n101;B;20\n").getPath());
+        File ventas = Verificar.escribir(directorio, "ventas_123.txt", CONTENIDO);
+        File checkpoint = new File(directorio, "checkpoint_ventas.dat");
+        procesarYGuardar(checkpoint, catalogo, ventas);
+
+        ParcialArchivo sinCambios = buscar(checkpoint, catalogo, ventas);
+        Verificar.verdadero(sinCambios != null, "Sin cambios se reutiliza");
+        Verificar.igual(LINEAS, sinCambios.lineas, "Líneas guardadas");
+        Verificar.igual(ERRORES, sinCambios.errores, "Errores guardados");
+        Verificar.igual(1234L, sinCambios.total.enLong(), "Total guardado");
+        Verificar.igual(2L, sinCambios.productos.unidades(0), "Unidades guardadas");
+
+        // Solo cambia la fecha: el CRC32C calculado al leerlo coincide con el del archivo entero
+        ventas.setLastModified(ventas.lastModified() + 5000);
+        Verificar.verdadero(buscar(checkpoint, catalogo, ventas) != null, "Con otra fecha y el mismo contenido se reutiliza");
+
+        // Mismo tamaño, otro contenido
+        Files.write(ventas.toPath(), CONTENIDO.replace("100;2;", "100;3;").getBytes(StandardCharsets.UTF_8));
+        ventas.setLastModified(ventas.lastModified() + 10_000);
+        Verificar.verdadero(buscar(checkpoint, catalogo, ventas) == null, "Con el mismo tamaño y otro contenido se procesa");
+    }
+
+    static void pruebaOtroTamanoSeProcesa() throws Exception {
+        File directorio = Verificar.directorioTemporal();
+        CatalogoProductos catalogo = CatalogoProductos.obtener(
+            Verificar.escribir(directorio, "productos.txt", "100;A;10\n").getPath());
+        File ventas = Verificar.escribir(directorio, "ventas_123.txt", CONTENIDO);
+        File checkpoint = new File(directorio, "checkpoint_ventas.dat");
+        long fecha = ventas.lastModified();
+        procesarYGuardar(checkpoint, catalogo, ventas);
+
+        Files.write(ventas.toPath(), (CONTENIDO + "100;1;\n").getBytes(StandardCharsets.UTF_8));
+        ventas.setLastModified(fecha);
+        Verificar.verdadero(buscar(checkpoint, catalogo, ventas) == null, "Con otro tamaño se procesa aunque tenga la misma fecha");
+    }
+
+    // Si el flujo no cubrió el archivo entero (un encabezado inválido corta la lectura) el hash se calcula leyéndolo
+    static void pruebaLecturaParcialCalculaElHashCompleto() throws Exception {
+        File directorio = Verificar.directorioTemporal();
+        CatalogoProductos catalogo = CatalogoProductos.obtener(
+            Verificar.escribir(directorio, "productos.txt", "100;A;10\n").getPath());
+        File ventas = Verificar.escribir(directorio, "ventas_123.txt", CONTENIDO);
+        File checkpoint = new File(directorio, "checkpoint_ventas.dat");
+
+        CheckpointVentas nuevo = CheckpointVentas.cargar(checkpoint, catalogo, false, 0, 0);
+        try (InputStream entrada = new FileInputStream(ventas);
+                CheckpointVentas.LecturaConHash lectura = new CheckpointVentas.LecturaConHash(entrada)) {
+            lectura.read(new byte[4]);
+            nuevo.registrar(ventas, ventas.length(), ventas.lastModified(), parcial(1), lectura, new byte[16]);
+        }
+        nuevo.guardar();
+
+        ventas.setLastModified(ventas.lastModified() + 5000);
+        Verificar.verdadero(buscar(checkpoint, catalogo, ventas) != null, "El hash guardado es el del archivo entero");
+    }
+
+    // Un catálogo distinto invalida todo el checkpoint: los totales dependen de los precios
+    static void pruebaOtroCatalogoDescartaTodo() throws Exception {
+        File directorio = Verificar.directorioTemporal();
+        File productos = Verificar.escribir(directorio, "productos.txt", "100;A;10\n");
+        File ventas = Verificar.escribir(directorio, "ventas_123.txt", CONTENIDO);
+        File checkpoint = new File(directorio, "checkpoint_ventas.dat");
+        procesarYGuardar(checkpoint, CatalogoProductos.obtener(productos.getPath()), ventas);
+
+        Files.write(productos.toPath(), "100;A;11\n".getBytes(StandardCharsets.UTF_8));
+        productos.setLastModified(productos.lastModified() + 5000);
+        CatalogoProductos otro = CatalogoProductos.obtener(productos.getPath());
+        Verificar.verdadero(buscar(checkpoint, otro, ventas) == null, "Con otros precios se procesa");
+    }
+
+    // Dos ejecuciones --incremental y una con un archivo cambiado dan los mismos reportes que una normal
+    static void pruebaIncrementalIgualQueEjecucionCompleta() throws Exception {
+        File datos = DatosPrueba.generar();
+        File completa = DatosPrueba.ejecutar(datos);
+
+        File trabajo = DatosPrueba.ejecutar(datos, "--incremental");
+        DatosPrueba.mismosReportes(completa, trabajo);
+        DatosPrueba.ejecutarEn(trabajo, datos, "--incremental", "--hilos=3");
+        DatosPrueba.mismosReportes(completa, trabajo);
+        Verificar.verdadero(DatosPrueba.salida(trabajo).contains(" 0 procesados"), "La segunda ejecución no lee nada");
+
+        // Mismo tamaño y otro contenido: solo ese archivo se vuelve a leer
+        File ventas = new File(datos, "ventas_1000000000.txt");
+        String contenido = new String(Files.readAllBytes(ventas.toPath()), StandardCharsets.UTF_8);
+        int ultima = contenido.lastIndexOf(';', contenido.length() - 3);
+        char digito = contenido.charAt(ultima - 1);
+        contenido = contenido.substring(0, ultima - 1) + (digito == '1' ? '2' : '1') + contenido.substring(ultima);
+        Files.write(ventas.toPath(), contenido.getBytes(StandardCharsets.UTF_8));
+        ventas.setLastModified(ventas.lastModified() + 5000);
+
+        DatosPrueba.ejecutarEn(trabajo, datos, "--incremental");
+        Verificar.verdadero(DatosPrueba.salida(trabajo).contains(" 1 procesados"), "Solo se lee el archivo cambiado");
+        DatosPrueba.mismosReportes(DatosPrueba.ejecutar(datos), trabajo);
+    }
+}
@@ -0,0 +1,330 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+// Cuarentena de líneas rechazadas y umbrales de errores por archivo, en todas las formas de leer un archivo
+public class PruebasCuarentenaVentas {
+
+    private static final String[] UMBRAL = {"--max-porcentaje-errores=5", "--si-excede-errores=omitir"};
+
+    // Ventas del vendedor 1: cada línea con el motivo por el que se rechaza (null = válida)
+    private static final String[][] VENTAS_1 = {
+        {"101;2;", null},
+        {"abc;2;", "numero_invalido"},
+        {"101;-1;", "cantidad_no_positiva"},
+        {"999;1;", "producto_desconocido"},
+        {"103;4;", "precio_invalido"},
+        {"101", "formato_invalido"},
+        {"", "linea_vacia"},
+        {"101;1;2024-02-30;T1", "fecha_invalida"},
+        {"102;3;", null},
+    };
+
+    private static String[] con(String[] opciones, String... mas) {
+        String[] todas = new String[opciones.length + mas.length];
+        System.arraycopy(mas, 0, todas, 0, mas.length);
+        System.arraycopy(opciones, 0, todas, mas.length, opciones.length);
+        return todas;
+    }
+
+    // Tres vendedores y una línea incompleta en vendedores.txt
+    // ventas_1.txt tiene 7 errores en 9 líneas, ventas_2.txt 1 en 10 y ventas_3.txt ninguno
+    private static File datosConocidos() throws Exception {
+        File datos = Verificar.directorioTemporal();
+        Verificar.escribir(datos, "productos.txt", "101;Arroz;2500\n102;Leche;3200.50\n103;SinPrecio\n");
+        Verificar.escribir(datos, "vendedores.txt", "CC;1;Ana;Uno\nCC;2;Beto;Dos\nCC;3;Caro;Tres\nCC;4\n");
+        StringBuilder ventas = new StringBuilder("CC;1\n");
+        for (String[] linea : VENTAS_1) {
+            ventas.append(linea[0]).append('\n');
+        }
+        Verificar.escribir(datos, "ventas_1.txt", ventas.toString());
+        Verificar.escribir(datos, "ventas_2.txt", "CC;2\n" + "101;1;\n".repeat(9) + "102;0;\n");
+        Verificar.escribir(datos, "ventas_3.txt", "CC;3\n102;2;\n");
+        return datos;
+    }
+
+    // Los registros de ventas_1.txt con su número de línea (el encabezado es la 1) y su posición en bytes
+    private static List<String> rechazosVentas1(String nombre) {
+        List<String> registros = new ArrayList<>();
+        long posicion = "CC;1\n".length();
+        for (int i = 0; i < VENTAS_1.length; i++) {
+            if (VENTAS_1[i][1] != null) {
+                registros.add(nombre + ";" + (i + 2) + ";" + posicion + ";" + VENTAS_1[i][1] + ";" + VENTAS_1[i][0]);
+            }
+            posicion += VENTAS_1[i][0].length() + 1;
+        }
+        return registros;
+    }
+
+    private static String rechazoVentas2(String nombre) {
+        return nombre + ";11;" + ("CC;2\n" + "101;1;\n".repeat(9)).length() + ";cantidad_no_positiva;102;0;";
+    }
+
+    // Registros de la cuarentena ordenados, sin el encabezado; el orden entre archivos depende de los hilos
+    private static List<String> registros(File trabajo) throws Exception {
+        List<String> lineas = new ArrayList<>(Files.readAllLines(new File(trabajo, "cuarentena_ventas.txt").toPath(),
+            StandardCharsets.UTF_8));
+        Verificar.igual(CuarentenaVentas.ENCABEZADO.trim(), lineas.remove(0), "Encabezado de la cuarentena");
+        Collections.sort(lineas);
+        return lineas;
+    }
+
+    private static List<String> ordenados(List<String> registros) {
+        List<String> copia = new ArrayList<>(registros);
+        Collections.sort(copia);
+        return copia;
+    }
+
+    private static String reporteVendedores(File trabajo) throws Exception {
+        return new String(Files.readAllBytes(new File(trabajo, "reporte_vendedores.csv").toPath()), StandardCharsets.UTF_8);
+    }
+
+    // Cada línea rechazada queda con su archivo, número de línea, posición, motivo y contenido tal cual
+    static void pruebaContenidoDeLaCuarentena() throws Exception {
+        File datos = datosConocidos();
+        for (String hilos : new String[] {"--hilos=1", "--hilos=3"}) {
+            File trabajo = DatosPrueba.ejecutar(datos, "--cuarentena", hilos);
+            List<String> esperados = rechazosVentas1("ventas_1.txt");
+            esperados.add(rechazoVentas2("ventas_2.txt"));
+            esperados.add("vendedores.txt;4;;formato_invalido;CC;4");
+            Verificar.igual(ordenados(esperados), registros(trabajo), "Registros de la cuarentena (" + hilos + ")");
+            Verificar.verdadero(DatosPrueba.salida(trabajo).contains("Registros en cuarentena: 9 "),
+                "Cantidad informada:\n" + DatosPrueba.salida(trabajo));
+            // 2 × 25 + 3 × 32.005 = 146.015 se suma en centavos, sin redondeos en el camino
+            Verificar.igual("Vendedor;Total_Ventas\nBeto Dos;22500\nAna Uno;14601.50\nCaro Tres;6401\n",
+                reporteVendedores(trabajo), "Reporte de vendedores");
+        }
+    }
+
+    // --max-errores-archivo corta la lectura en el primer error de más; --max-porcentaje-errores mira el archivo entero
+    static void pruebaUmbralesOmiten() throws Exception {
+        File datos = datosConocidos();
+
+        File porCantidad = DatosPrueba.ejecutar(datos, "--cuarentena", "--max-errores-archivo=1");
+        List<String> esperados = new ArrayList<>(rechazosVentas1("ventas_1.txt").subList(0, 2));
+        esperados.add("ventas_1.txt;;;archivo_omitido;2/3 líneas con errores, lectura detenida");
+        esperados.add(rechazoVentas2("ventas_2.txt"));
+        esperados.add("vendedores.txt;4;;formato_invalido;CC;4");
+        Verificar.igual(ordenados(esperados), registros(porCantidad), "Cuarentena con --max-errores-archivo=1");
+        Verificar.igual("Vendedor;Total_Ventas\nBeto Dos;22500\nCaro Tres;6401\nAna Uno;0\n",
+            reporteVendedores(porCantidad), "ventas_1.txt no suma nada");
+        Verificar.verdadero(DatosPrueba.salida(porCantidad).contains("Archivos omitidos por superar el umbral de errores: 1"),
+            "Archivos omitidos:\n" + DatosPrueba.salida(porCantidad));
+
+        // Con 1 error permitido ventas_2.txt (1 error) se suma; con 0 no hay límite
+        DatosPrueba.mismosReportes(porCantidad, DatosPrueba.ejecutar(datos, "--max-errores-archivo=1", "--hilos=3"));
+        DatosPrueba.mismosReportes(DatosPrueba.ejecutar(datos), DatosPrueba.ejecutar(datos, "--max-errores-archivo=0"));
+
+        // ventas_1.txt tiene 78% de errores y ventas_2.txt 10%: con 20% solo se omite la primera, leída completa
+        File porPorcentaje = DatosPrueba.ejecutar(datos, "--cuarentena", "--max-porcentaje-errores=20");
+        esperados = rechazosVentas1("ventas_1.txt");
+        esperados.add("ventas_1.txt;;;archivo_omitido;7/9 líneas con errores");
+        esperados.add(rechazoVentas2("ventas_2.txt"));
+        esperados.add("vendedores.txt;4;;formato_invalido;CC;4");
+        Verificar.igual(ordenados(esperados), registros(porPorcentaje), "Cuarentena con --max-porcentaje-errores=20");
+        DatosPrueba.mismosReportes(porCantidad, porPorcentaje);
+
+        // Con 5% también cae ventas_2.txt
+        File estricto = DatosPrueba.ejecutar(datos, "--max-porcentaje-errores=5");
+        Verificar.igual("Vendedor;Total_Ventas\nCaro Tres;6401\nAna Uno;0\nBeto Dos;0\n",
+            reporteVendedores(estricto), "Con 5% se omiten dos archivos");
+    }
+
+    // Con --si-excede-errores=abortar no se escriben reportes y la cuarentena se cierra con todo lo entregado
+    static void pruebaUmbralAborta() throws Exception {
+        File datos = datosConocidos();
+        File trabajo = DatosPrueba.ejecutar(datos, "--cuarentena", "--max-errores-archivo=1", "--si-excede-errores=abortar");
+        // La consola del proceso hijo usa el juego de caracteres de la plataforma: se busca solo la parte ASCII
+        Verificar.verdadero(DatosPrueba.salida(trabajo).contains("umbral de errores (2/3 l"),
+            "Falta el error:\n" + DatosPrueba.salida(trabajo));
+        Verificar.verdadero(!new File(trabajo, "reporte_vendedores.csv").exists(), "No se escriben reportes");
+        List<String> esperados = new ArrayList<>(rechazosVentas1("ventas_1.txt").subList(0, 2));
+        esperados.add("ventas_1.txt;;;archivo_abortado;2/3 líneas con errores, lectura detenida");
+        Verificar.igual(ordenados(esperados), registros(trabajo), "Cuarentena al abortar");
+    }
+
+    // Un .gz registra las mismas líneas y posiciones (del texto descomprimido) y se omite igual
+    static void pruebaComprimidos() throws Exception {
+        File datos = datosConocidos();
+        for (String nombre : new String[] {"ventas_1.txt", "ventas_2.txt", "ventas_3.txt"}) {
+            File texto = new File(datos, nombre);
+            try (OutputStream salida = new GZIPOutputStream(new FileOutputStream(new File(datos, nombre + ".gz")))) {
+                Files.copy(texto.toPath(), salida);
+            }
+            texto.delete();
+        }
+
+        File trabajo = DatosPrueba.ejecutar(datos, "--cuarentena");
+        List<String> esperados = rechazosVentas1("ventas_1.txt.gz");
+        esperados.add(rechazoVentas2("ventas_2.txt.gz"));
+        esperados.add("vendedores.txt;4;;formato_invalido;CC;4");
+        Verificar.igual(ordenados(esperados), registros(trabajo), "Cuarentena de los .gz");
+
+        File textoOmitido = DatosPrueba.ejecutar(datosConocidos(), "--max-porcentaje-errores=20");
+        DatosPrueba.mismosReportes(textoOmitido, DatosPrueba.ejecutar(datos, "--max-porcentaje-errores=20"));
+        DatosPrueba.mismosReportes(textoOmitido, DatosPrueba.ejecutar(datos, "--max-errores-archivo=1"));
+    }
+
+    // Un columnar ya no tiene el texto de las líneas que no se pudieron interpretar: queda cuántas fueron
+    // Las ventas rechazadas se registran como id;cantidad, sin línea ni posición
+    static void pruebaColumnares() throws Exception {
+        File datos = datosConocidos();
+        File texto = DatosPrueba.ejecutar(datos);
+        File textoOmitido = DatosPrueba.ejecutar(datos, "--max-porcentaje-errores=20");
+        ConvertidorVentas.convertirDirectorio(datos, false, 1000);
+
+        File trabajo = DatosPrueba.ejecutar(datos, "--cuarentena");
+        List<String> esperados = new ArrayList<>(List.of(
+            "ventas_1.vcol;;;descartada_al_convertir;4 líneas",
+            "ventas_1.vcol;;;cantidad_no_positiva;101;-1",
+            "ventas_1.vcol;;;producto_desconocido;999;1",
+            "ventas_1.vcol;;;precio_invalido;103;4",
+            "ventas_2.vcol;;;cantidad_no_positiva;102;0",
+            "vendedores.txt;4;;formato_invalido;CC;4"));
+        Verificar.igual(ordenados(esperados), registros(trabajo), "Cuarentena de los columnares");
+        DatosPrueba.mismosReportes(texto, trabajo);
+
+        DatosPrueba.mismosReportes(textoOmitido, DatosPrueba.ejecutar(datos, "--max-porcentaje-errores=20"));
+        DatosPrueba.mismosReportes(textoOmitido, DatosPrueba.ejecutar(datos, "--max-errores-archivo=1"));
+    }
+
+    // Un archivo de más de 1 MB leído por fragmentos mapeados: cada rechazo guarda su posición real en el archivo
+    // y el archivo se omite o no igual que leído de corrido
+    static void pruebaFragmentosMapeados() throws Exception {
+        File datos = Verificar.directorioTemporal();
+        Verificar.escribir(datos, "productos.txt", "101;Arroz;2500\n");
+        Verificar.escribir(datos, "vendedores.txt", "CC;5;Dario;Cinco\nCC;6;Eva;Seis\n");
+        StringBuilder ventas = new StringBuilder("CC;5\n");
+        for (int i = 1; i <= 200_000; i++) {
+            ventas.append(i % 50 == 0 ? "abc;2;\n" : "101;1;\n");
+        }
+        String contenido = ventas.toString();
+        Verificar.verdadero(contenido.length() > 1024 * 1024, "El archivo tiene que ocupar más de un fragmento");
+        Verificar.escribir(datos, "ventas_5.txt", contenido);
+        Verificar.escribir(datos, "ventas_6.txt", "CC;6\n101;3;\n");
+
+        String[] mapeo = {"--lectura=mapeo", "--fragmento-mb=1", "--hilos=2"};
+        File trabajo = DatosPrueba.ejecutar(datos, con(mapeo, "--cuarentena"));
+        List<String> registros = registros(trabajo);
+        Verificar.igual(4000, registros.size(), "Registros de la cuarentena");
+        for (String registro : registros) {
+            String[] campos = registro.split(";", 5);
+            Verificar.igual("ventas_5.txt", campos[0], "Archivo");
+            Verificar.igual("", campos[1], "En un fragmento no se conoce el número de línea");
+            Verificar.igual("numero_invalido", campos[3], "Motivo");
+            Verificar.igual("abc;2;", campos[4], "Contenido");
+            int posicion = Integer.parseInt(campos[2]);
+            Verificar.verdadero(contenido.charAt(posicion - 1) == '\n' && contenido.startsWith("abc;2;\n", posicion),
+                "La posición " + posicion + " no es el inicio de una línea rechazada");
+        }
+        DatosPrueba.mismosReportes(DatosPrueba.ejecutar(datos), trabajo);
+
+        // 2% de errores: con 1% se omite, con 5% no; con 100 errores permitidos se omite aunque cada fragmento tenga menos de 4000
+        String[][] umbrales = {{"--max-porcentaje-errores=1"}, {"--max-porcentaje-errores=5"}, {"--max-errores-archivo=100"}};
+        boolean[] omitido = {true, false, true};
+        for (int i = 0; i < umbrales.length; i++) {
+            File deCorrido = DatosPrueba.ejecutar(datos, umbrales[i]);
+            File mapeado = DatosPrueba.ejecutar(datos, con(umbrales[i], mapeo));
+            DatosPrueba.mismosReportes(deCorrido, mapeado);
+            Verificar.igual(omitido[i], DatosPrueba.salida(mapeado).contains("Archivos omitidos por superar el umbral de errores: 1"),
+                "Omitido con " + umbrales[i][0]);
+        }
+    }
+
+    // Lotes de varios hilos, cada uno de varias veces el tamaño de entrega: al cerrar está todo escrito y en orden por hilo
+    static void pruebaLotesDeVariosHilos() throws Exception {
+        File archivo = new File(Verificar.directorioTemporal(), "cuarentena.txt");
+        CuarentenaVentas cuarentena = new CuarentenaVentas(archivo);
+        int porHilo = 20_000;
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < 4; h++) {
+            int hilo = h;
+            Thread productor = new Thread(() -> {
+                CuarentenaVentas.Lote lote = cuarentena.nuevoLote();
+                for (int i = 0; i < porHilo; i++) {
+                    byte[] linea = ("x" + hilo + ";" + i + ";").getBytes(StandardCharsets.UTF_8);
+                    lote.agregar("ventas_" + hilo + ".txt", i + 2, 1000L * i, MetricasEjecucion.Rechazo.NUMERO_INVALIDO,
+                        linea, 0, linea.length);
+                }
+                lote.entregar();
+            });
+            productor.start();
+            hilos.add(productor);
+        }
+        for (Thread productor : hilos) {
+            productor.join();
+        }
+        cuarentena.close();
+        Verificar.igual(4L * porHilo, cuarentena.getRegistros(), "Registros entregados");
+
+        List<String> lineas = Files.readAllLines(archivo.toPath(), StandardCharsets.UTF_8);
+        Verificar.igual(CuarentenaVentas.ENCABEZADO.trim(), lineas.get(0), "Encabezado");
+        Verificar.igual(4 * porHilo + 1, lineas.size(), "Líneas escritas");
+        int[] siguiente = new int[4];
+        for (String linea : lineas.subList(1, lineas.size())) {
+            int hilo = linea.charAt("ventas_".length()) - '0';
+            int i = siguiente[hilo]++;
+            Verificar.igual("ventas_" + hilo + ".txt;" + (i + 2) + ";" + 1000L * i + ";numero_invalido;x" + hilo + ";" + i + ";",
+                linea, "Registro " + i + " del hilo " + hilo);
+        }
+    }
+
+    // Filas de columnares, avisos y campos desconocidos; lo entregado después de cerrar no se escribe
+    static void pruebaFormatoYCierre() throws Exception {
+        File archivo = new File(Verificar.directorioTemporal(), "cuarentena.txt");
+        CuarentenaVentas cuarentena = new CuarentenaVentas(archivo);
+        CuarentenaVentas.Lote lote = cuarentena.nuevoLote();
+        Verificar.verdadero(lote.esDe(cuarentena), "El lote es de su cuarentena");
+        lote.agregarFila("ventas_7.vcol", MetricasEjecucion.Rechazo.CANTIDAD_NO_POSITIVA, -2147483648, -5);
+        byte[] linea = "--101;ñ;--".getBytes(StandardCharsets.UTF_8);
+        lote.agregar("ventas_7.txt", -1, 9_000_000_000L, MetricasEjecucion.Rechazo.FORMATO_INVALIDO, linea, 2, linea.length - 2);
+        lote.entregar();
+        lote.entregar(); // Sin nada nuevo no entrega otro lote
+        cuarentena.registrar("vendedores.txt", 3, CuarentenaVentas.ENCABEZADO_INVALIDO, "");
+        cuarentena.close();
+        cuarentena.close();
+        cuarentena.registrar("vendedores.txt", 4, CuarentenaVentas.ARCHIVO_OMITIDO, "tarde");
+
+        Verificar.igual(3L, cuarentena.getRegistros(), "Registros escritos");
+        Verificar.igual(CuarentenaVentas.ENCABEZADO
+            + "ventas_7.vcol;;;cantidad_no_positiva;-2147483648;-5\n"
+            + "ventas_7.txt;;9000000000;formato_invalido;101;ñ;\n"
+            + "vendedores.txt;3;;encabezado_invalido;\n",
+            new String(Files.readAllBytes(archivo.toPath()), StandardCharsets.UTF_8), "Contenido");
+    }
+
+    // Un checkpoint guardado sin umbral no evita que ahora se omitan los archivos con demasiados errores
+    static void pruebaIncrementalRespetaLosUmbrales() throws Exception {
+        File datos = DatosPrueba.generar("--errores=0.05");
+        File conUmbral = DatosPrueba.ejecutar(datos, UMBRAL);
+        Verificar.verdadero(DatosPrueba.salida(conUmbral).contains("Archivos omitidos por superar el umbral de errores"),
+            "Con --errores=0.05 algún archivo tiene que pasar el 5%");
+
+        File trabajo = DatosPrueba.ejecutar(datos, "--incremental");
+        DatosPrueba.ejecutarEn(trabajo, datos, con(UMBRAL, "--incremental"));
+        DatosPrueba.mismosReportes(conUmbral, trabajo);
+
+        // Y al revés: lo guardado con umbral sirve sin él, sin arrastrar archivos omitidos
+        DatosPrueba.ejecutarEn(trabajo, datos, "--incremental");
+        DatosPrueba.mismosReportes(DatosPrueba.ejecutar(datos), trabajo);
+    }
+
+    // Los archivos tomados del checkpoint vuelven a dejar sus líneas rechazadas en la cuarentena
+    static void pruebaIncrementalRepiteLaCuarentena() throws Exception {
+        File datos = DatosPrueba.generar("--errores=0.02");
+        File completa = DatosPrueba.ejecutar(datos, "--cuarentena");
+
+        File trabajo = DatosPrueba.ejecutar(datos, "--incremental");
+        for (int ejecucion = 0; ejecucion < 2; ejecucion++) {
+            DatosPrueba.ejecutarEn(trabajo, datos, "--incremental", "--cuarentena");
+            Verificar.mismoContenido(new File(completa, "cuarentena_ventas.txt"), new File(trabajo, "cuarentena_ventas.txt"));
+            DatosPrueba.mismosReportes(completa, trabajo);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Ventas con fecha y tienda: el parser de fechas acepta lo mismo que java.time, y los consolidados por día y tienda
+// responden lo mismo que una ejecución completa
+public class PruebasFechasYTiendas {
+
+    // Día desde 1970-01-01 según java.time, o null si el texto no es una fecha (con hora opcional) válida
+    private static Integer conJavaTime(String texto) {
+        try {
+            if (texto.length() == 10) {
+                return (int) LocalDate.parse(texto).toEpochDay();
+            }
+            if ((texto.length() == 16 || texto.length() == 19) && texto.charAt(10) == ' ') {
+                texto = texto.substring(0, 10) + 'T' + texto.substring(11);
+            }
+            return (int) LocalDateTime.parse(texto).toLocalDate().toEpochDay();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Integer conParser(ParserLineaVenta parser, String fecha) {
+        byte[] linea = ("100;2;" + fecha + ";T1").getBytes(StandardCharsets.UTF_8);
+        int estado = parser.interpretar(linea, 0, linea.length);
+        if (estado == ParserLineaVenta.FECHA_INVALIDA) {
+            return null;
+        }
+        Verificar.igual(ParserLineaVenta.LINEA_VALIDA, estado, "Estado de la línea con fecha " + fecha);
+        Verificar.igual("T1", new String(linea, parser.getInicioTienda(), parser.getFinTienda() - parser.getInicioTienda(),
+            StandardCharsets.UTF_8), "Tienda");
+        return parser.getDia();
+    }
+
+    // Todos los días de los años 0000 a 9999 que cubren los rangos habituales, y algunos al azar del resto
+    static void pruebaDiasComoLocalDate() {
+        ParserLineaVenta parser = new ParserLineaVenta();
+        LocalDate dia = LocalDate.of(1895, 1, 1);
+        while (dia.getYear() < 2105) {
+            Verificar.igual(conJavaTime(dia.toString()), conParser(parser, dia.toString()), "Fecha " + dia);
+            dia = dia.plusDays(1);
+        }
+        SplittableRandom aleatorio = new SplittableRandom(11);
+        for (int i = 0; i < 50_000; i++) {
+            LocalDate cualquiera = LocalDate.ofEpochDay(aleatorio.nextLong(LocalDate.of(0, 1, 1).toEpochDay(),
+                LocalDate.of(9999, 12, 31).toEpochDay() + 1));
+            String texto = String.format("%04d-%02d-%02d", cualquiera.getYear(), cualquiera.getMonthValue(),
+                cualquiera.getDayOfMonth());
+            Verificar.igual(cualquiera.toEpochDay(), (long) conParser(parser, texto), "Fecha " + texto);
+        }
+    }
+
+    static void pruebaCasosConocidos() {
+        String[] fechas = {
+            "2024-02-29", "2023-02-29", "1900-02-29", "2000-02-29", "2024-04-31", "2024-13-01", "2024-00-10",
+            "2024-01-00", "2024-1-01", "2024/01/01", "24-01-01XX", "2024-01-01T23:59", "2024-01-01 00:00:00",
+            "2024-01-01T24:00", "2024-01-01T10:60", "2024-01-01T10:00:60", "2024-01-01X10:00", "2024-01-01T10-00",
+            "2024-01-01T10:00:0", "2024-01-01T1:00:00", "0000-01-01", "9999-12-31", "2024-01-01T", "20240101"
+        };
+        ParserLineaVenta parser = new ParserLineaVenta();
+        for (String fecha : fechas) {
+            Verificar.igual(conJavaTime(fecha), conParser(parser, fecha), "Fecha \"" + fecha + "\"");
+        }
+    }
+
+    // Fechas válidas con un carácter cambiado al azar
+    static void pruebaFechasAlteradas() {
+        String[] bases = {"2024-02-28", "2023-12-31T23:59", "2000-02-29 12:30:45"};
+        char[] reemplazos = {'0', '1', '2', '3', '5', '9', '-', ':', 'T', ' ', 'x'};
+        ParserLineaVenta parser = new ParserLineaVenta();
+        SplittableRandom aleatorio = new SplittableRandom(12);
+        for (int i = 0; i < 100_000; i++) {
+            char[] fecha = bases[i % bases.length].toCharArray();
+            fecha[aleatorio.nextInt(fecha.length)] = reemplazos[aleatorio.nextInt(reemplazos.length)];
+            String texto = new String(fecha);
+            Verificar.igual(conJavaTime(texto), conParser(parser, texto), "Fecha \"" + texto + "\"");
+        }
+    }
+
+    // Totales de un reporte sumados por nombre de vendedor; los nombres generados pueden repetirse y la suma sigue valiendo
+    private static Map<String, BigDecimal> totales(File trabajo) throws Exception {
+        Map<String, BigDecimal> totales = new HashMap<>();
+        List<String> lineas = Files.readAllLines(new File(trabajo, "reporte_vendedores.csv").toPath(), StandardCharsets.UTF_8);
+        for (String linea : lineas.subList(1, lineas.size())) {
+            String[] campos = linea.split(";");
+            totales.merge(campos[0], new BigDecimal(campos[1]), BigDecimal::add);
+        }
+        return totales;
+    }
+
+    // Una consulta sin rango sobre los consolidados da los mismos reportes que procesar todo
+    // Dos rangos que se tocan suman lo mismo que el rango completo (el corte cae en el 29 de febrero)
+    static void pruebaConsultasIgualQueEjecucionCompleta() throws Exception {
+        File datos = DatosPrueba.generar("--dias=20", "--fecha-final=2024-03-10", "--tiendas=3");
+        File completa = DatosPrueba.ejecutar(datos);
+
+        File trabajo = DatosPrueba.ejecutar(datos, "--consolidados");
+        DatosPrueba.mismosReportes(completa, trabajo);
+        DatosPrueba.ejecutarEn(trabajo, datos, "--consulta");
+        DatosPrueba.mismosReportes(completa, trabajo);
+
+        File antes = DatosPrueba.ejecutarEn(Verificar.directorioTemporal(), datos, "--consulta",
+            "--consolidados=" + new File(trabajo, "consolidados").getAbsolutePath(), "--hasta=2024-02-29");
+        File despues = DatosPrueba.ejecutarEn(Verificar.directorioTemporal(), datos, "--consulta",
+            "--consolidados=" + new File(trabajo, "consolidados").getAbsolutePath(), "--desde=2024-03-01");
+        Map<String, BigDecimal> esperados = totales(completa);
+        Map<String, BigDecimal> primeros = totales(antes);
+        Map<String, BigDecimal> segundos = totales(despues);
+        Verificar.igual(esperados.keySet(), primeros.keySet(), "Vendedores del primer rango");
+        for (Map.Entry<String, BigDecimal> total : esperados.entrySet()) {
+            BigDecimal suma = primeros.get(total.getKey()).add(segundos.get(total.getKey()));
+            Verificar.verdadero(total.getValue().compareTo(suma) == 0, "Total de " + total.getKey() + ": "
+                + total.getValue() + " y en dos rangos " + suma);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+import java.io.File;
+import java.math.BigInteger;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+// Sumas exactas en centavos: cuando un total ya no cabe en un long sigue siendo exacto y se escribe con todos sus dígitos
+public class PruebasImporteCentavos {
+
+    private static final BigInteger MAXIMO = BigInteger.valueOf(Long.MAX_VALUE);
+    private static final BigInteger MINIMO = BigInteger.valueOf(Long.MIN_VALUE);
+
+    private static ImporteCentavos importe(long... sumandos) {
+        ImporteCentavos importe = new ImporteCentavos();
+        for (long sumando : sumandos) {
+            importe.sumar(sumando);
+        }
+        return importe;
+    }
+
+    // Mientras todo cabe en un long no hay desborde y enLong es el total
+    static void pruebaSumasQueCabenEnLong() {
+        ImporteCentavos importe = new ImporteCentavos();
+        importe.sumarProducto(3, 250000);
+        importe.sumarProducto(2, 320050);
+        importe.sumar(-25);
+        Verificar.igual(BigInteger.valueOf(1390075), importe.total(), "Total");
+        Verificar.igual(1390075L, importe.enLong(), "Total como long");
+        Verificar.verdadero(!importe.excedeLong(), "No excede un long");
+        Verificar.igual("13900.75", importe.toString(), "Texto del total");
+
+        ImporteCentavos limite = importe(Long.MAX_VALUE - 1, 1);
+        Verificar.igual(Long.MAX_VALUE, limite.enLong(), "Justo Long.MAX_VALUE");
+        Verificar.verdadero(!limite.excedeLong(), "Long.MAX_VALUE todavía cabe");
+    }
+
+    // Pasar de Long.MAX_VALUE guarda lo acumulado en el BigInteger y el total sigue exacto
+    static void pruebaDesbordeASumaExacta() {
+        ImporteCentavos importe = importe(Long.MAX_VALUE, 1);
+        Verificar.igual(MAXIMO.add(BigInteger.ONE), importe.total(), "Long.MAX_VALUE + 1");
+        Verificar.verdadero(importe.excedeLong(), "Excede un long");
+        Verificar.igual(Long.MAX_VALUE, importe.enLong(), "Saturado en Long.MAX_VALUE");
+        Verificar.igual("92233720368547758.08", importe.toString(), "Texto de Long.MAX_VALUE + 1");
+
+        // Varias vueltas del long: 4 × Long.MAX_VALUE + 3
+        importe = importe(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, 2);
+        Verificar.igual(MAXIMO.multiply(BigInteger.valueOf(4)).add(BigInteger.TWO), importe.total(), "Varios desbordes");
+        Verificar.igual("368934881474191032.30", importe.toString(), "Texto de varios desbordes");
+
+        // Si después vuelve al rango de un long deja de exceder y enLong es exacto otra vez
+        importe = importe(Long.MAX_VALUE, 10, -20);
+        Verificar.verdadero(!importe.excedeLong(), "Volvió al rango de un long");
+        Verificar.igual(Long.MAX_VALUE - 10, importe.enLong(), "Total después de volver");
+
+        // Hacia abajo satura en Long.MIN_VALUE
+        importe = importe(Long.MIN_VALUE, -1);
+        Verificar.igual(MINIMO.subtract(BigInteger.ONE), importe.total(), "Long.MIN_VALUE - 1");
+        Verificar.verdadero(importe.excedeLong(), "Excede hacia abajo");
+        Verificar.igual(Long.MIN_VALUE, importe.enLong(), "Saturado en Long.MIN_VALUE");
+        Verificar.igual("-92233720368547758.09", importe.toString(), "Texto de Long.MIN_VALUE - 1");
+    }
+
+    // El producto cantidad × precio también puede desbordarse por sí solo
+    static void pruebaProductoQueDesborda() {
+        ImporteCentavos importe = new ImporteCentavos();
+        importe.sumarProducto(Integer.MAX_VALUE, Long.MAX_VALUE);
+        importe.sumarProducto(3, 7);
+        BigInteger esperado = BigInteger.valueOf(Integer.MAX_VALUE).multiply(MAXIMO).add(BigInteger.valueOf(21));
+        Verificar.igual(esperado, importe.total(), "Producto desbordado");
+        Verificar.verdadero(importe.excedeLong(), "El producto excede un long");
+
+        // Sumar importes y BigInteger mantiene la exactitud
+        ImporteCentavos otro = new ImporteCentavos();
+        otro.sumar(importe);
+        otro.sumar(esperado.negate());
+        otro.sumar(BigInteger.valueOf(5));
+        Verificar.igual(BigInteger.valueOf(5), otro.total(), "Suma de importes y BigInteger");
+        Verificar.verdadero(!otro.excedeLong(), "El resultado cabe en un long");
+    }
+
+    // Precios a centavos con redondeo a la mitad hacia afuera; si no caben en un long es un error
+    static void pruebaPreciosACentavos() {
+        Verificar.igual(250000L, ImporteCentavos.aCentavos(new BigDecimal("2500")), "Precio entero");
+        Verificar.igual(320050L, ImporteCentavos.aCentavos(new BigDecimal("3200.50")), "Precio con centavos");
+        Verificar.igual(101L, ImporteCentavos.aCentavos(new BigDecimal("1.005")), "Redondeo hacia arriba");
+        Verificar.igual(-101L, ImporteCentavos.aCentavos(new BigDecimal("-1.005")), "Redondeo de negativos");
+        Verificar.igual(Long.MAX_VALUE, ImporteCentavos.aCentavos(new BigDecimal("92233720368547758.07")), "Precio máximo");
+        try {
+            ImporteCentavos.aCentavos(new BigDecimal("92233720368547758.08"));
+            throw new AssertionError("Un precio que no cabe en un long debería fallar");
+        } catch (ArithmeticException esperada) {
+            // Es lo que espera el catálogo para marcar el precio como inválido
+        }
+    }
+
+    // SalidaCsv.importe escribe lo mismo que comoTexto para long y BigInteger, incluidos los extremos
+    static void pruebaFormatoDeImportes() throws Exception {
+        long[] valores = {0, 5, 100, 150000, 150025, 150020, -5, -150000, -150025, Long.MAX_VALUE, Long.MIN_VALUE,
+            Long.MAX_VALUE - 99, Long.MIN_VALUE + 1};
+        String[] esperados = {"0", "0.05", "1", "1500", "1500.25", "1500.20", "-0.05", "-1500", "-1500.25",
+            "92233720368547758.07", "-92233720368547758.08", "92233720368547757.08", "-92233720368547758.07"};
+        BigInteger[] grandes = {MAXIMO.add(BigInteger.ONE), MAXIMO.multiply(BigInteger.valueOf(100)),
+            MINIMO.subtract(BigInteger.valueOf(92))};
+        String[] esperadosGrandes = {"92233720368547758.08", "9223372036854775807", "-92233720368547759"};
+
+        File archivo = new File(Verificar.directorioTemporal(), "importes.csv");
+        try (SalidaCsv salida = new SalidaCsv(archivo)) {
+            for (long valor : valores) {
+                salida.importe(valor).finDeLinea();
+            }
+            for (BigInteger valor : grandes) {
+                salida.importe(valor).finDeLinea();
+            }
+        }
+        List<String> lineas = Files.readAllLines(archivo.toPath(), StandardCharsets.UTF_8);
+        for (int i = 0; i < valores.length; i++) {
+            Verificar.igual(esperados[i], lineas.get(i), "importe(" + valores[i] + ")");
+            Verificar.igual(esperados[i], ImporteCentavos.comoTexto(BigInteger.valueOf(valores[i])), "comoTexto(" + valores[i] + ")");
+        }
+        for (int i = 0; i < grandes.length; i++) {
+            Verificar.igual(esperadosGrandes[i], lineas.get(valores.length + i), "importe(" + grandes[i] + ")");
+        }
+    }
+
+    // TotalesPorVendedor guarda el valor saturado para ordenar y el exacto aparte, hasta que se reemplaza
+    static void pruebaTotalesDesbordados() {
+        TotalesPorVendedor totales = new TotalesPorVendedor(2);
+        totales.asignar(10, importe(5));
+        totales.asignar(11, importe(Long.MAX_VALUE, Long.MAX_VALUE));
+        totales.asignar(12, importe(Long.MIN_VALUE, -3));
+        for (long documento = 13; documento < 100; documento++) {
+            totales.asignar(documento, documento);
+        }
+
+        int normal = totales.posicion(10);
+        int arriba = totales.posicion(11);
+        int abajo = totales.posicion(12);
+        Verificar.igual(null, totales.totalDesbordado(normal), "Total que cabe en un long");
+        Verificar.igual(Long.MAX_VALUE, totales.total(arriba), "Total saturado hacia arriba");
+        Verificar.igual(MAXIMO.multiply(BigInteger.TWO), totales.totalDesbordado(arriba), "Total exacto hacia arriba");
+        Verificar.igual(Long.MIN_VALUE, totales.total(abajo), "Total saturado hacia abajo");
+        Verificar.igual(MINIMO.subtract(BigInteger.valueOf(3)), totales.totalDesbordado(abajo), "Total exacto hacia abajo");
+
+        // Después de crecer la tabla las posiciones y los desbordes siguen iguales
+        Verificar.igual(arriba, totales.posicion(11), "Posición estable");
+
+        // Reemplazar por un total que cabe borra el desborde
+        totales.asignar(11, 7);
+        Verificar.igual(null, totales.totalDesbordado(arriba), "Desborde reemplazado");
+        Verificar.igual(7L, totales.total(arriba), "Total reemplazado");
+    }
+
+    // Un vendedor cuyo total pasa de Long.MAX_VALUE: 2 × Long.MAX_VALUE + 1 centavos = 2^64 - 1
+    private static File datosDesbordados() throws Exception {
+        File datos = Verificar.directorioTemporal();
+        Verificar.escribir(datos, "productos.txt", "101;Caro;92233720368547758.07\n102;Centavo;0.01\n103;Barato;1500.25\n");
+        Verificar.escribir(datos, "vendedores.txt", "CC;1;Ana;Uno\nCC;2;Beto;Dos\nCC;3;Caro;Tres\n");
+        Verificar.escribir(datos, "ventas_1.txt", "CC;1\n101;1;\n101;1;\n102;1;\n");
+        Verificar.escribir(datos, "ventas_2.txt", "CC;2\n103;2;\n");
+        return datos;
+    }
+
+    // El reporte trae el total exacto en secuencial, con hilos, desde el checkpoint y combinando particiones
+    static void pruebaReporteConTotalDesbordado() throws Exception {
+        File datos = datosDesbordados();
+        File secuencial = DatosPrueba.ejecutar(datos);
+        Verificar.igual(List.of("Vendedor;Total_Ventas", "Ana Uno;184467440737095516.15", "Beto Dos;3000.50", "Caro Tres;0"),
+            Files.readAllLines(new File(secuencial, "reporte_vendedores.csv").toPath(), StandardCharsets.UTF_8),
+            "Reporte de vendedores");
+
+        DatosPrueba.mismosReportes(secuencial, DatosPrueba.ejecutar(datos, "--hilos=2"));
+
+        // La segunda ejecución incremental toma los totales del checkpoint
+        File incremental = Verificar.directorioTemporal();
+        DatosPrueba.ejecutarEn(incremental, datos, "--incremental");
+        DatosPrueba.ejecutarEn(incremental, datos, "--incremental");
+        DatosPrueba.mismosReportes(secuencial, incremental);
+
+        // ResultadoParticion.guardar escribe el total exacto y combinar lo vuelve a leer
+        for (int particiones = 1; particiones <= 2; particiones++) {
+            File trabajo = Verificar.directorioTemporal();
+            StringBuilder parciales = new StringBuilder();
+            for (int i = 0; i < particiones; i++) {
+                String parcial = "parcial_" + i + ResultadoParticion.EXTENSION;
+                DatosPrueba.ejecutarEn(trabajo, datos, "--particion=" + i + "/" + particiones, "--parcial=" + parcial);
+                parciales.append(i == 0 ? "" : ",").append(parcial);
+            }
+            DatosPrueba.ejecutarEn(trabajo, datos, "--combinar=" + parciales);
+            DatosPrueba.mismosReportes(secuencial, trabajo);
+        }
+    }
+}
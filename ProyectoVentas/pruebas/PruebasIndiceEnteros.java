@@ -0,0 +1,67 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Índice de direccionamiento abierto del catálogo: crecimiento, claves repetidas y la clave que marca casillas libres
+public class PruebasIndiceEnteros {
+
+    // IDs consecutivos como los de productos.txt; la tabla crece varias veces sin perder ninguno
+    static void pruebaAgregaYBuscaAlCrecer() {
+        IndiceEnteros indice = new IndiceEnteros(4);
+        for (int i = 0; i < 10_000; i++) {
+            Verificar.verdadero(indice.agregarSiAusente(100 + i, i), "Se agrega el ID " + (100 + i));
+        }
+        Verificar.igual(10_000, indice.tamano(), "Tamaño");
+        for (int i = 0; i < 10_000; i++) {
+            Verificar.igual(i, indice.obtener(100 + i), "Posición del ID " + (100 + i));
+        }
+        Verificar.igual(-1, indice.obtener(99), "ID ausente");
+        Verificar.igual(-1, indice.obtener(10_100), "ID ausente");
+    }
+
+    // Una clave repetida conserva su primer valor, como la primera aparición en productos.txt
+    static void pruebaNoReemplazaClaveRepetida() {
+        IndiceEnteros indice = new IndiceEnteros(8);
+        Verificar.verdadero(indice.agregarSiAusente(7, 1), "Primera vez");
+        Verificar.verdadero(!indice.agregarSiAusente(7, 2), "Segunda vez");
+        Verificar.igual(1, indice.obtener(7), "Valor de la clave repetida");
+        Verificar.igual(1, indice.tamano(), "Tamaño");
+    }
+
+    // Integer.MIN_VALUE es el marcador de casilla libre pero también un ID válido
+    static void pruebaClaveMinima() {
+        IndiceEnteros indice = new IndiceEnteros(4);
+        Verificar.igual(-1, indice.obtener(Integer.MIN_VALUE), "Antes de agregarla");
+        Verificar.verdadero(indice.agregarSiAusente(Integer.MIN_VALUE, 5), "Se agrega");
+        Verificar.verdadero(!indice.agregarSiAusente(Integer.MIN_VALUE, 6), "No se agrega dos veces");
+        for (int i = 0; i < 100; i++) {
+            indice.agregarSiAusente(i, i);
+        }
+        Verificar.igual(5, indice.obtener(Integer.MIN_VALUE), "Después de crecer");
+        Verificar.igual(101, indice.tamano(), "Tamaño con la clave mínima");
+        Verificar.igual(0, indice.obtener(0), "Clave cero");
+    }
+
+    // Claves negativas, extremas y múltiplos del tamaño de la tabla (chocan en la misma casilla sin mezclar)
+    static void pruebaIgualQueHashMap() {
+        IndiceEnteros indice = new IndiceEnteros(16);
+        Map<Integer, Integer> esperado = new HashMap<>();
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        for (int i = 0; i < 20_000; i++) {
+            int clave;
+            switch (i % 4) {
+                case 0: clave = aleatorio.nextInt(); break;
+                case 1: clave = -aleatorio.nextInt(1000); break;
+                case 2: clave = (i / 4) * 1024; break;
+                default: clave = Integer.MAX_VALUE - aleatorio.nextInt(10); break;
+            }
+            boolean agregada = indice.agregarSiAusente(clave, i);
+            Verificar.igual(!esperado.containsKey(clave), agregada, "Agregar " + clave);
+            esperado.putIfAbsent(clave, i);
+        }
+        Verificar.igual(esperado.size(), indice.tamano(), "Tamaño");
+        for (Map.Entry<Integer, Integer> entrada : esperado.entrySet()) {
+            Verificar.igual((long) entrada.getValue(), indice.obtener(entrada.getKey()), "Valor de " + entrada.getKey());
+        }
+    }
+}
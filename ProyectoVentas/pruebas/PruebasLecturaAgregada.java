@@ -0,0 +1,69 @@
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+// Seguimiento de archivos que crecen (--vigilar): una línea a medio escribir no se toma hasta que se completa
+public class PruebasLecturaAgregada {
+
+    private static final String CONTENIDO = "CC;123\r\n100;2;\n101;1;\r\nabc;1;\n100;3;\r\n\n101;4;\n";
+
+    static void pruebaLectorSinLineasIncompletas() throws Exception {
+        byte[] datos = "100;2;\n101;1".getBytes(StandardCharsets.UTF_8);
+        try (LectorLineas lector = new LectorLineas(new ByteArrayInputStream(datos), new byte[16])) {
+            lector.setSoloLineasCompletas(true);
+            Verificar.verdadero(lector.siguienteLinea(), "La línea completa se entrega");
+            Verificar.igual("100;2;", lector.lineaComoTexto(), "Línea completa");
+            Verificar.verdadero(!lector.siguienteLinea(), "La línea sin salto no se entrega");
+            Verificar.igual(7L, lector.posicionArchivo(), "Se sigue desde el inicio de la línea incompleta");
+        }
+
+        // Un \r al final puede ser la mitad de un \r\n: se espera al siguiente byte
+        byte[] conRetorno = "100;2;\r".getBytes(StandardCharsets.UTF_8);
+        try (LectorLineas lector = new LectorLineas(new ByteArrayInputStream(conRetorno), new byte[16])) {
+            lector.setSoloLineasCompletas(true);
+            Verificar.verdadero(!lector.siguienteLinea(), "La línea que termina en \\r todavía no se entrega");
+            Verificar.igual(0L, lector.posicionArchivo(), "Posición antes de la línea");
+        }
+    }
+
+    // El archivo se escribe en dos partes cortadas en cada byte posible; el total es el de leerlo de una vez
+    static void pruebaCorteEnCualquierByte() throws Exception {
+        File directorio = Verificar.directorioTemporal();
+        CatalogoProductos catalogo = CatalogoProductos.obtener(
+            Verificar.escribir(directorio, "productos.txt", "100;A;10\n101;B;2.5\n").getPath());
+        File ventas = new File(directorio, "ventas_123.txt");
+        byte[] bytes = CONTENIDO.getBytes(StandardCharsets.UTF_8);
+
+        Files.write(ventas.toPath(), bytes);
+        ParcialArchivo esperado = new ParcialArchivo();
+        Verificar.igual((long) bytes.length, new AgregadorVentas(catalogo).procesarAgregado(ventas, 0, esperado),
+            "Posición final");
+        Verificar.igual(6, esperado.lineas, "Líneas leídas después del encabezado, con la vacía");
+        Verificar.igual(2, esperado.errores, "Líneas con error: la de texto y la vacía");
+
+        for (int corte = 0; corte <= bytes.length; corte++) {
+            AgregadorVentas agregador = new AgregadorVentas(catalogo);
+            ParcialArchivo parcial = new ParcialArchivo();
+            Files.write(ventas.toPath(), Arrays.copyOf(bytes, corte));
+            long posicion = agregador.procesarAgregado(ventas, 0, parcial);
+            Verificar.verdadero(posicion <= corte, "No se pasa de lo escrito");
+            Files.write(ventas.toPath(), bytes);
+            long fin = agregador.procesarAgregado(ventas, posicion, parcial);
+
+            String caso = "Corte en el byte " + corte;
+            Verificar.igual((long) bytes.length, fin, caso + ": posición final");
+            Verificar.verdadero(parcial.encabezadoValido, caso + ": encabezado");
+            Verificar.igual(esperado.lineas, parcial.lineas, caso + ": líneas");
+            Verificar.igual(esperado.errores, parcial.errores, caso + ": errores");
+            Verificar.igual(esperado.total.total(), parcial.total.total(), caso + ": total");
+            Verificar.igual(esperado.productos.tamano(), parcial.productos.tamano(), caso + ": productos");
+            for (int i = 0; i < esperado.productos.tamano(); i++) {
+                Verificar.igual(esperado.productos.id(i), parcial.productos.id(i), caso + ": producto " + i);
+                Verificar.igual(esperado.productos.unidades(i), parcial.productos.unidades(i),
+                    caso + ": unidades de " + esperado.productos.id(i));
+            }
+        }
+    }
+}
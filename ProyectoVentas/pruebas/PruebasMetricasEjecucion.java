@@ -0,0 +1,150 @@
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Métricas exportadas con --metricas: contadores de archivos y líneas, rechazos por motivo, en JSON y en formato Prometheus
+public class PruebasMetricasEjecucion {
+
+    private static final String[] MOTIVOS = {"linea_vacia", "formato_invalido", "numero_invalido", "fecha_invalida",
+        "cantidad_no_positiva", "producto_desconocido", "precio_invalido", "descartada_al_convertir"};
+    private static final String[] ETAPAS = {"descubrimiento", "catalogo", "agregacion", "reportes"};
+
+    // ventas_1.txt tiene una línea rechazada por cada motivo del texto y cantidad_no_positiva dos veces contando ventas_2.txt
+    // ventas_3 está en columnar y perdió una línea al convertirse
+    private static File datosConErrores() throws Exception {
+        File datos = Verificar.directorioTemporal();
+        Verificar.escribir(datos, "productos.txt", "101;Arroz;2500\n102;Leche;3200.50\n103;SinPrecio\n");
+        Verificar.escribir(datos, "vendedores.txt", "CC;1;Ana;Uno\nCC;2;Beto;Dos\nCC;3;Caro;Tres\n");
+        Verificar.escribir(datos, "ventas_1.txt",
+            "CC;1\n101;2;\nabc;2;\n101;-1;\n999;1;\n103;4;\n101\n\n101;1;2024-02-30;T1\n102;3;\n");
+        Verificar.escribir(datos, "ventas_2.txt", "CC;2\n101;1;\n101;0;\n");
+        File texto = Verificar.escribir(datos, "ventas_3.txt", "CC;3\n102;2;\nx;1;\n101;1;\n");
+        Verificar.verdadero(ConvertidorVentas.convertir(texto, new File(datos, "ventas_3" + ArchivoColumnar.EXTENSION), false, 16),
+            "No se convirtió ventas_3.txt");
+        return datos;
+    }
+
+    // Rechazos esperados por motivo, en el orden de MOTIVOS
+    private static final long[] RECHAZOS = {1, 1, 1, 1, 2, 1, 1, 1};
+
+    private static long numero(Object valor) {
+        return ((BigDecimal) valor).longValueExact();
+    }
+
+    // Ejecuta Main exportando a nombre y devuelve el contenido del archivo
+    private static String exportar(File trabajo, File datos, String nombre, String... opciones) throws Exception {
+        String[] todas = new String[opciones.length + 1];
+        todas[0] = "--metricas=" + nombre;
+        System.arraycopy(opciones, 0, todas, 1, opciones.length);
+        DatosPrueba.ejecutarEn(trabajo, datos, todas);
+        Verificar.verdadero(DatosPrueba.salida(trabajo).contains("exportadas: " + nombre), "Falta el aviso de la exportación");
+        Verificar.verdadero(!new File(trabajo, nombre + ".tmp").exists(), "Quedó el temporal de la exportación");
+        return Files.readString(new File(trabajo, nombre).toPath(), StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> objeto(Map<String, Object> json, String campo) {
+        return (Map<String, Object>) json.get(campo);
+    }
+
+    // El JSON se interpreta completo y los contadores son los de los datos conocidos
+    static void pruebaJsonConRechazosPorMotivo() throws Exception {
+        File datos = datosConErrores();
+        File trabajo = Verificar.directorioTemporal();
+        Map<String, Object> json = Json.objeto(exportar(trabajo, datos, "metricas.json"));
+
+        Verificar.igual(3L, numero(json.get("archivos")), "Archivos");
+        Verificar.igual(0L, numero(json.get("archivos_reutilizados")), "Archivos reutilizados");
+        Verificar.igual(0L, numero(json.get("archivos_omitidos")), "Archivos omitidos");
+        Verificar.igual(14L, numero(json.get("lineas")), "Líneas leídas sin los encabezados");
+        Verificar.igual(9L, numero(json.get("lineas_rechazadas")), "Líneas rechazadas");
+        Map<String, Object> rechazos = objeto(json, "rechazos");
+        Verificar.igual(List.of(MOTIVOS), List.copyOf(rechazos.keySet()), "Motivos exportados");
+        for (int i = 0; i < MOTIVOS.length; i++) {
+            Verificar.igual(RECHAZOS[i], numero(rechazos.get(MOTIVOS[i])), "Rechazos por " + MOTIVOS[i]);
+        }
+        Verificar.igual(List.of(ETAPAS), List.copyOf(objeto(json, "etapas_segundos").keySet()), "Etapas exportadas");
+        for (String campo : new String[] {"segundos", "lineas_por_segundo", "megabytes_por_segundo", "bytes"}) {
+            Verificar.verdadero(((BigDecimal) json.get(campo)).signum() >= 0, "Valor negativo en " + campo);
+        }
+        Verificar.igual(0L, numero(json.get("mensajes_omitidos")), "Mensajes omitidos sin límite");
+    }
+
+    // Cada línea es un comentario HELP/TYPE o una muestra de una métrica declarada antes; los valores coinciden con el JSON
+    static void pruebaPrometheusIgualQueJson() throws Exception {
+        File datos = datosConErrores();
+        File trabajo = Verificar.directorioTemporal();
+        Map<String, Object> json = Json.objeto(exportar(trabajo, datos, "metricas.json"));
+        Map<String, String> muestras = prometheus(exportar(trabajo, datos, "ventas.prom"));
+
+        Verificar.igual(json.get("archivos").toString(), muestras.get("ventas_archivos_total"), "Archivos");
+        Verificar.igual(json.get("lineas").toString(), muestras.get("ventas_lineas_total"), "Líneas");
+        Verificar.igual(json.get("bytes").toString(), muestras.get("ventas_bytes_total"), "Bytes");
+        Verificar.igual("0", muestras.get("ventas_archivos_omitidos_total"), "Archivos omitidos");
+        for (int i = 0; i < MOTIVOS.length; i++) {
+            Verificar.igual(Long.toString(RECHAZOS[i]),
+                muestras.get("ventas_lineas_rechazadas_total{motivo=\"" + MOTIVOS[i] + "\"}"), "Rechazos por " + MOTIVOS[i]);
+        }
+        for (String etapa : ETAPAS) {
+            Verificar.verdadero(muestras.containsKey("ventas_etapa_segundos{etapa=\"" + etapa + "\"}"), "Falta la etapa " + etapa);
+        }
+    }
+
+    // Archivos omitidos por el umbral y reutilizados del checkpoint también se cuentan
+    // ventas_1.txt se deja de leer en su cuarto error (línea 5) y, como un omitido no se guarda, se vuelve a leer
+    static void pruebaOmitidosYReutilizados() throws Exception {
+        File datos = datosConErrores();
+        File trabajo = Verificar.directorioTemporal();
+        String[] opciones = {"--max-errores-archivo=3", "--si-excede-errores=omitir", "--incremental"};
+        Map<String, Object> json = Json.objeto(exportar(trabajo, datos, "metricas.json", opciones));
+        Verificar.igual(3L, numero(json.get("archivos")), "Archivos en la primera ejecución");
+        Verificar.igual(1L, numero(json.get("archivos_omitidos")), "ventas_1.txt omitido");
+        Verificar.igual(0L, numero(json.get("archivos_reutilizados")), "Primera ejecución incremental");
+        Verificar.igual(10L, numero(json.get("lineas")), "Líneas hasta omitir ventas_1.txt");
+        Verificar.igual(6L, numero(json.get("lineas_rechazadas")), "Rechazos hasta omitir ventas_1.txt");
+
+        json = Json.objeto(exportar(trabajo, datos, "metricas.json", opciones));
+        Verificar.igual(2L, numero(json.get("archivos_reutilizados")), "Segunda ejecución incremental");
+        Verificar.igual(1L, numero(json.get("archivos")), "Solo se vuelve a leer el omitido");
+        Verificar.igual(1L, numero(json.get("archivos_omitidos")), "ventas_1.txt omitido otra vez");
+        Verificar.igual(5L, numero(json.get("lineas")), "Líneas leídas de ventas_1.txt");
+        Verificar.igual(4L, numero(json.get("lineas_rechazadas")), "Rechazos de ventas_1.txt");
+    }
+
+    private static final Pattern COMENTARIO = Pattern.compile("# (HELP|TYPE) ([a-z_]+) (.+)");
+    private static final Pattern MUESTRA = Pattern.compile("([a-z_]+)(\\{[a-z]+=\"[a-z_]+\"\\})? (-?[0-9]+(\\.[0-9]+)?)");
+
+    // Lee el formato de texto de Prometheus y devuelve el valor de cada muestra por nombre con sus etiquetas
+    private static Map<String, String> prometheus(String texto) {
+        Verificar.verdadero(texto.endsWith("\n"), "El formato de Prometheus termina con un salto de línea");
+        Map<String, String> tipos = new HashMap<>();
+        Map<String, String> muestras = new LinkedHashMap<>();
+        for (String linea : texto.split("\n")) {
+            Matcher comentario = COMENTARIO.matcher(linea);
+            Matcher muestra = MUESTRA.matcher(linea);
+            if (comentario.matches()) {
+                if (comentario.group(1).equals("TYPE")) {
+                    Verificar.verdadero(comentario.group(3).equals("counter") || comentario.group(3).equals("gauge"),
+                        "Tipo desconocido: " + linea);
+                    Verificar.verdadero(tipos.put(comentario.group(2), comentario.group(3)) == null, "TYPE repetido: " + linea);
+                }
+            } else if (muestra.matches()) {
+                String tipo = tipos.get(muestra.group(1));
+                Verificar.verdadero(tipo != null, "Muestra sin TYPE: " + linea);
+                Verificar.verdadero(tipo.equals("gauge") || muestra.group(4) == null, "Contador con decimales: " + linea);
+                String clave = muestra.group(1) + (muestra.group(2) == null ? "" : muestra.group(2));
+                Verificar.verdadero(muestras.put(clave, muestra.group(3)) == null, "Muestra repetida: " + linea);
+            } else {
+                throw new AssertionError("Línea inválida en el formato de Prometheus: " + linea);
+            }
+        }
+        return muestras;
+    }
+}
@@ -0,0 +1,59 @@
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+// Los totales van por documento del vendedor e ID del producto: dos con el mismo nombre son dos filas del reporte
+public class PruebasNombresRepetidos {
+
+    private static final List<String> VENDEDORES = List.of(
+        "Vendedor;Total_Ventas", "Omar Medina;5000", "Omar Medina;4200.50", "Ana Uno;3000", "Omar Medina;0");
+    private static final List<String> PRODUCTOS = List.of(
+        "Producto;Precio_Unitario;Cantidad_Vendida", "Arroz;1000;4", "Arroz;2500;2", "Leche;3200.50;1");
+
+    // Tres "Omar Medina" con documentos distintos (el 13 sin ventas) y dos "Arroz" con IDs y precios distintos
+    private static File datosConNombresRepetidos() throws Exception {
+        File datos = Verificar.directorioTemporal();
+        Verificar.escribir(datos, "productos.txt", "101;Arroz;2500\n102;Arroz;1000\n103;Leche;3200.50\n");
+        Verificar.escribir(datos, "vendedores.txt", "CC;10;Omar;Medina\nCC;11;Omar;Medina\nCC;12;Ana;Uno\nCC;13;Omar;Medina\n");
+        Verificar.escribir(datos, "ventas_10.txt", "CC;10\n101;2;\n");
+        Verificar.escribir(datos, "ventas_11.txt", "CC;11\n103;1;\n102;1;\n");
+        Verificar.escribir(datos, "ventas_12.txt", "CC;12\n102;3;\n");
+        return datos;
+    }
+
+    private static List<String> leer(File trabajo, String nombre) throws Exception {
+        return Files.readAllLines(new File(trabajo, nombre).toPath(), StandardCharsets.UTF_8);
+    }
+
+    // Cada documento conserva su propio total y cada ID sus unidades, aunque el nombre se repita
+    static void pruebaUnaFilaPorDocumento() throws Exception {
+        File trabajo = DatosPrueba.ejecutar(datosConNombresRepetidos());
+        Verificar.igual(VENDEDORES, leer(trabajo, "reporte_vendedores.csv"), "Reporte de vendedores");
+        Verificar.igual(PRODUCTOS, leer(trabajo, "reporte_productos.csv"), "Reporte de productos");
+    }
+
+    // Lo mismo con hilos, por tandas en memoria acotada, desde el checkpoint, combinando particiones y con --top
+    static void pruebaModosConNombresRepetidos() throws Exception {
+        File datos = datosConNombresRepetidos();
+        File secuencial = DatosPrueba.ejecutar(datos);
+        DatosPrueba.mismosReportes(secuencial, DatosPrueba.ejecutar(datos, "--hilos=2"));
+        DatosPrueba.mismosReportes(secuencial, DatosPrueba.ejecutar(datos, "--memoria-mb=1"));
+
+        File incremental = Verificar.directorioTemporal();
+        DatosPrueba.ejecutarEn(incremental, datos, "--incremental");
+        DatosPrueba.ejecutarEn(incremental, datos, "--incremental");
+        DatosPrueba.mismosReportes(secuencial, incremental);
+
+        File particiones = Verificar.directorioTemporal();
+        DatosPrueba.ejecutarEn(particiones, datos, "--particion=0/2", "--parcial=p0" + ResultadoParticion.EXTENSION);
+        DatosPrueba.ejecutarEn(particiones, datos, "--particion=1/2", "--parcial=p1" + ResultadoParticion.EXTENSION);
+        DatosPrueba.ejecutarEn(particiones, datos,
+            "--combinar=p0" + ResultadoParticion.EXTENSION + ",p1" + ResultadoParticion.EXTENSION);
+        DatosPrueba.mismosReportes(secuencial, particiones);
+
+        File top = DatosPrueba.ejecutar(datos, "--top=2");
+        Verificar.igual(VENDEDORES.subList(0, 3), leer(top, "reporte_vendedores.csv"), "Top 2 de vendedores");
+        Verificar.igual(PRODUCTOS.subList(0, 3), leer(top, "reporte_productos.csv"), "Top 2 de productos");
+    }
+}
@@ -0,0 +1,122 @@
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// El parser de bytes y el lector de líneas dan lo mismo que readLine + split(";") + Integer.parseInt
+// salvo en el tercer campo, que ahora se valida como fecha
+public class PruebasParserLineaVenta {
+
+    // La interpretación anterior, campo por campo con Strings
+    private static String conSplit(String linea) {
+        if (linea.trim().isEmpty()) {
+            return "vacía";
+        }
+        String[] campos = linea.split(";");
+        if (campos.length < 2) {
+            return "formato";
+        }
+        try {
+            return Integer.parseInt(campos[0]) + ";" + Integer.parseInt(campos[1]);
+        } catch (NumberFormatException e) {
+            return "número";
+        }
+    }
+
+    private static String conParser(ParserLineaVenta parser, byte[] datos, int inicio, int fin) {
+        switch (parser.interpretar(datos, inicio, fin)) {
+            case ParserLineaVenta.LINEA_VACIA: return "vacía";
+            case ParserLineaVenta.FORMATO_INVALIDO: return "formato";
+            case ParserLineaVenta.NUMERO_INVALIDO: return "número";
+            case ParserLineaVenta.LINEA_VALIDA: return parser.getIdProducto() + ";" + parser.getCantidad();
+            default: return "fecha";
+        }
+    }
+
+    static void pruebaCasosConocidos() {
+        String[] lineas = {
+            "101;3;", "101;3", "  ", "", "101", "101;", "104;;", ";5;", "+7;-2;", "-;1;", "1;+;",
+            "2147483647;1;", "2147483648;1;", "-2147483648;1;", "-2147483649;1;", " 101;3;", "101;3 ;",
+            "1a;2;", "0x1;2;", "101;3;;", "00042;0007;", "101;3;;;;"
+        };
+        ParserLineaVenta parser = new ParserLineaVenta();
+        for (String linea : lineas) {
+            byte[] datos = linea.getBytes(StandardCharsets.UTF_8);
+            Verificar.igual(conSplit(linea), conParser(parser, datos, 0, datos.length), "Línea \"" + linea + "\"");
+        }
+    }
+
+    // Un tercer campo no vacío tiene que ser una fecha: la versión anterior aceptaba "104;5;x" y ahora es FECHA_INVALIDA
+    // Vacío sigue siendo una línea sin fecha, aunque después venga la tienda
+    static void pruebaTercerCampoQueNoEsFecha() {
+        String[][] casos = {
+            {"104;5;x", "fecha"}, {"104;5;x;T1", "fecha"}, {"104;5; ", "fecha"}, {"104;5;2024", "fecha"},
+            {"104;5;2024-13-01", "fecha"}, {"104;5;;T1", "104;5"}, {"104;5;2024-02-29;T1", "104;5"},
+        };
+        ParserLineaVenta parser = new ParserLineaVenta();
+        for (String[] caso : casos) {
+            byte[] datos = caso[0].getBytes(StandardCharsets.UTF_8);
+            Verificar.igual(caso[1], conParser(parser, datos, 0, datos.length), "Línea \"" + caso[0] + "\"");
+        }
+        Verificar.igual("104;5", conSplit("104;5;x"), "La versión anterior ignoraba el tercer campo");
+    }
+
+    // Líneas al azar de pocos caracteres, donde están todos los casos borde; sin un tercer campo (sería la fecha)
+    static void pruebaLineasAlAzar() {
+        char[] alfabeto = {'0', '1', '9', '-', '+', ';', ';', ' ', '\t', 'a'};
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        ParserLineaVenta parser = new ParserLineaVenta();
+        int comparadas = 0;
+        for (int n = 0; n < 200_000; n++) {
+            StringBuilder linea = new StringBuilder();
+            int largo = aleatorio.nextInt(12);
+            for (int i = 0; i < largo; i++) {
+                linea.append(alfabeto[aleatorio.nextInt(alfabeto.length)]);
+            }
+            String texto = linea.toString();
+            if (texto.split(";").length > 2) {
+                continue;
+            }
+            // Con relleno alrededor, para comprobar que solo se miran los bytes [inicio, fin)
+            byte[] datos = ("9;9;" + texto + ";9").getBytes(StandardCharsets.UTF_8);
+            Verificar.igual(conSplit(texto), conParser(parser, datos, 4, datos.length - 2), "Línea \"" + texto + "\"");
+            comparadas++;
+        }
+        Verificar.verdadero(comparadas > 50_000, "Se compararon pocas líneas: " + comparadas);
+    }
+
+    // \n, \r\n y \r sueltos separan las mismas líneas que BufferedReader, también entre recargas del buffer
+    static void pruebaFinalesDeLineaComoReadLine() throws Exception {
+        StringBuilder texto = new StringBuilder("CC;123\r\n");
+        String[] finales = {"\n", "\r\n", "\r"};
+        for (int i = 0; i < 5000; i++) {
+            texto.append(100 + i % 7).append(';').append(i % 10).append(';').append(finales[i % 3]);
+            if (i % 50 == 0) {
+                texto.append(finales[(i / 50) % 3]);
+            }
+        }
+        texto.append("105;1");
+
+        List<String> esperadas = new ArrayList<>();
+        try (BufferedReader lector = new BufferedReader(new StringReader(texto.toString()))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                esperadas.add(conSplit(linea));
+            }
+        }
+
+        List<String> obtenidas = new ArrayList<>();
+        ParserLineaVenta parser = new ParserLineaVenta();
+        byte[] bytes = texto.toString().getBytes(StandardCharsets.UTF_8);
+        // Un buffer chico obliga a que muchas líneas y muchos \r\n queden partidos entre dos lecturas
+        try (LectorLineas lector = new LectorLineas(new ByteArrayInputStream(bytes), new byte[64])) {
+            while (lector.siguienteLinea()) {
+                obtenidas.add(conParser(parser, lector.datos(), lector.inicio(), lector.fin()));
+            }
+        }
+        Verificar.igual(esperadas, obtenidas, "Líneas interpretadas");
+    }
+}
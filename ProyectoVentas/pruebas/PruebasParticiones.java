@@ -0,0 +1,55 @@
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+// Procesar por particiones y combinar los parciales, o con hilos y lectura mapeada, da los reportes de la ejecución secuencial
+public class PruebasParticiones {
+
+    // Con 1, 2 y 3 particiones: cada una guarda su parcial en el mismo directorio y --combinar arma los reportes
+    static void pruebaParcialesCombinadosIgualQueSecuencial() throws Exception {
+        File datos = DatosPrueba.generar("--errores=0.01");
+        File secuencial = DatosPrueba.ejecutar(datos);
+
+        for (int particiones = 1; particiones <= 3; particiones++) {
+            File trabajo = Verificar.directorioTemporal();
+            List<String> parciales = new ArrayList<>();
+            for (int i = 0; i < particiones; i++) {
+                String parcial = "parcial_" + i + "_de_" + particiones + ResultadoParticion.EXTENSION;
+                DatosPrueba.ejecutarEn(trabajo, datos, "--particion=" + i + "/" + particiones, "--parcial=" + parcial);
+                Verificar.verdadero(new File(trabajo, parcial).isFile(), "No se guardó " + parcial);
+                parciales.add(parcial);
+            }
+            DatosPrueba.ejecutarEn(trabajo, datos, "--combinar=" + String.join(",", parciales));
+            DatosPrueba.mismosReportes(secuencial, trabajo);
+        }
+    }
+
+    // Las particiones se reparten todos los documentos y ninguna queda vacía con documentos seguidos
+    static void pruebaReparticionDeDocumentos() {
+        int particiones = 4;
+        int[] cuenta = new int[particiones];
+        for (long documento = 1_000_000_000L; documento < 1_000_010_000L; documento++) {
+            int particion = ResultadoParticion.particionDe(documento, particiones);
+            Verificar.verdadero(particion >= 0 && particion < particiones, "Partición fuera de rango: " + particion);
+            Verificar.igual(particion, ResultadoParticion.particionDe(documento, particiones), "Partición estable");
+            cuenta[particion]++;
+        }
+        for (int i = 0; i < particiones; i++) {
+            Verificar.verdadero(cuenta[i] > 2000, "La partición " + i + " recibió " + cuenta[i] + " de 10000 documentos");
+        }
+        Verificar.igual(0, ResultadoParticion.particionDe(1_000_000_123L, 1), "Una sola partición");
+    }
+
+    static void pruebaModosIgualQueSecuencial() throws Exception {
+        File datos = DatosPrueba.generar("--errores=0.01");
+        File secuencial = DatosPrueba.ejecutar(datos);
+        String[][] modos = {
+            {"--hilos=3"},
+            {"--lectura=mapeo", "--fragmento-mb=1"},
+            {"--hilos=3", "--lectura=mapeo", "--fragmento-mb=1"},
+        };
+        for (String[] modo : modos) {
+            DatosPrueba.mismosReportes(secuencial, DatosPrueba.ejecutar(datos, modo));
+        }
+    }
+}
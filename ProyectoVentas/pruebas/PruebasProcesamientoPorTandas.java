@@ -0,0 +1,50 @@
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Con memoria acotada los vendedores se procesan en varias tandas y los reportes son los de una sola pasada
+public class PruebasProcesamientoPorTandas {
+
+    // Con 1 MB entran unos mil archivos por tanda: con miles de vendedores hacen falta varias
+    private static File datosConVariasTandas() throws Exception {
+        File datos = DatosPrueba.generar("--vendedores=3000", "--ventas-min=1", "--ventas-max=20",
+            "--archivos-por-vendedor=2", "--errores=0.01");
+        // Un documento repetido con otro nombre, líneas incompletas y un vendedor sin archivos de ventas
+        File vendedores = new File(datos, "vendedores.txt");
+        String primera = Files.readAllLines(vendedores.toPath(), StandardCharsets.UTF_8).get(0);
+        String documento = primera.split(";")[1];
+        Files.write(vendedores.toPath(), List.of("CC;" + documento + ";Repetido;Otro", "CC;123", "", "CC;77;Sin;Ventas"),
+            StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        return datos;
+    }
+
+    private static int tandas(File trabajo) throws Exception {
+        Matcher tandas = Pattern.compile("(\\d+) tandas de vendedores").matcher(DatosPrueba.salida(trabajo));
+        Verificar.verdadero(tandas.find(), "La salida no informa las tandas:\n" + DatosPrueba.salida(trabajo));
+        return Integer.parseInt(tandas.group(1));
+    }
+
+    static void pruebaTandasIgualQueUnaPasada() throws Exception {
+        File datos = datosConVariasTandas();
+        File unaPasada = DatosPrueba.ejecutar(datos);
+
+        File secuencial = DatosPrueba.ejecutar(datos, "--memoria-mb=1");
+        Verificar.verdadero(tandas(secuencial) > 2, "Se esperaban varias tandas y hubo " + tandas(secuencial));
+        DatosPrueba.mismosReportes(unaPasada, secuencial);
+
+        File conHilos = DatosPrueba.ejecutar(datos, "--memoria-mb=1", "--hilos=3");
+        DatosPrueba.mismosReportes(unaPasada, conHilos);
+    }
+
+    // Con un presupuesto holgado hay una sola tanda y tampoco cambia nada
+    static void pruebaUnaTanda() throws Exception {
+        File datos = DatosPrueba.generar("--errores=0.01");
+        File trabajo = DatosPrueba.ejecutar(datos, "--memoria-mb=64");
+        Verificar.igual(1, tandas(trabajo), "Tandas");
+        DatosPrueba.mismosReportes(DatosPrueba.ejecutar(datos), trabajo);
+    }
+}
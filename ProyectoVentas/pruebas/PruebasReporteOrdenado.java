@@ -0,0 +1,87 @@
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Ranking de los reportes: con --top, en memoria o por tramos en disco, el orden es siempre el mismo
+// Mayor valor primero y, a igual valor, por nombre
+public class PruebasReporteOrdenado {
+
+    private static final class Fila {
+        final String clave;
+        final long valor;
+
+        Fila(String clave, long valor) {
+            this.clave = clave;
+            this.valor = valor;
+        }
+    }
+
+    // Pocos valores y pocos nombres, para que haya muchos empates; incluye los extremos de long
+    private static List<Fila> filasConEmpates(int cantidad, long semilla) {
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        long[] valores = {Long.MIN_VALUE, -5, 0, 7, 7, 100, Long.MAX_VALUE};
+        String[] nombres = {"Ana", "ana", "Ángel", "Beto", "Zoe", "Ana Sierra", "1000000001", ""};
+        List<Fila> filas = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            filas.add(new Fila(nombres[aleatorio.nextInt(nombres.length)], valores[aleatorio.nextInt(valores.length)]));
+        }
+        return filas;
+    }
+
+    private static List<String> esperado(List<Fila> filas, int top) {
+        List<Fila> ordenadas = new ArrayList<>(filas);
+        ordenadas.sort(Comparator.comparingLong((Fila fila) -> fila.valor).reversed().thenComparing(fila -> fila.clave));
+        List<String> lineas = new ArrayList<>();
+        lineas.add("Nombre;Valor");
+        for (int i = 0; i < ordenadas.size() && (top == 0 || i < top); i++) {
+            lineas.add(ordenadas.get(i).clave + ";" + ordenadas.get(i).valor);
+        }
+        return lineas;
+    }
+
+    private static List<String> generar(List<Fila> filas, int top, int maximoEnMemoria) throws Exception {
+        ReporteOrdenado ranking = new ReporteOrdenado(top, maximoEnMemoria);
+        for (int i = 0; i < filas.size(); i++) {
+            ranking.agregar(filas.get(i).clave, filas.get(i).valor, i);
+        }
+        Verificar.igual((long) filas.size(), ranking.getFilas(), "Filas agregadas");
+        File destino = new File(Verificar.directorioTemporal(), "reporte.csv");
+        ranking.escribir(destino, "Nombre;Valor",
+            (salida, clave, valor, dato) -> salida.texto(clave).caracter(';').texto(Long.toString(valor)));
+        return Files.readAllLines(destino.toPath(), StandardCharsets.UTF_8);
+    }
+
+    static void pruebaTopConEmpates() throws Exception {
+        List<Fila> filas = filasConEmpates(5000, 3);
+        for (int top : new int[] {1, 2, 7, 100, 4999, 5000, 6000}) {
+            Verificar.igual(esperado(filas, top), generar(filas, top, 1_000_000), "Top " + top);
+        }
+    }
+
+    static void pruebaCompletoEnMemoria() throws Exception {
+        List<Fila> filas = filasConEmpates(3000, 4);
+        Verificar.igual(esperado(filas, 0), generar(filas, 0, 1_000_000), "Reporte completo");
+    }
+
+    // Con tramos de 7 filas hay más de 128 tramos, así que además se juntan antes de la mezcla final
+    static void pruebaCompletoPorTramos() throws Exception {
+        List<Fila> filas = filasConEmpates(3000, 5);
+        for (int maximoEnMemoria : new int[] {1, 7, 1000, 2999}) {
+            Verificar.igual(esperado(filas, 0), generar(filas, 0, maximoEnMemoria), "Tramos de " + maximoEnMemoria);
+        }
+    }
+
+    // El orden del ranking no depende del orden en que llegan las filas
+    static void pruebaIndependienteDelOrdenDeLlegada() throws Exception {
+        List<Fila> filas = filasConEmpates(2000, 6);
+        List<Fila> alReves = new ArrayList<>(filas);
+        Collections.reverse(alReves);
+        Verificar.igual(generar(filas, 50, 1_000_000), generar(alReves, 50, 1_000_000), "Top con otro orden de llegada");
+        Verificar.igual(generar(filas, 0, 13), generar(alReves, 0, 13), "Tramos con otro orden de llegada");
+    }
+}
@@ -0,0 +1,178 @@
+import java.io.File;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// El servidor de consultas responde lo mismo que los reportes de una ejecución normal y rechaza lo que no entiende
+public class PruebasServidorConsultas {
+
+    private static final HttpClient CLIENTE = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private static final class Respuesta {
+        final int codigo;
+        final Map<String, Object> json;
+
+        Respuesta(int codigo, Map<String, Object> json) {
+            this.codigo = codigo;
+            this.json = json;
+        }
+    }
+
+    private static Respuesta consultar(int puerto, String metodo, String ruta) throws Exception {
+        HttpRequest pedido = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + puerto + ruta))
+            .timeout(Duration.ofSeconds(10)).method(metodo, HttpRequest.BodyPublishers.noBody()).build();
+        HttpResponse<String> respuesta = CLIENTE.send(pedido, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        Verificar.igual("application/json; charset=utf-8", respuesta.headers().firstValue("Content-Type").orElse(null),
+            "Tipo de la respuesta a " + ruta);
+        return new Respuesta(respuesta.statusCode(), Json.objeto(respuesta.body()));
+    }
+
+    private static Map<String, Object> consultar(int puerto, String ruta) throws Exception {
+        Respuesta respuesta = consultar(puerto, "GET", ruta);
+        Verificar.igual(200, respuesta.codigo, "Código de " + ruta + ": " + respuesta.json);
+        return respuesta.json;
+    }
+
+    private static void esperarError(int puerto, String metodo, String ruta, int codigo) throws Exception {
+        Respuesta respuesta = consultar(puerto, metodo, ruta);
+        Verificar.igual(codigo, respuesta.codigo, "Código de " + metodo + " " + ruta);
+        Verificar.verdadero(respuesta.json.get("error") instanceof String, "Falta el mensaje de error: " + respuesta.json);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> filas(Map<String, Object> json, String campo) {
+        return (List<Map<String, Object>>) json.get(campo);
+    }
+
+    // Número JSON con la escala con que se escribió: 14601.50 sigue siendo "14601.50"
+    private static String numero(Object valor) {
+        return ((BigDecimal) valor).toPlainString();
+    }
+
+    private static List<String> filasCsv(File trabajo, String nombre) throws Exception {
+        List<String> lineas = Files.readAllLines(new File(trabajo, nombre).toPath(), StandardCharsets.UTF_8);
+        return lineas.subList(1, lineas.size());
+    }
+
+    // Antes de la primera publicación las consultas de datos responden 503; las métricas ya están disponibles
+    static void pruebaAntesDeLaPrimeraCarga() throws Exception {
+        File datos = DatosPrueba.generar("--vendedores=5", "--errores=0.01");
+        ServidorConsultas servidor = new ServidorConsultas(0, new MetricasEjecucion(0));
+        try {
+            int puerto = servidor.getPuerto();
+            Verificar.verdadero(puerto > 0, "Puerto elegido por el sistema: " + puerto);
+            for (String ruta : new String[] {"/estado", "/vendedores", "/vendedores/1000000000", "/productos?n=3", "/productos/101"}) {
+                esperarError(puerto, "GET", ruta, 503);
+            }
+            Verificar.verdadero(consultar(puerto, "/metricas").containsKey("rechazos"), "Métricas antes de cargar");
+
+            // Se publica lo que arma una ejecución normal y las mismas rutas ya responden
+            CatalogoProductos catalogo = CatalogoProductos.obtener(new File(datos, "productos.txt").getPath());
+            AgregadorVentas agregador = new AgregadorVentas(catalogo);
+            File archivoVendedores = new File(datos, "vendedores.txt");
+            agregador.procesarVendedores(archivoVendedores, IndiceArchivosVentas.construir(datos));
+            List<String[]> vendedores = new ArrayList<>();
+            for (String linea : Files.readAllLines(archivoVendedores.toPath(), StandardCharsets.UTF_8)) {
+                vendedores.add(linea.split(";"));
+            }
+            servidor.publicar(agregador, vendedores, catalogo);
+
+            Map<String, Object> estado = consultar(puerto, "/estado");
+            Verificar.igual(new BigDecimal(5), estado.get("vendedores"), "Vendedores en /estado");
+            Verificar.igual(new BigDecimal(agregador.getLineasProcesadas()), estado.get("lineas"), "Líneas en /estado");
+            Verificar.igual(new BigDecimal(agregador.getLineasConError()), estado.get("lineas_con_error"), "Errores en /estado");
+            Verificar.igual(5, filas(consultar(puerto, "/vendedores"), "vendedores").size(), "Vendedores publicados");
+        } finally {
+            servidor.close();
+        }
+    }
+
+    // Modo vigilancia con --servidor=0 sobre datos generados: cada consulta coincide con los reportes de una ejecución normal
+    static void pruebaConsultasIgualQueReportes() throws Exception {
+        File datos = DatosPrueba.generar("--errores=0.01");
+        File normal = DatosPrueba.ejecutar(datos);
+        List<String> reporteVendedores = filasCsv(normal, "reporte_vendedores.csv");
+        List<String> reporteProductos = filasCsv(normal, "reporte_productos.csv");
+
+        File trabajo = Verificar.directorioTemporal();
+        Process vigilancia = DatosPrueba.iniciar(trabajo, datos, "--servidor=0");
+        try {
+            int puerto = esperarServidor(trabajo, vigilancia);
+
+            List<Map<String, Object>> vendedores = filas(consultar(puerto, "/vendedores?n=10000"), "vendedores");
+            List<String> comoCsv = new ArrayList<>();
+            for (int i = 0; i < vendedores.size(); i++) {
+                Map<String, Object> fila = vendedores.get(i);
+                Verificar.igual(new BigDecimal(i + 1), fila.get("puesto"), "Puesto");
+                comoCsv.add(fila.get("nombre") + ";" + numero(fila.get("total")));
+            }
+            Verificar.igual(reporteVendedores, comoCsv, "Vendedores del servidor y del reporte");
+
+            // Top por defecto, top chico y consulta de a uno
+            Verificar.igual(vendedores.subList(0, 10), filas(consultar(puerto, "/vendedores"), "vendedores"), "Top por defecto");
+            Verificar.igual(vendedores.subList(0, 3), filas(consultar(puerto, "/vendedores?n=3"), "vendedores"), "Top 3");
+            for (Map<String, Object> fila : vendedores) {
+                Verificar.igual(fila, consultar(puerto, "/vendedores/" + numero(fila.get("documento"))), "Vendedor por documento");
+            }
+
+            List<Map<String, Object>> productos = filas(consultar(puerto, "/productos?n=10000"), "productos");
+            comoCsv.clear();
+            for (Map<String, Object> fila : productos) {
+                comoCsv.add(fila.get("nombre") + ";" + numero(fila.get("precio")) + ";" + numero(fila.get("unidades")));
+                Verificar.igual(fila, consultar(puerto, "/productos/" + numero(fila.get("id"))), "Producto por ID");
+            }
+            Verificar.igual(reporteProductos, comoCsv, "Productos del servidor y del reporte");
+            Verificar.igual(productos.subList(0, 2), filas(consultar(puerto, "/productos?n=2"), "productos"), "Top 2");
+
+            Map<String, Object> estado = consultar(puerto, "/estado");
+            Verificar.igual(new BigDecimal(reporteVendedores.size()), estado.get("vendedores"), "Vendedores en /estado");
+            Verificar.igual(new BigDecimal(reporteProductos.size()), estado.get("productos"), "Productos en /estado");
+            Verificar.verdadero(consultar(puerto, "/metricas").containsKey("lineas"), "Métricas del modo vigilancia");
+
+            // Lo que no existe es 404; lo que no se entiende, 400; otro método, 405
+            esperarError(puerto, "GET", "/vendedores/999", 404);
+            esperarError(puerto, "GET", "/productos/99999", 404);
+            esperarError(puerto, "GET", "/desconocida", 404);
+            for (String ruta : new String[] {"/vendedores?n=0", "/vendedores?n=abc", "/vendedores?n=10001", "/productos?n=-1",
+                    "/vendedores/abc", "/vendedores/99999999999999999999", "/productos/1.5", "/productos/abc"}) {
+                esperarError(puerto, "GET", ruta, 400);
+            }
+            esperarError(puerto, "POST", "/vendedores", 405);
+        } finally {
+            vigilancia.destroy();
+            if (!vigilancia.waitFor(10, java.util.concurrent.TimeUnit.SECONDS)) {
+                vigilancia.destroyForcibly();
+            }
+        }
+    }
+
+    // Espera a que el modo vigilancia anuncie su puerto y termine la primera carga
+    private static int esperarServidor(File trabajo, Process vigilancia) throws Exception {
+        Pattern anuncio = Pattern.compile("Servidor de consultas en http://127\\.0\\.0\\.1:(\\d+)/");
+        long limite = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        int puerto = -1;
+        while (System.nanoTime() < limite) {
+            Verificar.verdadero(vigilancia.isAlive(), "El modo vigilancia terminó:\n" + DatosPrueba.salida(trabajo));
+            if (puerto < 0) {
+                Matcher encontrado = anuncio.matcher(DatosPrueba.salida(trabajo));
+                if (encontrado.find()) {
+                    puerto = Integer.parseInt(encontrado.group(1));
+                }
+            } else if (consultar(puerto, "GET", "/estado").codigo == 200) {
+                return puerto;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("El servidor no terminó la primera carga:\n" + DatosPrueba.salida(trabajo));
+    }
+}
@@ -0,0 +1,68 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+// Comprobaciones que usan las pruebas; cada una lanza AssertionError con lo esperado y lo obtenido
+public final class Verificar {
+
+    private Verificar() {
+    }
+
+    public static void igual(Object esperado, Object obtenido, String que) {
+        if (!Objects.equals(esperado, obtenido)) {
+            throw new AssertionError(que + ": se esperaba <" + esperado + "> y se obtuvo <" + obtenido + ">");
+        }
+    }
+
+    public static void igual(long esperado, long obtenido, String que) {
+        if (esperado != obtenido) {
+            throw new AssertionError(que + ": se esperaba <" + esperado + "> y se obtuvo <" + obtenido + ">");
+        }
+    }
+
+    public static void verdadero(boolean condicion, String que) {
+        if (!condicion) {
+            throw new AssertionError(que);
+        }
+    }
+
+    // Compara dos archivos byte a byte; si difieren muestra el texto de ambos
+    public static void mismoContenido(File esperado, File obtenido) throws IOException {
+        verdadero(obtenido.exists(), "No se generó " + obtenido);
+        byte[] bytesEsperados = Files.readAllBytes(esperado.toPath());
+        byte[] bytesObtenidos = Files.readAllBytes(obtenido.toPath());
+        if (!Arrays.equals(bytesEsperados, bytesObtenidos)) {
+            throw new AssertionError(obtenido + " no coincide con " + esperado + "\n--- esperado ---\n"
+                + new String(bytesEsperados, StandardCharsets.UTF_8) + "--- obtenido ---\n"
+                + new String(bytesObtenidos, StandardCharsets.UTF_8));
+        }
+    }
+
+    // Directorio vacío para una prueba; EjecutarPruebas lo borra al terminar
+    public static File directorioTemporal() throws IOException {
+        File directorio = Files.createTempDirectory("pruebas_ventas").toFile();
+        EjecutarPruebas.borrarAlTerminar(directorio);
+        return directorio;
+    }
+
+    public static File escribir(File directorio, String nombre, String contenido) throws IOException {
+        File archivo = new File(directorio, nombre);
+        Files.write(archivo.toPath(), contenido.getBytes(StandardCharsets.UTF_8));
+        return archivo;
+    }
+
+    static void borrar(File directorio) throws IOException {
+        if (!directorio.exists()) {
+            return;
+        }
+        try (Stream<Path> rutas = Files.walk(directorio.toPath())) {
+            rutas.sorted(Comparator.reverseOrder()).forEach(ruta -> ruta.toFile().delete());
+        }
+    }
+}
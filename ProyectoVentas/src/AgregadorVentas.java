@@ -0,0 +1,1097 @@
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Recorre una sola vez los archivos de ventas de todos los vendedores
+// En cada línea actualiza a la vez el total del vendedor, las unidades por producto y los errores
+public class AgregadorVentas {
+
+    // Cuántos vendedores por hilo pueden estar en proceso antes de esperar resultados
+    private static final int VENDEDORES_EN_VUELO_POR_HILO = 64;
+
+    // Líneas que tiene que haber leído un archivo antes de juzgarlo por su porcentaje de errores
+    // Así un archivo grande no se descarta por un par de errores en sus primeras líneas
+    private static final int MINIMO_LINEAS_PORCENTAJE = 1000;
+
+    private final CatalogoProductos catalogo;
+    private final ConfiguracionEjecucion configuracion;
+    private final MetricasEjecucion metricas;
+    private final int hilos;
+
+    // Resultados por archivo de la ejecución anterior (null = sin modo incremental)
+    private CheckpointVentas checkpoint;
+
+    // Hilos que procesan los fragmentos de archivos grandes mapeados (null = en el hilo actual)
+    private ExecutorService poolFragmentos;
+
+    // Hilos que descomprimen los archivos .gz grandes mientras se interpretan sus líneas (null = en el hilo actual)
+    // Se crea con el primer archivo comprimido grande, solo mientras corre procesarVendedores
+    private ExecutorService poolDescompresion;
+    private boolean descompresionHabilitada;
+
+    // Archivo de rechazos (null = las líneas rechazadas se avisan en la consola)
+    private CuarentenaVentas cuarentena;
+
+    // Umbrales de errores por archivo (0 = sin límite); hayUmbral evita revisarlos si no se configuró ninguno
+    private final int maximoErrores;
+    private final int maximoPorcentaje;
+    private final boolean hayUmbral;
+
+    // Totales por documento del vendedor y por ID de producto; los nombres se buscan al escribir los reportes
+    private TotalesPorVendedor ventasPorVendedor = new TotalesPorVendedor();
+    private final UnidadesPorProducto productosVendidos = new UnidadesPorProducto();
+
+    // Nombre de cada vendedor de ventasPorVendedor, por posición (null = no se guardan)
+    // Las tandas de --memoria-mb los usan para no volver a leer vendedores.txt al pasar sus filas al ranking
+    private List<String> nombresVendedores;
+
+    // Totales por día y tienda para --consolidados (null = no se desglosa y las líneas no pagan nada extra)
+    private final ConsolidadoVentas consolidado;
+
+    // Con --particion=i/N (o en cada tanda de --memoria-mb) solo se procesan los vendedores de la partición i de N
+    private int particion;
+    private int particiones;
+
+    private int archivosProcesados;
+    private int archivosOmitidos;
+    private long lineasProcesadas;
+    private long lineasConError;
+
+    public AgregadorVentas(CatalogoProductos catalogo) {
+        this(catalogo, new ConfiguracionEjecucion());
+    }
+
+    public AgregadorVentas(CatalogoProductos catalogo, ConfiguracionEjecucion configuracion) {
+        this(catalogo, configuracion, new MetricasEjecucion(configuracion.getMensajesPorSegundo()));
+    }
+
+    public AgregadorVentas(CatalogoProductos catalogo, ConfiguracionEjecucion configuracion, MetricasEjecucion metricas) {
+        this.catalogo = catalogo;
+        this.configuracion = configuracion;
+        this.metricas = metricas;
+        this.hilos = Math.max(1, configuracion.getHilos());
+        this.maximoErrores = configuracion.getMaximoErroresPorArchivo();
+        this.maximoPorcentaje = configuracion.getMaximoPorcentajeErrores();
+        this.hayUmbral = maximoErrores > 0 || maximoPorcentaje > 0;
+        this.consolidado = configuracion.getDirectorioConsolidados() != null ? new ConsolidadoVentas() : null;
+        this.particion = configuracion.getParticion();
+        this.particiones = configuracion.getParticiones();
+    }
+
+    // Lo que aporta un vendedor: su total, sus productos y sus contadores
+    // Cada hilo llena el suyo y luego se combinan en el orden de vendedores.txt
+    private static class ResultadoVendedor {
+        final long documento;
+        final String nombreCompleto; // Solo para los mensajes de consola
+        final List<String> archivos = new ArrayList<>();
+        final UnidadesPorProducto productos = new UnidadesPorProducto();
+        final ImporteCentavos totalVentas = new ImporteCentavos();
+        Map<Long, ConsolidadoVentas.CeldaArchivo> celdas;
+        int archivosProcesados;
+        int archivosOmitidos;
+        long lineasProcesadas;
+        long lineasConError;
+
+        ResultadoVendedor(long documento, String nombreCompleto) {
+            this.documento = documento;
+            this.nombreCompleto = nombreCompleto;
+        }
+
+        // Suma lo que aportó uno de sus archivos
+        // Un archivo omitido por el umbral de errores cuenta sus líneas y errores, pero no sus ventas
+        void aplicar(ParcialArchivo parcial) {
+            lineasProcesadas += parcial.lineas;
+            lineasConError += parcial.errores;
+            if (parcial.omitido) {
+                archivosOmitidos++;
+                return;
+            }
+            totalVentas.sumar(parcial.total);
+            if (parcial.encabezadoValido) {
+                archivosProcesados++;
+            }
+            productos.sumarTodo(parcial.productos);
+            if (parcial.celdas != null) {
+                if (celdas == null) {
+                    celdas = new HashMap<>();
+                }
+                ConsolidadoVentas.sumarCeldas(celdas, parcial.celdas);
+            }
+        }
+    }
+
+    // Memoria de trabajo de cada hilo, reutilizada entre archivos para no generar basura por línea
+    private static class EspacioTrabajo {
+        final ParserLineaVenta parser = new ParserLineaVenta();
+        final byte[] buffer = new byte[64 * 1024];
+        final ArchivoColumnar.Segmento segmento = new ArchivoColumnar.Segmento();
+
+        // En modo incremental, el flujo con que se leyó de corrido el último archivo (null = no se leyó así)
+        CheckpointVentas.LecturaConHash lectura;
+        int[] unidadesPorPosicion = new int[0];
+        int[] posicionesTocadas = new int[0];
+        int tocadas;
+
+        // Líneas rechazadas por motivo desde la última vez que se pasaron a las métricas
+        final long[] rechazos = new long[MetricasEjecucion.Rechazo.values().length];
+
+        // Líneas rechazadas que todavía no se entregaron a la cuarentena (null = sin cuarentena)
+        CuarentenaVentas.Lote cuarentena;
+
+        // Para el desglose por día y tienda: la última celda usada y de qué parcial es
+        final ConsolidadoVentas.BuscadorTiendas tiendas = new ConsolidadoVentas.BuscadorTiendas();
+        ParcialArchivo parcialCelda;
+        long claveCelda;
+        ConsolidadoVentas.CeldaArchivo celda;
+
+        // Ajusta los arreglos al tamaño del catálogo actual y toma el lote de la cuarentena en uso
+        void prepararPara(CatalogoProductos catalogo, CuarentenaVentas destino) {
+            if (unidadesPorPosicion.length != catalogo.tamano()) {
+                unidadesPorPosicion = new int[catalogo.tamano()];
+                posicionesTocadas = new int[catalogo.tamano()];
+                tocadas = 0;
+            }
+            if (destino == null) {
+                cuarentena = null;
+            } else if (cuarentena == null || !cuarentena.esDe(destino)) {
+                cuarentena = destino.nuevoLote();
+            }
+        }
+
+        void sumarUnidades(int posicion, int cantidad) {
+            if (unidadesPorPosicion[posicion] == 0) {
+                posicionesTocadas[tocadas++] = posicion;
+            }
+            unidadesPorPosicion[posicion] += cantidad;
+        }
+
+        // Copia las unidades acumuladas al conteo por ID del archivo y deja los arreglos en cero
+        void volcarUnidades(CatalogoProductos catalogo, UnidadesPorProducto productos) {
+            for (int i = 0; i < tocadas; i++) {
+                int posicion = posicionesTocadas[i];
+                productos.sumar(catalogo.idEnPosicion(posicion), unidadesPorPosicion[posicion]);
+                unidadesPorPosicion[posicion] = 0;
+            }
+            tocadas = 0;
+        }
+
+        // Celda del día y la tienda dentro del parcial; las líneas seguidas suelen compartirla
+        ConsolidadoVentas.CeldaArchivo celda(ParcialArchivo parcial, int dia, int tienda) {
+            long clave = ConsolidadoVentas.clave(dia, tienda);
+            if (parcial != parcialCelda || clave != claveCelda || celda == null) {
+                if (parcial.celdas == null) {
+                    parcial.celdas = new HashMap<>();
+                }
+                celda = parcial.celdas.computeIfAbsent(clave, c -> new ConsolidadoVentas.CeldaArchivo());
+                parcialCelda = parcial;
+                claveCelda = clave;
+            }
+            return celda;
+        }
+
+        void rechazar(MetricasEjecucion.Rechazo motivo) {
+            rechazos[motivo.ordinal()]++;
+        }
+
+        // Pasa a las métricas las líneas leídas y los rechazos contados, una vez por archivo o fragmento
+        // Las líneas en cuarentena de ese archivo se entregan al escritor en el mismo momento
+        void volcarMetricas(MetricasEjecucion metricas, long lineasLeidas) {
+            metricas.sumarLineas(lineasLeidas, rechazos);
+            Arrays.fill(rechazos, 0);
+            if (cuarentena != null) {
+                cuarentena.entregar();
+            }
+        }
+    }
+
+    private static final ThreadLocal<EspacioTrabajo> espacioTrabajo = ThreadLocal.withInitial(EspacioTrabajo::new);
+
+    // Activa el modo incremental: los archivos sin cambios se toman del checkpoint
+    public void setCheckpoint(CheckpointVentas checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    // Las líneas rechazadas se escriben en la cuarentena en lugar de avisarse una por una en la consola
+    public void setCuarentena(CuarentenaVentas cuarentena) {
+        this.cuarentena = cuarentena;
+    }
+
+    // Analiza cuánto vendió cada vendedor y qué productos se vendieron
+    // Lee el archivo maestro de vendedores y cada archivo de ventas una sola vez
+    // Los archivos de cada vendedor salen del índice armado al listar el directorio de datos
+    public void procesarVendedores(File archivoVendedores, IndiceArchivosVentas indice) throws IOException {
+        System.out.println("Procesando información de vendedores y productos...");
+
+        // Los fragmentos usan su propio grupo de hilos para no bloquear a los que procesan vendedores
+        if (configuracion.isLecturaMapeada() && hilos > 1) {
+            poolFragmentos = Executors.newFixedThreadPool(hilos);
+        }
+        habilitarDescompresion(true);
+
+        try {
+            if (hilos == 1) {
+                procesarSecuencial(archivoVendedores, indice);
+            } else {
+                procesarEnParalelo(archivoVendedores, indice);
+            }
+        } finally {
+            if (poolFragmentos != null) {
+                poolFragmentos.shutdownNow();
+                poolFragmentos = null;
+            }
+            habilitarDescompresion(false);
+        }
+    }
+
+    // Al deshabilitarla se detiene el pool de descompresión si llegó a crearse
+    private synchronized void habilitarDescompresion(boolean habilitada) {
+        descompresionHabilitada = habilitada;
+        if (!habilitada && poolDescompresion != null) {
+            poolDescompresion.shutdownNow();
+            poolDescompresion = null;
+        }
+    }
+
+    // Pool para descomprimir en segundo plano; lo crea el primer hilo que lo pide (null = fuera de procesarVendedores)
+    private synchronized ExecutorService obtenerPoolDescompresion() {
+        if (poolDescompresion == null && descompresionHabilitada) {
+            poolDescompresion = Executors.newFixedThreadPool(hilos);
+        }
+        return poolDescompresion;
+    }
+
+    // Con una sola partición todos los vendedores son de esta
+    private boolean esDeEstaParticion(long documento) {
+        return particiones <= 1 || ResultadoParticion.particionDe(documento, particiones) == particion;
+    }
+
+    // Descarta sin partir la línea un vendedor válido de otra partición; su índice ya no tiene esos archivos
+    private boolean esDeOtraParticion(String linea) {
+        if (particiones <= 1) {
+            return false;
+        }
+        long documento = documentoDeLinea(linea);
+        return documento >= 0 && !esDeEstaParticion(documento);
+    }
+
+    // Procesa cada vendedor uno por uno en el hilo actual
+    private void procesarSecuencial(File archivoVendedores, IndiceArchivosVentas indice) throws IOException {
+        try (BufferedReader vendedoresReader = new BufferedReader(new FileReader(archivoVendedores, StandardCharsets.UTF_8))) {
+            String linea;
+            long numeroLinea = 0;
+            while ((linea = vendedoresReader.readLine()) != null) {
+                numeroLinea++;
+                if (esDeOtraParticion(linea)) {
+                    continue;
+                }
+                String[] datosVendedor = leerVendedor(linea, numeroLinea, archivoVendedores.getName());
+                if (datosVendedor != null) {
+                    long documento = Long.parseLong(datosVendedor[1]);
+                    List<File> archivos = indice.tomarArchivos(documento);
+                    if (esDeEstaParticion(documento)) {
+                        combinar(calcularVentasVendedor(documento, datosVendedor, archivos));
+                    }
+                }
+            }
+        }
+    }
+
+    // Reparte los vendedores entre varios hilos
+    // Los resultados se combinan en el mismo orden que el modo secuencial, así los reportes no cambian
+    private void procesarEnParalelo(File archivoVendedores, IndiceArchivosVentas indice) throws IOException {
+        System.out.println("Modo paralelo: " + hilos + " hilos");
+
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        Deque<Future<ResultadoVendedor>> pendientes = new ArrayDeque<>();
+        int maximoEnVuelo = hilos * VENDEDORES_EN_VUELO_POR_HILO;
+
+        try (BufferedReader vendedoresReader = new BufferedReader(new FileReader(archivoVendedores, StandardCharsets.UTF_8))) {
+            String linea;
+            long numeroLinea = 0;
+            while ((linea = vendedoresReader.readLine()) != null) {
+                numeroLinea++;
+                if (esDeOtraParticion(linea)) {
+                    continue;
+                }
+                String[] datosVendedor = leerVendedor(linea, numeroLinea, archivoVendedores.getName());
+                if (datosVendedor == null) {
+                    continue;
+                }
+
+                long documento = Long.parseLong(datosVendedor[1]);
+                List<File> archivos = indice.tomarArchivos(documento);
+                if (!esDeEstaParticion(documento)) {
+                    continue;
+                }
+                pendientes.add(pool.submit(() -> calcularVentasVendedor(documento, datosVendedor, archivos)));
+
+                // Limitamos cuántos resultados esperan en memoria a ser combinados
+                while (pendientes.size() >= maximoEnVuelo) {
+                    combinar(esperar(pendientes.poll()));
+                }
+            }
+
+            while (!pendientes.isEmpty()) {
+                combinar(esperar(pendientes.poll()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Espera el resultado de un vendedor y devuelve los errores de E/S tal como los lanzaría el modo secuencial
+    private static <T> T esperar(Future<T> futuro) throws IOException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Procesamiento interrumpido");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new IOException(causa);
+        }
+    }
+
+    // Ejecuta una tarea en el hilo actual con el mismo manejo de errores que esperar()
+    private static <T> T ejecutar(Callable<T> tarea) throws IOException {
+        try {
+            return tarea.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    // Verifica la línea del vendedor y devuelve sus campos, o null si está incompleta
+    // Con cuarentena, una línea incompleta se registra allí en lugar de avisarse en la consola
+    // Una línea inválida no es de ninguna partición: solo la avisa la partición 0
+    private String[] leerVendedor(String linea, long numeroLinea, String archivoVendedores) {
+        if (particion > 0) {
+            String[] campos = linea.split(";");
+            return linea.trim().isEmpty() || campos.length < 4 ? null : campos;
+        }
+        if (cuarentena == null) {
+            return validarFormatoLinea(linea, 4, archivoVendedores) ? linea.split(";") : null;
+        }
+        if (linea.trim().isEmpty()) {
+            return null;
+        }
+        String[] campos = linea.split(";");
+        if (campos.length < 4) {
+            cuarentena.registrar(archivoVendedores, numeroLinea, MetricasEjecucion.Rechazo.FORMATO_INVALIDO.etiqueta, linea);
+            return null;
+        }
+        return campos;
+    }
+
+    // Suma lo que aportó un vendedor a los totales generales
+    // Los mensajes por archivo y por vendedor respetan el límite de --mensajes-por-segundo
+    private void combinar(ResultadoVendedor resultado) {
+        for (String archivo : resultado.archivos) {
+            if (metricas.permitirMensaje()) {
+                System.out.println("  Procesando archivo: " + archivo);
+            }
+        }
+
+        acumular(resultado);
+
+        if (metricas.permitirMensaje()) {
+            System.out.println("Vendedor procesado: " + resultado.nombreCompleto + " - Ventas: $" + resultado.totalVentas);
+        }
+    }
+
+    // Un documento repetido en vendedores.txt vuelve a leer los mismos archivos: su total se reemplaza, no se suma
+    private void acumular(ResultadoVendedor resultado) {
+        int vendedoresAntes = ventasPorVendedor.tamano();
+        ventasPorVendedor.asignar(resultado.documento, resultado.totalVentas);
+        // Si el documento se repite, vale el nombre de su primera línea, igual que en el reporte
+        if (nombresVendedores != null && ventasPorVendedor.tamano() > vendedoresAntes) {
+            nombresVendedores.add(resultado.nombreCompleto);
+        }
+        productosVendidos.sumarTodo(resultado.productos);
+        archivosProcesados += resultado.archivosProcesados;
+        archivosOmitidos += resultado.archivosOmitidos;
+        if (consolidado != null && resultado.celdas != null) {
+            consolidado.agregarVendedor(resultado.documento, resultado.celdas);
+        }
+        lineasProcesadas += resultado.lineasProcesadas;
+        lineasConError += resultado.lineasConError;
+    }
+
+    // Suma a los totales un vendedor cuyos archivos ya se procesaron antes
+    // Lo usa el modo vigilancia, que guarda lo leído de cada archivo entre actualizaciones
+    public void agregarVendedor(long documento, List<ParcialArchivo> parciales) {
+        ResultadoVendedor resultado = new ResultadoVendedor(documento, null);
+        for (ParcialArchivo parcial : parciales) {
+            resultado.aplicar(parcial);
+        }
+        acumular(resultado);
+    }
+
+    // Calcula el total de ventas para un vendedor específico
+    // Revisa todos sus archivos de ventas y suma todo
+    private ResultadoVendedor calcularVentasVendedor(long documento, String[] datosVendedor, List<File> archivos)
+            throws IOException {
+        ResultadoVendedor resultado = new ResultadoVendedor(documento, datosVendedor[2] + " " + datosVendedor[3]);
+
+        // Un vendedor puede tener varios archivos de ventas (ventas_<id>.txt, ventas_<id>_1.txt, etc.)
+        for (File archivo : archivos) {
+            resultado.archivos.add(archivo.getName());
+
+            // En modo incremental, un archivo que no cambió no se vuelve a leer
+            // salvo que tenga líneas rechazadas y haya cuarentena: el archivo de rechazos se escribe completo cada vez
+            EspacioTrabajo espacio = espacioTrabajo.get();
+            ParcialArchivo parcial = checkpoint == null ? null : checkpoint.buscar(archivo, espacio.buffer, cuarentena != null);
+            if (parcial != null) {
+                metricas.sumarReutilizado();
+            } else {
+                long tamano = archivo.length();
+                long fecha = archivo.lastModified();
+                espacio.lectura = null;
+                parcial = procesarArchivoVentas(archivo);
+                if (parcial != null) {
+                    metricas.sumarArchivo(tamano);
+                }
+                // Un archivo omitido no se guarda: con otros umbrales la próxima ejecución lo tiene que volver a leer
+                if (parcial != null && checkpoint != null && !parcial.omitido) {
+                    checkpoint.registrar(archivo, tamano, fecha, parcial, espacio.lectura, espacio.buffer);
+                }
+            }
+
+            if (parcial != null) {
+                resultado.aplicar(parcial);
+            }
+        }
+
+        return resultado;
+    }
+
+    // Procesa un archivo individual de ventas y devuelve lo que aporta, o null si el archivo ya no existe
+    // Los archivos grandes se mapean en memoria y se reparten por fragmentos si así se configuró
+    // Los comprimidos se leen de corrido: gzip no permite empezar a descomprimir en la mitad
+    private ParcialArchivo procesarArchivoVentas(File archivo) throws IOException {
+        String archivoVentas = archivo.getName();
+        boolean comprimido = ArchivoComprimido.esComprimido(archivoVentas);
+        if (archivoVentas.endsWith(ArchivoColumnar.EXTENSION)) {
+            return procesarArchivoColumnar(archivo);
+        }
+        if (!comprimido && configuracion.isLecturaMapeada() && archivo.length() > configuracion.getTamanoFragmento()) {
+            return procesarArchivoMapeado(archivo);
+        }
+
+        EspacioTrabajo espacio = espacioTrabajo.get();
+        espacio.prepararPara(catalogo, cuarentena);
+        ParcialArchivo parcial = new ParcialArchivo();
+
+        try (LectorLineas lector = new LectorLineas(abrirDeCorrido(archivo, comprimido, espacio), espacio.buffer)) {
+            // La primera línea es el encabezado con información del vendedor
+            if (!lector.siguienteLinea() || !lector.contiene((byte) ';')) {
+                avisarEncabezadoInvalido(archivoVentas);
+                espacio.lectura = null;
+                return parcial;
+            }
+            parcial.encabezadoValido = true;
+
+            boolean completo = procesarLineas(lector, archivoVentas, parcial, espacio, false);
+            // El hash de lo leído solo sirve si se llegó al final; si no, el checkpoint lee el archivo otra vez
+            if (!completo) {
+                espacio.lectura = null;
+            }
+            if (hayUmbral && (!completo || superaUmbral(parcial, 0))) {
+                excedeUmbral(archivoVentas, parcial, completo);
+            }
+            mostrarResumenErrores(archivoVentas, parcial);
+
+        } catch (FileNotFoundException e) {
+            avisar("  Archivo no encontrado: " + archivoVentas);
+            return null;
+        } finally {
+            // Pasamos las unidades del archivo al resultado, en el orden en que aparecieron
+            espacio.volcarUnidades(catalogo, parcial.productos);
+            espacio.volcarMetricas(metricas, parcial.lineas);
+        }
+
+        return parcial;
+    }
+
+    // Abre el archivo para leerlo de corrido; en modo incremental, a través de un flujo que calcula el hash
+    // Los .gz grandes se descomprimen en el pool mientras este hilo interpreta las líneas
+    private InputStream abrirDeCorrido(File archivo, boolean comprimido, EspacioTrabajo espacio) throws IOException {
+        InputStream entrada = new FileInputStream(archivo);
+        if (checkpoint != null) {
+            espacio.lectura = new CheckpointVentas.LecturaConHash(entrada);
+            entrada = espacio.lectura;
+        }
+        if (!comprimido) {
+            return entrada;
+        }
+        boolean enSegundoPlano = archivo.length() >= ArchivoComprimido.MINIMO_EN_SEGUNDO_PLANO;
+        return ArchivoComprimido.abrir(entrada, archivo.getName(), enSegundoPlano ? obtenerPoolDescompresion() : null);
+    }
+
+    // Procesa un archivo en formato columnar: las ventas ya vienen interpretadas en columnas de enteros
+    private ParcialArchivo procesarArchivoColumnar(File archivo) throws IOException {
+        String archivoVentas = archivo.getName();
+        EspacioTrabajo espacio = espacioTrabajo.get();
+        espacio.prepararPara(catalogo, cuarentena);
+        ParcialArchivo parcial = new ParcialArchivo();
+
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long inicioVentas = ArchivoColumnar.finDeEncabezado(canal);
+            if (inicioVentas < 0) {
+                avisarEncabezadoInvalido(archivoVentas);
+                return parcial;
+            }
+            parcial.encabezadoValido = true;
+
+            boolean completo = procesarSegmentos(canal, inicioVentas, archivoVentas, parcial, espacio) >= 0;
+            if (hayUmbral && (!completo || superaUmbral(parcial, 0))) {
+                excedeUmbral(archivoVentas, parcial, completo);
+            }
+            mostrarResumenErrores(archivoVentas, parcial);
+
+        } catch (NoSuchFileException e) {
+            avisar("  Archivo no encontrado: " + archivoVentas);
+            return null;
+        } finally {
+            espacio.volcarUnidades(catalogo, parcial.productos);
+            espacio.volcarMetricas(metricas, parcial.lineas);
+        }
+
+        return parcial;
+    }
+
+    // Procesa un archivo grande mapeado en memoria
+    // Se divide en fragmentos que empiezan en un límite de línea y se combinan en orden
+    private ParcialArchivo procesarArchivoMapeado(File archivo) throws IOException {
+        String archivoVentas = archivo.getName();
+        ParcialArchivo parcial = new ParcialArchivo();
+
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long inicioVentas = ArchivoMapeado.finDeEncabezado(canal);
+            if (inicioVentas < 0) {
+                avisarEncabezadoInvalido(archivoVentas);
+                return parcial;
+            }
+            parcial.encabezadoValido = true;
+
+            List<long[]> fragmentos = ArchivoMapeado.dividirEnLineas(canal, inicioVentas, configuracion.getTamanoFragmento());
+            List<Future<ParcialArchivo>> pendientes = new ArrayList<>();
+            List<ParcialArchivo> procesados = new ArrayList<>();
+            for (long[] fragmento : fragmentos) {
+                Callable<ParcialArchivo> tarea = () -> procesarFragmento(canal, fragmento[0], fragmento[1], archivoVentas);
+                if (poolFragmentos != null) {
+                    pendientes.add(poolFragmentos.submit(tarea));
+                } else {
+                    procesados.add(ejecutar(tarea));
+                }
+            }
+            for (Future<ParcialArchivo> pendiente : pendientes) {
+                procesados.add(esperar(pendiente));
+            }
+
+            // Combinamos los fragmentos en el orden del archivo
+            // El porcentaje de errores solo se puede juzgar sobre el archivo completo, no por fragmento
+            for (ParcialArchivo procesado : procesados) {
+                parcial.sumar(procesado);
+            }
+            boolean completo = !parcial.omitido;
+            if (hayUmbral && (!completo || superaUmbral(parcial, 0))) {
+                excedeUmbral(archivoVentas, parcial, completo);
+            }
+            mostrarResumenErrores(archivoVentas, parcial);
+            return parcial;
+
+        } catch (NoSuchFileException e) {
+            avisar("  Archivo no encontrado: " + archivoVentas);
+            return null;
+        }
+    }
+
+    // Procesa solo las líneas completas que se agregaron al archivo desde la posición indicada
+    // Suma lo leído a "parcial" y devuelve la nueva posición; si desde es 0 primero revisa el encabezado
+    // El archivo sigue creciendo, así que el porcentaje de errores se mira recién desde MINIMO_LINEAS_PORCENTAJE líneas
+    long procesarAgregado(File archivo, long desde, ParcialArchivo parcial) throws IOException {
+        String archivoVentas = archivo.getName();
+        EspacioTrabajo espacio = espacioTrabajo.get();
+        espacio.prepararPara(catalogo, cuarentena);
+
+        if (archivoVentas.endsWith(ArchivoColumnar.EXTENSION)) {
+            return procesarAgregadoColumnar(archivo, desde, parcial, espacio);
+        }
+        if (ArchivoComprimido.esComprimido(archivoVentas)) {
+            return procesarAgregadoComprimido(archivo, desde, parcial, espacio);
+        }
+
+        try (FileInputStream flujo = new FileInputStream(archivo)) {
+            flujo.getChannel().position(desde);
+            LectorLineas lector = new LectorLineas(flujo, espacio.buffer, desde);
+            lector.setSoloLineasCompletas(true);
+
+            if (desde == 0) {
+                if (!lector.siguienteLinea()) {
+                    return 0; // El encabezado todavía no está completo
+                }
+                if (!lector.contiene((byte) ';')) {
+                    avisarEncabezadoInvalido(archivoVentas);
+                    parcial.encabezadoValido = false;
+                    return lector.posicionArchivo();
+                }
+                parcial.encabezadoValido = true;
+            }
+
+            long lineasAntes = parcial.lineas;
+            boolean completo;
+            try {
+                completo = procesarLineas(lector, archivoVentas, parcial, espacio, false);
+            } finally {
+                espacio.volcarUnidades(catalogo, parcial.productos);
+                espacio.volcarMetricas(metricas, parcial.lineas - lineasAntes);
+            }
+            metricas.sumarBytes(lector.posicionArchivo() - desde);
+            if (!completo) {
+                excedeUmbral(archivoVentas, parcial, false);
+            }
+            return lector.posicionArchivo();
+        }
+    }
+
+    // Un archivo comprimido no se puede seguir mientras crece: se lee entero la primera vez que aparece
+    // Los históricos se comprimen aparte y se mueven al directorio ya completos, como los columnares
+    private long procesarAgregadoComprimido(File archivo, long desde, ParcialArchivo parcial, EspacioTrabajo espacio)
+            throws IOException {
+        String archivoVentas = archivo.getName();
+        long tamano = archivo.length();
+        if (desde > 0) {
+            avisar("  Archivo comprimido modificado después de leerlo, no se vuelve a leer: " + archivoVentas);
+            return tamano;
+        }
+
+        try (LectorLineas lector = new LectorLineas(ArchivoComprimido.abrir(archivo, null), espacio.buffer)) {
+            if (!lector.siguienteLinea() || !lector.contiene((byte) ';')) {
+                avisarEncabezadoInvalido(archivoVentas);
+                parcial.encabezadoValido = false;
+                return tamano;
+            }
+            parcial.encabezadoValido = true;
+
+            boolean completo;
+            try {
+                completo = procesarLineas(lector, archivoVentas, parcial, espacio, false);
+            } finally {
+                espacio.volcarUnidades(catalogo, parcial.productos);
+                espacio.volcarMetricas(metricas, parcial.lineas);
+            }
+            metricas.sumarBytes(tamano);
+            // Se leyó el archivo completo, así que el porcentaje de errores se juzga como en una ejecución normal
+            if (hayUmbral && (!completo || superaUmbral(parcial, 0))) {
+                excedeUmbral(archivoVentas, parcial, completo);
+            }
+            return tamano;
+        }
+    }
+
+    // Igual que procesarAgregado pero para un archivo columnar: solo se leen los segmentos completos nuevos
+    private long procesarAgregadoColumnar(File archivo, long desde, ParcialArchivo parcial, EspacioTrabajo espacio)
+            throws IOException {
+        String archivoVentas = archivo.getName();
+
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long posicion = desde;
+            if (desde == 0) {
+                posicion = ArchivoColumnar.finDeEncabezado(canal);
+                // El convertidor escribe en un temporal y lo renombra, así que nunca vemos un encabezado a medias
+                if (posicion < 0) {
+                    avisarEncabezadoInvalido(archivoVentas);
+                    parcial.encabezadoValido = false;
+                    return canal.size();
+                }
+                parcial.encabezadoValido = true;
+            }
+
+            long lineasAntes = parcial.lineas;
+            long hasta;
+            try {
+                hasta = procesarSegmentos(canal, posicion, archivoVentas, parcial, espacio);
+            } finally {
+                espacio.volcarUnidades(catalogo, parcial.productos);
+                espacio.volcarMetricas(metricas, parcial.lineas - lineasAntes);
+            }
+            if (hasta < 0) {
+                // Pasó el umbral: el archivo ya no se sigue, la posición da lo mismo
+                hasta = canal.size();
+                excedeUmbral(archivoVentas, parcial, false);
+            }
+            metricas.sumarBytes(hasta - desde);
+            return hasta;
+        }
+    }
+
+    // Recorre los segmentos completos desde la posición indicada y devuelve dónde termina el último
+    // Las líneas que no se pudieron interpretar al convertir el archivo siguen contando como errores
+    // Devuelve -1 si dejó de leer porque el archivo pasó el umbral de errores
+    private long procesarSegmentos(FileChannel canal, long desde, String archivoVentas, ParcialArchivo conteo,
+            EspacioTrabajo espacio) throws IOException {
+        ArchivoColumnar.Segmento segmento = espacio.segmento;
+        long posicion = desde;
+        long siguiente;
+
+        while ((siguiente = ArchivoColumnar.leerSegmento(canal, posicion, segmento)) >= 0) {
+            if (segmento.descartadas > 0) {
+                conteo.lineas += segmento.descartadas;
+                conteo.errores += segmento.descartadas;
+                espacio.rechazos[MetricasEjecucion.Rechazo.DESCARTADA_AL_CONVERTIR.ordinal()] += segmento.descartadas;
+                // Su texto se perdió al convertir: solo queda cuántas fueron
+                if (espacio.cuarentena != null) {
+                    espacio.cuarentena.agregarAviso(archivoVentas, -1,
+                        MetricasEjecucion.Rechazo.DESCARTADA_AL_CONVERTIR.etiqueta, segmento.descartadas + " líneas");
+                }
+            }
+
+            // El formato columnar no guarda fecha ni tienda
+            ConsolidadoVentas.CeldaArchivo celda = consolidado != null
+                ? espacio.celda(conteo, ParserLineaVenta.SIN_FECHA, 0) : null;
+            int[] ids = segmento.ids;
+            int[] cantidades = segmento.cantidades;
+            for (int i = 0; i < segmento.filas; i++) {
+                conteo.lineas++;
+                MetricasEjecucion.Rechazo rechazo = registrarVenta(ids[i], cantidades[i], conteo, espacio, celda);
+                if (rechazo != null) {
+                    if (rechazarFila(espacio, rechazo, archivoVentas, ids[i], cantidades[i]) && metricas.permitirMensaje()) {
+                        avisarVentaRechazada(rechazo, archivoVentas, ids[i], cantidades[i]);
+                    }
+                    if (hayUmbral && superaUmbral(conteo, MINIMO_LINEAS_PORCENTAJE)) {
+                        return -1;
+                    }
+                }
+            }
+            if (hayUmbral && segmento.descartadas > 0 && superaUmbral(conteo, MINIMO_LINEAS_PORCENTAJE)) {
+                return -1;
+            }
+            posicion = siguiente;
+        }
+
+        return posicion;
+    }
+
+    // Procesa las líneas de un fragmento [desde, hasta) de un archivo mapeado
+    private ParcialArchivo procesarFragmento(FileChannel canal, long desde, long hasta, String archivoVentas)
+            throws IOException {
+        EspacioTrabajo espacio = espacioTrabajo.get();
+        espacio.prepararPara(catalogo, cuarentena);
+        ParcialArchivo procesado = new ParcialArchivo();
+
+        // El lector empieza en "desde" para que la cuarentena anote la posición real de cada línea en el archivo
+        try (LectorLineas lector = new LectorLineas(ArchivoMapeado.abrirFragmento(canal, desde, hasta), espacio.buffer, desde)) {
+            // Si el fragmento ya pasó el umbral se marca; al combinar se decide por el archivo completo
+            procesado.omitido = !procesarLineas(lector, archivoVentas, procesado, espacio, true);
+        } finally {
+            espacio.volcarUnidades(catalogo, procesado.productos);
+            espacio.volcarMetricas(metricas, procesado.lineas);
+        }
+
+        return procesado;
+    }
+
+    // Recorre las ventas que quedan en el lector
+    // Cada línea se interpreta una vez, en bytes, y alimenta el total del vendedor y el conteo de productos
+    // En un fragmento no se sabe el número de línea ni se puede juzgar el porcentaje de errores del archivo
+    // Devuelve false si dejó de leer porque el archivo pasó el umbral de errores
+    private boolean procesarLineas(LectorLineas lector, String archivoVentas, ParcialArchivo conteo, EspacioTrabajo espacio,
+            boolean fragmento) throws IOException {
+        ParserLineaVenta parser = espacio.parser;
+        int minimoLineasPorcentaje = fragmento ? Integer.MAX_VALUE : MINIMO_LINEAS_PORCENTAJE;
+
+        while (lector.siguienteLinea()) {
+            conteo.lineas++;
+
+            // Verificamos que la venta tenga el formato correcto
+            int estado = parser.interpretar(lector.datos(), lector.inicio(), lector.fin());
+            if (estado != ParserLineaVenta.LINEA_VALIDA) {
+                if (estado == ParserLineaVenta.FORMATO_INVALIDO) {
+                    if (rechazarLinea(espacio, MetricasEjecucion.Rechazo.FORMATO_INVALIDO, archivoVentas, conteo, fragmento, lector)
+                            && metricas.permitirMensaje()) {
+                        System.err.println("  Formato inválido en " + archivoVentas + ": " + lector.lineaComoTexto());
+                    }
+                } else if (estado == ParserLineaVenta.NUMERO_INVALIDO) {
+                    if (rechazarLinea(espacio, MetricasEjecucion.Rechazo.NUMERO_INVALIDO, archivoVentas, conteo, fragmento, lector)
+                            && metricas.permitirMensaje()) {
+                        System.err.println("  Error de formato numérico en " + archivoVentas + ": " + lector.lineaComoTexto());
+                    }
+                } else if (estado == ParserLineaVenta.FECHA_INVALIDA) {
+                    if (rechazarLinea(espacio, MetricasEjecucion.Rechazo.FECHA_INVALIDA, archivoVentas, conteo, fragmento, lector)
+                            && metricas.permitirMensaje()) {
+                        System.err.println("  Fecha inválida en " + archivoVentas + ": " + lector.lineaComoTexto());
+                    }
+                } else {
+                    rechazarLinea(espacio, MetricasEjecucion.Rechazo.LINEA_VACIA, archivoVentas, conteo, fragmento, lector);
+                }
+                conteo.errores++;
+                if (hayUmbral && superaUmbral(conteo, minimoLineasPorcentaje)) {
+                    return false;
+                }
+                continue; // Si está mal formada, la saltamos
+            }
+
+            int idProducto = parser.getIdProducto();
+            int cantidadVendida = parser.getCantidad();
+            ConsolidadoVentas.CeldaArchivo celda = consolidado == null ? null : espacio.celda(conteo, parser.getDia(),
+                espacio.tiendas.id(lector.datos(), parser.getInicioTienda(), parser.getFinTienda()));
+            MetricasEjecucion.Rechazo rechazo = registrarVenta(idProducto, cantidadVendida, conteo, espacio, celda);
+            if (rechazo != null) {
+                if (rechazarLinea(espacio, rechazo, archivoVentas, conteo, fragmento, lector) && metricas.permitirMensaje()) {
+                    avisarVentaRechazada(rechazo, archivoVentas, idProducto, cantidadVendida);
+                }
+                if (hayUmbral && superaUmbral(conteo, minimoLineasPorcentaje)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Suma una venta ya interpretada, venga de una línea de texto o de una fila de un archivo columnar
+    // Con --consolidados también la suma a la celda de su día y su tienda (celda es null si no)
+    // Devuelve el motivo si la venta se rechazó, o null si se sumó
+    private MetricasEjecucion.Rechazo registrarVenta(int idProducto, int cantidadVendida, ParcialArchivo conteo,
+            EspacioTrabajo espacio, ConsolidadoVentas.CeldaArchivo celda) {
+        // Verificamos que la cantidad sea válida
+        if (cantidadVendida <= 0) {
+            conteo.errores++;
+            return MetricasEjecucion.Rechazo.CANTIDAD_NO_POSITIVA;
+        }
+
+        // Los productos del catálogo cuentan unidades aunque su precio no sea válido
+        int posicionProducto = catalogo.posicion(idProducto);
+        if (posicionProducto >= 0) {
+            espacio.sumarUnidades(posicionProducto, cantidadVendida);
+            if (celda != null) {
+                celda.productos.sumar(idProducto, cantidadVendida);
+            }
+        }
+
+        // Buscamos el precio del producto vendido, en centavos
+        long precioProducto = catalogo.precioCentavos(idProducto);
+        if (precioProducto <= 0) {
+            conteo.errores++;
+            return posicionProducto < 0 ? MetricasEjecucion.Rechazo.PRODUCTO_DESCONOCIDO : MetricasEjecucion.Rechazo.PRECIO_INVALIDO;
+        }
+
+        // Sumamos al total: cantidad × precio, con enteros exactos
+        conteo.total.sumarProducto(cantidadVendida, precioProducto);
+        if (celda != null) {
+            celda.total.sumarProducto(cantidadVendida, precioProducto);
+        }
+        return null;
+    }
+
+    // Cuenta el rechazo para las métricas y, si hay cuarentena, copia la línea tal cual al lote del hilo
+    // Devuelve true si no hay cuarentena y el rechazo se tiene que avisar en la consola
+    private static boolean rechazarLinea(EspacioTrabajo espacio, MetricasEjecucion.Rechazo motivo, String archivoVentas,
+            ParcialArchivo conteo, boolean fragmento, LectorLineas lector) {
+        espacio.rechazar(motivo);
+        if (espacio.cuarentena == null) {
+            return true;
+        }
+        // La línea 1 es el encabezado; conteo.lineas ya incluye la línea actual
+        long numeroLinea = fragmento ? -1 : conteo.lineas + 1;
+        espacio.cuarentena.agregar(archivoVentas, numeroLinea, lector.inicioLineaArchivo(), motivo,
+            lector.datos(), lector.inicio(), lector.fin());
+        return false;
+    }
+
+    // Igual que rechazarLinea para una fila de un archivo columnar, que no guarda el texto ni la posición original
+    private static boolean rechazarFila(EspacioTrabajo espacio, MetricasEjecucion.Rechazo motivo, String archivoVentas,
+            int idProducto, int cantidadVendida) {
+        espacio.rechazar(motivo);
+        if (espacio.cuarentena == null) {
+            return true;
+        }
+        espacio.cuarentena.agregarFila(archivoVentas, motivo, idProducto, cantidadVendida);
+        return false;
+    }
+
+    private static void avisarVentaRechazada(MetricasEjecucion.Rechazo motivo, String archivoVentas, int idProducto,
+            int cantidadVendida) {
+        switch (motivo) {
+            case CANTIDAD_NO_POSITIVA:
+                System.err.println("  Cantidad inválida en " + archivoVentas + ": " + cantidadVendida);
+                break;
+            case PRODUCTO_DESCONOCIDO:
+                System.err.println("  Producto desconocido, ID: " + idProducto);
+                break;
+            default:
+                System.err.println("  Precio inválido para producto ID: " + idProducto);
+                break;
+        }
+    }
+
+    // true si el archivo ya pasó el umbral de errores
+    // El porcentaje se mira solo desde minimoLineas líneas leídas (0 = archivo completo, siempre)
+    private boolean superaUmbral(ParcialArchivo conteo, int minimoLineas) {
+        if (maximoErrores > 0 && conteo.errores > maximoErrores) {
+            return true;
+        }
+        return maximoPorcentaje > 0 && conteo.lineas >= minimoLineas
+            && conteo.errores * 100 > maximoPorcentaje * conteo.lineas;
+    }
+
+    // Aplica --si-excede-errores a un archivo que pasó el umbral: aborta la ejecución o lo marca como omitido
+    // Un archivo omitido no suma ventas ni unidades; queda registrado en la cuarentena si la hay
+    private void excedeUmbral(String archivoVentas, ParcialArchivo parcial, boolean leidoCompleto) throws IOException {
+        boolean abortar = configuracion.isAbortarSiExcedeErrores();
+        String detalle = parcial.errores + "/" + parcial.lineas + " líneas con errores"
+            + (leidoCompleto ? "" : ", lectura detenida");
+        if (cuarentena != null) {
+            cuarentena.registrar(archivoVentas, -1,
+                abortar ? CuarentenaVentas.ARCHIVO_ABORTADO : CuarentenaVentas.ARCHIVO_OMITIDO, detalle);
+        }
+        if (abortar) {
+            throw new IOException("El archivo " + archivoVentas + " superó el umbral de errores (" + detalle + ")");
+        }
+        parcial.omitido = true;
+        metricas.sumarOmitido();
+        avisar("  Archivo omitido por superar el umbral de errores: " + archivoVentas + " (" + detalle + ")");
+    }
+
+    // Mostramos un resumen de errores si los hubo
+    private void mostrarResumenErrores(String archivoVentas, ParcialArchivo conteo) {
+        if (conteo.errores > 0 && metricas.permitirMensaje()) {
+            System.err.println("  Archivo " + archivoVentas + ": " + conteo.errores + "/" + conteo.lineas + " líneas con errores");
+        }
+    }
+
+    // Mensaje de detalle por archivo o por línea; se descarta si ya se mostraron demasiados en este segundo
+    private void avisar(String mensaje) {
+        if (metricas.permitirMensaje()) {
+            System.err.println(mensaje);
+        }
+    }
+
+    private void avisarEncabezadoInvalido(String archivoVentas) {
+        avisar("  Encabezado inválido en: " + archivoVentas);
+        if (cuarentena != null) {
+            cuarentena.registrar(archivoVentas, 1, CuarentenaVentas.ENCABEZADO_INVALIDO, "");
+        }
+    }
+
+    // Verifica que una línea de datos tenga el formato correcto
+    // Como un inspector de calidad para nuestros datos
+    static boolean validarFormatoLinea(String linea, int camposEsperados, String nombreArchivo) {
+        if (linea == null || linea.trim().isEmpty()) {
+            return false;
+        }
+
+        String[] campos = linea.split(";");
+        if (campos.length < camposEsperados) {
+            System.err.println("  Formato inválido en " + nombreArchivo + ": " + linea);
+            return false;
+        }
+
+        return true;
+    }
+
+    // Documento de una línea de vendedores.txt sin partirla, para descartar rápido las de otras particiones
+    // Devuelve -1 si la línea no tiene cuatro campos o el documento no son solo dígitos: esas siguen el camino normal
+    static long documentoDeLinea(String linea) {
+        int inicio = linea.indexOf(';') + 1;
+        int fin = inicio > 0 ? linea.indexOf(';', inicio) : -1;
+        if (fin <= inicio || fin - inicio > 18) {
+            return -1;
+        }
+        int tercero = linea.indexOf(';', fin + 1);
+        if (tercero < 0) {
+            return -1;
+        }
+        // split descarta los campos vacíos del final: hace falta algo después del tercer ';'
+        boolean cuartoCampo = false;
+        for (int i = tercero + 1; i < linea.length() && !cuartoCampo; i++) {
+            cuartoCampo = linea.charAt(i) != ';';
+        }
+        if (!cuartoCampo) {
+            return -1;
+        }
+
+        long documento = 0;
+        for (int i = inicio; i < fin; i++) {
+            char c = linea.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            documento = documento * 10 + (c - '0');
+        }
+        return documento;
+    }
+
+    public TotalesPorVendedor getVentasPorVendedor() {
+        return ventasPorVendedor;
+    }
+
+    public UnidadesPorProducto getProductosVendidos() {
+        return productosVendidos;
+    }
+
+    // Las siguientes llamadas a procesarVendedores toman solo los vendedores de la partición i de N
+    public void setParticion(int particion, int particiones) {
+        this.particion = particion;
+        this.particiones = particiones;
+    }
+
+    // Devuelve los totales por vendedor sumados hasta ahora y empieza otros vacíos
+    // Los productos y los contadores siguen acumulando
+    public TotalesPorVendedor tomarVentasPorVendedor() {
+        TotalesPorVendedor totales = ventasPorVendedor;
+        ventasPorVendedor = new TotalesPorVendedor();
+        return totales;
+    }
+
+    // Desde ahora se guarda el nombre de cada vendedor junto a su total
+    public void guardarNombresVendedores() {
+        if (nombresVendedores == null) {
+            nombresVendedores = new ArrayList<>();
+        }
+    }
+
+    // Devuelve los nombres guardados desde la última llamada, en las posiciones de tomarVentasPorVendedor, y empieza otra lista
+    public List<String> tomarNombresVendedores() {
+        List<String> nombres = nombresVendedores;
+        nombresVendedores = new ArrayList<>();
+        return nombres;
+    }
+
+    // Totales por día y tienda, o null si no se pidió --consolidados
+    public ConsolidadoVentas getConsolidado() {
+        return consolidado;
+    }
+
+    public MetricasEjecucion getMetricas() {
+        return metricas;
+    }
+
+    public int getArchivosProcesados() {
+        return archivosProcesados;
+    }
+
+    public int getArchivosOmitidos() {
+        return archivosOmitidos;
+    }
+
+    public long getLineasProcesadas() {
+        return lineasProcesadas;
+    }
+
+    public long getLineasConError() {
+        return lineasConError;
+    }
+}
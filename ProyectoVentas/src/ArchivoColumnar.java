@@ -0,0 +1,255 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Formato columnar de un archivo de ventas: ventas_<id>[_n].vcol
+// Las ventas se guardan ya interpretadas, en segmentos con una columna de IDs y otra de cantidades
+//
+// Formato:
+//   encabezado: "VCOL" (int), versión (int), largo (short) y bytes UTF-8 de la línea de encabezado del texto
+//   segmento:   filas (int), líneas descartadas (int), compresión (byte), largo de los datos (int), datos
+//   datos:      filas IDs (int) y luego filas cantidades (int), en little endian; comprimidos con Deflate si se pidió
+// Los segmentos se pueden agregar al final de un archivo existente
+public class ArchivoColumnar {
+
+    public static final String EXTENSION = ".vcol";
+
+    private static final int MAGICO = 0x56434F4C; // "VCOL"
+    private static final int VERSION = 1;
+    private static final int TAMANO_ENCABEZADO_SEGMENTO = 4 + 4 + 1 + 4;
+    private static final byte SIN_COMPRIMIR = 0;
+    private static final byte DEFLATE = 1;
+
+    private ArchivoColumnar() {
+    }
+
+    // Un segmento leído; los arreglos se reutilizan entre segmentos y archivos
+    public static class Segmento {
+        int filas;
+        int descartadas;
+        int[] ids = new int[0];
+        int[] cantidades = new int[0];
+
+        private byte[] datos = new byte[0];
+        private byte[] descomprimidos = new byte[0];
+        private final Inflater inflater = new Inflater();
+    }
+
+    // Devuelve la posición del primer segmento, o -1 si el archivo no empieza con un encabezado columnar completo
+    public static long finDeEncabezado(FileChannel canal) throws IOException {
+        ByteBuffer fijo = ByteBuffer.allocate(10);
+        if (!leerCompleto(canal, fijo, 0) || fijo.getInt(0) != MAGICO) {
+            return -1;
+        }
+        if (fijo.getInt(4) != VERSION) {
+            throw new IOException("Versión de archivo columnar no soportada: " + fijo.getInt(4));
+        }
+        long fin = 10 + (fijo.getShort(8) & 0xFFFF);
+        return fin <= canal.size() ? fin : -1;
+    }
+
+    // Lee el segmento que empieza en "posicion" y devuelve dónde empieza el siguiente
+    // Devuelve -1 si no hay un segmento completo en esa posición (fin del archivo o segmento a medio escribir)
+    public static long leerSegmento(FileChannel canal, long posicion, Segmento segmento) throws IOException {
+        ByteBuffer encabezado = ByteBuffer.allocate(TAMANO_ENCABEZADO_SEGMENTO);
+        if (!leerCompleto(canal, encabezado, posicion)) {
+            return -1;
+        }
+        int filas = encabezado.getInt(0);
+        int descartadas = encabezado.getInt(4);
+        byte compresion = encabezado.get(8);
+        int largo = encabezado.getInt(9);
+        if (filas < 0 || descartadas < 0 || largo < 0 || filas > Integer.MAX_VALUE / 8) {
+            throw new IOException("Segmento columnar dañado en la posición " + posicion);
+        }
+
+        if (segmento.datos.length < largo) {
+            segmento.datos = new byte[largo];
+        }
+        if (!leerCompleto(canal, ByteBuffer.wrap(segmento.datos, 0, largo), posicion + TAMANO_ENCABEZADO_SEGMENTO)) {
+            return -1;
+        }
+
+        byte[] columnas = segmento.datos;
+        int bytesColumnas = filas * 8;
+        if (compresion == DEFLATE) {
+            columnas = descomprimir(segmento, largo, bytesColumnas);
+        } else if (compresion != SIN_COMPRIMIR || largo != bytesColumnas) {
+            throw new IOException("Segmento columnar dañado en la posición " + posicion);
+        }
+
+        if (segmento.ids.length < filas) {
+            segmento.ids = new int[filas];
+            segmento.cantidades = new int[filas];
+        }
+        ByteBuffer vista = ByteBuffer.wrap(columnas, 0, bytesColumnas).order(ByteOrder.LITTLE_ENDIAN);
+        vista.asIntBuffer().get(segmento.ids, 0, filas);
+        vista.position(filas * 4);
+        vista.asIntBuffer().get(segmento.cantidades, 0, filas);
+        segmento.filas = filas;
+        segmento.descartadas = descartadas;
+
+        return posicion + TAMANO_ENCABEZADO_SEGMENTO + largo;
+    }
+
+    private static byte[] descomprimir(Segmento segmento, int largo, int bytesColumnas) throws IOException {
+        if (segmento.descomprimidos.length < bytesColumnas) {
+            segmento.descomprimidos = new byte[bytesColumnas];
+        }
+        Inflater inflater = segmento.inflater;
+        inflater.reset();
+        inflater.setInput(segmento.datos, 0, largo);
+        try {
+            int total = 0;
+            while (total < bytesColumnas && !inflater.finished()) {
+                int obtenidos = inflater.inflate(segmento.descomprimidos, total, bytesColumnas - total);
+                if (obtenidos == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                total += obtenidos;
+            }
+            if (total != bytesColumnas) {
+                throw new IOException("Segmento columnar comprimido incompleto");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Segmento columnar comprimido dañado: " + e.getMessage());
+        }
+        return segmento.descomprimidos;
+    }
+
+    // Lee exactamente lo que cabe en el buffer desde la posición indicada; false si el archivo termina antes
+    private static boolean leerCompleto(FileChannel canal, ByteBuffer buffer, long posicion) throws IOException {
+        while (buffer.hasRemaining()) {
+            int leidos = canal.read(buffer, posicion);
+            if (leidos < 0) {
+                return false;
+            }
+            posicion += leidos;
+        }
+        return true;
+    }
+
+    // Escribe un archivo columnar fila por fila
+    // Se escribe primero en un temporal que terminar() mueve al destino; si se cierra sin terminar se borra
+    public static class Escritor implements Closeable {
+        private final File destino;
+        private final File temporal;
+        private final DataOutputStream salida;
+        private final boolean comprimir;
+        private final int[] ids;
+        private final int[] cantidades;
+        private final ByteBuffer columnas;
+        private byte[] comprimidos = new byte[0];
+        private Deflater deflater;
+        private int filas;
+        private int descartadas;
+        private long filasEscritas;
+        private boolean terminado;
+
+        public Escritor(File destino, String encabezado, boolean comprimir, int filasPorSegmento) throws IOException {
+            byte[] textoEncabezado = encabezado.getBytes(StandardCharsets.UTF_8);
+            if (textoEncabezado.length > 0xFFFF) {
+                throw new IOException("Encabezado demasiado largo para el formato columnar");
+            }
+
+            this.destino = destino;
+            this.temporal = new File(destino.getPath() + ".tmp");
+            this.comprimir = comprimir;
+            this.ids = new int[Math.max(1, filasPorSegmento)];
+            this.cantidades = new int[ids.length];
+            this.columnas = ByteBuffer.allocate(ids.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+            this.salida = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporal), 256 * 1024));
+
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+            salida.writeShort(textoEncabezado.length);
+            salida.write(textoEncabezado);
+        }
+
+        public void agregar(int idProducto, int cantidad) throws IOException {
+            ids[filas] = idProducto;
+            cantidades[filas] = cantidad;
+            filas++;
+            if (filas == ids.length) {
+                escribirSegmento();
+            }
+        }
+
+        // Cuenta una línea del texto que no se pudo interpretar (se conserva como error al procesar)
+        public void descartar() {
+            descartadas++;
+        }
+
+        public long getFilasEscritas() {
+            return filasEscritas + filas;
+        }
+
+        private void escribirSegmento() throws IOException {
+            columnas.clear();
+            columnas.asIntBuffer().put(ids, 0, filas);
+            columnas.position(filas * 4);
+            columnas.asIntBuffer().put(cantidades, 0, filas);
+            byte[] datos = columnas.array();
+            int largo = filas * 8;
+
+            byte compresion = SIN_COMPRIMIR;
+            if (comprimir) {
+                if (deflater == null) {
+                    deflater = new Deflater(Deflater.BEST_SPEED);
+                }
+                if (comprimidos.length < largo + 64) {
+                    comprimidos = new byte[largo + 64];
+                }
+                deflater.reset();
+                deflater.setInput(datos, 0, largo);
+                deflater.finish();
+                int comprimido = deflater.deflate(comprimidos);
+                // Si no ganamos nada se guarda sin comprimir
+                if (deflater.finished() && comprimido < largo) {
+                    compresion = DEFLATE;
+                    datos = comprimidos;
+                    largo = comprimido;
+                }
+            }
+
+            salida.writeInt(filas);
+            salida.writeInt(descartadas);
+            salida.writeByte(compresion);
+            salida.writeInt(largo);
+            salida.write(datos, 0, largo);
+
+            filasEscritas += filas;
+            filas = 0;
+            descartadas = 0;
+        }
+
+        // Escribe el último segmento y reemplaza el destino
+        public void terminar() throws IOException {
+            if (filas > 0 || descartadas > 0) {
+                escribirSegmento();
+            }
+            salida.close();
+            Files.move(temporal.toPath(), destino.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            terminado = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (deflater != null) {
+                deflater.end();
+            }
+            if (!terminado) {
+                salida.close();
+                Files.deleteIfExists(temporal.toPath());
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+import java.io.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+// Lectura de archivos de ventas comprimidos con gzip (ventas_<id>[_n].txt.gz) sin descomprimirlos antes a disco
+// Los archivos grandes se descomprimen en otro hilo por bloques, así la descompresión y la interpretación de líneas
+// avanzan a la vez; los chicos se descomprimen en el mismo hilo porque el traspaso costaría más que lo que se gana
+public class ArchivoComprimido {
+
+    public static final String EXTENSION = ".gz";
+
+    // Desde este tamaño comprimido conviene descomprimir en otro hilo
+    public static final long MINIMO_EN_SEGUNDO_PLANO = 256 * 1024;
+
+    private static final int TAMANO_LECTURA = 64 * 1024;
+
+    // Bloques descomprimidos que pueden esperar a ser interpretados; acota la memoria por archivo
+    private static final int BLOQUES_EN_VUELO = 4;
+    private static final int TAMANO_BLOQUE = 256 * 1024;
+
+    private ArchivoComprimido() {
+    }
+
+    public static boolean esComprimido(String nombre) {
+        return nombre.endsWith(EXTENSION);
+    }
+
+    // Abre el archivo ya descomprimido; con pool, la descompresión corre en uno de sus hilos
+    // Un archivo inexistente lanza FileNotFoundException aquí, igual que un archivo sin comprimir
+    public static InputStream abrir(File archivo, ExecutorService pool) throws IOException {
+        return abrir(new FileInputStream(archivo), archivo.getName(), pool);
+    }
+
+    // Igual, sobre el archivo ya abierto (por ejemplo, a través de un flujo que calcula su hash)
+    // Si la cabecera gzip no es válida, cierra el flujo recibido
+    public static InputStream abrir(InputStream comprimido, String nombre, ExecutorService pool) throws IOException {
+        InputStream descomprimido;
+        try {
+            descomprimido = new FlujoVerificado(new GZIPInputStream(comprimido, TAMANO_LECTURA), nombre);
+        } catch (IOException e) {
+            comprimido.close();
+            throw new IOException("Archivo comprimido dañado: " + nombre, e);
+        }
+        if (pool == null) {
+            return descomprimido;
+        }
+        DescompresionEnSegundoPlano flujo = new DescompresionEnSegundoPlano(descomprimido);
+        pool.execute(flujo::descomprimir);
+        return flujo;
+    }
+
+    // Agrega el nombre del archivo a los errores de gzip (datos corruptos o archivo cortado a la mitad)
+    private static final class FlujoVerificado extends FilterInputStream {
+        private final String nombre;
+
+        FlujoVerificado(InputStream entrada, String nombre) {
+            super(entrada);
+            this.nombre = nombre;
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int cantidad) throws IOException {
+            try {
+                return super.read(destino, desde, cantidad);
+            } catch (IOException e) {
+                throw new IOException("Archivo comprimido dañado: " + nombre, e);
+            }
+        }
+    }
+
+    // Un hilo del pool descomprime y deja los bloques en una cola acotada; el lector los toma en orden
+    // Los bloques vacíos vuelven por otra cola para reutilizarse
+    private static final class DescompresionEnSegundoPlano extends InputStream {
+        private static final Bloque FIN = new Bloque(0);
+
+        private final InputStream origen;
+        private final BlockingQueue<Bloque> llenos = new ArrayBlockingQueue<>(BLOQUES_EN_VUELO + 1);
+        private final BlockingQueue<Bloque> libres = new ArrayBlockingQueue<>(BLOQUES_EN_VUELO);
+        private volatile boolean cerrado;
+
+        // Lo marca el primero que toma el archivo: el hilo del pool al empezar o close si la tarea nunca corrió
+        private final AtomicBoolean tomado = new AtomicBoolean();
+
+        private Bloque actual;
+        private int posicion;
+
+        DescompresionEnSegundoPlano(InputStream origen) {
+            this.origen = origen;
+            for (int i = 0; i < BLOQUES_EN_VUELO; i++) {
+                libres.add(new Bloque(TAMANO_BLOQUE));
+            }
+        }
+
+        // Corre en el hilo del pool hasta terminar el archivo, fallar o que el lector cierre el flujo
+        void descomprimir() {
+            if (!tomado.compareAndSet(false, true)) {
+                return;
+            }
+            try (InputStream entrada = origen) {
+                while (!cerrado) {
+                    Bloque bloque = libres.poll(100, TimeUnit.MILLISECONDS);
+                    if (bloque == null) {
+                        continue;
+                    }
+                    bloque.cantidad = entrada.readNBytes(bloque.datos, 0, bloque.datos.length);
+                    if (bloque.cantidad == 0) {
+                        break;
+                    }
+                    llenos.put(bloque);
+                }
+                llenos.put(FIN);
+            } catch (IOException e) {
+                Bloque error = new Bloque(0);
+                error.error = e;
+                llenos.offer(error);
+            } catch (InterruptedException e) {
+                // El pool se está cerrando: el lector ya no espera más datos
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] uno = new byte[1];
+            return read(uno, 0, 1) < 0 ? -1 : uno[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int cantidad) throws IOException {
+            if (cantidad == 0) {
+                return 0;
+            }
+            while (actual == null || posicion == actual.cantidad) {
+                if (actual == FIN) {
+                    return -1;
+                }
+                if (actual != null) {
+                    libres.offer(actual);
+                }
+                actual = tomar();
+                posicion = 0;
+                if (actual.error != null) {
+                    IOException error = actual.error;
+                    actual = FIN;
+                    throw error;
+                }
+            }
+            int copiar = Math.min(cantidad, actual.cantidad - posicion);
+            System.arraycopy(actual.datos, posicion, destino, desde, copiar);
+            posicion += copiar;
+            return copiar;
+        }
+
+        private Bloque tomar() throws IOException {
+            try {
+                return llenos.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Lectura interrumpida");
+            }
+        }
+
+        // El hilo del pool ve la marca, deja de descomprimir y cierra el archivo
+        @Override
+        public void close() throws IOException {
+            cerrado = true;
+            libres.clear();
+            llenos.clear();
+            if (tomado.compareAndSet(false, true)) {
+                origen.close();
+            }
+        }
+    }
+
+    private static final class Bloque {
+        final byte[] datos;
+        int cantidad;
+        IOException error;
+
+        Bloque(int tamano) {
+            datos = new byte[tamano];
+        }
+    }
+}
@@ -0,0 +1,134 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+// Utilidades para leer archivos de ventas grandes mapeados en memoria
+// Divide el archivo en fragmentos que siempre empiezan y terminan en un límite de línea
+public class ArchivoMapeado {
+
+    private static final int TAMANO_LECTURA = 8 * 1024;
+
+    // Un mapeo de Java no puede superar los 2 GB
+    private static final long MAXIMO_MAPEO = Integer.MAX_VALUE;
+
+    private ArchivoMapeado() {
+    }
+
+    // Devuelve la posición donde empieza la segunda línea (justo después del encabezado)
+    // o -1 si el encabezado no existe o no contiene ';'
+    public static long finDeEncabezado(FileChannel canal) throws IOException {
+        ByteBuffer lectura = ByteBuffer.allocate(TAMANO_LECTURA);
+        long posicion = 0;
+        boolean tieneSeparador = false;
+
+        while (true) {
+            lectura.clear();
+            int leidos = canal.read(lectura, posicion);
+            if (leidos <= 0) {
+                // El archivo termina sin salto de línea después del encabezado
+                return posicion > 0 && tieneSeparador ? posicion : -1;
+            }
+
+            for (int i = 0; i < leidos; i++) {
+                byte b = lectura.get(i);
+                if (b == '\n' || b == '\r') {
+                    if (!tieneSeparador) {
+                        return -1;
+                    }
+                    return saltarFinDeLinea(canal, posicion + i);
+                }
+                if (b == ';') {
+                    tieneSeparador = true;
+                }
+            }
+            posicion += leidos;
+        }
+    }
+
+    // Divide [inicio, tamaño del archivo) en fragmentos de aproximadamente tamanoFragmento bytes
+    // Cada límite se corre hasta el comienzo de la línea siguiente para no partir ninguna venta
+    public static List<long[]> dividirEnLineas(FileChannel canal, long inicio, long tamanoFragmento) throws IOException {
+        long tamano = canal.size();
+        long paso = Math.max(1, Math.min(tamanoFragmento, MAXIMO_MAPEO / 2));
+        List<long[]> fragmentos = new ArrayList<>();
+
+        long desde = inicio;
+        while (desde < tamano) {
+            long hasta = desde + paso >= tamano ? tamano : inicioDeLinea(canal, desde + paso);
+            if (hasta - desde > MAXIMO_MAPEO) {
+                throw new IOException("Línea demasiado larga para mapear en memoria cerca de la posición " + desde);
+            }
+            fragmentos.add(new long[] {desde, hasta});
+            desde = hasta;
+        }
+
+        return fragmentos;
+    }
+
+    // Abre un fragmento del archivo mapeado en memoria como flujo de bytes
+    public static InputStream abrirFragmento(FileChannel canal, long desde, long hasta) throws IOException {
+        MappedByteBuffer mapeo = canal.map(FileChannel.MapMode.READ_ONLY, desde, hasta - desde);
+        return new EntradaMapeada(mapeo);
+    }
+
+    // Busca el comienzo de la primera línea que empieza en o después de la posición indicada
+    private static long inicioDeLinea(FileChannel canal, long posicion) throws IOException {
+        ByteBuffer lectura = ByteBuffer.allocate(TAMANO_LECTURA);
+        long actual = posicion - 1; // Si justo antes hay un salto de línea, la posición ya es un límite
+
+        while (true) {
+            lectura.clear();
+            int leidos = canal.read(lectura, actual);
+            if (leidos <= 0) {
+                return canal.size();
+            }
+            for (int i = 0; i < leidos; i++) {
+                byte b = lectura.get(i);
+                if (b == '\n' || b == '\r') {
+                    return saltarFinDeLinea(canal, actual + i);
+                }
+            }
+            actual += leidos;
+        }
+    }
+
+    // Devuelve la posición que sigue al final de línea encontrado en "posicion", tratando \r\n como uno solo
+    private static long saltarFinDeLinea(FileChannel canal, long posicion) throws IOException {
+        ByteBuffer unByte = ByteBuffer.allocate(1);
+        canal.read(unByte, posicion);
+        if (unByte.get(0) == '\r') {
+            unByte.clear();
+            if (canal.read(unByte, posicion + 1) == 1 && unByte.get(0) == '\n') {
+                return posicion + 2;
+            }
+        }
+        return posicion + 1;
+    }
+
+    // Flujo de lectura sobre un buffer mapeado; copia en bloque al buffer de LectorLineas
+    private static class EntradaMapeada extends InputStream {
+        private final ByteBuffer buffer;
+
+        EntradaMapeada(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] destino, int desplazamiento, int longitud) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int cantidad = Math.min(longitud, buffer.remaining());
+            buffer.get(destino, desplazamiento, cantidad);
+            return cantidad;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Catálogo de productos en un formato binario de registros de tamaño fijo
+// Reemplaza a productos_serializados.dat: se mapea en memoria y se consulta por ID sin deserializar nada
+//
+// Formato (big endian):
+//   encabezado: "CATB" (int), versión (int), cantidad de registros (int), bytes reservados para el nombre (int)
+//   registro:   id (int), precio (double, NaN = sin precio), largo del nombre (short), nombre UTF-8 (relleno con ceros)
+// Los registros están ordenados por ID para poder buscar con búsqueda binaria
+public class CatalogoBinario {
+
+    public static final String NOMBRE_ARCHIVO = "productos_catalogo.bin";
+
+    private static final int MAGICO = 0x43415442; // "CATB"
+    private static final int VERSION = 1;
+    private static final int TAMANO_ENCABEZADO = 16;
+    private static final int TAMANO_FIJO_REGISTRO = 4 + 8 + 2;
+
+    private final ByteBuffer datos;
+    private final int cantidad;
+    private final int tamanoRegistro;
+
+    private CatalogoBinario(ByteBuffer datos, int cantidad, int anchoNombre) {
+        this.datos = datos;
+        this.cantidad = cantidad;
+        this.tamanoRegistro = TAMANO_FIJO_REGISTRO + anchoNombre;
+    }
+
+    // Escribe el catálogo; si un ID se repite se conserva la primera aparición
+    public static void escribir(File destino, int[] ids, String[] nombres, double[] precios) throws IOException {
+        Integer[] orden = new Integer[ids.length];
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, (a, b) -> ids[a] != ids[b] ? Integer.compare(ids[a], ids[b]) : Integer.compare(a, b));
+
+        byte[][] nombresUtf8 = new byte[ids.length][];
+        int anchoNombre = 0;
+        for (int i = 0; i < ids.length; i++) {
+            nombresUtf8[i] = nombres[i].getBytes(StandardCharsets.UTF_8);
+            if (nombresUtf8[i].length > Short.MAX_VALUE) {
+                throw new IOException("Nombre de producto demasiado largo para el catálogo binario: ID " + ids[i]);
+            }
+            anchoNombre = Math.max(anchoNombre, nombresUtf8[i].length);
+        }
+
+        int unicos = 0;
+        for (int i = 0; i < orden.length; i++) {
+            if (i == 0 || ids[orden[i]] != ids[orden[i - 1]]) {
+                unicos++;
+            }
+        }
+
+        try (DataOutputStream salida = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(destino), 256 * 1024))) {
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+            salida.writeInt(unicos);
+            salida.writeInt(anchoNombre);
+
+            byte[] relleno = new byte[anchoNombre];
+            for (int i = 0; i < orden.length; i++) {
+                if (i > 0 && ids[orden[i]] == ids[orden[i - 1]]) {
+                    continue;
+                }
+                int j = orden[i];
+                salida.writeInt(ids[j]);
+                salida.writeDouble(precios[j]);
+                salida.writeShort(nombresUtf8[j].length);
+                salida.write(nombresUtf8[j]);
+                salida.write(relleno, 0, anchoNombre - nombresUtf8[j].length);
+            }
+        }
+    }
+
+    // Mapea el archivo en memoria y revisa su encabezado
+    public static CatalogoBinario abrir(File archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano < TAMANO_ENCABEZADO || tamano > Integer.MAX_VALUE) {
+                throw new IOException("Catálogo binario con tamaño inválido: " + archivo.getName());
+            }
+
+            MappedByteBuffer datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+            if (datos.getInt(0) != MAGICO) {
+                throw new IOException("No es un catálogo binario: " + archivo.getName());
+            }
+            if (datos.getInt(4) != VERSION) {
+                throw new IOException("Versión de catálogo binario no soportada: " + datos.getInt(4));
+            }
+
+            int cantidad = datos.getInt(8);
+            int anchoNombre = datos.getInt(12);
+            if (cantidad < 0 || anchoNombre < 0
+                    || TAMANO_ENCABEZADO + (long) cantidad * (TAMANO_FIJO_REGISTRO + anchoNombre) != tamano) {
+                throw new IOException("Catálogo binario incompleto o dañado: " + archivo.getName());
+            }
+
+            return new CatalogoBinario(datos, cantidad, anchoNombre);
+        }
+    }
+
+    public int cantidad() {
+        return cantidad;
+    }
+
+    // Número de registro del producto, o -1 si el ID no está (búsqueda binaria sobre el archivo mapeado)
+    public int buscar(int idProducto) {
+        int desde = 0;
+        int hasta = cantidad - 1;
+        while (desde <= hasta) {
+            int medio = (desde + hasta) >>> 1;
+            int id = id(medio);
+            if (id < idProducto) {
+                desde = medio + 1;
+            } else if (id > idProducto) {
+                hasta = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -1;
+    }
+
+    public int id(int registro) {
+        return datos.getInt(inicio(registro));
+    }
+
+    public double precio(int registro) {
+        return datos.getDouble(inicio(registro) + 4);
+    }
+
+    public String nombre(int registro) {
+        int inicio = inicio(registro);
+        int largo = datos.getShort(inicio + 12);
+        byte[] bytes = new byte[largo];
+        datos.get(inicio + TAMANO_FIJO_REGISTRO, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int inicio(int registro) {
+        return TAMANO_ENCABEZADO + registro * tamanoRegistro;
+    }
+}
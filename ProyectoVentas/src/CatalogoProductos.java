@@ -0,0 +1,219 @@
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Catálogo de productos cargado una sola vez en memoria
+// Reemplaza las búsquedas que volvían a leer productos.txt por cada línea de venta
+public class CatalogoProductos {
+
+    // Última versión cargada de cada archivo, para no volver a leerlo si no cambió
+    private static final Map<String, CatalogoProductos> cargados = new HashMap<>();
+
+    private final String rutaArchivo;
+    private final long tamanoArchivo;
+    private final long fechaModificacion;
+
+    // Precio de un producto cuya línea no trae precio
+    private static final long SIN_PRECIO = Long.MIN_VALUE;
+
+    // Los precios se guardan en centavos para que las ventas se sumen con enteros exactos
+    private final int[] ids;
+    private final String[] nombres;
+    private final long[] precios;
+    private final IndiceEnteros posicionPorId;
+
+    private CatalogoProductos(String rutaArchivo, long tamanoArchivo, long fechaModificacion,
+            int[] ids, String[] nombres, long[] precios, IndiceEnteros posicionPorId) {
+        this.rutaArchivo = rutaArchivo;
+        this.tamanoArchivo = tamanoArchivo;
+        this.fechaModificacion = fechaModificacion;
+        this.ids = ids;
+        this.nombres = nombres;
+        this.precios = precios;
+        this.posicionPorId = posicionPorId;
+    }
+
+    // Devuelve el catálogo del archivo indicado
+    // Si junto a productos.txt hay un productos_catalogo.bin igual o más nuevo, se carga ese (arranque rápido)
+    // Solo vuelve a leer el archivo si cambió su tamaño o su fecha de modificación
+    public static synchronized CatalogoProductos obtener(String rutaArchivo) throws IOException {
+        File archivo = new File(rutaArchivo);
+        File binario = new File(archivo.getAbsoluteFile().getParentFile(), CatalogoBinario.NOMBRE_ARCHIVO);
+        boolean usarBinario = binario.exists() && (!archivo.exists() || binario.lastModified() >= archivo.lastModified());
+        File origen = usarBinario ? binario : archivo;
+        if (!origen.exists()) {
+            throw new FileNotFoundException(rutaArchivo + " (no existe el catálogo de productos)");
+        }
+
+        CatalogoProductos anterior = cargados.get(rutaArchivo);
+        if (anterior != null && !anterior.cambio(origen)) {
+            return anterior;
+        }
+
+        CatalogoProductos nuevo = usarBinario ? cargarBinario(binario) : cargar(archivo);
+        cargados.put(rutaArchivo, nuevo);
+        return nuevo;
+    }
+
+    // Carga el catálogo desde el formato binario de registros fijos
+    // No hay deserialización de objetos: se recorren los registros del archivo mapeado
+    private static CatalogoProductos cargarBinario(File archivo) throws IOException {
+        long tamano = archivo.length();
+        long fecha = archivo.lastModified();
+        CatalogoBinario binario = CatalogoBinario.abrir(archivo);
+
+        int total = binario.cantidad();
+        int[] ids = new int[total];
+        String[] nombres = new String[total];
+        long[] precios = new long[total];
+        IndiceEnteros posiciones = new IndiceEnteros(total);
+
+        for (int i = 0; i < total; i++) {
+            ids[i] = binario.id(i);
+            nombres[i] = binario.nombre(i);
+            precios[i] = aCentavos(binario.precio(i));
+            posiciones.agregarSiAusente(ids[i], i);
+        }
+
+        return new CatalogoProductos(archivo.getPath(), tamano, fecha, ids, nombres, precios, posiciones);
+    }
+
+    // Escribe este catálogo en formato binario para que la próxima carga sea inmediata
+    // El formato binario guarda el precio como double; los centavos se recuperan exactos al cargarlo
+    public void guardarBinario(File destino) throws IOException {
+        double[] enUnidades = new double[precios.length];
+        for (int i = 0; i < precios.length; i++) {
+            enUnidades[i] = precios[i] == SIN_PRECIO ? Double.NaN : precios[i] / 100.0;
+        }
+        CatalogoBinario.escribir(destino, ids, nombres, enUnidades);
+    }
+
+    // Lee productos.txt completo y arma el índice por ID
+    private static CatalogoProductos cargar(File archivo) throws IOException {
+        long tamano = archivo.length();
+        long fecha = archivo.lastModified();
+
+        List<Integer> listaIds = new ArrayList<>();
+        List<String> listaNombres = new ArrayList<>();
+        List<Long> listaPrecios = new ArrayList<>();
+        IndiceEnteros posiciones = new IndiceEnteros(64);
+
+        try (BufferedReader productosReader = new BufferedReader(new FileReader(archivo, StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = productosReader.readLine()) != null) {
+                if (linea.trim().isEmpty()) {
+                    continue;
+                }
+
+                String[] datosProducto = linea.split(";");
+                if (datosProducto.length < 2) {
+                    System.err.println("  Formato inválido en " + archivo.getName() + ": " + linea);
+                    continue;
+                }
+
+                int id;
+                long precio = SIN_PRECIO;
+                try {
+                    id = Integer.parseInt(datosProducto[0]);
+                    if (datosProducto.length >= 3) {
+                        // Se lee el texto tal cual, sin pasar por double, para no perder centavos
+                        precio = ImporteCentavos.aCentavos(new BigDecimal(datosProducto[2].trim()));
+                    }
+                } catch (NumberFormatException | ArithmeticException e) {
+                    System.err.println("  Error de formato numérico en " + archivo.getName() + ": " + linea);
+                    continue;
+                }
+
+                // Si el ID se repite, conservamos la primera aparición como hacía la búsqueda lineal
+                int posicion = posiciones.obtener(id);
+                if (posicion < 0) {
+                    posicion = listaIds.size();
+                    posiciones.agregarSiAusente(id, posicion);
+                    listaIds.add(id);
+                    listaNombres.add(datosProducto[1]);
+                    listaPrecios.add(precio);
+                } else if (listaPrecios.get(posicion) == SIN_PRECIO) {
+                    listaPrecios.set(posicion, precio);
+                }
+            }
+        }
+
+        int total = listaIds.size();
+        int[] ids = new int[total];
+        String[] nombres = new String[total];
+        long[] precios = new long[total];
+        for (int i = 0; i < total; i++) {
+            ids[i] = listaIds.get(i);
+            nombres[i] = listaNombres.get(i);
+            precios[i] = listaPrecios.get(i);
+        }
+
+        return new CatalogoProductos(archivo.getPath(), tamano, fecha, ids, nombres, precios, posiciones);
+    }
+
+    // Indica si el archivo en disco ya no corresponde a lo que tenemos cargado
+    private boolean cambio(File archivo) {
+        return !archivo.getPath().equals(rutaArchivo)
+            || archivo.length() != tamanoArchivo || archivo.lastModified() != fechaModificacion;
+    }
+
+    // Posición interna del producto (0..tamano-1), o -1 si el ID no existe
+    public int posicion(int idProducto) {
+        return posicionPorId.obtener(idProducto);
+    }
+
+    // Precio unitario del producto en centavos, o 0 si no existe o su precio no es válido
+    public long precioCentavos(int idProducto) {
+        int posicion = posicionPorId.obtener(idProducto);
+        if (posicion < 0) {
+            return 0;
+        }
+        return precios[posicion] > 0 ? precios[posicion] : 0;
+    }
+
+    // Nombre del producto, o "Producto Desconocido" si el ID no existe
+    public String nombre(int idProducto) {
+        int posicion = posicionPorId.obtener(idProducto);
+        return posicion < 0 ? "Producto Desconocido" : nombres[posicion];
+    }
+
+    // ID del producto guardado en una posición interna del catálogo
+    public int idEnPosicion(int posicion) {
+        return ids[posicion];
+    }
+
+    // Precio en centavos tal como aparece en el catálogo, aunque no sea válido para sumar ventas
+    // Lo usa el reporte de productos; 0 si el ID no existe o su línea no traía precio
+    public long precioCatalogoCentavos(int idProducto) {
+        int posicion = posicionPorId.obtener(idProducto);
+        return posicion < 0 || precios[posicion] == SIN_PRECIO ? 0 : precios[posicion];
+    }
+
+    // Precio del catálogo binario (double, NaN = sin precio) convertido a centavos
+    // BigDecimal.valueOf usa el decimal más corto que representa al double: 19.99 vuelve a ser 1999 centavos
+    private static long aCentavos(double precio) {
+        if (Double.isNaN(precio) || Double.isInfinite(precio)) {
+            return SIN_PRECIO;
+        }
+        try {
+            return ImporteCentavos.aCentavos(BigDecimal.valueOf(precio));
+        } catch (ArithmeticException e) {
+            return SIN_PRECIO; // No cabe en un long de centavos
+        }
+    }
+
+    // Identifica la versión cargada del catálogo (ruta, tamaño y fecha del archivo)
+    // El checkpoint la usa para descartar resultados calculados con otros precios
+    public String huella() {
+        return new File(rutaArchivo).getAbsolutePath() + ";" + tamanoArchivo + ";" + fechaModificacion;
+    }
+
+    public int tamano() {
+        return ids.length;
+    }
+
+    public String getRutaArchivo() {
+        return rutaArchivo;
+    }
+}
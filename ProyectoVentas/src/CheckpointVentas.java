@@ -0,0 +1,266 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
+
+// Guarda entre ejecuciones lo que aportó cada archivo de ventas
+// En la siguiente ejecución solo se vuelven a leer los archivos nuevos o modificados
+public class CheckpointVentas {
+
+    private static final int MAGICO = 0x56434B50; // "VCKP"
+    private static final int VERSION = 6;
+
+    // Datos de un archivo tal como estaba cuando se procesó
+    private static class Entrada {
+        final long tamano;
+        final long fecha;
+        final int hash;
+        final ParcialArchivo parcial;
+
+        Entrada(long tamano, long fecha, int hash, ParcialArchivo parcial) {
+            this.tamano = tamano;
+            this.fecha = fecha;
+            this.hash = hash;
+            this.parcial = parcial;
+        }
+    }
+
+    private final File archivoCheckpoint;
+    private final String huellaCatalogo;
+
+    // Si las entradas traen el desglose por día y tienda (--consolidados)
+    private final boolean conDesglose;
+
+    // Umbrales de errores con que se decidió qué archivos se omitían (0 = sin límite)
+    private final int maximoErrores;
+    private final int maximoPorcentaje;
+
+    // Lo que se leyó del checkpoint anterior (solo lectura)
+    private final Map<String, Entrada> anteriores;
+
+    // Lo que se guardará al terminar: solo los archivos que existen en esta ejecución
+    private final Map<String, Entrada> vigentes = new ConcurrentHashMap<>();
+
+    private final AtomicInteger reutilizados = new AtomicInteger();
+    private final AtomicInteger procesados = new AtomicInteger();
+
+    private CheckpointVentas(File archivoCheckpoint, String huellaCatalogo, boolean conDesglose, int maximoErrores,
+            int maximoPorcentaje, Map<String, Entrada> anteriores) {
+        this.archivoCheckpoint = archivoCheckpoint;
+        this.huellaCatalogo = huellaCatalogo;
+        this.conDesglose = conDesglose;
+        this.maximoErrores = maximoErrores;
+        this.maximoPorcentaje = maximoPorcentaje;
+        this.anteriores = anteriores;
+    }
+
+    // Lee el checkpoint anterior
+    // Si no existe, está dañado o se generó con otro catálogo, se empieza de cero
+    // Lo mismo si ahora se pide el desglose por día y tienda y el checkpoint anterior no lo tiene,
+    // o si cambiaron los umbrales de errores: un archivo guardado podría tener que omitirse ahora, o al revés
+    public static CheckpointVentas cargar(File archivoCheckpoint, CatalogoProductos catalogo, boolean desglose,
+            int maximoErrores, int maximoPorcentaje) {
+        String huella = catalogo.huella();
+        Map<String, Entrada> anteriores = new HashMap<>();
+
+        if (archivoCheckpoint.exists()) {
+            try (DataInputStream entrada = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(archivoCheckpoint), 256 * 1024))) {
+                if (entrada.readInt() != MAGICO || entrada.readInt() != VERSION) {
+                    System.err.println("Checkpoint con formato desconocido, se procesará todo: " + archivoCheckpoint);
+                } else if (!entrada.readUTF().equals(huella)) {
+                    System.out.println("El catálogo de productos cambió: se procesarán todos los archivos");
+                } else if (!entrada.readBoolean() && desglose) {
+                    System.out.println("El checkpoint no tiene el desglose por día y tienda: se procesarán todos los archivos");
+                } else if (entrada.readInt() != maximoErrores || entrada.readInt() != maximoPorcentaje) {
+                    System.out.println("Cambiaron los umbrales de errores: se procesarán todos los archivos");
+                } else {
+                    leerEntradas(entrada, anteriores);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                // IllegalArgumentException: un ID de producto imposible, el archivo está dañado
+                System.err.println("No se pudo leer el checkpoint, se procesará todo: " + e.getMessage());
+                anteriores.clear();
+            }
+        }
+
+        return new CheckpointVentas(archivoCheckpoint, huella, desglose, maximoErrores, maximoPorcentaje, anteriores);
+    }
+
+    private static void leerEntradas(DataInputStream entrada, Map<String, Entrada> anteriores) throws IOException {
+        int cantidad = entrada.readInt();
+        for (int i = 0; i < cantidad; i++) {
+            String ruta = entrada.readUTF();
+            long tamano = entrada.readLong();
+            long fecha = entrada.readLong();
+            int hash = entrada.readInt();
+
+            ParcialArchivo parcial = new ParcialArchivo();
+            parcial.encabezadoValido = entrada.readBoolean();
+            parcial.total.leer(entrada);
+            parcial.lineas = entrada.readLong();
+            parcial.errores = entrada.readLong();
+            int productos = entrada.readInt();
+            for (int j = 0; j < productos; j++) {
+                parcial.productos.sumar(entrada.readInt(), entrada.readLong());
+            }
+            parcial.celdas = ConsolidadoVentas.leerCeldas(entrada);
+
+            anteriores.put(ruta, new Entrada(tamano, fecha, hash, parcial));
+        }
+    }
+
+    // Devuelve lo que aportó el archivo en la ejecución anterior, o null si hay que volver a procesarlo
+    // Si cambió la fecha pero no el tamaño, se compara el contenido antes de descartarlo (buffer: el del hilo)
+    // Con soloSinRechazos (hay cuarentena) los archivos con líneas rechazadas se vuelven a leer para registrarlas
+    public ParcialArchivo buscar(File archivoVentas, byte[] buffer, boolean soloSinRechazos) throws IOException {
+        String ruta = archivoVentas.getAbsolutePath();
+        Entrada anterior = anteriores.get(ruta);
+        if (anterior == null || archivoVentas.length() != anterior.tamano) {
+            return null;
+        }
+        if (soloSinRechazos && (anterior.parcial.errores > 0 || !anterior.parcial.encabezadoValido)) {
+            return null;
+        }
+
+        Entrada vigente = anterior;
+        long fecha = archivoVentas.lastModified();
+        if (fecha != anterior.fecha) {
+            if (calcularHash(archivoVentas, anterior.tamano, buffer) != anterior.hash) {
+                return null;
+            }
+            vigente = new Entrada(anterior.tamano, fecha, anterior.hash, anterior.parcial);
+        }
+
+        vigentes.put(ruta, vigente);
+        reutilizados.incrementAndGet();
+        return anterior.parcial;
+    }
+
+    // Registra un archivo recién procesado
+    // tamano y fecha se toman antes de leerlo; si cambió mientras se leía no se guarda
+    // lectura: el flujo con que se leyó de corrido (o null); si no cubrió el archivo entero, se vuelve a leer con buffer
+    public void registrar(File archivoVentas, long tamano, long fecha, ParcialArchivo parcial,
+            LecturaConHash lectura, byte[] buffer) throws IOException {
+        procesados.incrementAndGet();
+        if (archivoVentas.length() != tamano || archivoVentas.lastModified() != fecha) {
+            return;
+        }
+        int hash = lectura != null && lectura.leidos == tamano
+            ? lectura.hash()
+            : calcularHash(archivoVentas, tamano, buffer);
+        vigentes.put(archivoVentas.getAbsolutePath(), new Entrada(tamano, fecha, hash, parcial));
+    }
+
+    // Escribe el checkpoint en un archivo temporal y luego lo reemplaza
+    // Así una ejecución interrumpida nunca deja un checkpoint a medio escribir
+    public void guardar() throws IOException {
+        File temporal = new File(archivoCheckpoint.getPath() + ".tmp");
+
+        try (DataOutputStream salida = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temporal), 256 * 1024))) {
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+            salida.writeUTF(huellaCatalogo);
+            salida.writeBoolean(conDesglose);
+            salida.writeInt(maximoErrores);
+            salida.writeInt(maximoPorcentaje);
+            salida.writeInt(vigentes.size());
+
+            for (Map.Entry<String, Entrada> registro : vigentes.entrySet()) {
+                Entrada entrada = registro.getValue();
+                ParcialArchivo parcial = entrada.parcial;
+
+                salida.writeUTF(registro.getKey());
+                salida.writeLong(entrada.tamano);
+                salida.writeLong(entrada.fecha);
+                salida.writeInt(entrada.hash);
+                salida.writeBoolean(parcial.encabezadoValido);
+                parcial.total.escribir(salida);
+                salida.writeLong(parcial.lineas);
+                salida.writeLong(parcial.errores);
+                salida.writeInt(parcial.productos.tamano());
+                for (int j = 0; j < parcial.productos.tamano(); j++) {
+                    salida.writeInt(parcial.productos.id(j));
+                    salida.writeLong(parcial.productos.unidades(j));
+                }
+                ConsolidadoVentas.escribirCeldas(salida, parcial.celdas);
+            }
+        }
+
+        Files.move(temporal.toPath(), archivoCheckpoint.toPath(),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // CRC32C de los primeros "tamano" bytes del archivo, leídos con el buffer del hilo
+    private static int calcularHash(File archivo, long tamano, byte[] buffer) throws IOException {
+        CRC32C crc = new CRC32C();
+
+        try (InputStream entrada = new FileInputStream(archivo)) {
+            long posicion = 0;
+            while (posicion < tamano) {
+                int leidos = entrada.read(buffer, 0, (int) Math.min(buffer.length, tamano - posicion));
+                if (leidos < 0) {
+                    break;
+                }
+                crc.update(buffer, 0, leidos);
+                posicion += leidos;
+            }
+        }
+
+        return (int) crc.getValue();
+    }
+
+    // Calcula el CRC32C de los bytes a medida que el agregador los lee, para no leer el archivo dos veces
+    public static final class LecturaConHash extends FilterInputStream {
+        private final CRC32C crc = new CRC32C();
+        private long leidos;
+
+        public LecturaConHash(InputStream entrada) {
+            super(entrada);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int valor = super.read();
+            if (valor >= 0) {
+                crc.update(valor);
+                leidos++;
+            }
+            return valor;
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int cantidad) throws IOException {
+            int leidosAhora = super.read(destino, desde, cantidad);
+            if (leidosAhora > 0) {
+                crc.update(destino, desde, leidosAhora);
+                leidos += leidosAhora;
+            }
+            return leidosAhora;
+        }
+
+        // Lo saltado también cuenta para el hash, así que se lee igual
+        @Override
+        public long skip(long cantidad) throws IOException {
+            byte[] descarte = new byte[(int) Math.min(cantidad, 8192)];
+            int leidosAhora = cantidad <= 0 ? 0 : read(descarte, 0, descarte.length);
+            return Math.max(leidosAhora, 0);
+        }
+
+        int hash() {
+            return (int) crc.getValue();
+        }
+    }
+
+    public int getReutilizados() {
+        return reutilizados.get();
+    }
+
+    public int getProcesados() {
+        return procesados.get();
+    }
+}
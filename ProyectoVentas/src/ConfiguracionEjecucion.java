@@ -0,0 +1,380 @@
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Opciones de ejecución que se pasan a Main por línea de comandos
+// Todas tienen un valor por defecto para que "java Main" siga funcionando igual que antes
+public class ConfiguracionEjecucion {
+
+    // Directorio donde están productos.txt, vendedores.txt y los archivos de ventas
+    private String directorioDatos = ".";
+
+    // Cantidad de hilos que procesan vendedores en paralelo (1 = modo secuencial)
+    private int hilos = 1;
+
+    // Si es true, los archivos de ventas grandes se mapean en memoria y se procesan por fragmentos
+    private boolean lecturaMapeada = false;
+
+    // Tamaño aproximado de cada fragmento de un archivo mapeado
+    private long tamanoFragmento = 64L * 1024 * 1024;
+
+    // Archivo del checkpoint del modo incremental (null = procesar siempre todo)
+    private String archivoCheckpoint = null;
+
+    // Modo vigilancia: seguir los archivos de ventas y actualizar los reportes cada cierto tiempo
+    private boolean vigilar = false;
+
+    // Segundos que se esperan después de un cambio para juntar varios antes de actualizar
+    private int intervaloSegundos = 60;
+
+    // Filas de cada reporte: 0 = el ranking completo, K = solo los K mejores
+    private int topReporte = 0;
+
+    // Filas que un reporte completo ordena en memoria; si hay más se ordenan por tramos en disco
+    private int filasReporteEnMemoria = 1_000_000;
+
+    // Archivo donde se exportan las métricas (null = no exportar); .prom para Prometheus, JSON en otro caso
+    private String archivoMetricas = null;
+
+    // Cada cuántos segundos se reescribe el archivo de métricas mientras el programa trabaja (0 = solo al final)
+    private int intervaloMetricasSegundos = 10;
+
+    // Mensajes de detalle por segundo en la consola (líneas inválidas, archivos, vendedores); 0 = ninguno
+    private int mensajesPorSegundo = 100;
+
+    // Archivo donde van las líneas rechazadas con su motivo (null = solo se avisan en la consola)
+    private String archivoCuarentena = null;
+
+    // Umbrales de errores por archivo: más errores que esto, o más de este porcentaje de líneas (0 = sin límite)
+    private int maximoErroresPorArchivo = 0;
+    private int maximoPorcentajeErrores = 0;
+
+    // Qué hacer con un archivo que pasa el umbral: omitirlo (no suma nada) o abortar toda la ejecución
+    private boolean abortarSiExcedeErrores = false;
+
+    // Directorio de los consolidados por día y tienda (null = no se desglosan las ventas)
+    private String directorioConsolidados = null;
+
+    // Modo consulta: responder desde los consolidados sin leer los archivos de ventas
+    private boolean consulta = false;
+
+    // Rango de días de la consulta (días desde 1970-01-01, ambos incluidos) y tiendas (null = todas)
+    private boolean rangoFechas = false;
+    private int desde = Integer.MIN_VALUE;
+    private int hasta = Integer.MAX_VALUE;
+    private Set<String> tiendas = null;
+
+    // Puerto del servidor de consultas HTTP (-1 = sin servidor; 0 = uno libre que elige el sistema)
+    private int puertoServidor = -1;
+
+    // Modo partición: procesar solo la partición "particion" de "particiones" y guardar un resultado parcial
+    private int particion = 0;
+    private int particiones = 1;
+    private String archivoParcial = null;
+
+    // Memoria para los datos de los vendedores (índice de archivos, totales y ranking); 0 = sin límite
+    // Con límite los vendedores se procesan por tandas y el ranking se ordena por tramos en disco
+    private int memoriaMb = 0;
+
+    // Resultados parciales (archivos o directorios) que se combinan en los reportes finales (null = no combinar)
+    private List<String> parcialesACombinar = null;
+
+    // Interpreta argumentos del estilo --opcion=valor
+    public static ConfiguracionEjecucion desdeArgumentos(String[] args) {
+        ConfiguracionEjecucion configuracion = new ConfiguracionEjecucion();
+
+        for (String argumento : args) {
+            int separador = argumento.indexOf('=');
+            String opcion = separador < 0 ? argumento : argumento.substring(0, separador);
+            String valor = separador < 0 ? "" : argumento.substring(separador + 1);
+
+            switch (opcion) {
+                case "--hilos":
+                    // 0 significa usar todos los núcleos disponibles
+                    int hilos = leerEntero(opcion, valor);
+                    configuracion.hilos = hilos == 0 ? Runtime.getRuntime().availableProcessors() : hilos;
+                    break;
+                case "--datos":
+                    if (valor.isEmpty()) {
+                        throw new IllegalArgumentException("Falta el directorio en --datos");
+                    }
+                    configuracion.directorioDatos = valor;
+                    break;
+                case "--lectura":
+                    if (!valor.equals("flujo") && !valor.equals("mapeo")) {
+                        throw new IllegalArgumentException("Valor inválido para --lectura (flujo o mapeo): " + valor);
+                    }
+                    configuracion.lecturaMapeada = valor.equals("mapeo");
+                    break;
+                case "--fragmento-mb":
+                    configuracion.tamanoFragmento = Math.max(1, leerEntero(opcion, valor)) * 1024L * 1024;
+                    break;
+                case "--incremental":
+                    configuracion.archivoCheckpoint = valor.isEmpty() ? "checkpoint_ventas.dat" : valor;
+                    break;
+                case "--vigilar":
+                    configuracion.vigilar = true;
+                    break;
+                case "--intervalo-s":
+                    configuracion.intervaloSegundos = leerEntero(opcion, valor);
+                    break;
+                case "--top":
+                    configuracion.topReporte = leerEntero(opcion, valor);
+                    break;
+                case "--reporte-memoria":
+                    configuracion.filasReporteEnMemoria = Math.max(1, leerEntero(opcion, valor));
+                    break;
+                case "--metricas":
+                    configuracion.archivoMetricas = valor.isEmpty() ? "metricas_ventas.json" : valor;
+                    break;
+                case "--metricas-intervalo-s":
+                    configuracion.intervaloMetricasSegundos = leerEntero(opcion, valor);
+                    break;
+                case "--mensajes-por-segundo":
+                    configuracion.mensajesPorSegundo = leerEntero(opcion, valor);
+                    break;
+                case "--cuarentena":
+                    configuracion.archivoCuarentena = valor.isEmpty() ? "cuarentena_ventas.txt" : valor;
+                    break;
+                case "--max-errores-archivo":
+                    configuracion.maximoErroresPorArchivo = leerEntero(opcion, valor);
+                    break;
+                case "--max-porcentaje-errores":
+                    int porcentaje = leerEntero(opcion, valor);
+                    if (porcentaje > 100) {
+                        throw new IllegalArgumentException("El valor de --max-porcentaje-errores va de 0 a 100: " + valor);
+                    }
+                    configuracion.maximoPorcentajeErrores = porcentaje;
+                    break;
+                case "--si-excede-errores":
+                    if (!valor.equals("omitir") && !valor.equals("abortar")) {
+                        throw new IllegalArgumentException("Valor inválido para --si-excede-errores (omitir o abortar): " + valor);
+                    }
+                    configuracion.abortarSiExcedeErrores = valor.equals("abortar");
+                    break;
+                case "--consolidados":
+                    configuracion.directorioConsolidados = valor.isEmpty() ? "consolidados" : valor;
+                    break;
+                case "--consulta":
+                    configuracion.consulta = true;
+                    break;
+                case "--desde":
+                    configuracion.desde = leerFecha(opcion, valor);
+                    configuracion.rangoFechas = true;
+                    break;
+                case "--hasta":
+                    configuracion.hasta = leerFecha(opcion, valor);
+                    configuracion.rangoFechas = true;
+                    break;
+                case "--tienda":
+                    if (valor.isEmpty()) {
+                        throw new IllegalArgumentException("Falta la tienda en --tienda");
+                    }
+                    configuracion.tiendas = new LinkedHashSet<>(Arrays.asList(valor.split(",")));
+                    break;
+                case "--servidor":
+                    // El servidor responde desde los totales del modo vigilancia
+                    int puerto = valor.isEmpty() ? 8080 : leerEntero(opcion, valor);
+                    if (puerto > 65535) {
+                        throw new IllegalArgumentException("Puerto inválido para --servidor: " + valor);
+                    }
+                    configuracion.puertoServidor = puerto;
+                    configuracion.vigilar = true;
+                    break;
+                case "--particion":
+                    // i/N: esta ejecución toma la partición i (desde 0) de N
+                    int barra = valor.indexOf('/');
+                    if (barra < 0) {
+                        throw new IllegalArgumentException("Formato inválido para --particion (i/N): " + valor);
+                    }
+                    configuracion.particion = leerEntero(opcion, valor.substring(0, barra));
+                    configuracion.particiones = leerEntero(opcion, valor.substring(barra + 1));
+                    if (configuracion.particiones < 1 || configuracion.particion >= configuracion.particiones) {
+                        throw new IllegalArgumentException("La partición debe ir de 0 a N-1 en --particion: " + valor);
+                    }
+                    break;
+                case "--parcial":
+                    if (valor.isEmpty()) {
+                        throw new IllegalArgumentException("Falta el archivo en --parcial");
+                    }
+                    configuracion.archivoParcial = valor;
+                    break;
+                case "--combinar":
+                    if (valor.isEmpty()) {
+                        throw new IllegalArgumentException("Faltan los resultados parciales en --combinar");
+                    }
+                    configuracion.parcialesACombinar = Arrays.asList(valor.split(","));
+                    break;
+                case "--memoria-mb":
+                    configuracion.memoriaMb = leerEntero(opcion, valor);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + argumento);
+            }
+        }
+
+        if (configuracion.particiones > 1 && configuracion.archivoParcial == null) {
+            configuracion.archivoParcial = "particion_" + configuracion.particion + "_de_" + configuracion.particiones
+                + ResultadoParticion.EXTENSION;
+        }
+        if (configuracion.archivoParcial != null && (configuracion.vigilar || configuracion.consulta
+                || configuracion.directorioConsolidados != null || configuracion.parcialesACombinar != null)) {
+            throw new IllegalArgumentException(
+                "--particion no se puede usar con --vigilar, --servidor, --consulta, --consolidados ni --combinar");
+        }
+        if (configuracion.memoriaMb > 0 && (configuracion.vigilar || configuracion.consulta
+                || configuracion.archivoParcial != null || configuracion.parcialesACombinar != null
+                || configuracion.directorioConsolidados != null || configuracion.archivoCheckpoint != null)) {
+            // Todos estos modos guardan algo por vendedor o por archivo durante toda la ejecución
+            throw new IllegalArgumentException("--memoria-mb no se puede usar con --vigilar, --servidor, --consulta, "
+                + "--particion, --combinar, --consolidados ni --incremental");
+        }
+        if (configuracion.desde > configuracion.hasta) {
+            throw new IllegalArgumentException("--desde es posterior a --hasta");
+        }
+        if (configuracion.consulta && configuracion.directorioConsolidados == null) {
+            configuracion.directorioConsolidados = "consolidados";
+        }
+        if (!configuracion.consulta && (configuracion.rangoFechas || configuracion.tiendas != null)) {
+            throw new IllegalArgumentException("--desde, --hasta y --tienda solo valen con --consulta");
+        }
+
+        return configuracion;
+    }
+
+    // Fecha AAAA-MM-DD como días desde 1970-01-01
+    private static int leerFecha(String opcion, String valor) {
+        try {
+            return (int) LocalDate.parse(valor).toEpochDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha inválida para " + opcion + " (AAAA-MM-DD): " + valor);
+        }
+    }
+
+    private static int leerEntero(String opcion, String valor) {
+        try {
+            int numero = Integer.parseInt(valor);
+            if (numero < 0) {
+                throw new IllegalArgumentException("El valor de " + opcion + " no puede ser negativo: " + valor);
+            }
+            return numero;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor numérico inválido para " + opcion + ": " + valor);
+        }
+    }
+
+    public String getDirectorioDatos() {
+        return directorioDatos;
+    }
+
+    public int getHilos() {
+        return hilos;
+    }
+
+    public String getArchivoCheckpoint() {
+        return archivoCheckpoint;
+    }
+
+    public boolean isVigilar() {
+        return vigilar;
+    }
+
+    public int getIntervaloSegundos() {
+        return intervaloSegundos;
+    }
+
+    public boolean isLecturaMapeada() {
+        return lecturaMapeada;
+    }
+
+    public long getTamanoFragmento() {
+        return tamanoFragmento;
+    }
+
+    public int getTopReporte() {
+        return topReporte;
+    }
+
+    public int getFilasReporteEnMemoria() {
+        return filasReporteEnMemoria;
+    }
+
+    public String getArchivoMetricas() {
+        return archivoMetricas;
+    }
+
+    public int getIntervaloMetricasSegundos() {
+        return intervaloMetricasSegundos;
+    }
+
+    public int getMensajesPorSegundo() {
+        return mensajesPorSegundo;
+    }
+
+    public String getArchivoCuarentena() {
+        return archivoCuarentena;
+    }
+
+    public int getMaximoErroresPorArchivo() {
+        return maximoErroresPorArchivo;
+    }
+
+    public int getMaximoPorcentajeErrores() {
+        return maximoPorcentajeErrores;
+    }
+
+    public boolean isAbortarSiExcedeErrores() {
+        return abortarSiExcedeErrores;
+    }
+
+    public String getDirectorioConsolidados() {
+        return directorioConsolidados;
+    }
+
+    public int getPuertoServidor() {
+        return puertoServidor;
+    }
+
+    public int getParticion() {
+        return particion;
+    }
+
+    public int getParticiones() {
+        return particiones;
+    }
+
+    public String getArchivoParcial() {
+        return archivoParcial;
+    }
+
+    public int getMemoriaMb() {
+        return memoriaMb;
+    }
+
+    public List<String> getParcialesACombinar() {
+        return parcialesACombinar;
+    }
+
+    public boolean isConsulta() {
+        return consulta;
+    }
+
+    public boolean hayRangoFechas() {
+        return rangoFechas;
+    }
+
+    public int getDesde() {
+        return desde;
+    }
+
+    public int getHasta() {
+        return hasta;
+    }
+
+    public Set<String> getTiendas() {
+        return tiendas;
+    }
+}
@@ -0,0 +1,348 @@
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+// Ventas consolidadas por día y por tienda: el total de cada vendedor y las unidades de cada producto por celda
+// Se guardan en un archivo por día (dia_AAAA-MM-DD.vcon, y sin_fecha.vcon para las ventas sin fecha)
+// Una consulta por rango de fechas o por tienda lee solo esos archivos y no vuelve a recorrer los ventas_*.txt
+//
+// Formato de cada archivo:
+//   "VCON" (int), versión (int), día (int, días desde 1970-01-01) y cantidad de tiendas (int)
+//   por tienda: nombre (UTF), vendedores (int) y por cada uno documento (long) e importe exacto,
+//               productos (int) y por cada uno ID (int) y unidades (long)
+public class ConsolidadoVentas {
+
+    public static final String EXTENSION = ".vcon";
+
+    private static final int MAGICO = 0x56434F4E; // "VCON"
+    private static final int VERSION = 1;
+    private static final String PREFIJO_DIA = "dia_";
+    private static final String ARCHIVO_SIN_FECHA = "sin_fecha" + EXTENSION;
+
+    // Tiendas por nombre, comunes a todo el programa; la 0 es "sin tienda"
+    // Los números solo valen durante la ejecución: en los archivos siempre se guarda el nombre
+    private static final Map<String, Integer> ID_POR_TIENDA = new HashMap<>();
+    private static final List<String> TIENDAS = new ArrayList<>();
+    static {
+        idTienda("");
+    }
+
+    // Lo que aportó un archivo (o todos los de un vendedor) a un día y una tienda
+    static final class CeldaArchivo {
+        final ImporteCentavos total = new ImporteCentavos();
+        final UnidadesPorProducto productos = new UnidadesPorProducto();
+    }
+
+    // Una celda del consolidado general
+    private static final class Celda {
+        final TotalesPorVendedor vendedores = new TotalesPorVendedor();
+        final UnidadesPorProducto productos = new UnidadesPorProducto();
+    }
+
+    // Resultado de una consulta: importes por documento en el orden en que aparecieron y unidades por producto
+    public static final class Consulta {
+        final Map<Long, ImporteCentavos> porVendedor = new LinkedHashMap<>();
+        final UnidadesPorProducto productos = new UnidadesPorProducto();
+        int dias;
+        int celdas;
+    }
+
+    // Celdas ordenadas por día y luego por tienda; las ventas sin fecha van primero
+    private final TreeMap<Long, Celda> celdas = new TreeMap<>();
+
+    public static synchronized int idTienda(String nombre) {
+        Integer id = ID_POR_TIENDA.get(nombre);
+        if (id == null) {
+            id = TIENDAS.size();
+            TIENDAS.add(nombre);
+            ID_POR_TIENDA.put(nombre, id);
+        }
+        return id;
+    }
+
+    public static synchronized String nombreTienda(int id) {
+        return TIENDAS.get(id);
+    }
+
+    static long clave(int dia, int tienda) {
+        return ((long) dia << 32) | (tienda & 0xFFFFFFFFL);
+    }
+
+    static int dia(long clave) {
+        return (int) (clave >> 32);
+    }
+
+    static int tienda(long clave) {
+        return (int) clave;
+    }
+
+    // Junta las celdas de "origen" en "destino" (de varios archivos de un mismo vendedor, o de fragmentos)
+    static void sumarCeldas(Map<Long, CeldaArchivo> destino, Map<Long, CeldaArchivo> origen) {
+        for (Map.Entry<Long, CeldaArchivo> entrada : origen.entrySet()) {
+            CeldaArchivo celda = destino.computeIfAbsent(entrada.getKey(), clave -> new CeldaArchivo());
+            celda.total.sumar(entrada.getValue().total);
+            celda.productos.sumarTodo(entrada.getValue().productos);
+        }
+    }
+
+    // Suma lo que aportó un vendedor
+    // Igual que en el reporte general, si el documento se repite su total en cada celda se reemplaza
+    // Las celdas vacías (solo líneas rechazadas) no se guardan
+    public void agregarVendedor(long documento, Map<Long, CeldaArchivo> celdasVendedor) {
+        for (Map.Entry<Long, CeldaArchivo> entrada : celdasVendedor.entrySet()) {
+            CeldaArchivo aporte = entrada.getValue();
+            if (aporte.productos.tamano() == 0 && !aporte.total.excedeLong() && aporte.total.enLong() == 0) {
+                continue;
+            }
+            Celda celda = celdas.computeIfAbsent(entrada.getKey(), clave -> new Celda());
+            celda.vendedores.asignar(documento, entrada.getValue().total);
+            celda.productos.sumarTodo(entrada.getValue().productos);
+        }
+    }
+
+    // Escribe un archivo por día en el directorio y borra los de días que ya no tienen ventas
+    // Cada archivo se escribe en un temporal y se renombra; devuelve cuántos días se escribieron
+    public int guardar(File directorio) throws IOException {
+        if (!directorio.isDirectory() && !directorio.mkdirs()) {
+            throw new IOException("No se pudo crear el directorio de consolidados: " + directorio.getPath());
+        }
+
+        Set<String> escritos = new HashSet<>();
+        Iterator<Map.Entry<Long, Celda>> iterador = celdas.entrySet().iterator();
+        Map.Entry<Long, Celda> entrada = iterador.hasNext() ? iterador.next() : null;
+        while (entrada != null) {
+            int dia = dia(entrada.getKey());
+            List<Map.Entry<Long, Celda>> delDia = new ArrayList<>();
+            while (entrada != null && dia(entrada.getKey()) == dia) {
+                delDia.add(entrada);
+                entrada = iterador.hasNext() ? iterador.next() : null;
+            }
+
+            String nombre = nombreArchivo(dia);
+            escribirDia(new File(directorio, nombre), dia, delDia);
+            escritos.add(nombre);
+        }
+
+        File[] anteriores = directorio.listFiles((dir, nombre) -> nombre.endsWith(EXTENSION));
+        if (anteriores != null) {
+            for (File anterior : anteriores) {
+                if (!escritos.contains(anterior.getName())) {
+                    Files.deleteIfExists(anterior.toPath());
+                }
+            }
+        }
+        return escritos.size();
+    }
+
+    private static void escribirDia(File destino, int dia, List<Map.Entry<Long, Celda>> delDia) throws IOException {
+        File temporal = new File(destino.getPath() + ".tmp");
+        try (DataOutputStream salida = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temporal), 256 * 1024))) {
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+            salida.writeInt(dia);
+            salida.writeInt(delDia.size());
+
+            for (Map.Entry<Long, Celda> entrada : delDia) {
+                Celda celda = entrada.getValue();
+                salida.writeUTF(nombreTienda(tienda(entrada.getKey())));
+
+                TotalesPorVendedor vendedores = celda.vendedores;
+                salida.writeInt(vendedores.tamano());
+                for (int i = 0; i < vendedores.tamano(); i++) {
+                    salida.writeLong(vendedores.documento(i));
+                    BigInteger desbordado = vendedores.totalDesbordado(i);
+                    escribirImporte(salida, desbordado != null ? desbordado : BigInteger.valueOf(vendedores.total(i)));
+                }
+
+                UnidadesPorProducto productos = celda.productos;
+                salida.writeInt(productos.tamano());
+                for (int i = 0; i < productos.tamano(); i++) {
+                    salida.writeInt(productos.id(i));
+                    salida.writeLong(productos.unidades(i));
+                }
+            }
+        }
+        Files.move(temporal.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Junta las celdas de los días [desde, hasta] de las tiendas pedidas (null = todas)
+    // Con sinFecha también entran las ventas sin fecha; solo se abren los archivos de los días del rango
+    public static Consulta consultar(File directorio, int desde, int hasta, boolean sinFecha, Set<String> tiendas)
+            throws IOException {
+        String[] nombres = directorio.list();
+        if (nombres == null) {
+            throw new IOException("No existe el directorio de consolidados: " + directorio.getPath());
+        }
+        Arrays.sort(nombres);
+
+        Consulta consulta = new Consulta();
+        for (String nombre : nombres) {
+            int dia = diaDeArchivo(nombre);
+            boolean entra = dia == ParserLineaVenta.SIN_FECHA ? sinFecha && nombre.equals(ARCHIVO_SIN_FECHA)
+                : dia >= desde && dia <= hasta;
+            if (entra) {
+                leerDia(new File(directorio, nombre), tiendas, consulta);
+                consulta.dias++;
+            }
+        }
+        return consulta;
+    }
+
+    private static void leerDia(File archivo, Set<String> tiendas, Consulta consulta) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(archivo), 256 * 1024))) {
+            if (entrada.readInt() != MAGICO || entrada.readInt() != VERSION) {
+                throw new IOException("Archivo de consolidado con formato desconocido: " + archivo.getName());
+            }
+            entrada.readInt(); // El día ya viene en el nombre
+            int cantidadTiendas = entrada.readInt();
+            for (int t = 0; t < cantidadTiendas; t++) {
+                String tienda = entrada.readUTF();
+                boolean incluir = tiendas == null || tiendas.contains(tienda);
+                if (incluir) {
+                    consulta.celdas++;
+                }
+
+                int vendedores = entrada.readInt();
+                for (int i = 0; i < vendedores; i++) {
+                    long documento = entrada.readLong();
+                    BigInteger importe = leerImporte(entrada);
+                    if (incluir) {
+                        consulta.porVendedor.computeIfAbsent(documento, d -> new ImporteCentavos()).sumar(importe);
+                    }
+                }
+
+                int productos = entrada.readInt();
+                for (int i = 0; i < productos; i++) {
+                    int idProducto = entrada.readInt();
+                    long unidades = entrada.readLong();
+                    if (incluir) {
+                        consulta.productos.sumar(idProducto, unidades);
+                    }
+                }
+            }
+        }
+    }
+
+    // Para el checkpoint: las celdas de un archivo de ventas, con el nombre de la tienda
+    static void escribirCeldas(DataOutput salida, Map<Long, CeldaArchivo> celdasArchivo) throws IOException {
+        if (celdasArchivo == null) {
+            salida.writeInt(0);
+            return;
+        }
+        salida.writeInt(celdasArchivo.size());
+        for (Map.Entry<Long, CeldaArchivo> entrada : celdasArchivo.entrySet()) {
+            salida.writeInt(dia(entrada.getKey()));
+            salida.writeUTF(nombreTienda(tienda(entrada.getKey())));
+            CeldaArchivo celda = entrada.getValue();
+            celda.total.escribir(salida);
+            salida.writeInt(celda.productos.tamano());
+            for (int i = 0; i < celda.productos.tamano(); i++) {
+                salida.writeInt(celda.productos.id(i));
+                salida.writeLong(celda.productos.unidades(i));
+            }
+        }
+    }
+
+    // Devuelve null si el archivo no tenía celdas
+    static Map<Long, CeldaArchivo> leerCeldas(DataInput entrada) throws IOException {
+        int cantidad = entrada.readInt();
+        if (cantidad == 0) {
+            return null;
+        }
+        Map<Long, CeldaArchivo> celdasArchivo = new HashMap<>();
+        for (int c = 0; c < cantidad; c++) {
+            int dia = entrada.readInt();
+            int tienda = idTienda(entrada.readUTF());
+            CeldaArchivo celda = new CeldaArchivo();
+            celda.total.leer(entrada);
+            int productos = entrada.readInt();
+            for (int i = 0; i < productos; i++) {
+                celda.productos.sumar(entrada.readInt(), entrada.readLong());
+            }
+            celdasArchivo.put(clave(dia, tienda), celda);
+        }
+        return celdasArchivo;
+    }
+
+    private static void escribirImporte(DataOutput salida, BigInteger importe) throws IOException {
+        byte[] bytes = importe.toByteArray();
+        salida.writeShort(bytes.length);
+        salida.write(bytes);
+    }
+
+    private static BigInteger leerImporte(DataInput entrada) throws IOException {
+        byte[] bytes = new byte[entrada.readUnsignedShort()];
+        if (bytes.length == 0) {
+            throw new IOException("Importe dañado en un archivo de consolidado");
+        }
+        entrada.readFully(bytes);
+        return new BigInteger(bytes);
+    }
+
+    private static String nombreArchivo(int dia) {
+        return dia == ParserLineaVenta.SIN_FECHA ? ARCHIVO_SIN_FECHA : PREFIJO_DIA + LocalDate.ofEpochDay(dia) + EXTENSION;
+    }
+
+    // Día de un archivo dia_AAAA-MM-DD.vcon; SIN_FECHA para sin_fecha.vcon o cualquier otro nombre
+    private static int diaDeArchivo(String nombre) {
+        if (!nombre.startsWith(PREFIJO_DIA) || !nombre.endsWith(EXTENSION)) {
+            return ParserLineaVenta.SIN_FECHA;
+        }
+        try {
+            return (int) LocalDate.parse(nombre.substring(PREFIJO_DIA.length(), nombre.length() - EXTENSION.length()))
+                .toEpochDay();
+        } catch (DateTimeParseException e) {
+            return ParserLineaVenta.SIN_FECHA;
+        }
+    }
+
+    public int getCeldas() {
+        return celdas.size();
+    }
+
+    // Traduce los bytes de la tienda de una línea a su número sin crear un String por línea
+    // Cada hilo recuerda las últimas tiendas que vio; solo una tienda nueva pasa por el diccionario común
+    static final class BuscadorTiendas {
+        private static final int RECORDADAS = 16;
+
+        private final byte[][] nombres = new byte[RECORDADAS][];
+        private final int[] ids = new int[RECORDADAS];
+        private int ultima;
+        private int siguiente;
+
+        int id(byte[] datos, int inicio, int fin) {
+            if (inicio == fin) {
+                return 0;
+            }
+            // Casi siempre la línea tiene la misma tienda que la anterior
+            if (coincide(ultima, datos, inicio, fin)) {
+                return ids[ultima];
+            }
+            for (int i = 0; i < RECORDADAS; i++) {
+                if (coincide(i, datos, inicio, fin)) {
+                    ultima = i;
+                    return ids[i];
+                }
+            }
+
+            int id = idTienda(new String(datos, inicio, fin - inicio, StandardCharsets.UTF_8));
+            nombres[siguiente] = Arrays.copyOfRange(datos, inicio, fin);
+            ids[siguiente] = id;
+            ultima = siguiente;
+            siguiente = (siguiente + 1) % RECORDADAS;
+            return id;
+        }
+
+        private boolean coincide(int i, byte[] datos, int inicio, int fin) {
+            byte[] nombre = nombres[i];
+            return nombre != null && Arrays.equals(nombre, 0, nombre.length, datos, inicio, fin);
+        }
+    }
+}
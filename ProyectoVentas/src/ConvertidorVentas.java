@@ -0,0 +1,115 @@
+import java.io.*;
+import java.util.Arrays;
+
+// Convierte los archivos ventas_*.txt del directorio de datos al formato columnar (.vcol)
+// Main usa el .vcol en lugar del .txt mientras sea igual o más nuevo, así que se puede convertir una sola vez
+// Uso: java ConvertidorVentas [--datos=dir] [--comprimir] [--filas-segmento=n]
+public class ConvertidorVentas {
+
+    private static final int FILAS_POR_SEGMENTO = 64 * 1024;
+
+    public static void main(String[] args) {
+        String directorio = ".";
+        boolean comprimir = false;
+        int filasPorSegmento = FILAS_POR_SEGMENTO;
+
+        for (String argumento : args) {
+            if (argumento.startsWith("--datos=")) {
+                directorio = argumento.substring("--datos=".length());
+            } else if (argumento.equals("--comprimir")) {
+                comprimir = true;
+            } else if (argumento.startsWith("--filas-segmento=")) {
+                try {
+                    filasPorSegmento = Math.max(1, Integer.parseInt(argumento.substring("--filas-segmento=".length())));
+                } catch (NumberFormatException e) {
+                    System.err.println("Valor numérico inválido: " + argumento);
+                    return;
+                }
+            } else {
+                System.err.println("Opción desconocida: " + argumento);
+                return;
+            }
+        }
+
+        System.out.println("=== CONVIRTIENDO ARCHIVOS DE VENTAS A FORMATO COLUMNAR ===");
+        try {
+            convertirDirectorio(new File(directorio), comprimir, filasPorSegmento);
+        } catch (IOException e) {
+            System.err.println("Error durante la conversión: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // Convierte cada ventas_*.txt que no tenga ya un .vcol al día
+    public static void convertirDirectorio(File directorio, boolean comprimir, int filasPorSegmento) throws IOException {
+        String[] nombres = directorio.list();
+        if (nombres == null) {
+            throw new IOException("No se pudo listar el directorio de datos: " + directorio.getPath());
+        }
+        Arrays.sort(nombres);
+
+        int convertidos = 0;
+        int alDia = 0;
+        long bytesTexto = 0;
+        long bytesColumnar = 0;
+        for (String nombre : nombres) {
+            if (!nombre.startsWith("ventas_") || !nombre.endsWith(".txt")) {
+                continue;
+            }
+            File texto = new File(directorio, nombre);
+            File columnar = new File(directorio, nombre.substring(0, nombre.length() - 4) + ArchivoColumnar.EXTENSION);
+            if (columnar.exists() && columnar.lastModified() >= texto.lastModified()) {
+                alDia++;
+                continue;
+            }
+
+            if (convertir(texto, columnar, comprimir, filasPorSegmento)) {
+                convertidos++;
+                bytesTexto += texto.length();
+                bytesColumnar += columnar.length();
+            }
+        }
+
+        System.out.println("Archivos convertidos: " + convertidos + " (" + alDia + " ya estaban al día)");
+        if (convertidos > 0) {
+            System.out.println("Tamaño: " + bytesTexto + " bytes en texto → " + bytesColumnar + " bytes en columnar");
+        }
+    }
+
+    // Convierte un archivo; las líneas que no se pueden interpretar se cuentan para que sigan saliendo como errores
+    // Devuelve false si el archivo no tiene un encabezado válido (se deja solo el .txt)
+    // o si sus líneas traen fecha o tienda, que el formato columnar no guarda
+    public static boolean convertir(File texto, File columnar, boolean comprimir, int filasPorSegmento)
+            throws IOException {
+        ParserLineaVenta parser = new ParserLineaVenta();
+        long descartadas = 0;
+
+        try (LectorLineas lector = new LectorLineas(new FileInputStream(texto))) {
+            if (!lector.siguienteLinea() || !lector.contiene((byte) ';')) {
+                System.err.println("  Encabezado inválido, no se convierte: " + texto.getName());
+                return false;
+            }
+
+            try (ArchivoColumnar.Escritor escritor =
+                    new ArchivoColumnar.Escritor(columnar, lector.lineaComoTexto(), comprimir, filasPorSegmento)) {
+                while (lector.siguienteLinea()) {
+                    if (parser.interpretar(lector.datos(), lector.inicio(), lector.fin()) == ParserLineaVenta.LINEA_VALIDA) {
+                        if (parser.tieneFechaOTienda()) {
+                            System.err.println("  Tiene ventas con fecha o tienda, no se convierte: " + texto.getName());
+                            return false;
+                        }
+                        escritor.agregar(parser.getIdProducto(), parser.getCantidad());
+                    } else {
+                        escritor.descartar();
+                        descartadas++;
+                    }
+                }
+                escritor.terminar();
+                System.out.println("  " + texto.getName() + " → " + columnar.getName() + ": "
+                    + escritor.getFilasEscritas() + " ventas" + (descartadas > 0 ? ", " + descartadas + " líneas inválidas" : ""));
+            }
+        }
+
+        return true;
+    }
+}
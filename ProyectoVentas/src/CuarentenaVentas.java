@@ -0,0 +1,258 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Archivo de cuarentena: cada línea rechazada con su archivo, número de línea, posición en bytes y motivo
+// Los hilos de proceso juntan sus rechazos en un Lote propio, en bytes, y lo entregan completo a una cola acotada
+// Un solo hilo escribe los lotes en el disco, así una línea con errores no espera por la consola ni por el archivo
+public class CuarentenaVentas implements Closeable {
+
+    public static final String ENCABEZADO = "Archivo;Linea;Posicion;Motivo;Contenido\n";
+
+    // Motivos de los registros que no son una línea de venta rechazada
+    public static final String ENCABEZADO_INVALIDO = "encabezado_invalido";
+    public static final String ARCHIVO_OMITIDO = "archivo_omitido";
+    public static final String ARCHIVO_ABORTADO = "archivo_abortado";
+
+    // Un lote se entrega cuando pasa este tamaño (o al terminar cada archivo)
+    private static final int TAMANO_LOTE = 64 * 1024;
+
+    // Lotes que pueden esperar en la cola; si el disco se atrasa, los hilos de proceso esperan y no se pierde nada
+    private static final int LOTES_EN_COLA = 32;
+
+    // Marca de fin para el hilo escritor
+    private static final byte[] FIN = new byte[0];
+
+    private static final byte[][] MOTIVOS = new byte[MetricasEjecucion.Rechazo.values().length][];
+    static {
+        for (MetricasEjecucion.Rechazo motivo : MetricasEjecucion.Rechazo.values()) {
+            MOTIVOS[motivo.ordinal()] = motivo.etiqueta.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private final File archivo;
+    private final BlockingQueue<byte[]> cola = new ArrayBlockingQueue<>(LOTES_EN_COLA);
+    private final Thread escritor;
+    private final LongAdder registros = new LongAdder();
+    private final LongAdder perdidos = new LongAdder();
+    private volatile boolean cerrada;
+    private volatile IOException error;
+
+    public CuarentenaVentas(File archivo) throws IOException {
+        this.archivo = archivo;
+        OutputStream salida = new BufferedOutputStream(new FileOutputStream(archivo), 1024 * 1024);
+        salida.write(ENCABEZADO.getBytes(StandardCharsets.UTF_8));
+        escritor = new Thread(() -> escribir(salida), "cuarentena-ventas");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    // Bucle del hilo escritor; si no llegan lotes por un segundo vacía el buffer para que el archivo se pueda leer
+    // Después de un error de escritura sigue sacando lotes de la cola para que ningún hilo quede esperando
+    private void escribir(OutputStream salida) {
+        try {
+            while (true) {
+                byte[] lote = cola.poll(1, TimeUnit.SECONDS);
+                if (lote == FIN) {
+                    break;
+                }
+                try {
+                    if (error != null) {
+                        continue;
+                    }
+                    if (lote == null) {
+                        salida.flush();
+                    } else {
+                        salida.write(lote);
+                    }
+                } catch (IOException e) {
+                    error = e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                salida.close();
+            } catch (IOException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+    }
+
+    public Lote nuevoLote() {
+        return new Lote(this);
+    }
+
+    // Registra una sola línea desde el hilo actual; para rutas poco frecuentes como vendedores.txt
+    public void registrar(String archivoOrigen, long linea, String motivo, String contenido) {
+        Lote lote = new Lote(this);
+        lote.agregarAviso(archivoOrigen, linea, motivo, contenido);
+        lote.entregar();
+    }
+
+    private void encolar(byte[] datos, int cantidad) {
+        if (cerrada) {
+            perdidos.add(cantidad);
+            return;
+        }
+        try {
+            cola.put(datos);
+            registros.add(cantidad);
+        } catch (InterruptedException e) {
+            // Solo pasa si se está cancelando el procesamiento
+            Thread.currentThread().interrupt();
+            perdidos.add(cantidad);
+        }
+    }
+
+    public File getArchivo() {
+        return archivo;
+    }
+
+    public long getRegistros() {
+        return registros.sum();
+    }
+
+    // Espera a que se escriba todo lo entregado; lanza el error de escritura si lo hubo
+    @Override
+    public void close() throws IOException {
+        if (!cerrada) {
+            cerrada = true;
+            try {
+                cola.put(FIN);
+                escritor.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Cierre de la cuarentena interrumpido");
+            }
+        }
+        if (perdidos.sum() > 0) {
+            System.err.println("Registros de cuarentena sin escribir por cancelación: " + perdidos.sum());
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    // Rechazos de un hilo que todavía no se entregaron; no es seguro compartirlo entre hilos
+    // Las líneas se copian en bytes tal como venían, sin crear un String por rechazo
+    public static final class Lote {
+        private final CuarentenaVentas destino;
+        private byte[] datos = new byte[TAMANO_LOTE + 1024];
+        private int largo;
+        private int cantidad;
+        private final byte[] digitos = new byte[20];
+
+        // El nombre del archivo se codifica una vez y se reutiliza mientras no cambie
+        private String archivo;
+        private byte[] archivoEnBytes;
+
+        private Lote(CuarentenaVentas destino) {
+            this.destino = destino;
+        }
+
+        public boolean esDe(CuarentenaVentas cuarentena) {
+            return destino == cuarentena;
+        }
+
+        // Línea de texto rechazada; linea o posicion en -1 si no se conocen
+        public void agregar(String archivoOrigen, long linea, long posicion, MetricasEjecucion.Rechazo motivo,
+                byte[] contenido, int inicio, int fin) {
+            campos(archivoOrigen, linea, posicion, MOTIVOS[motivo.ordinal()]);
+            bytes(contenido, inicio, fin - inicio);
+            terminar();
+        }
+
+        // Fila de un archivo columnar: no hay texto original, se escribe como "id;cantidad"
+        public void agregarFila(String archivoOrigen, MetricasEjecucion.Rechazo motivo, int idProducto, int cantidadVendida) {
+            campos(archivoOrigen, -1, -1, MOTIVOS[motivo.ordinal()]);
+            numero(idProducto);
+            caracter(';');
+            numero(cantidadVendida);
+            terminar();
+        }
+
+        // Registro que no es una venta (encabezado inválido, archivo omitido, línea de vendedores.txt...)
+        public void agregarAviso(String archivoOrigen, long linea, String motivo, String detalle) {
+            campos(archivoOrigen, linea, -1, motivo.getBytes(StandardCharsets.UTF_8));
+            byte[] texto = detalle.getBytes(StandardCharsets.UTF_8);
+            bytes(texto, 0, texto.length);
+            terminar();
+        }
+
+        // Pasa lo acumulado al hilo escritor; si no hay nada no hace nada
+        public void entregar() {
+            if (cantidad == 0) {
+                return;
+            }
+            destino.encolar(Arrays.copyOf(datos, largo), cantidad);
+            largo = 0;
+            cantidad = 0;
+        }
+
+        private void campos(String archivoOrigen, long linea, long posicion, byte[] motivo) {
+            if (!archivoOrigen.equals(archivo)) {
+                archivo = archivoOrigen;
+                archivoEnBytes = archivoOrigen.getBytes(StandardCharsets.UTF_8);
+            }
+            bytes(archivoEnBytes, 0, archivoEnBytes.length);
+            caracter(';');
+            if (linea >= 0) {
+                numero(linea);
+            }
+            caracter(';');
+            if (posicion >= 0) {
+                numero(posicion);
+            }
+            caracter(';');
+            bytes(motivo, 0, motivo.length);
+            caracter(';');
+        }
+
+        private void terminar() {
+            caracter('\n');
+            cantidad++;
+            if (largo >= TAMANO_LOTE) {
+                entregar();
+            }
+        }
+
+        private void numero(long valor) {
+            if (valor < 0) {
+                caracter('-');
+                valor = -valor;
+            }
+            int i = digitos.length;
+            do {
+                digitos[--i] = (byte) ('0' + valor % 10);
+                valor /= 10;
+            } while (valor > 0);
+            bytes(digitos, i, digitos.length - i);
+        }
+
+        private void caracter(char caracter) {
+            asegurar(1);
+            datos[largo++] = (byte) caracter;
+        }
+
+        private void bytes(byte[] origen, int desde, int cuantos) {
+            asegurar(cuantos);
+            System.arraycopy(origen, desde, datos, largo, cuantos);
+            largo += cuantos;
+        }
+
+        // Una línea muy larga puede no entrar en lo que queda del lote
+        private void asegurar(int cuantos) {
+            if (largo + cuantos > datos.length) {
+                datos = Arrays.copyOf(datos, Math.max(datos.length * 2, largo + cuantos));
+            }
+        }
+    }
+}
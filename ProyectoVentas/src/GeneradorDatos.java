@@ -0,0 +1,518 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Generador configurable de datos de prueba, pensado para volúmenes de producción
+// Millones de vendedores, catálogos de cientos de miles de productos, popularidad Zipf y varios archivos por vendedor
+// Cada vendedor usa su propio generador aleatorio derivado de la semilla: el resultado es el mismo con 1 o con N hilos
+public class GeneradorDatos {
+
+    // Cuántos vendedores genera cada tarea; sus líneas de vendedores.txt se escriben en orden
+    private static final int VENDEDORES_POR_TAREA = 512;
+
+    private static final int TAMANO_BUFFER = 256 * 1024;
+
+    // Líneas inválidas que se mezclan con las ventas si se pidió inyectar errores
+    private static final String[] VENTAS_INVALIDAS = {
+        "abc;2;", "101", "101;-3;", "101;0;", "", "999999;1;", "101;1x;", ";;"
+    };
+
+    private File directorio = new File(".");
+    private int productos = 7;
+    private int vendedores = 3;
+    private int ventasMinimas = 1;
+    private int ventasMaximas = 5;
+    private int archivosPorVendedor = 1;
+
+    // Exponente de la distribución Zipf de popularidad de productos (0 = todos igual de probables)
+    private double exponenteZipf = 0;
+
+    private long semilla = System.nanoTime();
+    private int hilos = 1;
+
+    // Proporción de líneas inválidas en archivos de ventas y en vendedores.txt (0 = ninguna)
+    private double proporcionErrores = 0;
+
+    private boolean catalogoBinario = true;
+
+    // Fecha y tienda de cada venta: días hacia atrás desde fechaFinal y cantidad de tiendas (0 = sin ese campo)
+    // Con las dos en 0 las líneas salen con el formato de siempre
+    private int dias = 0;
+    private LocalDate fechaFinal = LocalDate.of(2024, 12, 31);
+    private int tiendas = 0;
+
+    // Datos calculados al generar
+    private double[] popularidadAcumulada;
+    private int[] productoPorRango;
+    private String[] fechas;
+    private String[] codigosTiendas;
+    private final AtomicLong archivosGenerados = new AtomicLong();
+    private final AtomicLong lineasGeneradas = new AtomicLong();
+    private final AtomicLong lineasInvalidas = new AtomicLong();
+
+    public GeneradorDatos() {
+    }
+
+    // Un conjunto de tamaño fijo: cada vendedor tiene un archivo con exactamente ventasPorArchivo ventas
+    public GeneradorDatos(File directorio, int productos, int vendedores, int ventasPorArchivo, long semilla) {
+        this.directorio = directorio;
+        this.productos = productos;
+        this.vendedores = vendedores;
+        this.ventasMinimas = ventasPorArchivo;
+        this.ventasMaximas = ventasPorArchivo;
+        this.semilla = semilla;
+        this.catalogoBinario = false;
+        validar();
+    }
+
+    // Interpreta argumentos del estilo --opcion=valor
+    public static GeneradorDatos desdeArgumentos(String[] args) {
+        GeneradorDatos generador = new GeneradorDatos();
+
+        for (String argumento : args) {
+            int separador = argumento.indexOf('=');
+            String opcion = separador < 0 ? argumento : argumento.substring(0, separador);
+            String valor = separador < 0 ? "" : argumento.substring(separador + 1);
+
+            switch (opcion) {
+                case "--destino":
+                    if (valor.isEmpty()) {
+                        throw new IllegalArgumentException("Falta el directorio en --destino");
+                    }
+                    generador.directorio = new File(valor);
+                    break;
+                case "--productos":
+                    generador.productos = leerEntero(opcion, valor);
+                    break;
+                case "--vendedores":
+                    generador.vendedores = leerEntero(opcion, valor);
+                    break;
+                case "--ventas-min":
+                    generador.ventasMinimas = leerEntero(opcion, valor);
+                    break;
+                case "--ventas-max":
+                    generador.ventasMaximas = leerEntero(opcion, valor);
+                    break;
+                case "--archivos-por-vendedor":
+                    generador.archivosPorVendedor = leerEntero(opcion, valor);
+                    break;
+                case "--zipf":
+                    generador.exponenteZipf = leerDecimal(opcion, valor);
+                    break;
+                case "--semilla":
+                    try {
+                        generador.semilla = Long.parseLong(valor);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Valor numérico inválido para --semilla: " + valor);
+                    }
+                    break;
+                case "--hilos":
+                    int hilos = leerEntero(opcion, valor);
+                    generador.hilos = hilos == 0 ? Runtime.getRuntime().availableProcessors() : hilos;
+                    break;
+                case "--errores":
+                    generador.proporcionErrores = leerDecimal(opcion, valor);
+                    break;
+                case "--sin-catalogo-binario":
+                    generador.catalogoBinario = false;
+                    break;
+                case "--dias":
+                    generador.dias = leerEntero(opcion, valor);
+                    break;
+                case "--fecha-final":
+                    try {
+                        generador.fechaFinal = LocalDate.parse(valor);
+                    } catch (DateTimeParseException e) {
+                        throw new IllegalArgumentException("Fecha inválida para --fecha-final (AAAA-MM-DD): " + valor);
+                    }
+                    break;
+                case "--tiendas":
+                    generador.tiendas = leerEntero(opcion, valor);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + argumento);
+            }
+        }
+
+        generador.validar();
+        return generador;
+    }
+
+    private void validar() {
+        if (productos < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un producto");
+        }
+        if (ventasMinimas > ventasMaximas) {
+            throw new IllegalArgumentException("--ventas-min no puede ser mayor que --ventas-max");
+        }
+        if (archivosPorVendedor < 1) {
+            throw new IllegalArgumentException("Cada vendedor necesita al menos un archivo de ventas");
+        }
+        if (proporcionErrores > 1) {
+            throw new IllegalArgumentException("--errores es una proporción entre 0 y 1: " + proporcionErrores);
+        }
+    }
+
+    private static int leerEntero(String opcion, String valor) {
+        try {
+            int numero = Integer.parseInt(valor);
+            if (numero < 0) {
+                throw new IllegalArgumentException("El valor de " + opcion + " no puede ser negativo: " + valor);
+            }
+            return numero;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor numérico inválido para " + opcion + ": " + valor);
+        }
+    }
+
+    private static double leerDecimal(String opcion, String valor) {
+        try {
+            double numero = Double.parseDouble(valor);
+            if (!(numero >= 0)) {
+                throw new IllegalArgumentException("El valor de " + opcion + " no puede ser negativo: " + valor);
+            }
+            return numero;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor numérico inválido para " + opcion + ": " + valor);
+        }
+    }
+
+    // Genera productos.txt, vendedores.txt y los archivos de ventas de cada vendedor
+    public void generar() throws IOException {
+        if (!directorio.isDirectory() && !directorio.mkdirs()) {
+            throw new IOException("No se pudo crear el directorio: " + directorio.getPath());
+        }
+
+        escribirProductos();
+        prepararPopularidad();
+        prepararFechasYTiendas();
+        escribirVendedores();
+    }
+
+    // El producto i toma el nombre y el precio del básico i % 7, con un número y un recargo a partir del octavo
+    private static String nombreProducto(int i) {
+        String base = GenerateInfoFiles.PRODUCTOS[i % GenerateInfoFiles.PRODUCTOS.length];
+        return i < GenerateInfoFiles.PRODUCTOS.length ? base : base + " " + (i / GenerateInfoFiles.PRODUCTOS.length);
+    }
+
+    private static long precioProducto(int i) {
+        return (long) GenerateInfoFiles.PRECIOS[i % GenerateInfoFiles.PRECIOS.length]
+            + 100L * (i / GenerateInfoFiles.PRECIOS.length);
+    }
+
+    private void escribirProductos() throws IOException {
+        try (SalidaTexto salida = new SalidaTexto(TAMANO_BUFFER)) {
+            salida.abrir(new File(directorio, "productos.txt"));
+            for (int i = 0; i < productos; i++) {
+                salida.numero(100 + i).caracter(';').texto(nombreProducto(i)).caracter(';').numero(precioProducto(i))
+                    .caracter('\n');
+            }
+        }
+
+        // Se escribe después de productos.txt para que quede más nuevo y Main lo use directamente
+        if (catalogoBinario) {
+            int[] ids = new int[productos];
+            String[] nombres = new String[productos];
+            double[] precios = new double[productos];
+            for (int i = 0; i < productos; i++) {
+                ids[i] = 100 + i;
+                nombres[i] = nombreProducto(i);
+                precios[i] = precioProducto(i);
+            }
+            CatalogoBinario.escribir(new File(directorio, CatalogoBinario.NOMBRE_ARCHIVO), ids, nombres, precios);
+        }
+    }
+
+    // Textos de los días ("2024-12-31"...) y de las tiendas ("T01", "T02"...), calculados una sola vez
+    private void prepararFechasYTiendas() {
+        fechas = new String[dias];
+        for (int d = 0; d < dias; d++) {
+            fechas[d] = fechaFinal.minusDays(dias - 1 - d).toString();
+        }
+        codigosTiendas = new String[tiendas];
+        for (int t = 0; t < tiendas; t++) {
+            codigosTiendas[t] = String.format("T%02d", t + 1);
+        }
+    }
+
+    // Con Zipf, el producto de rango k tiene peso 1 / (k + 1)^s
+    // Los rangos se reparten entre los IDs al azar para que los más vendidos no sean siempre los primeros del catálogo
+    private void prepararPopularidad() {
+        if (exponenteZipf == 0) {
+            return;
+        }
+
+        popularidadAcumulada = new double[productos];
+        double acumulado = 0;
+        for (int k = 0; k < productos; k++) {
+            acumulado += 1.0 / Math.pow(k + 1, exponenteZipf);
+            popularidadAcumulada[k] = acumulado;
+        }
+
+        productoPorRango = new int[productos];
+        for (int i = 0; i < productos; i++) {
+            productoPorRango[i] = i;
+        }
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        for (int i = productos - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            int intercambio = productoPorRango[i];
+            productoPorRango[i] = productoPorRango[j];
+            productoPorRango[j] = intercambio;
+        }
+    }
+
+    private int elegirProducto(SplittableRandom aleatorio) {
+        if (popularidadAcumulada == null) {
+            return aleatorio.nextInt(productos);
+        }
+        double objetivo = aleatorio.nextDouble() * popularidadAcumulada[productos - 1];
+        int rango = Arrays.binarySearch(popularidadAcumulada, objetivo);
+        if (rango < 0) {
+            rango = -rango - 1;
+        }
+        return productoPorRango[Math.min(rango, productos - 1)];
+    }
+
+    // Reparte los vendedores en tareas; cada tarea escribe sus archivos de ventas y devuelve sus líneas de vendedores.txt
+    // Las líneas se escriben en el orden de las tareas, así el archivo es igual sin importar cuántos hilos haya
+    private void escribirVendedores() throws IOException {
+        ExecutorService pool = hilos > 1 ? Executors.newFixedThreadPool(hilos) : null;
+        Deque<Future<byte[]>> pendientes = new ArrayDeque<>();
+        int maximoEnVuelo = Math.max(1, hilos) * 4;
+
+        try (SalidaTexto salida = new SalidaTexto(TAMANO_BUFFER)) {
+            salida.abrir(new File(directorio, "vendedores.txt"));
+
+            for (int desde = 0; desde < vendedores; desde += VENDEDORES_POR_TAREA) {
+                int inicio = desde;
+                int fin = Math.min(vendedores, desde + VENDEDORES_POR_TAREA);
+                Callable<byte[]> tarea = () -> generarVendedores(inicio, fin);
+
+                if (pool == null) {
+                    salida.bytes(ejecutar(tarea));
+                    continue;
+                }
+                pendientes.add(pool.submit(tarea));
+                while (pendientes.size() >= maximoEnVuelo) {
+                    salida.bytes(esperar(pendientes.poll()));
+                }
+            }
+
+            while (!pendientes.isEmpty()) {
+                salida.bytes(esperar(pendientes.poll()));
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    // Genera los vendedores [desde, hasta) con sus archivos de ventas
+    private byte[] generarVendedores(int desde, int hasta) throws IOException {
+        StringBuilder lineas = new StringBuilder((hasta - desde) * 40);
+
+        try (SalidaTexto ventas = new SalidaTexto(TAMANO_BUFFER)) {
+            for (int i = desde; i < hasta; i++) {
+                SplittableRandom aleatorio = new SplittableRandom(semilla + i * 0x9E3779B97F4A7C15L);
+                long numeroDocumento = 1000000000L + i;
+                String nombre = GenerateInfoFiles.NOMBRES[aleatorio.nextInt(GenerateInfoFiles.NOMBRES.length)];
+                String apellido = GenerateInfoFiles.APELLIDOS[aleatorio.nextInt(GenerateInfoFiles.APELLIDOS.length)];
+
+                // Una línea incompleta antes de la buena: validarFormatoLinea debe descartarla
+                if (proporcionErrores > 0 && aleatorio.nextDouble() < proporcionErrores) {
+                    lineas.append("CC;").append(numeroDocumento).append(';').append(nombre).append('\n');
+                    lineasInvalidas.incrementAndGet();
+                }
+                lineas.append("CC;").append(numeroDocumento).append(';').append(nombre).append(';').append(apellido)
+                    .append('\n');
+
+                // ventas_<id>.txt y, si hay más de uno, ventas_<id>_1.txt, ventas_<id>_2.txt...
+                int archivos = 1 + aleatorio.nextInt(archivosPorVendedor);
+                for (int n = 0; n < archivos; n++) {
+                    String nombreArchivo = n == 0 ? "ventas_" + numeroDocumento + ".txt"
+                        : "ventas_" + numeroDocumento + "_" + n + ".txt";
+                    ventas.abrir(new File(directorio, nombreArchivo));
+                    escribirVentas(ventas, numeroDocumento, aleatorio);
+                    ventas.cerrar();
+                }
+            }
+        }
+
+        return lineas.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void escribirVentas(SalidaTexto salida, long numeroDocumento, SplittableRandom aleatorio)
+            throws IOException {
+        int cantidadVentas = ventasMinimas + aleatorio.nextInt(ventasMaximas - ventasMinimas + 1);
+        long invalidas = 0;
+
+        salida.texto("CC;").numero(numeroDocumento).caracter('\n');
+        for (int j = 0; j < cantidadVentas; j++) {
+            if (proporcionErrores > 0 && aleatorio.nextDouble() < proporcionErrores) {
+                salida.texto(VENTAS_INVALIDAS[aleatorio.nextInt(VENTAS_INVALIDAS.length)]).caracter('\n');
+                invalidas++;
+                continue;
+            }
+            salida.numero(100 + elegirProducto(aleatorio)).caracter(';').numero(1 + aleatorio.nextInt(10))
+                .caracter(';');
+            // "AAAA-MM-DDTHH:MM;T01"; los números aleatorios solo se piden si hay fecha o tienda
+            if (dias > 0) {
+                int minuto = aleatorio.nextInt(24 * 60);
+                salida.texto(fechas[aleatorio.nextInt(dias)]).caracter('T')
+                    .caracter((char) ('0' + minuto / 600)).caracter((char) ('0' + minuto / 60 % 10)).caracter(':')
+                    .caracter((char) ('0' + minuto % 60 / 10)).caracter((char) ('0' + minuto % 10));
+            }
+            if (tiendas > 0) {
+                salida.caracter(';').texto(codigosTiendas[aleatorio.nextInt(tiendas)]);
+            }
+            salida.caracter('\n');
+        }
+
+        archivosGenerados.incrementAndGet();
+        lineasGeneradas.addAndGet(cantidadVentas);
+        lineasInvalidas.addAndGet(invalidas);
+    }
+
+    private static <T> T ejecutar(Callable<T> tarea) throws IOException {
+        try {
+            return tarea.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static <T> T esperar(Future<T> futuro) throws IOException {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Generación interrumpida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    public File getDirectorio() {
+        return directorio;
+    }
+
+    public long getSemilla() {
+        return semilla;
+    }
+
+    public boolean isCatalogoBinario() {
+        return catalogoBinario;
+    }
+
+    public long getArchivosGenerados() {
+        return archivosGenerados.get();
+    }
+
+    public long getLineasGeneradas() {
+        return lineasGeneradas.get();
+    }
+
+    public long getLineasInvalidas() {
+        return lineasInvalidas.get();
+    }
+
+    // Escritura de texto por un canal de archivo con un buffer propio, reutilizable para muchos archivos
+    // Los números se escriben directamente como dígitos, sin pasar por String
+    private static final class SalidaTexto implements Closeable {
+        private final ByteBuffer buffer;
+        private final byte[] digitos = new byte[20];
+        private FileChannel canal;
+
+        SalidaTexto(int tamano) {
+            buffer = ByteBuffer.allocateDirect(tamano);
+        }
+
+        void abrir(File archivo) throws IOException {
+            canal = FileChannel.open(archivo.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+            buffer.clear();
+        }
+
+        SalidaTexto caracter(char c) throws IOException {
+            asegurar(1);
+            buffer.put((byte) c);
+            return this;
+        }
+
+        SalidaTexto texto(String texto) throws IOException {
+            return bytes(texto.getBytes(StandardCharsets.UTF_8));
+        }
+
+        SalidaTexto numero(long valor) throws IOException {
+            if (valor < 0) {
+                caracter('-');
+                valor = -valor;
+            }
+            int i = digitos.length;
+            do {
+                digitos[--i] = (byte) ('0' + valor % 10);
+                valor /= 10;
+            } while (valor > 0);
+            asegurar(digitos.length - i);
+            buffer.put(digitos, i, digitos.length - i);
+            return this;
+        }
+
+        SalidaTexto bytes(byte[] datos) throws IOException {
+            int escritos = 0;
+            while (escritos < datos.length) {
+                if (!buffer.hasRemaining()) {
+                    vaciar();
+                }
+                int cantidad = Math.min(buffer.remaining(), datos.length - escritos);
+                buffer.put(datos, escritos, cantidad);
+                escritos += cantidad;
+            }
+            return this;
+        }
+
+        private void asegurar(int cantidad) throws IOException {
+            if (buffer.remaining() < cantidad) {
+                vaciar();
+            }
+        }
+
+        private void vaciar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        void cerrar() throws IOException {
+            if (canal != null) {
+                try {
+                    vaciar();
+                } finally {
+                    canal.close();
+                    canal = null;
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            cerrar();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+// Suma exacta de dinero en centavos
+// Lo normal es que todo quepa en un long y cada venta sea una multiplicación y una suma sin crear objetos
+// Si una operación se desborda, lo acumulado pasa a un BigInteger y el long vuelve a empezar desde cero
+public final class ImporteCentavos {
+
+    private long centavos;
+
+    // Lo que ya no cabía en el long; null mientras no haya desbordes
+    private BigInteger desborde;
+
+    // Suma cantidad × precio, los dos enteros (el precio en centavos)
+    public void sumarProducto(long cantidad, long precioCentavos) {
+        // Si ambos caben en 31 bits el producto cabe en 62 y no hace falta revisarlo
+        if (((cantidad | precioCentavos) >>> 31) == 0) {
+            sumar(cantidad * precioCentavos);
+            return;
+        }
+        long producto = cantidad * precioCentavos;
+        if (Math.multiplyHigh(cantidad, precioCentavos) != (producto >> 63)) {
+            sumarDesborde(BigInteger.valueOf(cantidad).multiply(BigInteger.valueOf(precioCentavos)));
+            return;
+        }
+        sumar(producto);
+    }
+
+    public void sumar(long valor) {
+        long resultado = centavos + valor;
+        // Hubo desborde si los dos sumandos tienen el mismo signo y el resultado el contrario
+        if (((centavos ^ resultado) & (valor ^ resultado)) < 0) {
+            sumarDesborde(BigInteger.valueOf(centavos));
+            resultado = valor;
+        }
+        centavos = resultado;
+    }
+
+    public void sumar(ImporteCentavos otro) {
+        sumar(otro.centavos);
+        if (otro.desborde != null) {
+            sumarDesborde(otro.desborde);
+        }
+    }
+
+    // Suma un importe exacto de cualquier tamaño (por ejemplo un total desbordado leído de un archivo)
+    public void sumar(BigInteger valor) {
+        if (valor.bitLength() <= 63) {
+            sumar(valor.longValue());
+        } else {
+            sumarDesborde(valor);
+        }
+    }
+
+    private void sumarDesborde(BigInteger valor) {
+        desborde = desborde == null ? valor : desborde.add(valor);
+    }
+
+    // Total exacto, cualquiera sea su tamaño
+    public BigInteger total() {
+        BigInteger total = BigInteger.valueOf(centavos);
+        return desborde == null ? total : total.add(desborde);
+    }
+
+    // true si el total no cabe en un long (solo puede pasar después de un desborde)
+    public boolean excedeLong() {
+        return desborde != null && total().bitLength() > 63;
+    }
+
+    // Total como long; si no cabe se satura en Long.MAX_VALUE o Long.MIN_VALUE
+    public long enLong() {
+        if (desborde == null) {
+            return centavos;
+        }
+        BigInteger total = total();
+        if (total.bitLength() <= 63) {
+            return total.longValue();
+        }
+        return total.signum() > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+    }
+
+    // Para el checkpoint: el long y, si hubo desborde, los bytes del BigInteger
+    void escribir(DataOutput salida) throws IOException {
+        salida.writeLong(centavos);
+        if (desborde == null) {
+            salida.writeInt(0);
+        } else {
+            byte[] bytes = desborde.toByteArray();
+            salida.writeInt(bytes.length);
+            salida.write(bytes);
+        }
+    }
+
+    void leer(DataInput entrada) throws IOException {
+        centavos = entrada.readLong();
+        int largo = entrada.readInt();
+        if (largo < 0 || largo > 1024) {
+            throw new IOException("Importe dañado en el checkpoint");
+        }
+        if (largo > 0) {
+            byte[] bytes = new byte[largo];
+            entrada.readFully(bytes);
+            desborde = new BigInteger(bytes);
+        } else {
+            desborde = null;
+        }
+    }
+
+    // Convierte un precio a centavos, redondeando a la mitad hacia afuera si trae más de dos decimales
+    // Lanza ArithmeticException si no cabe en un long
+    public static long aCentavos(BigDecimal valor) {
+        return valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // Importe en unidades con dos decimales, sin ".00" cuando no hay centavos (por ejemplo 1500 o 1500.25)
+    public static String comoTexto(BigInteger centavos) {
+        String texto = new BigDecimal(centavos, 2).toPlainString();
+        return texto.endsWith(".00") ? texto.substring(0, texto.length() - 3) : texto;
+    }
+
+    @Override
+    public String toString() {
+        return comoTexto(total());
+    }
+}
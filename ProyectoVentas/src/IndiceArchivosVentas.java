@@ -0,0 +1,287 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Lista una sola vez el directorio de datos y agrupa los archivos de ventas por vendedor
+// Reemplaza las comprobaciones File.exists() de ventas_<id>.txt y ventas_<id>_1..10.txt
+public class IndiceArchivosVentas {
+
+    // ventas_<documento>.txt o ventas_<documento>_<n>.txt, o lo mismo comprimido (.txt.gz) o en formato columnar (.vcol)
+    private static final Pattern NOMBRE_VENTAS = Pattern.compile("ventas_(\\d+)(?:_(\\d+))?\\.(?:txt(?:\\.gz)?|vcol)");
+
+    // Un archivo de ventas con su número (0 para el archivo simple ventas_<id>.txt)
+    private static class ArchivoNumerado {
+        final File archivo;
+        final long numero;
+
+        ArchivoNumerado(File archivo, long numero) {
+            this.archivo = archivo;
+            this.numero = numero;
+        }
+    }
+
+    // Archivos de un vendedor y si ya se le asignaron a alguien de vendedores.txt
+    private static class ArchivosVendedor {
+        final List<ArchivoNumerado> encontrados = new ArrayList<>();
+        List<File> archivos;
+        boolean asignado;
+    }
+
+    private final File directorio;
+    private final Map<Long, ArchivosVendedor> archivosPorVendedor = new HashMap<>();
+    private final List<String> archivosNoReconocidos = new ArrayList<>();
+    private int totalArchivos;
+
+    // Solo se indexan los vendedores de esta partición (ver ResultadoParticion.particionDe)
+    private final int particion;
+    private final int particiones;
+
+    private IndiceArchivosVentas(File directorio, int particion, int particiones) {
+        this.directorio = directorio;
+        this.particion = particion;
+        this.particiones = particiones;
+    }
+
+    // Recorre el directorio una vez y arma el mapa vendedor → archivos
+    public static IndiceArchivosVentas construir(File directorio) throws IOException {
+        return construir(directorio, 0, 1);
+    }
+
+    // Lo mismo pero solo con los archivos de los vendedores de una partición
+    // El directorio se lee como flujo, sin cargar todos los nombres a la vez
+    // Los nombres que no se reconocen quedan en la partición 0
+    public static IndiceArchivosVentas construir(File directorio, int particion, int particiones) throws IOException {
+        IndiceArchivosVentas indice = new IndiceArchivosVentas(directorio, particion, particiones);
+        try (DirectoryStream<Path> nombres = Files.newDirectoryStream(directorio.toPath(), "ventas_*")) {
+            for (Path nombre : nombres) {
+                indice.registrar(nombre.getFileName().toString());
+            }
+        } catch (IOException e) {
+            throw new IOException("No se pudo listar el directorio de datos: " + directorio.getPath(), e);
+        }
+        indice.ordenarGrupos();
+        return indice;
+    }
+
+    // Lo mismo a partir de una lista de nombres escrita por repartirNombres, sin volver a listar el directorio
+    public static IndiceArchivosVentas construir(File directorio, File listaNombres, int particion, int particiones)
+            throws IOException {
+        IndiceArchivosVentas indice = new IndiceArchivosVentas(directorio, particion, particiones);
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(
+                new FileInputStream(listaNombres), StandardCharsets.UTF_8))) {
+            String nombre;
+            while ((nombre = lector.readLine()) != null) {
+                indice.registrar(nombre);
+            }
+        }
+        indice.ordenarGrupos();
+        return indice;
+    }
+
+    // El archivo simple va primero y después los numerados en orden (_1, _2, ..., _10, _11...)
+    private void ordenarGrupos() {
+        for (ArchivosVendedor grupo : archivosPorVendedor.values()) {
+            ordenar(grupo);
+        }
+    }
+
+    // Lista el directorio una vez y reparte los nombres de ventas en archivos temporales, una lista por grupo
+    // La partición i va a la lista i % listas.length; los nombres que no se reconocen van con la partición 0
+    // Así, con muchas particiones, cada una lee solo su lista en lugar de volver a listar todo el directorio
+    public static void repartirNombres(File directorio, int particiones, File[] listas) throws IOException {
+        Writer[] escritores = new Writer[listas.length];
+        try (DirectoryStream<Path> nombres = Files.newDirectoryStream(directorio.toPath(), "ventas_*")) {
+            for (int i = 0; i < listas.length; i++) {
+                escritores[i] = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(listas[i]), StandardCharsets.UTF_8));
+            }
+            for (Path ruta : nombres) {
+                String nombre = ruta.getFileName().toString();
+                // Un salto de línea partiría el nombre en la lista; un nombre así no es de ventas
+                if (nombre.indexOf('\n') < 0) {
+                    escritores[particionDeNombre(nombre, particiones) % listas.length].write(nombre + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new IOException("No se pudo listar el directorio de datos: " + directorio.getPath(), e);
+        } finally {
+            for (Writer escritor : escritores) {
+                if (escritor != null) {
+                    escritor.close();
+                }
+            }
+        }
+    }
+
+    // Partición del vendedor de un archivo, con las mismas reglas que registrar; 0 si el nombre no se reconoce
+    private static int particionDeNombre(String nombre, int particiones) {
+        Matcher coincidencia = NOMBRE_VENTAS.matcher(nombre);
+        if (!coincidencia.matches()) {
+            return 0;
+        }
+        try {
+            long idVendedor = Long.parseLong(coincidencia.group(1));
+            if (coincidencia.group(2) != null) {
+                Long.parseLong(coincidencia.group(2));
+            }
+            if (!coincidencia.group(1).equals(Long.toString(idVendedor))) {
+                return 0;
+            }
+            return ResultadoParticion.particionDe(idVendedor, particiones);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void registrar(String nombre) {
+        Matcher coincidencia = NOMBRE_VENTAS.matcher(nombre);
+        if (!coincidencia.matches()) {
+            if (particion == 0 && (nombre.endsWith(".txt") || nombre.endsWith(".txt" + ArchivoComprimido.EXTENSION)
+                    || nombre.endsWith(ArchivoColumnar.EXTENSION))) {
+                archivosNoReconocidos.add(nombre);
+            }
+            return;
+        }
+
+        long idVendedor;
+        long numero;
+        try {
+            idVendedor = Long.parseLong(coincidencia.group(1));
+            numero = coincidencia.group(2) == null ? 0 : Long.parseLong(coincidencia.group(2));
+        } catch (NumberFormatException e) {
+            if (particion == 0) {
+                archivosNoReconocidos.add(nombre);
+            }
+            return;
+        }
+
+        // "ventas_007.txt" no es el archivo del vendedor 7: los documentos se escriben sin ceros a la izquierda
+        if (!coincidencia.group(1).equals(Long.toString(idVendedor))) {
+            if (particion == 0) {
+                archivosNoReconocidos.add(nombre);
+            }
+            return;
+        }
+        if (particiones > 1 && ResultadoParticion.particionDe(idVendedor, particiones) != particion) {
+            return;
+        }
+
+        ArchivosVendedor grupo = archivosPorVendedor.computeIfAbsent(idVendedor, id -> new ArchivosVendedor());
+        grupo.encontrados.add(new ArchivoNumerado(new File(directorio, nombre), numero));
+    }
+
+    private void ordenar(ArchivosVendedor grupo) {
+        grupo.encontrados.sort(Comparator.<ArchivoNumerado>comparingLong(a -> a.numero)
+            .thenComparing(a -> a.archivo.getName()));
+
+        grupo.archivos = new ArrayList<>(grupo.encontrados.size());
+        ArchivoNumerado anterior = null;
+        for (ArchivoNumerado encontrado : grupo.encontrados) {
+            // Si el mismo archivo está en texto, comprimido o en columnar se usa solo una de las versiones
+            if (anterior != null && mismaBase(anterior.archivo, encontrado.archivo)) {
+                if (reemplaza(anterior.archivo, encontrado.archivo)) {
+                    grupo.archivos.set(grupo.archivos.size() - 1, encontrado.archivo);
+                    anterior = encontrado;
+                }
+                continue;
+            }
+            grupo.archivos.add(encontrado.archivo);
+            anterior = encontrado;
+        }
+        totalArchivos += grupo.archivos.size();
+    }
+
+    // Indica si los dos nombres son el mismo archivo de ventas con distinta extensión
+    private static boolean mismaBase(File primero, File segundo) {
+        return base(primero.getName()).equals(base(segundo.getName()));
+    }
+
+    // "ventas_7_1.txt.gz" → "ventas_7_1"
+    private static String base(String nombre) {
+        if (ArchivoComprimido.esComprimido(nombre)) {
+            nombre = nombre.substring(0, nombre.length() - ArchivoComprimido.EXTENSION.length());
+        }
+        return nombre.substring(0, nombre.lastIndexOf('.'));
+    }
+
+    // Recibe la versión elegida hasta ahora y otra del mismo archivo que viene después en orden alfabético
+    // (.txt, .txt.gz, .vcol) y dice si la segunda la reemplaza
+    // El texto sin comprimir le gana al .gz: si están los dos, el .gz es una copia archivada o todavía se está escribiendo
+    private static boolean reemplaza(File elegido, File otro) {
+        if (ArchivoComprimido.esComprimido(otro.getName())) {
+            return false;
+        }
+        return preferirColumnar(elegido, otro);
+    }
+
+    // Recibe la versión de texto (o su .gz) y la columnar (en orden alfabético: .txt antes que .vcol)
+    // La columnar gana mientras sea igual o más nueva; si después se agregan ventas al .txt, vuelve a usarse el texto
+    private static boolean preferirColumnar(File texto, File columnar) {
+        return columnar.lastModified() >= texto.lastModified();
+    }
+
+    // Devuelve los archivos de ventas de un vendedor (vacío si no tiene)
+    // y lo marca como presente en vendedores.txt
+    public List<File> tomarArchivos(long idVendedor) {
+        ArchivosVendedor grupo = archivosPorVendedor.get(idVendedor);
+        if (grupo == null) {
+            return Collections.emptyList();
+        }
+        grupo.asignado = true;
+        return grupo.archivos;
+    }
+
+    // Todos los archivos de ventas reconocidos, de cualquier vendedor
+    public List<File> todosLosArchivos() {
+        List<File> todos = new ArrayList<>(totalArchivos);
+        for (ArchivosVendedor grupo : archivosPorVendedor.values()) {
+            todos.addAll(grupo.archivos);
+        }
+        return todos;
+    }
+
+    // Archivos de ventas que no pertenecen a ningún vendedor de vendedores.txt
+    // Incluye los que tienen un nombre que no sigue el formato ventas_<id>[_n].txt
+    public List<String> archivosHuerfanos() {
+        List<String> huerfanos = new ArrayList<>(archivosNoReconocidos);
+        for (ArchivosVendedor grupo : archivosPorVendedor.values()) {
+            if (!grupo.asignado) {
+                for (File archivo : grupo.archivos) {
+                    huerfanos.add(archivo.getName());
+                }
+            }
+        }
+        Collections.sort(huerfanos);
+        return huerfanos;
+    }
+
+    // Cuenta los archivos de ventas del directorio sin guardar sus nombres
+    public static long contarArchivos(File directorio) throws IOException {
+        long cantidad = 0;
+        try (DirectoryStream<Path> nombres = Files.newDirectoryStream(directorio.toPath(), "ventas_*")) {
+            for (Path nombre : nombres) {
+                cantidad++;
+            }
+        } catch (IOException e) {
+            throw new IOException("No se pudo listar el directorio de datos: " + directorio.getPath(), e);
+        }
+        return cantidad;
+    }
+
+    public int getTotalArchivos() {
+        return totalArchivos;
+    }
+
+    public int getTotalVendedores() {
+        return archivosPorVendedor.size();
+    }
+
+    public File getDirectorio() {
+        return directorio;
+    }
+}
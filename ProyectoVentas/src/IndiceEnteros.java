@@ -0,0 +1,97 @@
+import java.util.Arrays;
+
+// Índice de direccionamiento abierto que asocia un entero con otro entero
+// Evita los objetos Integer de un HashMap cuando se consulta millones de veces
+public class IndiceEnteros {
+
+    private static final int VACIO = Integer.MIN_VALUE;
+
+    private int[] claves;
+    private int[] valores;
+    private int mascara;
+    private int tamano;
+
+    // VACIO marca las casillas libres, así que esa clave (un ID válido en productos.txt) se guarda aparte
+    private boolean tieneClaveVacio;
+    private int valorClaveVacio;
+
+    public IndiceEnteros(int capacidadEsperada) {
+        int capacidad = Integer.highestOneBit(Math.max(4, capacidadEsperada * 2 - 1)) << 1;
+        claves = new int[capacidad];
+        valores = new int[capacidad];
+        Arrays.fill(claves, VACIO);
+        mascara = capacidad - 1;
+    }
+
+    // Devuelve el valor asociado a la clave, o -1 si la clave no está en el índice
+    public int obtener(int clave) {
+        if (clave == VACIO) {
+            return tieneClaveVacio ? valorClaveVacio : -1;
+        }
+        int posicion = mezclar(clave) & mascara;
+        while (true) {
+            int actual = claves[posicion];
+            if (actual == clave) {
+                return valores[posicion];
+            }
+            if (actual == VACIO) {
+                return -1;
+            }
+            posicion = (posicion + 1) & mascara;
+        }
+    }
+
+    // Guarda la clave solo si todavía no existe
+    // Devuelve true si se agregó, false si ya estaba registrada
+    public boolean agregarSiAusente(int clave, int valor) {
+        if (clave == VACIO) {
+            if (tieneClaveVacio) {
+                return false;
+            }
+            tieneClaveVacio = true;
+            valorClaveVacio = valor;
+            tamano++;
+            return true;
+        }
+        if ((tamano + 1) * 2 > claves.length) {
+            crecer();
+        }
+        int posicion = mezclar(clave) & mascara;
+        while (claves[posicion] != VACIO) {
+            if (claves[posicion] == clave) {
+                return false;
+            }
+            posicion = (posicion + 1) & mascara;
+        }
+        claves[posicion] = clave;
+        valores[posicion] = valor;
+        tamano++;
+        return true;
+    }
+
+    public int tamano() {
+        return tamano;
+    }
+
+    // Duplica la tabla cuando se llena más de la mitad
+    private void crecer() {
+        int[] clavesAnteriores = claves;
+        int[] valoresAnteriores = valores;
+        claves = new int[clavesAnteriores.length * 2];
+        valores = new int[valoresAnteriores.length * 2];
+        Arrays.fill(claves, VACIO);
+        mascara = claves.length - 1;
+        tamano = tieneClaveVacio ? 1 : 0;
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != VACIO) {
+                agregarSiAusente(clavesAnteriores[i], valoresAnteriores[i]);
+            }
+        }
+    }
+
+    // Reparte las claves consecutivas (100, 101, 102...) por toda la tabla
+    private static int mezclar(int clave) {
+        int h = clave * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,154 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+// Lee un archivo de texto línea por línea directamente en bytes
+// A diferencia de BufferedReader no crea un String por línea: solo indica dónde empieza y termina
+public class LectorLineas implements Closeable {
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final InputStream entrada;
+    private byte[] buffer;
+    private int posicion;
+    private int limite;
+    private boolean finArchivo;
+    private boolean soloLineasCompletas;
+
+    // Posición en el archivo del primer byte del buffer
+    private long inicioBuffer;
+
+    private int inicioLinea;
+    private int finLinea;
+
+    public LectorLineas(InputStream entrada) {
+        this(entrada, new byte[TAMANO_BUFFER]);
+    }
+
+    // Permite reutilizar el mismo buffer para muchos archivos
+    public LectorLineas(InputStream entrada, byte[] buffer) {
+        this(entrada, buffer, 0);
+    }
+
+    // Para flujos que ya empiezan en una posición del archivo (por ejemplo al seguir un archivo que crece)
+    public LectorLineas(InputStream entrada, byte[] buffer, long posicionInicial) {
+        this.entrada = entrada;
+        this.buffer = buffer;
+        this.inicioBuffer = posicionInicial;
+    }
+
+    // Avanza a la siguiente línea; devuelve false cuando ya no quedan más
+    // Acepta los mismos finales de línea que BufferedReader: \n, \r y \r\n
+    public boolean siguienteLinea() throws IOException {
+        int i = posicion;
+        while (true) {
+            while (i < limite) {
+                byte b = buffer[i];
+                if (b == '\n') {
+                    return entregar(i, i + 1);
+                }
+                if (b == '\r') {
+                    if (i + 1 < limite) {
+                        return entregar(i, buffer[i + 1] == '\n' ? i + 2 : i + 1);
+                    }
+                    break; // Hay que mirar el byte siguiente para saber si es \r\n
+                }
+                i++;
+            }
+
+            int antes = posicion;
+            boolean hayMas = llenar();
+            i -= antes - posicion;
+            if (!hayMas) {
+                // La última línea puede no terminar en salto de línea
+                if (posicion < limite && !soloLineasCompletas) {
+                    return entregar(i < limite ? i : limite, limite);
+                }
+                return false;
+            }
+        }
+    }
+
+    private boolean entregar(int fin, int siguiente) {
+        inicioLinea = posicion;
+        finLinea = fin;
+        posicion = siguiente;
+        return true;
+    }
+
+    // Mueve lo pendiente al inicio del buffer y lee más datos
+    // Devuelve false si el archivo ya no tiene más bytes
+    private boolean llenar() throws IOException {
+        if (finArchivo) {
+            return false;
+        }
+
+        if (posicion > 0) {
+            System.arraycopy(buffer, posicion, buffer, 0, limite - posicion);
+            limite -= posicion;
+            inicioBuffer += posicion;
+            posicion = 0;
+        }
+        if (limite == buffer.length) {
+            // Una línea más larga que el buffer: lo agrandamos
+            byte[] mayor = new byte[buffer.length * 2];
+            System.arraycopy(buffer, 0, mayor, 0, limite);
+            buffer = mayor;
+        }
+
+        int leidos = entrada.read(buffer, limite, buffer.length - limite);
+        if (leidos < 0) {
+            finArchivo = true;
+            return false;
+        }
+        limite += leidos;
+        return true;
+    }
+
+    // Si se activa, una última línea sin salto de línea no se entrega
+    // Sirve para leer archivos que todavía se están escribiendo sin tomar líneas a medias
+    public void setSoloLineasCompletas(boolean soloLineasCompletas) {
+        this.soloLineasCompletas = soloLineasCompletas;
+    }
+
+    // Posición en el archivo del primer byte que todavía no se entregó como parte de una línea
+    public long posicionArchivo() {
+        return inicioBuffer + posicion;
+    }
+
+    // Posición en el archivo del primer byte de la línea actual
+    public long inicioLineaArchivo() {
+        return inicioBuffer + inicioLinea;
+    }
+
+    public byte[] datos() {
+        return buffer;
+    }
+
+    public int inicio() {
+        return inicioLinea;
+    }
+
+    public int fin() {
+        return finLinea;
+    }
+
+    // Indica si la línea actual contiene el byte indicado
+    public boolean contiene(byte valor) {
+        for (int i = inicioLinea; i < finLinea; i++) {
+            if (buffer[i] == valor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Convierte la línea actual en texto; solo se usa para mensajes de error
+    public String lineaComoTexto() {
+        return new String(buffer, inicioLinea, finLinea - inicioLinea, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        entrada.close();
+    }
+}
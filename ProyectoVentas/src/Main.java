@@ -1,398 +1,408 @@
 import java.io.*;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 public class Main {
 
+    // Archivos huérfanos que se listan en la consola; del resto solo se dice cuántos son
+    static final int HUERFANOS_EN_CONSOLA = 20;
+
     // Punto de partida de nuestro sistema de procesamiento
     // Aquí es donde comenzamos a analizar todos los datos de ventas
     public static void main(String[] args) {
         System.out.println("=== INICIANDO PROCESAMIENTO DE ARCHIVOS ===");
         System.out.println("Elementos Extra Implementados:");
         System.out.println("a. Procesar múltiples archivos por vendedor");
-        System.out.println("b. Trabajar con archivos serializados");
+        System.out.println("b. Catálogo de productos en formato binario");
         System.out.println("c. Detección de errores y datos incoherentes");
         
+        // Leemos las opciones de ejecución (por ejemplo --hilos=8 o --datos=/ruta/a/los/datos)
+        ConfiguracionEjecucion configuracion;
+        try {
+            configuracion = ConfiguracionEjecucion.desdeArgumentos(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Opciones inválidas: " + e.getMessage());
+            return;
+        }
+        File directorioDatos = new File(configuracion.getDirectorioDatos());
+        
+        // En modo vigilancia el programa no termina: sigue los archivos y actualiza los reportes
+        if (configuracion.isVigilar()) {
+            try {
+                new ModoVigilancia(configuracion, directorioDatos).ejecutar();
+            } catch (IOException e) {
+                System.err.println("Error en el modo vigilancia: " + e.getMessage());
+                e.printStackTrace();
+            }
+            return;
+        }
+        
+        // En modo consulta se responde desde los consolidados por día y tienda, sin leer los archivos de ventas
+        if (configuracion.isConsulta()) {
+            try {
+                ejecutarConsulta(configuracion, directorioDatos);
+            } catch (IOException e) {
+                System.err.println("Error en la consulta: " + e.getMessage());
+            }
+            return;
+        }
+        
+        // Combinar los resultados parciales de las particiones en los reportes finales
+        if (configuracion.getParcialesACombinar() != null) {
+            try {
+                ejecutarCombinacion(configuracion, directorioDatos);
+            } catch (IOException e) {
+                System.err.println("Error al combinar los resultados parciales: " + e.getMessage());
+            }
+            return;
+        }
+        
+        // Contadores y tiempos de la ejecución; con --metricas se exportan al final y cada cierto tiempo
+        MetricasEjecucion metricas = new MetricasEjecucion(configuracion.getMensajesPorSegundo());
+        File archivoMetricas = configuracion.getArchivoMetricas() == null ? null : new File(configuracion.getArchivoMetricas());
+        if (archivoMetricas != null) {
+            metricas.iniciarExportacionPeriodica(archivoMetricas, configuracion.getIntervaloMetricasSegundos());
+        }
+        
+        // Con --cuarentena las líneas rechazadas se escriben en un archivo aparte en lugar de la consola
+        CuarentenaVentas cuarentena = null;
+        
         try {
-            // Primero revisamos si existe la versión especial de productos guardada
-            if (new File("productos_serializados.dat").exists()) {
-                System.out.println("Procesando archivo serializado...");
-                procesarArchivoSerializado();
+            // Cargamos el catálogo una sola vez; solo se relee si productos.txt cambia
+            // Si existe productos_catalogo.bin y es más nuevo que productos.txt, se usa ese
+            metricas.iniciarEtapa(MetricasEjecucion.Etapa.CATALOGO);
+            CatalogoProductos catalogo = CatalogoProductos.obtener(new File(directorioDatos, "productos.txt").getPath());
+            metricas.terminarEtapa(MetricasEjecucion.Etapa.CATALOGO);
+            System.out.println("Catálogo cargado: " + catalogo.tamano() + " productos (desde "
+                + new File(catalogo.getRutaArchivo()).getName() + ")");
+            
+            // Procesamos en una sola pasada las ventas de todos nuestros vendedores
+            // y, al mismo tiempo, contamos qué productos se vendieron más
+            AgregadorVentas agregador = new AgregadorVentas(catalogo, configuracion, metricas);
+            
+            // En modo incremental reutilizamos lo calculado para los archivos que no cambiaron
+            CheckpointVentas checkpoint = null;
+            if (configuracion.getArchivoCheckpoint() != null) {
+                checkpoint = CheckpointVentas.cargar(new File(configuracion.getArchivoCheckpoint()), catalogo,
+                    configuracion.getDirectorioConsolidados() != null, configuracion.getMaximoErroresPorArchivo(),
+                    configuracion.getMaximoPorcentajeErrores());
+                agregador.setCheckpoint(checkpoint);
+            }
+            if (configuracion.getArchivoCuarentena() != null) {
+                cuarentena = new CuarentenaVentas(new File(configuracion.getArchivoCuarentena()));
+                agregador.setCuarentena(cuarentena);
             }
             
-            // Procesamos las ventas de todos nuestros vendedores
-            Map<String, Double> ventasPorVendedor = procesarVentasVendedores();
-            generarReporteVendedores(ventasPorVendedor);
+            // Con --memoria-mb los vendedores se procesan por tandas y no se guardan todos en memoria
+            if (configuracion.getMemoriaMb() > 0) {
+                ProcesamientoPorTandas tandas = new ProcesamientoPorTandas(configuracion, directorioDatos, agregador, metricas);
+                tandas.procesar();
+                mostrarResumen(agregador);
+                tandas.reportarArchivosHuerfanos();
+                
+                metricas.iniciarEtapa(MetricasEjecucion.Etapa.REPORTES);
+                tandas.escribirReporteVendedores();
+                generarReporteProductos(agregador.getProductosVendidos(), catalogo, configuracion);
+                metricas.terminarEtapa(MetricasEjecucion.Etapa.REPORTES);
+                mostrarReportesGenerados();
+                return;
+            }
             
-            // También analizamos qué productos se vendieron más
-            Map<String, Integer> productosVendidos = procesarProductosVendidos();
-            generarReporteProductos(productosVendidos);
+            // Listamos el directorio una sola vez para saber qué archivos de ventas tiene cada vendedor
+            metricas.iniciarEtapa(MetricasEjecucion.Etapa.DESCUBRIMIENTO);
+            IndiceArchivosVentas indice = IndiceArchivosVentas.construir(directorioDatos, configuracion.getParticion(),
+                configuracion.getParticiones());
+            metricas.terminarEtapa(MetricasEjecucion.Etapa.DESCUBRIMIENTO);
+            System.out.println("Archivos de ventas encontrados: " + indice.getTotalArchivos()
+                + " (" + indice.getTotalVendedores() + " vendedores)");
             
-            System.out.println("=== PROCESAMIENTO COMPLETADO EXITOSAMENTE ===");
-            System.out.println("Reportes generados:");
-            System.out.println("- reporte_vendedores.csv");
-            System.out.println("- reporte_productos.csv");
+            metricas.iniciarEtapa(MetricasEjecucion.Etapa.AGREGACION);
+            agregador.procesarVendedores(new File(directorioDatos, "vendedores.txt"), indice);
+            metricas.terminarEtapa(MetricasEjecucion.Etapa.AGREGACION);
+            if (checkpoint != null) {
+                checkpoint.guardar();
+                System.out.println("Modo incremental: " + checkpoint.getReutilizados() + " archivos sin cambios, "
+                    + checkpoint.getProcesados() + " procesados");
+            }
+            mostrarResumen(agregador);
+            // Con --particion el índice tiene solo los archivos de esta partición, así que cada una avisa los suyos
+            reportarArchivosHuerfanos(indice);
+            
+            // Una partición no escribe reportes: guarda su resultado parcial para --combinar
+            if (configuracion.getArchivoParcial() != null) {
+                File archivoParcial = new File(configuracion.getArchivoParcial());
+                ResultadoParticion.guardar(archivoParcial, agregador, catalogo, configuracion.getParticion(),
+                    configuracion.getParticiones());
+                System.out.println("Partición " + configuracion.getParticion() + " de " + configuracion.getParticiones()
+                    + ": " + agregador.getVentasPorVendedor().tamano() + " vendedores en " + archivoParcial.getPath());
+                return;
+            }
+            
+            metricas.iniciarEtapa(MetricasEjecucion.Etapa.REPORTES);
+            generarReporteVendedores(agregador.getVentasPorVendedor(), new File(directorioDatos, "vendedores.txt"),
+                configuracion);
+            generarReporteProductos(agregador.getProductosVendidos(), catalogo, configuracion);
+            guardarConsolidados(agregador, configuracion);
+            metricas.terminarEtapa(MetricasEjecucion.Etapa.REPORTES);
+            mostrarReportesGenerados();
             
         } catch (IOException e) {
             System.err.println("Error durante el procesamiento: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            cerrarCuarentena(cuarentena);
+            terminarMetricas(metricas, archivoMetricas);
         }
     }
 
-    // Lee la versión especial de productos que guardamos anteriormente
-    // Es como abrir una caja fuerte con información importante
-    private static void procesarArchivoSerializado() throws IOException {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream("productos_serializados.dat"))) {
-            @SuppressWarnings("unchecked")
-            List<GenerateInfoFiles.Producto> productos = (List<GenerateInfoFiles.Producto>) ois.readObject();
-            
-            System.out.println("Productos cargados desde archivo serializado:");
-            for (GenerateInfoFiles.Producto producto : productos) {
-                System.out.println("  - " + producto.getNombre() + ": $" + producto.getPrecio());
-            }
-            
-        } catch (ClassNotFoundException e) {
-            System.err.println("Error al leer archivo serializado: " + e.getMessage());
+    private static void mostrarResumen(AgregadorVentas agregador) {
+        System.out.println("Archivos de ventas procesados: " + agregador.getArchivosProcesados()
+            + " (" + agregador.getLineasProcesadas() + " líneas, " + agregador.getLineasConError() + " con errores)");
+        if (agregador.getArchivosOmitidos() > 0) {
+            System.out.println("Archivos omitidos por superar el umbral de errores: " + agregador.getArchivosOmitidos());
         }
     }
 
-    // Analiza cuánto vendió cada vendedor en total
-    // Revisa todos los vendedores y suma sus ventas
-    private static Map<String, Double> procesarVentasVendedores() throws IOException {
-        Map<String, Double> ventasVendedores = new HashMap<>();
+    private static void mostrarReportesGenerados() {
+        System.out.println("=== PROCESAMIENTO COMPLETADO EXITOSAMENTE ===");
+        System.out.println("Reportes generados:");
+        System.out.println("- reporte_vendedores.csv");
+        System.out.println("- reporte_productos.csv");
+    }
+
+    // Con --consolidados escribe los totales por día y tienda para las consultas posteriores
+    static void guardarConsolidados(AgregadorVentas agregador, ConfiguracionEjecucion configuracion) throws IOException {
+        if (agregador.getConsolidado() == null) {
+            return;
+        }
+        File directorio = new File(configuracion.getDirectorioConsolidados());
+        int dias = agregador.getConsolidado().guardar(directorio);
+        System.out.println("Consolidados guardados: " + dias + " días en " + directorio.getPath());
+    }
+
+    // Genera los dos reportes desde los consolidados, para un rango de fechas y unas tiendas
+    // Solo se abren los archivos de los días pedidos; las ventas sin fecha entran solo si no se pidió un rango
+    private static void ejecutarConsulta(ConfiguracionEjecucion configuracion, File directorioDatos) throws IOException {
+        CatalogoProductos catalogo = CatalogoProductos.obtener(new File(directorioDatos, "productos.txt").getPath());
+        File archivoVendedores = new File(directorioDatos, "vendedores.txt");
         
-        System.out.println("Procesando información de vendedores...");
+        ConsolidadoVentas.Consulta consulta = ConsolidadoVentas.consultar(new File(configuracion.getDirectorioConsolidados()),
+            configuracion.getDesde(), configuracion.getHasta(), !configuracion.hayRangoFechas(), configuracion.getTiendas());
         
-        // Leemos el archivo maestro de vendedores
-        try (BufferedReader vendedoresReader = new BufferedReader(new FileReader("vendedores.txt"))) {
+        // Como en el procesamiento normal, los vendedores sin ventas aparecen con 0 en el orden de vendedores.txt
+        TotalesPorVendedor ventasPorVendedor = new TotalesPorVendedor();
+        try (BufferedReader vendedoresReader = new BufferedReader(new FileReader(archivoVendedores, StandardCharsets.UTF_8))) {
             String linea;
-            
-            // Procesamos cada vendedor uno por uno
             while ((linea = vendedoresReader.readLine()) != null) {
-                // Verificamos que la información del vendedor esté completa
-                if (!validarFormatoLinea(linea, 4, "vendedores.txt")) {
-                    continue; // Si está incompleta, pasamos al siguiente
-                }
-                
-                // Extraemos los datos del vendedor
                 String[] datosVendedor = linea.split(";");
-                String nombreCompleto = datosVendedor[2] + " " + datosVendedor[3];
-                long numeroDocumento = Long.parseLong(datosVendedor[1]);
-                
-                // Calculamos cuánto vendió este vendedor en total
-                double totalVentas = calcularVentasVendedor(numeroDocumento);
-                ventasVendedores.put(nombreCompleto, totalVentas);
-                
-                System.out.println("Vendedor procesado: " + nombreCompleto + " - Ventas: $" + totalVentas);
+                if (datosVendedor.length < 4) {
+                    continue;
+                }
+                try {
+                    long documento = Long.parseLong(datosVendedor[1]);
+                    if (ventasPorVendedor.posicion(documento) < 0) {
+                        ventasPorVendedor.asignar(documento, 0);
+                    }
+                } catch (NumberFormatException e) {
+                    // Ya se avisa al procesar las ventas
+                }
             }
         }
+        consulta.porVendedor.forEach(ventasPorVendedor::asignar);
         
-        return ventasVendedores;
+        System.out.println("Consulta sobre " + consulta.dias + " días y " + consulta.celdas + " celdas de día y tienda");
+        generarReporteVendedores(ventasPorVendedor, archivoVendedores, configuracion);
+        generarReporteProductos(consulta.productos, catalogo, configuracion);
     }
 
-    // Calcula el total de ventas para un vendedor específico
-    // Revisa todos sus archivos de ventas y suma todo
-    static double calcularVentasVendedor(long idVendedor) throws IOException {
-        double totalVentas = 0.0;
+    // Junta las particiones generadas con --particion=i/N y escribe los reportes como una ejecución completa
+    private static void ejecutarCombinacion(ConfiguracionEjecucion configuracion, File directorioDatos) throws IOException {
+        CatalogoProductos catalogo = CatalogoProductos.obtener(new File(directorioDatos, "productos.txt").getPath());
+        ResultadoParticion resultado = ResultadoParticion.combinar(configuracion.getParcialesACombinar(), catalogo);
         
-        // Un vendedor puede tener varios archivos de ventas (ventas_1, ventas_2, etc.)
-        for (int archivoNum = 1; archivoNum <= 10; archivoNum++) { 
-            String archivoVentas = "ventas_" + idVendedor + "_" + archivoNum + ".txt";
-            File file = new File(archivoVentas);
-            
-            // Si no existe el archivo numerado, probamos con el archivo simple
-            if (!file.exists()) {
-                if (archivoNum == 1) {
-                    archivoVentas = "ventas_" + idVendedor + ".txt";
-                    file = new File(archivoVentas);
-                    if (!file.exists()) {
-                        break; // Si tampoco existe, terminamos
-                    }
-                } else {
-                    break; // Si no hay más archivos, terminamos
-                }
-            }
-            
-            System.out.println("  Procesando archivo: " + archivoVentas);
-            totalVentas += procesarArchivoVentas(archivoVentas);
+        System.out.println("Particiones combinadas: " + resultado.getParticiones() + " ("
+            + resultado.getVentasPorVendedor().tamano() + " vendedores)");
+        System.out.println("Archivos de ventas procesados: " + resultado.getArchivosProcesados()
+            + " (" + resultado.getLineasProcesadas() + " líneas, " + resultado.getLineasConError() + " con errores)");
+        if (resultado.getArchivosOmitidos() > 0) {
+            System.out.println("Archivos omitidos por superar el umbral de errores: " + resultado.getArchivosOmitidos());
         }
-        
-        return totalVentas;
+        generarReporteVendedores(resultado.getVentasPorVendedor(), new File(directorioDatos, "vendedores.txt"), configuracion);
+        generarReporteProductos(resultado.getProductosVendidos(), catalogo, configuracion);
     }
 
-    // Procesa un archivo individual de ventas
-    // Lee cada venta y calcula su valor total
-    private static double procesarArchivoVentas(String archivoVentas) throws IOException {
-        double totalArchivo = 0.0;
-        int lineasProcesadas = 0;
-        int lineasConError = 0;
-        
-        try (BufferedReader ventasReader = new BufferedReader(new FileReader(archivoVentas))) {
-            // La primera línea es el encabezado con información del vendedor
-            String encabezado = ventasReader.readLine();
-            if (encabezado == null || !encabezado.contains(";")) {
-                System.err.println("  Encabezado inválido en: " + archivoVentas);
-                return 0.0;
-            }
-            
-            // Procesamos cada venta línea por línea
-            String lineaVenta;
-            while ((lineaVenta = ventasReader.readLine()) != null) {
-                lineasProcesadas++;
-                
-                // Verificamos que la venta tenga el formato correcto
-                if (!validarFormatoLinea(lineaVenta, 2, archivoVentas)) {
-                    lineasConError++;
-                    continue; // Si está mal formada, la saltamos
-                }
-                
-                String[] datosVenta = lineaVenta.split(";");
-                try {
-                    int idProducto = Integer.parseInt(datosVenta[0]);
-                    int cantidadVendida = Integer.parseInt(datosVenta[1].replace(";", ""));
-                    
-                    // Verificamos que la cantidad sea válida
-                    if (cantidadVendida <= 0) {
-                        System.err.println("  Cantidad inválida en " + archivoVentas + ": " + cantidadVendida);
-                        lineasConError++;
-                        continue;
-                    }
-                    
-                    // Buscamos el precio del producto vendido
-                    double precioProducto = obtenerPrecioProducto(idProducto);
-                    if (precioProducto <= 0) {
-                        System.err.println("  Precio inválido para producto ID: " + idProducto);
-                        lineasConError++;
-                        continue;
-                    }
-                    
-                    // Sumamos al total: cantidad × precio
-                    totalArchivo += cantidadVendida * precioProducto;
-                    
-                } catch (NumberFormatException e) {
-                    System.err.println("  Error de formato numérico en " + archivoVentas + ": " + lineaVenta);
-                    lineasConError++;
-                }
-            }
-            
-            // Mostramos un resumen de errores si los hubo
-            if (lineasConError > 0) {
-                System.err.println("  Archivo " + archivoVentas + ": " + lineasConError + "/" + lineasProcesadas + " líneas con errores");
-            }
-            
-        } catch (FileNotFoundException e) {
-            System.err.println("  Archivo no encontrado: " + archivoVentas);
+    // Espera a que se escriba todo lo que quedó en la cola de la cuarentena (también si la ejecución falló)
+    static void cerrarCuarentena(CuarentenaVentas cuarentena) {
+        if (cuarentena == null) {
+            return;
+        }
+        try {
+            cuarentena.close();
+            System.out.println("Registros en cuarentena: " + cuarentena.getRegistros() + " (" + cuarentena.getArchivo().getPath() + ")");
+        } catch (IOException e) {
+            System.err.println("No se pudo escribir la cuarentena: " + e.getMessage());
         }
-        
-        return totalArchivo;
     }
 
-    // Verifica que una línea de datos tenga el formato correcto
-    // Como un inspector de calidad para nuestros datos
-    private static boolean validarFormatoLinea(String linea, int camposEsperados, String nombreArchivo) {
-        if (linea == null || linea.trim().isEmpty()) {
-            return false;
+    // Muestra el resumen de tiempos y escribe las métricas finales (también si la ejecución falló)
+    private static void terminarMetricas(MetricasEjecucion metricas, File archivoMetricas) {
+        System.out.println(metricas.resumen());
+        if (metricas.getMensajesOmitidos() > 0) {
+            System.out.println("Mensajes de detalle omitidos: " + metricas.getMensajesOmitidos()
+                + " (límite de --mensajes-por-segundo)");
         }
-        
-        String[] campos = linea.split(";");
-        if (campos.length < camposEsperados) {
-            System.err.println("  Formato inválido en " + nombreArchivo + ": " + linea);
-            return false;
+        if (archivoMetricas == null) {
+            return;
         }
-        
-        return true;
+        metricas.detenerExportacion();
+        try {
+            metricas.exportar(archivoMetricas);
+            System.out.println("Métricas exportadas: " + archivoMetricas.getPath());
+        } catch (IOException e) {
+            System.err.println("No se pudieron exportar las métricas: " + e.getMessage());
+        }
+    }
+
+    // Avisa de los archivos de ventas que no pertenecen a ningún vendedor de vendedores.txt
+    // Mostramos solo los primeros para no llenar la consola
+    private static void reportarArchivosHuerfanos(IndiceArchivosVentas indice) {
+        List<String> huerfanos = indice.archivosHuerfanos();
+        reportarArchivosHuerfanos(huerfanos.size(), huerfanos);
     }
 
-    // Cuenta cuántas unidades se vendieron de cada producto
-    // Para saber qué productos son los más populares
-    private static Map<String, Integer> procesarProductosVendidos() throws IOException {
-        Map<String, Integer> productosVendidos = new HashMap<>();
+    // primeros: los primeros nombres en orden alfabético (pueden ser menos que el total)
+    static void reportarArchivosHuerfanos(long total, List<String> primeros) {
+        if (total == 0) {
+            return;
+        }
         
-        System.out.println("Procesando productos vendidos...");
+        System.err.println("Archivos de ventas sin vendedor en vendedores.txt: " + total);
+        int mostrar = Math.min(primeros.size(), HUERFANOS_EN_CONSOLA);
+        for (int i = 0; i < mostrar; i++) {
+            System.err.println("  - " + primeros.get(i));
+        }
+        if (total > mostrar) {
+            System.err.println("  ... y " + (total - mostrar) + " más");
+        }
+    }
+
+    // Genera el reporte final de vendedores ordenado por mejores ventas
+    // Como crear un ranking de los vendedores más exitosos; con --top=K solo se escriben los K mejores
+    // Los totales vienen por documento: el nombre de cada vendedor se toma de vendedores.txt recién ahora
+    static void generarReporteVendedores(TotalesPorVendedor ventasVendedores, File archivoVendedores,
+            ConfiguracionEjecucion configuracion) throws IOException {
+        ReporteOrdenado ranking = new ReporteOrdenado(configuracion.getTopReporte(), configuracion.getFilasReporteEnMemoria());
+        Map<Long, BigInteger> desbordados = new HashMap<>();
+        agregarFilasVendedores(ranking, ventasVendedores, archivoVendedores, desbordados);
+        escribirReporteVendedores(ranking, desbordados, configuracion);
+    }
+
+    // Pasa al ranking una fila por vendedor con su nombre de vendedores.txt
+    // Los totales que no caben en un long se guardan en desbordados para escribirlos exactos
+    static void agregarFilasVendedores(ReporteOrdenado ranking, TotalesPorVendedor ventasVendedores, File archivoVendedores,
+            Map<Long, BigInteger> desbordados) throws IOException {
+        BitSet agregados = new BitSet(ventasVendedores.tamano());
         
-        // Revisamos las ventas de cada vendedor para contar productos
-        try (BufferedReader vendedoresReader = new BufferedReader(new FileReader("vendedores.txt"))) {
+        try (BufferedReader vendedoresReader = new BufferedReader(new FileReader(archivoVendedores, StandardCharsets.UTF_8))) {
             String linea;
-            
             while ((linea = vendedoresReader.readLine()) != null) {
-                if (!validarFormatoLinea(linea, 4, "vendedores.txt")) {
+                // Las líneas inválidas ya se avisaron al procesar las ventas
+                long documento = AgregadorVentas.documentoDeLinea(linea);
+                if (documento >= 0 && ventasVendedores.posicion(documento) < 0) {
                     continue;
                 }
-                
                 String[] datosVendedor = linea.split(";");
-                long numeroDocumento = Long.parseLong(datosVendedor[1]);
-                procesarVentasProductos(numeroDocumento, productosVendidos);
-            }
-        }
-        
-        return productosVendidos;
-    }
-
-    // Revisa todos los archivos de ventas de un vendedor para contar productos
-    private static void procesarVentasProductos(long idVendedor, Map<String, Integer> productosVendidos) 
-            throws IOException {
-        // Un vendedor puede tener varios archivos de ventas
-        for (int archivoNum = 1; archivoNum <= 10; archivoNum++) {
-            String archivoVentas = "ventas_" + idVendedor + "_" + archivoNum + ".txt";
-            File file = new File(archivoVentas);
-            
-            if (!file.exists()) {
-                if (archivoNum == 1) {
-                    archivoVentas = "ventas_" + idVendedor + ".txt";
-                    file = new File(archivoVentas);
-                    if (!file.exists()) {
-                        break;
-                    }
-                } else {
-                    break;
-                }
-            }
-            
-            procesarUnArchivoProductos(archivoVentas, productosVendidos);
-        }
-    }
-
-    // Procesa un archivo individual para contar productos vendidos
-    private static void procesarUnArchivoProductos(String archivoVentas, Map<String, Integer> productosVendidos) 
-            throws IOException {
-        try (BufferedReader ventasReader = new BufferedReader(new FileReader(archivoVentas))) {
-            ventasReader.readLine(); // Saltamos el encabezado
-            
-            String lineaVenta;
-            while ((lineaVenta = ventasReader.readLine()) != null) {
-                if (!validarFormatoLinea(lineaVenta, 2, archivoVentas)) {
+                if (datosVendedor.length < 4) {
                     continue;
                 }
-                
-                String[] datosVenta = lineaVenta.split(";");
+                int posicion;
                 try {
-                    int idProducto = Integer.parseInt(datosVenta[0]);
-                    int cantidadVendida = Integer.parseInt(datosVenta[1].replace(";", ""));
-                    
-                    if (cantidadVendida > 0) {
-                        String nombreProducto = obtenerNombreProducto(idProducto);
-                        if (!"Producto Desconocido".equals(nombreProducto)) {
-                            // Sumamos la cantidad vendida al total del producto
-                            productosVendidos.put(nombreProducto, 
-                                productosVendidos.getOrDefault(nombreProducto, 0) + cantidadVendida);
-                        }
-                    }
-                    
+                    posicion = ventasVendedores.posicion(Long.parseLong(datosVendedor[1]));
                 } catch (NumberFormatException e) {
-                    System.err.println("  Error numérico en " + archivoVentas + ": " + lineaVenta);
-                }
-            }
-            
-        } catch (FileNotFoundException e) {
-            System.err.println("  Archivo no encontrado: " + archivoVentas);
-        }
-    }
-
-    // Busca el precio de un producto usando su ID
-    // Como consultar el precio en un catálogo
-    private static double obtenerPrecioProducto(int idProducto) throws IOException {
-        try (BufferedReader productosReader = new BufferedReader(new FileReader("productos.txt"))) {
-            String linea;
-            
-            while ((linea = productosReader.readLine()) != null) {
-                if (!validarFormatoLinea(linea, 3, "productos.txt")) {
                     continue;
                 }
-                
-                String[] datosProducto = linea.split(";");
-                int id = Integer.parseInt(datosProducto[0]);
-                
-                if (id == idProducto) {
-                    double precio = Double.parseDouble(datosProducto[2]);
-                    return precio > 0 ? precio : 0;
+                // Si el documento se repite, vale el nombre de su primera línea
+                if (posicion >= 0 && !agregados.get(posicion)) {
+                    agregados.set(posicion);
+                    ranking.agregar(datosVendedor[2] + " " + datosVendedor[3], ventasVendedores.total(posicion),
+                        ventasVendedores.documento(posicion));
                 }
             }
         }
         
-        return 0.0;
+        // Vendedores que ya no están en vendedores.txt: se muestran con su número de documento
+        for (int i = agregados.nextClearBit(0); i < ventasVendedores.tamano(); i = agregados.nextClearBit(i + 1)) {
+            ranking.agregar(Long.toString(ventasVendedores.documento(i)), ventasVendedores.total(i),
+                ventasVendedores.documento(i));
+        }
+        
+        guardarDesbordados(ventasVendedores, desbordados);
     }
 
-    // Busca el nombre de un producto usando su ID
-    // Para saber cómo se llama el producto que se vendió
-    private static String obtenerNombreProducto(int idProducto) throws IOException {
-        try (BufferedReader productosReader = new BufferedReader(new FileReader("productos.txt"))) {
-            String linea;
-            
-            while ((linea = productosReader.readLine()) != null) {
-                if (!validarFormatoLinea(linea, 2, "productos.txt")) {
-                    continue;
-                }
-                
-                String[] datosProducto = linea.split(";");
-                int id = Integer.parseInt(datosProducto[0]);
-                
-                if (id == idProducto) {
-                    return datosProducto[1];
-                }
-            }
+    // Igual, pero con los nombres que ya guardó el agregador (uno por posición de ventasVendedores)
+    static void agregarFilasVendedores(ReporteOrdenado ranking, TotalesPorVendedor ventasVendedores, List<String> nombres,
+            Map<Long, BigInteger> desbordados) throws IOException {
+        for (int i = 0; i < ventasVendedores.tamano(); i++) {
+            String nombre = nombres.get(i);
+            ranking.agregar(nombre != null ? nombre : Long.toString(ventasVendedores.documento(i)), ventasVendedores.total(i),
+                ventasVendedores.documento(i));
         }
-        
-        return "Producto Desconocido";
+        guardarDesbordados(ventasVendedores, desbordados);
     }
 
-    // Genera el reporte final de vendedores ordenado por mejores ventas
-    // Como crear un ranking de los vendedores más exitosos
-    private static void generarReporteVendedores(Map<String, Double> ventasVendedores) throws IOException {
-        // Ordenamos los vendedores de mayor a menor ventas
-        List<Map.Entry<String, Double>> listaVendedores = new ArrayList<>(ventasVendedores.entrySet());
-        listaVendedores.sort((v1, v2) -> v2.getValue().compareTo(v1.getValue()));
-        
-        try (FileWriter writer = new FileWriter("reporte_vendedores.csv")) {
-            writer.write("Vendedor;Total_Ventas\n");
-            for (Map.Entry<String, Double> vendedor : listaVendedores) {
-                String linea = vendedor.getKey() + ";" + String.format("%.0f", vendedor.getValue());
-                writer.write(linea + "\n");
+    private static void guardarDesbordados(TotalesPorVendedor ventasVendedores, Map<Long, BigInteger> desbordados) {
+        for (int i = 0; i < ventasVendedores.tamano(); i++) {
+            BigInteger desbordado = ventasVendedores.totalDesbordado(i);
+            if (desbordado != null) {
+                desbordados.put(ventasVendedores.documento(i), desbordado);
             }
         }
+    }
+
+    static void escribirReporteVendedores(ReporteOrdenado ranking, Map<Long, BigInteger> desbordados,
+            ConfiguracionEjecucion configuracion) throws IOException {
+        // Los totales están en centavos; los que no caben en un long se escriben desde su valor exacto
+        ranking.escribir(new File("reporte_vendedores.csv"), "Vendedor;Total_Ventas", (salida, nombre, total, documento) -> {
+            salida.texto(nombre).caracter(';');
+            BigInteger desbordado = total == Long.MAX_VALUE || total == Long.MIN_VALUE ? desbordados.get(documento) : null;
+            if (desbordado != null) {
+                salida.importe(desbordado);
+            } else {
+                salida.importe(total);
+            }
+        });
         
-        System.out.println("Reporte de vendedores generado: reporte_vendedores.csv");
+        System.out.println("Reporte de vendedores generado: reporte_vendedores.csv" + detalleRanking(ranking, configuracion));
     }
 
     // Genera el reporte final de productos más vendidos
     // Para saber qué productos son los favoritos de los clientes
-    private static void generarReporteProductos(Map<String, Integer> productosVendidos) throws IOException {
-        // Ordenamos los productos de más a menos vendidos
-        List<Map.Entry<String, Integer>> listaProductos = new ArrayList<>(productosVendidos.entrySet());
-        listaProductos.sort((p1, p2) -> p2.getValue().compareTo(p1.getValue()));
-        
-        try (FileWriter writer = new FileWriter("reporte_productos.csv")) {
-            writer.write("Producto;Precio_Unitario;Cantidad_Vendida\n");
-            for (Map.Entry<String, Integer> producto : listaProductos) {
-                String nombreProducto = producto.getKey();
-                double precio = obtenerPrecioProductoPorNombre(nombreProducto);
-                int cantidad = producto.getValue();
-                
-                String linea = nombreProducto + ";" + String.format("%.0f", precio) + ";" + cantidad;
-                writer.write(linea + "\n");
-            }
+    // Cada ID es una fila; el nombre se toma del catálogo al armar el ranking
+    static void generarReporteProductos(UnidadesPorProducto productosVendidos, CatalogoProductos catalogo,
+            ConfiguracionEjecucion configuracion) throws IOException {
+        ReporteOrdenado ranking = new ReporteOrdenado(configuracion.getTopReporte(), configuracion.getFilasReporteEnMemoria());
+        for (int i = 0; i < productosVendidos.tamano(); i++) {
+            int idProducto = productosVendidos.id(i);
+            ranking.agregar(catalogo.nombre(idProducto), productosVendidos.unidades(i), idProducto);
         }
         
-        System.out.println("Reporte de productos generado: reporte_productos.csv");
+        // El precio se busca solo para las filas que se escriben
+        ranking.escribir(new File("reporte_productos.csv"), "Producto;Precio_Unitario;Cantidad_Vendida",
+            (salida, nombre, cantidad, idProducto) -> salida.texto(nombre).caracter(';')
+                .importe(catalogo.precioCatalogoCentavos((int) idProducto)).caracter(';').entero(cantidad));
+        
+        System.out.println("Reporte de productos generado: reporte_productos.csv" + detalleRanking(ranking, configuracion));
     }
 
-    // Busca el precio de un producto usando su nombre
-    // Para completar la información en el reporte final
-    private static double obtenerPrecioProductoPorNombre(String nombreProducto) throws IOException {
-        try (BufferedReader productosReader = new BufferedReader(new FileReader("productos.txt"))) {
-            String linea;
-            
-            while ((linea = productosReader.readLine()) != null) {
-                if (!validarFormatoLinea(linea, 3, "productos.txt")) {
-                    continue;
-                }
-                
-                String[] datosProducto = linea.split(";");
-                if (datosProducto[1].equals(nombreProducto)) {
-                    return Double.parseDouble(datosProducto[2]);
-                }
-            }
+    private static String detalleRanking(ReporteOrdenado ranking, ConfiguracionEjecucion configuracion) {
+        if (configuracion.getTopReporte() > 0) {
+            return " (top " + configuracion.getTopReporte() + " de " + ranking.getFilas() + ")";
         }
-        
-        return 0.0;
+        if (ranking.getTramosEscritos() > 0) {
+            return " (" + ranking.getFilas() + " filas ordenadas en " + ranking.getTramosEscritos() + " tramos en disco)";
+        }
+        return "";
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,290 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Métricas de una ejecución: archivos, líneas y bytes leídos, líneas rechazadas por motivo y tiempo por etapa
+// Se exportan como JSON o en formato de texto de Prometheus, al final y cada cierto tiempo durante la ejecución
+// También limita los mensajes de detalle de la consola (por línea, por archivo, por vendedor)
+public class MetricasEjecucion {
+
+    // Por qué se rechazó una línea de venta; la etiqueta es el nombre que aparece en la exportación
+    public enum Rechazo {
+        LINEA_VACIA("linea_vacia"),
+        FORMATO_INVALIDO("formato_invalido"),
+        NUMERO_INVALIDO("numero_invalido"),
+        FECHA_INVALIDA("fecha_invalida"),
+        CANTIDAD_NO_POSITIVA("cantidad_no_positiva"),
+        PRODUCTO_DESCONOCIDO("producto_desconocido"),
+        PRECIO_INVALIDO("precio_invalido"),
+        DESCARTADA_AL_CONVERTIR("descartada_al_convertir");
+
+        final String etiqueta;
+
+        Rechazo(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+    }
+
+    public enum Etapa {
+        DESCUBRIMIENTO("descubrimiento"),
+        CATALOGO("catalogo"),
+        AGREGACION("agregacion"),
+        REPORTES("reportes");
+
+        final String etiqueta;
+
+        Etapa(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+    }
+
+    private static final Rechazo[] RECHAZOS = Rechazo.values();
+    private static final Etapa[] ETAPAS = Etapa.values();
+
+    private final Instant inicio = Instant.now();
+    private final long inicioNanos = System.nanoTime();
+
+    private final LongAdder archivos = new LongAdder();
+    private final LongAdder archivosReutilizados = new LongAdder();
+    private final LongAdder archivosOmitidos = new LongAdder();
+    private final LongAdder lineas = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder[] rechazos = new LongAdder[RECHAZOS.length];
+
+    // Tiempo acumulado por etapa; una etapa en curso suma también lo que lleva (modo vigilancia las repite)
+    private final long[] nanosPorEtapa = new long[ETAPAS.length];
+    private final long[] inicioEtapa = new long[ETAPAS.length];
+    private final boolean[] etapaEnCurso = new boolean[ETAPAS.length];
+
+    // Límite de mensajes de detalle por segundo (0 = ninguno)
+    private final int mensajesPorSegundo;
+    private final AtomicLong segundoActual = new AtomicLong();
+    private final AtomicInteger mensajesEnSegundo = new AtomicInteger();
+    private final LongAdder mensajesOmitidos = new LongAdder();
+
+    private ScheduledExecutorService exportador;
+
+    public MetricasEjecucion(int mensajesPorSegundo) {
+        this.mensajesPorSegundo = mensajesPorSegundo;
+        for (int i = 0; i < rechazos.length; i++) {
+            rechazos[i] = new LongAdder();
+        }
+    }
+
+    // Decide si se muestra un mensaje de detalle; los que pasan el límite del segundo actual solo se cuentan
+    // Conviene llamarlo antes de armar el texto del mensaje
+    public boolean permitirMensaje() {
+        if (mensajesPorSegundo > 0) {
+            long segundo = (System.nanoTime() - inicioNanos) / 1_000_000_000L;
+            long anterior = segundoActual.get();
+            if (segundo != anterior && segundoActual.compareAndSet(anterior, segundo)) {
+                mensajesEnSegundo.set(0);
+            }
+            if (mensajesEnSegundo.incrementAndGet() <= mensajesPorSegundo) {
+                return true;
+            }
+        }
+        mensajesOmitidos.increment();
+        return false;
+    }
+
+    public void sumarArchivo(long bytesArchivo) {
+        archivos.increment();
+        bytes.add(bytesArchivo);
+    }
+
+    // Lo agregado a un archivo ya leído (modo vigilancia): cuenta los bytes pero no otro archivo
+    public void sumarBytes(long bytesLeidos) {
+        bytes.add(bytesLeidos);
+    }
+
+    public void sumarReutilizado() {
+        archivosReutilizados.increment();
+    }
+
+    // Archivo que pasó el umbral de errores y no se sumó a los totales
+    public void sumarOmitido() {
+        archivosOmitidos.increment();
+    }
+
+    // Suma las líneas y los rechazos contados por un hilo, indexados por Rechazo.ordinal()
+    public void sumarLineas(long lineasLeidas, long[] rechazosPorMotivo) {
+        lineas.add(lineasLeidas);
+        for (int i = 0; i < rechazosPorMotivo.length; i++) {
+            if (rechazosPorMotivo[i] != 0) {
+                rechazos[i].add(rechazosPorMotivo[i]);
+            }
+        }
+    }
+
+    public synchronized void iniciarEtapa(Etapa etapa) {
+        inicioEtapa[etapa.ordinal()] = System.nanoTime();
+        etapaEnCurso[etapa.ordinal()] = true;
+    }
+
+    public synchronized void terminarEtapa(Etapa etapa) {
+        int i = etapa.ordinal();
+        if (etapaEnCurso[i]) {
+            nanosPorEtapa[i] += System.nanoTime() - inicioEtapa[i];
+            etapaEnCurso[i] = false;
+        }
+    }
+
+    public synchronized double segundosEtapa(Etapa etapa) {
+        int i = etapa.ordinal();
+        long nanos = nanosPorEtapa[i] + (etapaEnCurso[i] ? System.nanoTime() - inicioEtapa[i] : 0);
+        return nanos / 1e9;
+    }
+
+    public long getLineasRechazadas() {
+        long total = 0;
+        for (LongAdder rechazo : rechazos) {
+            total += rechazo.sum();
+        }
+        return total;
+    }
+
+    public long getMensajesOmitidos() {
+        return mensajesOmitidos.sum();
+    }
+
+    // Líneas y megabytes por segundo de la etapa de agregación
+    private double lineasPorSegundo() {
+        double segundos = segundosEtapa(Etapa.AGREGACION);
+        return segundos > 0 ? lineas.sum() / segundos : 0;
+    }
+
+    private double megabytesPorSegundo() {
+        double segundos = segundosEtapa(Etapa.AGREGACION);
+        return segundos > 0 ? bytes.sum() / (1024.0 * 1024.0) / segundos : 0;
+    }
+
+    // Resumen de una línea para la consola
+    public String resumen() {
+        StringBuilder texto = new StringBuilder("Tiempos:");
+        for (Etapa etapa : ETAPAS) {
+            texto.append(' ').append(etapa.etiqueta).append(' ').append(decimal(segundosEtapa(etapa))).append(" s,");
+        }
+        texto.append(" ").append(decimal(lineasPorSegundo())).append(" líneas/s, ")
+            .append(decimal(megabytesPorSegundo())).append(" MB/s");
+        return texto.toString();
+    }
+
+    public String comoJson() {
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\n");
+        json.append("  \"inicio\": \"").append(inicio).append("\",\n");
+        json.append("  \"segundos\": ").append(decimal((System.nanoTime() - inicioNanos) / 1e9)).append(",\n");
+        json.append("  \"archivos\": ").append(archivos.sum()).append(",\n");
+        json.append("  \"archivos_reutilizados\": ").append(archivosReutilizados.sum()).append(",\n");
+        json.append("  \"archivos_omitidos\": ").append(archivosOmitidos.sum()).append(",\n");
+        json.append("  \"lineas\": ").append(lineas.sum()).append(",\n");
+        json.append("  \"bytes\": ").append(bytes.sum()).append(",\n");
+        json.append("  \"lineas_rechazadas\": ").append(getLineasRechazadas()).append(",\n");
+        json.append("  \"rechazos\": {");
+        for (int i = 0; i < RECHAZOS.length; i++) {
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    \"").append(RECHAZOS[i].etiqueta).append("\": ").append(rechazos[i].sum());
+        }
+        json.append("\n  },\n");
+        json.append("  \"etapas_segundos\": {");
+        for (int i = 0; i < ETAPAS.length; i++) {
+            json.append(i == 0 ? "\n" : ",\n");
+            json.append("    \"").append(ETAPAS[i].etiqueta).append("\": ").append(decimal(segundosEtapa(ETAPAS[i])));
+        }
+        json.append("\n  },\n");
+        json.append("  \"lineas_por_segundo\": ").append(decimal(lineasPorSegundo())).append(",\n");
+        json.append("  \"megabytes_por_segundo\": ").append(decimal(megabytesPorSegundo())).append(",\n");
+        json.append("  \"mensajes_omitidos\": ").append(getMensajesOmitidos()).append('\n');
+        json.append("}\n");
+        return json.toString();
+    }
+
+    // Formato de texto de Prometheus, para el recolector de archivos .prom de node_exporter
+    public String comoPrometheus() {
+        StringBuilder texto = new StringBuilder(2048);
+        contador(texto, "ventas_archivos_total", "Archivos de ventas leídos", archivos.sum());
+        contador(texto, "ventas_archivos_reutilizados_total", "Archivos tomados del checkpoint sin leerlos",
+            archivosReutilizados.sum());
+        contador(texto, "ventas_archivos_omitidos_total", "Archivos omitidos por superar el umbral de errores",
+            archivosOmitidos.sum());
+        contador(texto, "ventas_lineas_total", "Líneas de venta leídas", lineas.sum());
+        contador(texto, "ventas_bytes_total", "Bytes de archivos de ventas leídos", bytes.sum());
+
+        encabezado(texto, "ventas_lineas_rechazadas_total", "Líneas de venta rechazadas por motivo", "counter");
+        for (int i = 0; i < RECHAZOS.length; i++) {
+            texto.append("ventas_lineas_rechazadas_total{motivo=\"").append(RECHAZOS[i].etiqueta).append("\"} ")
+                .append(rechazos[i].sum()).append('\n');
+        }
+
+        encabezado(texto, "ventas_etapa_segundos", "Tiempo acumulado por etapa", "gauge");
+        for (Etapa etapa : ETAPAS) {
+            texto.append("ventas_etapa_segundos{etapa=\"").append(etapa.etiqueta).append("\"} ")
+                .append(decimal(segundosEtapa(etapa))).append('\n');
+        }
+
+        encabezado(texto, "ventas_lineas_por_segundo", "Líneas por segundo durante la agregación", "gauge");
+        texto.append("ventas_lineas_por_segundo ").append(decimal(lineasPorSegundo())).append('\n');
+        encabezado(texto, "ventas_megabytes_por_segundo", "Megabytes por segundo durante la agregación", "gauge");
+        texto.append("ventas_megabytes_por_segundo ").append(decimal(megabytesPorSegundo())).append('\n');
+        contador(texto, "ventas_mensajes_omitidos_total", "Mensajes de detalle que no se mostraron por el límite",
+            getMensajesOmitidos());
+        return texto.toString();
+    }
+
+    private static void contador(StringBuilder texto, String nombre, String ayuda, long valor) {
+        encabezado(texto, nombre, ayuda, "counter");
+        texto.append(nombre).append(' ').append(valor).append('\n');
+    }
+
+    private static void encabezado(StringBuilder texto, String nombre, String ayuda, String tipo) {
+        texto.append("# HELP ").append(nombre).append(' ').append(ayuda).append('\n');
+        texto.append("# TYPE ").append(nombre).append(' ').append(tipo).append('\n');
+    }
+
+    private static String decimal(double valor) {
+        return String.format(Locale.ROOT, "%.3f", valor);
+    }
+
+    // Escribe las métricas en el archivo: formato Prometheus si termina en .prom, JSON en otro caso
+    // Se escribe en un temporal y se renombra, así quien lo lea nunca ve un archivo a medias
+    public synchronized void exportar(File destino) throws IOException {
+        String contenido = destino.getName().endsWith(".prom") ? comoPrometheus() : comoJson();
+        File temporal = new File(destino.getPath() + ".tmp");
+        Files.write(temporal.toPath(), contenido.getBytes(StandardCharsets.UTF_8));
+        Files.move(temporal.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Exporta cada tantos segundos en un hilo aparte hasta que se llame a detenerExportacion
+    public synchronized void iniciarExportacionPeriodica(File destino, int segundos) {
+        if (segundos <= 0 || exportador != null) {
+            return;
+        }
+        exportador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "exportador-metricas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        exportador.scheduleAtFixedRate(() -> {
+            try {
+                exportar(destino);
+            } catch (IOException e) {
+                System.err.println("No se pudieron exportar las métricas: " + e.getMessage());
+            }
+        }, segundos, segundos, TimeUnit.SECONDS);
+    }
+
+    public synchronized void detenerExportacion() {
+        if (exportador != null) {
+            exportador.shutdownNow();
+            exportador = null;
+        }
+    }
+}
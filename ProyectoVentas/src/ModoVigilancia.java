@@ -0,0 +1,319 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Sigue los archivos de ventas mientras crecen y mantiene los reportes al día
+// De cada archivo solo se leen las líneas agregadas desde la última actualización
+public class ModoVigilancia {
+
+    private static final DateTimeFormatter HORA = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    // Lo que ya se leyó de un archivo de ventas
+    private static class EstadoArchivo {
+        long posicion;
+        boolean encabezadoLeido;
+        ParcialArchivo parcial = new ParcialArchivo();
+    }
+
+    private final ConfiguracionEjecucion configuracion;
+    private final File directorio;
+    private final File archivoVendedores;
+    private final File archivoProductos;
+
+    // Acumulan toda la vida del modo vigilancia; con --metricas se exportan después de cada actualización
+    private final MetricasEjecucion metricas;
+    private final File archivoMetricas;
+
+    // Archivo de rechazos de todo el tiempo que corre el modo vigilancia (null = sin --cuarentena)
+    private CuarentenaVentas cuarentena;
+
+    // Consultas HTTP sobre los totales de la última actualización (null = sin --servidor)
+    private ServidorConsultas servidor;
+
+    private CatalogoProductos catalogo;
+    private AgregadorVentas lector;
+    private IndiceArchivosVentas indice;
+    private List<String[]> vendedores = new ArrayList<>();
+    private final Map<File, EstadoArchivo> estados = new HashMap<>();
+
+    public ModoVigilancia(ConfiguracionEjecucion configuracion, File directorio) {
+        this.configuracion = configuracion;
+        this.directorio = directorio;
+        this.archivoVendedores = new File(directorio, "vendedores.txt");
+        this.archivoProductos = new File(directorio, "productos.txt");
+        this.metricas = new MetricasEjecucion(configuracion.getMensajesPorSegundo());
+        this.archivoMetricas = configuracion.getArchivoMetricas() == null ? null : new File(configuracion.getArchivoMetricas());
+    }
+
+    // Hace una primera lectura completa y luego espera cambios en el directorio
+    // Después de cada cambio espera el intervalo configurado para juntar varios en una sola actualización
+    public void ejecutar() throws IOException {
+        long intervalo = TimeUnit.SECONDS.toNanos(configuracion.getIntervaloSegundos());
+
+        try (WatchService servicio = FileSystems.getDefault().newWatchService()) {
+            directorio.toPath().register(servicio, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+            System.out.println("=== MODO VIGILANCIA: " + directorio.getAbsolutePath() + " ===");
+            if (archivoMetricas != null) {
+                metricas.iniciarExportacionPeriodica(archivoMetricas, configuracion.getIntervaloMetricasSegundos());
+            }
+            if (configuracion.getArchivoCuarentena() != null) {
+                cuarentena = new CuarentenaVentas(new File(configuracion.getArchivoCuarentena()));
+            }
+            // Se abre antes de la primera lectura: mientras tanto responde que los datos se están cargando
+            if (configuracion.getPuertoServidor() >= 0) {
+                servidor = new ServidorConsultas(configuracion.getPuertoServidor(), metricas);
+                System.out.println("Servidor de consultas en http://127.0.0.1:" + servidor.getPuerto() + "/");
+            }
+            recargarTodo();
+            publicar();
+
+            while (true) {
+                Map<String, Boolean> cambiados = new HashMap<>(); // nombre → true si se creó o borró
+                WatchKey clave = servicio.take();
+                boolean desborde = recolectar(clave, cambiados);
+                if (cambiados.isEmpty() && !desborde) {
+                    continue; // Por ejemplo, los propios reportes si se escriben en este directorio
+                }
+
+                long limite = System.nanoTime() + intervalo;
+                long restante;
+                while ((restante = limite - System.nanoTime()) > 0) {
+                    clave = servicio.poll(restante, TimeUnit.NANOSECONDS);
+                    if (clave != null) {
+                        desborde |= recolectar(clave, cambiados);
+                    }
+                }
+
+                actualizar(cambiados, desborde);
+                publicar();
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Modo vigilancia detenido");
+        } finally {
+            if (servidor != null) {
+                servidor.close();
+            }
+            metricas.detenerExportacion();
+            Main.cerrarCuarentena(cuarentena);
+        }
+    }
+
+    // Junta los nombres de los archivos de datos que cambiaron; devuelve true si se perdieron eventos
+    private boolean recolectar(WatchKey clave, Map<String, Boolean> cambiados) {
+        boolean desborde = false;
+        for (WatchEvent<?> evento : clave.pollEvents()) {
+            if (evento.kind() == StandardWatchEventKinds.OVERFLOW) {
+                desborde = true;
+                continue;
+            }
+            String nombre = evento.context().toString();
+            if (!nombre.startsWith("ventas_") && !nombre.equals(archivoProductos.getName())
+                    && !nombre.equals(archivoVendedores.getName())) {
+                continue;
+            }
+            boolean creadoOBorrado = evento.kind() != StandardWatchEventKinds.ENTRY_MODIFY;
+            cambiados.merge(nombre, creadoOBorrado, Boolean::logicalOr);
+        }
+        clave.reset();
+        return desborde;
+    }
+
+    // Vuelve a cargar catálogo, vendedores e índice y lee todos los archivos desde el principio
+    private void recargarTodo() throws IOException {
+        metricas.iniciarEtapa(MetricasEjecucion.Etapa.CATALOGO);
+        catalogo = CatalogoProductos.obtener(archivoProductos.getPath());
+        metricas.terminarEtapa(MetricasEjecucion.Etapa.CATALOGO);
+        lector = new AgregadorVentas(catalogo, configuracion, metricas);
+        lector.setCuarentena(cuarentena);
+        vendedores = leerVendedores();
+        metricas.iniciarEtapa(MetricasEjecucion.Etapa.DESCUBRIMIENTO);
+        indice = IndiceArchivosVentas.construir(directorio);
+        metricas.terminarEtapa(MetricasEjecucion.Etapa.DESCUBRIMIENTO);
+        estados.clear();
+
+        // Leemos todos los archivos, también los de vendedores que todavía no están en vendedores.txt
+        seguir(indice.todosLosArchivos());
+    }
+
+    // Aplica los cambios detectados: solo se leen los bytes nuevos de los archivos modificados
+    private void actualizar(Map<String, Boolean> cambiados, boolean desborde) throws IOException {
+        // Si cambian los precios hay que recalcular todo
+        if (desborde || (cambiados.containsKey(archivoProductos.getName())
+                && CatalogoProductos.obtener(archivoProductos.getPath()) != catalogo)) {
+            recargarTodo();
+            return;
+        }
+
+        if (cambiados.containsKey(archivoVendedores.getName())) {
+            vendedores = leerVendedores();
+        }
+
+        List<File> porLeer = new ArrayList<>();
+        boolean reconstruirIndice = false;
+        for (Map.Entry<String, Boolean> cambio : cambiados.entrySet()) {
+            if (!cambio.getKey().startsWith("ventas_")) {
+                continue;
+            }
+            File archivo = new File(directorio, cambio.getKey());
+            if (cambio.getValue()) {
+                // Un archivo creado, borrado o reemplazado se vuelve a leer completo
+                estados.remove(archivo);
+                reconstruirIndice = true;
+            }
+            if (archivo.exists()) {
+                porLeer.add(archivo);
+            }
+        }
+
+        if (reconstruirIndice || cambiados.containsKey(archivoVendedores.getName())) {
+            metricas.iniciarEtapa(MetricasEjecucion.Etapa.DESCUBRIMIENTO);
+            indice = IndiceArchivosVentas.construir(directorio);
+            metricas.terminarEtapa(MetricasEjecucion.Etapa.DESCUBRIMIENTO);
+        }
+        seguir(porLeer);
+    }
+
+    // Lee lo nuevo de cada archivo, en paralelo si se configuraron varios hilos
+    private void seguir(List<File> archivos) throws IOException {
+        metricas.iniciarEtapa(MetricasEjecucion.Etapa.AGREGACION);
+        try {
+            seguirTodos(archivos);
+        } finally {
+            metricas.terminarEtapa(MetricasEjecucion.Etapa.AGREGACION);
+        }
+    }
+
+    private void seguirTodos(List<File> archivos) throws IOException {
+        List<Callable<Void>> tareas = new ArrayList<>();
+        for (File archivo : archivos) {
+            EstadoArchivo estado = estados.computeIfAbsent(archivo, a -> new EstadoArchivo());
+            tareas.add(() -> {
+                seguir(archivo, estado);
+                return null;
+            });
+        }
+
+        int hilos = Math.max(1, configuracion.getHilos());
+        if (hilos == 1) {
+            for (Callable<Void> tarea : tareas) {
+                ejecutar(tarea);
+            }
+            return;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        try {
+            for (Future<Void> futuro : pool.invokeAll(tareas)) {
+                esperar(futuro);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Actualización interrumpida");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void seguir(File archivo, EstadoArchivo estado) throws IOException {
+        long tamano = archivo.length();
+        if (tamano < estado.posicion) {
+            // El archivo se achicó: lo volvieron a escribir, empezamos de nuevo
+            estado.posicion = 0;
+            estado.encabezadoLeido = false;
+            estado.parcial = new ParcialArchivo();
+        }
+        // Un archivo con encabezado inválido u omitido por el umbral de errores ya no se sigue
+        if (tamano == estado.posicion || estado.parcial.omitido
+                || (estado.encabezadoLeido && !estado.parcial.encabezadoValido)) {
+            return;
+        }
+
+        // Los bytes los cuenta procesarAgregado; aquí solo se cuenta el archivo la primera vez que se lee
+        if (estado.posicion == 0) {
+            metricas.sumarArchivo(0);
+        }
+        estado.posicion = lector.procesarAgregado(archivo, estado.posicion, estado.parcial);
+        estado.encabezadoLeido = estado.posicion > 0;
+    }
+
+    // Recalcula los totales a partir de lo leído y reescribe los reportes
+    // Se combinan los archivos en el mismo orden que en una ejecución normal, así los reportes coinciden
+    private void publicar() throws IOException {
+        metricas.iniciarEtapa(MetricasEjecucion.Etapa.REPORTES);
+        AgregadorVentas totales = new AgregadorVentas(catalogo, configuracion, metricas);
+        for (String[] vendedor : vendedores) {
+            long documento = Long.parseLong(vendedor[1]);
+            List<ParcialArchivo> parciales = new ArrayList<>();
+            for (File archivo : indice.tomarArchivos(documento)) {
+                EstadoArchivo estado = estados.get(archivo);
+                if (estado != null && estado.encabezadoLeido) {
+                    parciales.add(estado.parcial);
+                }
+            }
+            totales.agregarVendedor(documento, parciales);
+        }
+
+        Main.generarReporteVendedores(totales.getVentasPorVendedor(), archivoVendedores, configuracion);
+        Main.generarReporteProductos(totales.getProductosVendidos(), catalogo, configuracion);
+        Main.guardarConsolidados(totales, configuracion);
+        if (servidor != null) {
+            servidor.publicar(totales, vendedores, catalogo);
+        }
+        metricas.terminarEtapa(MetricasEjecucion.Etapa.REPORTES);
+        System.out.println("Reportes actualizados a las " + LocalTime.now().format(HORA) + ": "
+            + totales.getLineasProcesadas() + " líneas, " + totales.getLineasConError() + " con errores");
+
+        if (archivoMetricas != null) {
+            try {
+                metricas.exportar(archivoMetricas);
+            } catch (IOException e) {
+                System.err.println("No se pudieron exportar las métricas: " + e.getMessage());
+            }
+        }
+    }
+
+    private List<String[]> leerVendedores() throws IOException {
+        List<String[]> lista = new ArrayList<>();
+        try (BufferedReader vendedoresReader = new BufferedReader(new FileReader(archivoVendedores, StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = vendedoresReader.readLine()) != null) {
+                if (AgregadorVentas.validarFormatoLinea(linea, 4, archivoVendedores.getName())) {
+                    lista.add(linea.split(";"));
+                }
+            }
+        }
+        return lista;
+    }
+
+    private static void ejecutar(Callable<Void> tarea) throws IOException {
+        try {
+            tarea.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void esperar(Future<Void> futuro) throws IOException {
+        try {
+            futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Actualización interrumpida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+}
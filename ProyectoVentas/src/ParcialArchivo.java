@@ -0,0 +1,37 @@
+import java.util.HashMap;
+import java.util.Map;
+
+// Lo que aporta un archivo de ventas (o un fragmento de él) a los totales
+// Se puede guardar en el checkpoint y combinar después sin volver a leer el archivo
+public class ParcialArchivo {
+
+    // false si el archivo no tenía un encabezado válido y no se procesó
+    boolean encabezadoValido;
+
+    // true si el archivo pasó el umbral de errores: sus ventas y unidades no se suman a los totales
+    boolean omitido;
+    final ImporteCentavos total = new ImporteCentavos();
+    long lineas;
+    long errores;
+
+    // Unidades por ID de producto, en el orden en que aparecieron en el archivo
+    final UnidadesPorProducto productos = new UnidadesPorProducto();
+
+    // Lo mismo desglosado por día y tienda (clave de ConsolidadoVentas); null si no se piden consolidados
+    Map<Long, ConsolidadoVentas.CeldaArchivo> celdas;
+
+    // Suma un fragmento posterior del mismo archivo
+    void sumar(ParcialArchivo siguiente) {
+        total.sumar(siguiente.total);
+        lineas += siguiente.lineas;
+        errores += siguiente.errores;
+        omitido |= siguiente.omitido;
+        productos.sumarTodo(siguiente.productos);
+        if (siguiente.celdas != null) {
+            if (celdas == null) {
+                celdas = new HashMap<>();
+            }
+            ConsolidadoVentas.sumarCeldas(celdas, siguiente.celdas);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+// Interpreta una línea de venta "idProducto;cantidad;" directamente desde bytes
+// Opcionalmente siguen la fecha y la tienda: "idProducto;cantidad;AAAA-MM-DD[THH:MM[:SS]];tienda"
+// No crea Strings ni arreglos: deja el resultado en campos enteros que se reutilizan en cada línea
+public class ParserLineaVenta {
+
+    public static final int LINEA_VALIDA = 0;
+    public static final int LINEA_VACIA = 1;       // Línea en blanco, se salta sin mensaje
+    public static final int FORMATO_INVALIDO = 2;  // Menos de dos campos
+    public static final int NUMERO_INVALIDO = 3;   // El ID o la cantidad no son enteros
+    public static final int FECHA_INVALIDA = 4;    // El tercer campo no es una fecha AAAA-MM-DD válida
+
+    // Día de una línea sin fecha
+    public static final int SIN_FECHA = Integer.MIN_VALUE;
+
+    private int idProducto;
+    private int cantidad;
+
+    // Día de la venta en días desde 1970-01-01, o SIN_FECHA
+    private int dia;
+
+    // Bytes [inicioTienda, finTienda) de la línea con la tienda; vacío si no tiene
+    private int inicioTienda;
+    private int finTienda;
+
+    // Interpreta los bytes [inicio, fin) de la línea
+    // El ID y la cantidad siguen las reglas de split(";") + Integer.parseInt de la versión anterior
+    // Más estricto que esa versión: un tercer campo no vacío tiene que ser una fecha ("104;5;x" es FECHA_INVALIDA)
+    public int interpretar(byte[] datos, int inicio, int fin) {
+        if (esBlanco(datos, inicio, fin)) {
+            return LINEA_VACIA;
+        }
+
+        // Buscamos el primer separador
+        int separador1 = indiceDe(datos, inicio, fin);
+        if (separador1 < 0) {
+            return FORMATO_INVALIDO;
+        }
+
+        // split(";") descarta los campos vacíos del final, así que "104;;" tiene un solo campo
+        boolean hayOtroCampo = false;
+        for (int i = separador1 + 1; i < fin; i++) {
+            if (datos[i] != ';') {
+                hayOtroCampo = true;
+                break;
+            }
+        }
+        if (!hayOtroCampo) {
+            return FORMATO_INVALIDO;
+        }
+
+        int separador2 = indiceDe(datos, separador1 + 1, fin);
+        int finCantidad = separador2 < 0 ? fin : separador2;
+
+        long id = leerEntero(datos, inicio, separador1);
+        if (id == Long.MIN_VALUE) {
+            return NUMERO_INVALIDO;
+        }
+        long cantidadLeida = leerEntero(datos, separador1 + 1, finCantidad);
+        if (cantidadLeida == Long.MIN_VALUE) {
+            return NUMERO_INVALIDO;
+        }
+
+        // Campos opcionales: fecha y tienda (las líneas del formato anterior terminan en la cantidad)
+        // Antes se ignoraba lo que viniera después de la cantidad; ahora un tercer campo no vacío se valida como fecha
+        dia = SIN_FECHA;
+        inicioTienda = 0;
+        finTienda = 0;
+        if (separador2 >= 0 && separador2 + 1 < fin) {
+            int separador3 = indiceDe(datos, separador2 + 1, fin);
+            int finFecha = separador3 < 0 ? fin : separador3;
+            if (finFecha > separador2 + 1) {
+                dia = leerFecha(datos, separador2 + 1, finFecha);
+                if (dia == SIN_FECHA) {
+                    return FECHA_INVALIDA;
+                }
+            }
+            if (separador3 >= 0) {
+                int separador4 = indiceDe(datos, separador3 + 1, fin);
+                inicioTienda = separador3 + 1;
+                finTienda = separador4 < 0 ? fin : separador4;
+            }
+        }
+
+        idProducto = (int) id;
+        cantidad = (int) cantidadLeida;
+        return LINEA_VALIDA;
+    }
+
+    public int getIdProducto() {
+        return idProducto;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public int getDia() {
+        return dia;
+    }
+
+    public int getInicioTienda() {
+        return inicioTienda;
+    }
+
+    public int getFinTienda() {
+        return finTienda;
+    }
+
+    public boolean tieneFechaOTienda() {
+        return dia != SIN_FECHA || finTienda > inicioTienda;
+    }
+
+    // Lee "AAAA-MM-DD", opcionalmente seguido de "THH:MM" o "THH:MM:SS" (también con espacio en vez de T)
+    // Devuelve el día en días desde 1970-01-01, o SIN_FECHA si el texto no es una fecha válida
+    // La hora se valida pero no se guarda: los consolidados van por día
+    private static int leerFecha(byte[] datos, int inicio, int fin) {
+        int largo = fin - inicio;
+        if (largo != 10 && largo != 16 && largo != 19) {
+            return SIN_FECHA;
+        }
+        int anio = digitos(datos, inicio, 4);
+        int mes = digitos(datos, inicio + 5, 2);
+        int diaMes = digitos(datos, inicio + 8, 2);
+        if (anio < 0 || mes < 1 || mes > 12 || diaMes < 1 || diaMes > diasDelMes(anio, mes)
+                || datos[inicio + 4] != '-' || datos[inicio + 7] != '-') {
+            return SIN_FECHA;
+        }
+        if (largo > 10) {
+            byte separador = datos[inicio + 10];
+            int hora = digitos(datos, inicio + 11, 2);
+            int minuto = digitos(datos, inicio + 14, 2);
+            if ((separador != 'T' && separador != ' ') || hora < 0 || hora > 23 || minuto < 0 || minuto > 59
+                    || datos[inicio + 13] != ':') {
+                return SIN_FECHA;
+            }
+            if (largo == 19) {
+                int segundo = digitos(datos, inicio + 17, 2);
+                if (segundo < 0 || segundo > 59 || datos[inicio + 16] != ':') {
+                    return SIN_FECHA;
+                }
+            }
+        }
+        return diaDesdeEpoca(anio, mes, diaMes);
+    }
+
+    // Valor de "cuantos" dígitos decimales, o -1 si alguno no es un dígito
+    private static int digitos(byte[] datos, int inicio, int cuantos) {
+        int valor = 0;
+        for (int i = inicio; i < inicio + cuantos; i++) {
+            int digito = datos[i] - '0';
+            if (digito < 0 || digito > 9) {
+                return -1;
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    private static int diasDelMes(int anio, int mes) {
+        if (mes == 2) {
+            boolean bisiesto = (anio % 4 == 0 && anio % 100 != 0) || anio % 400 == 0;
+            return bisiesto ? 29 : 28;
+        }
+        return mes == 4 || mes == 6 || mes == 9 || mes == 11 ? 30 : 31;
+    }
+
+    // Días desde 1970-01-01 del calendario gregoriano, sin crear un LocalDate por línea
+    // Igual que LocalDate.of(anio, mes, diaMes).toEpochDay() para los años 0000 a 9999
+    static int diaDesdeEpoca(int anio, int mes, int diaMes) {
+        int a = mes <= 2 ? anio - 1 : anio;
+        int era = (a >= 0 ? a : a - 399) / 400;
+        int anioDeEra = a - era * 400;
+        int diaDelAnio = (153 * (mes > 2 ? mes - 3 : mes + 9) + 2) / 5 + diaMes - 1;
+        int diaDeEra = anioDeEra * 365 + anioDeEra / 4 - anioDeEra / 100 + diaDelAnio;
+        return era * 146097 + diaDeEra - 719468;
+    }
+
+    // Equivale a linea.trim().isEmpty(): todos los bytes son espacios o caracteres de control
+    private static boolean esBlanco(byte[] datos, int inicio, int fin) {
+        for (int i = inicio; i < fin; i++) {
+            if ((datos[i] & 0xFF) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indiceDe(byte[] datos, int inicio, int fin) {
+        for (int i = inicio; i < fin; i++) {
+            if (datos[i] == ';') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Lee un entero con signo opcional como Integer.parseInt
+    // Devuelve Long.MIN_VALUE si el texto está vacío, tiene otros caracteres o no cabe en un int
+    private static long leerEntero(byte[] datos, int inicio, int fin) {
+        if (inicio >= fin) {
+            return Long.MIN_VALUE;
+        }
+
+        boolean negativo = false;
+        int i = inicio;
+        if (datos[i] == '-' || datos[i] == '+') {
+            negativo = datos[i] == '-';
+            i++;
+            if (i == fin) {
+                return Long.MIN_VALUE;
+            }
+        }
+
+        long valor = 0;
+        long limite = negativo ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        for (; i < fin; i++) {
+            int digito = datos[i] - '0';
+            if (digito < 0 || digito > 9) {
+                return Long.MIN_VALUE;
+            }
+            valor = valor * 10 + digito;
+            if (valor > limite) {
+                return Long.MIN_VALUE;
+            }
+        }
+
+        return negativo ? -valor : valor;
+    }
+}
@@ -0,0 +1,131 @@
+import java.io.*;
+import java.math.BigInteger;
+import java.util.*;
+
+// Procesamiento con memoria acotada (--memoria-mb=M) para cuando los vendedores no caben en el heap
+// Los vendedores se reparten en tandas por documento, como en --particion, y cada tanda indexa solo sus archivos,
+// suma sus vendedores y pasa sus filas al ranking con los nombres leídos en esa misma pasada por vendedores.txt;
+// después se descartan antes de empezar la siguiente
+// El ranking guarda un número fijo de filas y el resto lo ordena por tramos en disco que al final se mezclan
+// Lo que crece con la cantidad de vendedores es el disco temporal, no el heap
+public class ProcesamientoPorTandas {
+
+    // Estimación de lo que ocupa en el heap cada archivo de ventas indexado, con el total de su vendedor
+    private static final long BYTES_POR_ARCHIVO = 512;
+
+    // Lo mismo para cada fila del ranking de vendedores, con su nombre
+    private static final long BYTES_POR_FILA = 192;
+
+    // Bytes de vendedores.txt por vendedor, para contar también a los que no tienen archivos
+    private static final long BYTES_POR_LINEA_VENDEDOR = 32;
+
+    // Máximo de listas de nombres abiertas a la vez al repartir el directorio; con más tandas, varias comparten lista
+    private static final int LISTAS_DE_NOMBRES = 64;
+
+    private final ConfiguracionEjecucion configuracion;
+    private final File directorio;
+    private final File archivoVendedores;
+    private final AgregadorVentas agregador;
+    private final MetricasEjecucion metricas;
+
+    private final int tandas;
+    private final int filasEnMemoria;
+    private final ReporteOrdenado ranking;
+    private final Map<Long, BigInteger> desbordados = new HashMap<>();
+
+    // Los huérfanos de todas las tandas: cuántos son y los primeros en orden alfabético
+    private long totalHuerfanos;
+    private final TreeSet<String> primerosHuerfanos = new TreeSet<>();
+
+    // La mitad del presupuesto es para el índice y los totales de una tanda, un cuarto para el ranking
+    // y el resto queda para el catálogo, los buffers de lectura y los vendedores en vuelo
+    public ProcesamientoPorTandas(ConfiguracionEjecucion configuracion, File directorio, AgregadorVentas agregador,
+            MetricasEjecucion metricas) throws IOException {
+        this.configuracion = configuracion;
+        this.directorio = directorio;
+        this.archivoVendedores = new File(directorio, "vendedores.txt");
+        this.agregador = agregador;
+        this.metricas = metricas;
+
+        long presupuesto = configuracion.getMemoriaMb() * 1024L * 1024;
+        metricas.iniciarEtapa(MetricasEjecucion.Etapa.DESCUBRIMIENTO);
+        long entradas = IndiceArchivosVentas.contarArchivos(directorio) + archivoVendedores.length() / BYTES_POR_LINEA_VENDEDOR;
+        metricas.terminarEtapa(MetricasEjecucion.Etapa.DESCUBRIMIENTO);
+
+        long porTanda = Math.max(1, presupuesto / 2 / BYTES_POR_ARCHIVO);
+        tandas = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (entradas + porTanda - 1) / porTanda));
+        filasEnMemoria = (int) Math.max(1000, Math.min(configuracion.getFilasReporteEnMemoria(),
+            presupuesto / 4 / BYTES_POR_FILA));
+        ranking = new ReporteOrdenado(configuracion.getTopReporte(), filasEnMemoria);
+    }
+
+    // Procesa todas las tandas; al terminar el agregador tiene los productos y los contadores de todas
+    public void procesar() throws IOException {
+        System.out.println("Memoria acotada a " + configuracion.getMemoriaMb() + " MB: " + tandas + " tandas de vendedores, "
+            + filasEnMemoria + " filas del ranking en memoria");
+
+        agregador.guardarNombresVendedores();
+
+        // Con más de una tanda el directorio se lista una sola vez y los nombres se reparten en listas temporales
+        File[] listas = new File[tandas > 1 ? Math.min(tandas, LISTAS_DE_NOMBRES) : 0];
+        try {
+            if (listas.length > 0) {
+                metricas.iniciarEtapa(MetricasEjecucion.Etapa.DESCUBRIMIENTO);
+                for (int i = 0; i < listas.length; i++) {
+                    listas[i] = File.createTempFile("ventas", ".nombres");
+                    listas[i].deleteOnExit();
+                }
+                IndiceArchivosVentas.repartirNombres(directorio, tandas, listas);
+                metricas.terminarEtapa(MetricasEjecucion.Etapa.DESCUBRIMIENTO);
+            }
+            for (int tanda = 0; tanda < tandas; tanda++) {
+                procesarTanda(tanda, listas.length > 0 ? listas[tanda % listas.length] : null);
+            }
+        } finally {
+            for (File lista : listas) {
+                if (lista != null) {
+                    lista.delete();
+                }
+            }
+        }
+    }
+
+    private void procesarTanda(int tanda, File listaNombres) throws IOException {
+        metricas.iniciarEtapa(MetricasEjecucion.Etapa.DESCUBRIMIENTO);
+        IndiceArchivosVentas indice = listaNombres != null
+            ? IndiceArchivosVentas.construir(directorio, listaNombres, tanda, tandas)
+            : IndiceArchivosVentas.construir(directorio, tanda, tandas);
+        metricas.terminarEtapa(MetricasEjecucion.Etapa.DESCUBRIMIENTO);
+
+        metricas.iniciarEtapa(MetricasEjecucion.Etapa.AGREGACION);
+        agregador.setParticion(tanda, tandas);
+        agregador.procesarVendedores(archivoVendedores, indice);
+        metricas.terminarEtapa(MetricasEjecucion.Etapa.AGREGACION);
+
+        metricas.iniciarEtapa(MetricasEjecucion.Etapa.REPORTES);
+        Main.agregarFilasVendedores(ranking, agregador.tomarVentasPorVendedor(), agregador.tomarNombresVendedores(),
+            desbordados);
+        metricas.terminarEtapa(MetricasEjecucion.Etapa.REPORTES);
+
+        guardarHuerfanos(indice.archivosHuerfanos());
+    }
+
+    private void guardarHuerfanos(List<String> huerfanos) {
+        totalHuerfanos += huerfanos.size();
+        for (String nombre : huerfanos) {
+            primerosHuerfanos.add(nombre);
+            if (primerosHuerfanos.size() > Main.HUERFANOS_EN_CONSOLA) {
+                primerosHuerfanos.pollLast();
+            }
+        }
+    }
+
+    public void reportarArchivosHuerfanos() {
+        Main.reportarArchivosHuerfanos(totalHuerfanos, new ArrayList<>(primerosHuerfanos));
+    }
+
+    // Escribe reporte_vendedores.csv mezclando los tramos del ranking
+    public void escribirReporteVendedores() throws IOException {
+        Main.escribirReporteVendedores(ranking, desbordados, configuracion);
+    }
+}
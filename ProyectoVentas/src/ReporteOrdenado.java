@@ -0,0 +1,249 @@
+import java.io.*;
+import java.util.*;
+
+// Ranking de un reporte, de mayor a menor valor (a igual valor, por nombre)
+// Con top > 0 solo se guardan las mejores filas en un montículo acotado
+// Sin top se ordena todo; si hay más filas de las que se permiten en memoria se ordenan por tramos
+// en archivos temporales y luego se mezclan (ordenamiento externo)
+public class ReporteOrdenado {
+
+    // Cómo se escribe cada fila del reporte a partir de su nombre, su valor y su dato
+    public interface FormatoFila {
+        void escribir(SalidaCsv salida, String clave, long valor, long dato) throws IOException;
+    }
+
+    // dato acompaña a la fila sin participar en el orden (por ejemplo, el ID del producto)
+    private static final class Fila {
+        final String clave;
+        final long valor;
+        final long dato;
+
+        Fila(String clave, long valor, long dato) {
+            this.clave = clave;
+            this.valor = valor;
+            this.dato = dato;
+        }
+    }
+
+    // Cuántos tramos se mezclan a la vez; si hay más, primero se juntan en tramos más grandes
+    private static final int MAXIMO_TRAMOS = 128;
+
+    // Adónde van las filas al mezclar: al reporte o a un tramo intermedio
+    private interface DestinoFilas {
+        void agregar(Fila fila) throws IOException;
+    }
+
+    private static final Comparator<Fila> MEJOR_PRIMERO = (a, b) -> {
+        int comparacion = Long.compare(b.valor, a.valor);
+        return comparacion != 0 ? comparacion : a.clave.compareTo(b.clave);
+    };
+
+    private final int top;
+    private final int maximoEnMemoria;
+
+    // Modo top: el peor de los mejores queda arriba para poder reemplazarlo
+    private final PriorityQueue<Fila> mejores;
+
+    // Modo completo: filas del tramo actual y tramos ya ordenados en disco
+    private final List<Fila> enMemoria = new ArrayList<>();
+    private final List<File> tramos = new ArrayList<>();
+
+    private long filas;
+    private int tramosEscritos;
+
+    public ReporteOrdenado(int top, int maximoEnMemoria) {
+        this.top = top;
+        this.maximoEnMemoria = Math.max(1, maximoEnMemoria);
+        this.mejores = top > 0 ? new PriorityQueue<>(Math.min(top, 1 << 16) + 1, MEJOR_PRIMERO.reversed()) : null;
+    }
+
+    public void agregar(String clave, long valor, long dato) throws IOException {
+        filas++;
+        if (mejores != null) {
+            // La mayoría de las filas no entra al top: se descartan sin crear nada
+            if (mejores.size() == top && !esMejor(clave, valor, mejores.peek())) {
+                return;
+            }
+            mejores.add(new Fila(clave, valor, dato));
+            if (mejores.size() > top) {
+                mejores.poll();
+            }
+            return;
+        }
+
+        enMemoria.add(new Fila(clave, valor, dato));
+        if (enMemoria.size() >= maximoEnMemoria) {
+            guardarTramo();
+        }
+    }
+
+    private static boolean esMejor(String clave, long valor, Fila otra) {
+        int comparacion = Long.compare(valor, otra.valor);
+        return comparacion > 0 || (comparacion == 0 && clave.compareTo(otra.clave) < 0);
+    }
+
+    // Ordena las filas en memoria y las guarda como un tramo en un archivo temporal
+    private void guardarTramo() throws IOException {
+        if (tramos.size() == MAXIMO_TRAMOS) {
+            juntarTramos();
+        }
+
+        enMemoria.sort(MEJOR_PRIMERO);
+        EscritorTramo escritor = new EscritorTramo();
+        try {
+            for (Fila fila : enMemoria) {
+                escritor.agregar(fila);
+            }
+        } finally {
+            escritor.close();
+        }
+        tramos.add(escritor.archivo);
+        tramosEscritos++;
+        enMemoria.clear();
+    }
+
+    // Mezcla todos los tramos actuales en uno solo para no tener demasiados archivos abiertos a la vez
+    private void juntarTramos() throws IOException {
+        List<File> anteriores = new ArrayList<>(tramos);
+        EscritorTramo escritor = new EscritorTramo();
+        try {
+            mezclar(anteriores, escritor);
+        } finally {
+            escritor.close();
+            for (File tramo : anteriores) {
+                tramo.delete();
+            }
+        }
+        tramos.clear();
+        tramos.add(escritor.archivo);
+    }
+
+    // Tramo en disco: primero todas las filas (valor, dato y nombre) y al final una marca de fin
+    private static final class EscritorTramo implements DestinoFilas, Closeable {
+        final File archivo;
+        final DataOutputStream salida;
+
+        EscritorTramo() throws IOException {
+            archivo = File.createTempFile("ranking", ".tramo");
+            archivo.deleteOnExit();
+            salida = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(archivo), 256 * 1024));
+        }
+
+        @Override
+        public void agregar(Fila fila) throws IOException {
+            salida.writeBoolean(true);
+            salida.writeLong(fila.valor);
+            salida.writeLong(fila.dato);
+            salida.writeUTF(fila.clave);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                salida.writeBoolean(false);
+            } finally {
+                salida.close();
+            }
+        }
+    }
+
+    // Escribe el reporte completo: encabezado y filas en orden
+    public void escribir(File destino, String encabezado, FormatoFila formato) throws IOException {
+        try (SalidaCsv salida = new SalidaCsv(destino)) {
+            salida.texto(encabezado).finDeLinea();
+
+            if (mejores != null) {
+                List<Fila> ordenadas = new ArrayList<>(mejores);
+                ordenadas.sort(MEJOR_PRIMERO);
+                escribirFilas(salida, ordenadas.iterator(), formato);
+            } else if (tramos.isEmpty()) {
+                enMemoria.sort(MEJOR_PRIMERO);
+                escribirFilas(salida, enMemoria.iterator(), formato);
+            } else {
+                if (!enMemoria.isEmpty()) {
+                    guardarTramo();
+                }
+                mezclar(tramos, fila -> {
+                    formato.escribir(salida, fila.clave, fila.valor, fila.dato);
+                    salida.finDeLinea();
+                });
+            }
+        } finally {
+            for (File tramo : tramos) {
+                tramo.delete();
+            }
+            tramos.clear();
+        }
+    }
+
+    private static void escribirFilas(SalidaCsv salida, Iterator<Fila> filas, FormatoFila formato) throws IOException {
+        while (filas.hasNext()) {
+            Fila fila = filas.next();
+            formato.escribir(salida, fila.clave, fila.valor, fila.dato);
+            salida.finDeLinea();
+        }
+    }
+
+    // Lector de un tramo ordenado: siempre tiene a mano su fila actual
+    private static final class LectorTramo implements Closeable {
+        final DataInputStream entrada;
+        Fila actual;
+
+        LectorTramo(File tramo) throws IOException {
+            entrada = new DataInputStream(new BufferedInputStream(new FileInputStream(tramo), 64 * 1024));
+        }
+
+        boolean avanzar() throws IOException {
+            if (!entrada.readBoolean()) {
+                actual = null;
+                return false;
+            }
+            long valor = entrada.readLong();
+            long dato = entrada.readLong();
+            actual = new Fila(entrada.readUTF(), valor, dato);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            entrada.close();
+        }
+    }
+
+    // Mezcla de k tramos: en cada paso sale la mejor fila entre las actuales de todos los tramos
+    private static void mezclar(List<File> origen, DestinoFilas destino) throws IOException {
+        PriorityQueue<LectorTramo> cola = new PriorityQueue<>(Math.max(1, origen.size()),
+            (a, b) -> MEJOR_PRIMERO.compare(a.actual, b.actual));
+        List<LectorTramo> lectores = new ArrayList<>();
+        try {
+            for (File tramo : origen) {
+                LectorTramo lector = new LectorTramo(tramo);
+                lectores.add(lector);
+                if (lector.avanzar()) {
+                    cola.add(lector);
+                }
+            }
+
+            while (!cola.isEmpty()) {
+                LectorTramo lector = cola.poll();
+                destino.agregar(lector.actual);
+                if (lector.avanzar()) {
+                    cola.add(lector);
+                }
+            }
+        } finally {
+            for (LectorTramo lector : lectores) {
+                lector.close();
+            }
+        }
+    }
+
+    public long getFilas() {
+        return filas;
+    }
+
+    // Cuántos tramos se ordenaron en disco (0 si todo cupo en memoria)
+    public int getTramosEscritos() {
+        return tramosEscritos;
+    }
+}
@@ -0,0 +1,234 @@
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+// Resultado de una partición de los vendedores (--particion=i/N), para combinarlo después con las demás
+// Cada proceso o máquina toma los vendedores cuyo documento cae en su partición y guarda sus totales aquí;
+// --combinar junta las N particiones y escribe los reportes como si una sola ejecución lo hubiera procesado todo
+//
+// Formato: "VPAR" (int), versión (int), huella del catálogo (UTF), partición y particiones (int),
+//          archivos, omitidos (int), líneas y líneas con error (long),
+//          vendedores (int) y por cada uno documento (long) e importe, productos (int) y por cada uno ID (int) y unidades (long)
+public class ResultadoParticion {
+
+    public static final String EXTENSION = ".vpar";
+
+    private static final int MAGICO = 0x56504152; // "VPAR"
+    private static final int VERSION = 1;
+
+    private final String huellaCatalogo;
+    private final int particion;
+    private final int particiones;
+    private int archivosProcesados;
+    private int archivosOmitidos;
+    private long lineasProcesadas;
+    private long lineasConError;
+    private final TotalesPorVendedor ventasPorVendedor;
+    private final UnidadesPorProducto productosVendidos;
+
+    private ResultadoParticion(String huellaCatalogo, int particion, int particiones,
+            TotalesPorVendedor ventasPorVendedor, UnidadesPorProducto productosVendidos) {
+        this.huellaCatalogo = huellaCatalogo;
+        this.particion = particion;
+        this.particiones = particiones;
+        this.ventasPorVendedor = ventasPorVendedor;
+        this.productosVendidos = productosVendidos;
+    }
+
+    // Partición de un vendedor: depende solo del documento, así todos los procesos la calculan igual
+    // Se mezclan los bits porque los documentos suelen ser consecutivos
+    public static int particionDe(long documento, int particiones) {
+        long h = documento * 0x9E3779B97F4A7C15L;
+        return (int) Long.remainderUnsigned(h ^ (h >>> 29), particiones);
+    }
+
+    // Escribe lo que sumó el agregador en un temporal y lo renombra, como el checkpoint
+    public static void guardar(File destino, AgregadorVentas agregador, CatalogoProductos catalogo,
+            int particion, int particiones) throws IOException {
+        File temporal = new File(destino.getPath() + ".tmp");
+        try (DataOutputStream salida = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temporal), 256 * 1024))) {
+            salida.writeInt(MAGICO);
+            salida.writeInt(VERSION);
+            salida.writeUTF(catalogo.huella());
+            salida.writeInt(particion);
+            salida.writeInt(particiones);
+            salida.writeInt(agregador.getArchivosProcesados());
+            salida.writeInt(agregador.getArchivosOmitidos());
+            salida.writeLong(agregador.getLineasProcesadas());
+            salida.writeLong(agregador.getLineasConError());
+
+            TotalesPorVendedor vendedores = agregador.getVentasPorVendedor();
+            salida.writeInt(vendedores.tamano());
+            for (int i = 0; i < vendedores.tamano(); i++) {
+                salida.writeLong(vendedores.documento(i));
+                ImporteCentavos importe = new ImporteCentavos();
+                BigInteger desbordado = vendedores.totalDesbordado(i);
+                if (desbordado != null) {
+                    importe.sumar(desbordado);
+                } else {
+                    importe.sumar(vendedores.total(i));
+                }
+                importe.escribir(salida);
+            }
+
+            UnidadesPorProducto productos = agregador.getProductosVendidos();
+            salida.writeInt(productos.tamano());
+            for (int i = 0; i < productos.tamano(); i++) {
+                salida.writeInt(productos.id(i));
+                salida.writeLong(productos.unidades(i));
+            }
+        }
+        Files.move(temporal.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static ResultadoParticion leer(File archivo) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(archivo), 256 * 1024))) {
+            if (entrada.readInt() != MAGICO || entrada.readInt() != VERSION) {
+                throw new IOException("No es un resultado parcial de ventas: " + archivo.getPath());
+            }
+            String huella = entrada.readUTF();
+            int particion = entrada.readInt();
+            int particiones = entrada.readInt();
+            if (particiones < 1 || particion < 0 || particion >= particiones) {
+                throw new IOException("Resultado parcial dañado: " + archivo.getPath());
+            }
+            int archivos = entrada.readInt();
+            int omitidos = entrada.readInt();
+            long lineas = entrada.readLong();
+            long errores = entrada.readLong();
+
+            int cantidadVendedores = entrada.readInt();
+            TotalesPorVendedor vendedores = new TotalesPorVendedor(cantidadVendedores);
+            ImporteCentavos importe = new ImporteCentavos();
+            for (int i = 0; i < cantidadVendedores; i++) {
+                long documento = entrada.readLong();
+                importe.leer(entrada);
+                vendedores.asignar(documento, importe);
+            }
+
+            int cantidadProductos = entrada.readInt();
+            UnidadesPorProducto productos = new UnidadesPorProducto(cantidadProductos);
+            for (int i = 0; i < cantidadProductos; i++) {
+                productos.sumar(entrada.readInt(), entrada.readLong());
+            }
+
+            ResultadoParticion resultado = new ResultadoParticion(huella, particion, particiones, vendedores, productos);
+            resultado.archivosProcesados = archivos;
+            resultado.archivosOmitidos = omitidos;
+            resultado.lineasProcesadas = lineas;
+            resultado.lineasConError = errores;
+            return resultado;
+        } catch (EOFException e) {
+            throw new IOException("Resultado parcial incompleto: " + archivo.getPath());
+        }
+    }
+
+    // Junta los resultados parciales; los directorios aportan todos sus archivos .vpar
+    // Tienen que estar las N particiones exactamente una vez y todas hechas con este catálogo
+    public static ResultadoParticion combinar(List<String> rutas, CatalogoProductos catalogo) throws IOException {
+        List<File> archivos = new ArrayList<>();
+        for (String ruta : rutas) {
+            File archivo = new File(ruta);
+            if (archivo.isDirectory()) {
+                File[] contenidos = archivo.listFiles((dir, nombre) -> nombre.endsWith(EXTENSION));
+                if (contenidos != null) {
+                    Arrays.sort(contenidos);
+                    archivos.addAll(Arrays.asList(contenidos));
+                }
+            } else {
+                archivos.add(archivo);
+            }
+        }
+        if (archivos.isEmpty()) {
+            throw new IOException("No se encontraron resultados parciales en " + rutas);
+        }
+
+        ResultadoParticion[] porParticion = null;
+        for (File archivo : archivos) {
+            ResultadoParticion parcial = leer(archivo);
+            if (!parcial.huellaCatalogo.equals(catalogo.huella())) {
+                throw new IOException("El resultado parcial se generó con otro catálogo de productos: " + archivo.getPath());
+            }
+            if (porParticion == null) {
+                porParticion = new ResultadoParticion[parcial.particiones];
+            } else if (parcial.particiones != porParticion.length) {
+                throw new IOException("Resultados parciales de particiones distintas (" + porParticion.length + " y "
+                    + parcial.particiones + "): " + archivo.getPath());
+            }
+            if (porParticion[parcial.particion] != null) {
+                throw new IOException("La partición " + parcial.particion + " está repetida: " + archivo.getPath());
+            }
+            porParticion[parcial.particion] = parcial;
+        }
+
+        List<Integer> faltantes = new ArrayList<>();
+        int vendedores = 0;
+        int productos = 0;
+        for (int i = 0; i < porParticion.length; i++) {
+            if (porParticion[i] == null) {
+                faltantes.add(i);
+            } else {
+                vendedores += porParticion[i].ventasPorVendedor.tamano();
+                productos = Math.max(productos, porParticion[i].productosVendidos.tamano());
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            throw new IOException("Faltan las particiones " + faltantes + " de " + porParticion.length);
+        }
+
+        // Cada vendedor está en una sola partición, así que sus totales se copian sin sumar
+        ResultadoParticion total = new ResultadoParticion(catalogo.huella(), 0, porParticion.length,
+            new TotalesPorVendedor(vendedores), new UnidadesPorProducto(productos));
+        for (ResultadoParticion parcial : porParticion) {
+            TotalesPorVendedor origen = parcial.ventasPorVendedor;
+            for (int i = 0; i < origen.tamano(); i++) {
+                BigInteger desbordado = origen.totalDesbordado(i);
+                if (desbordado != null) {
+                    ImporteCentavos importe = new ImporteCentavos();
+                    importe.sumar(desbordado);
+                    total.ventasPorVendedor.asignar(origen.documento(i), importe);
+                } else {
+                    total.ventasPorVendedor.asignar(origen.documento(i), origen.total(i));
+                }
+            }
+            total.productosVendidos.sumarTodo(parcial.productosVendidos);
+            total.archivosProcesados += parcial.archivosProcesados;
+            total.archivosOmitidos += parcial.archivosOmitidos;
+            total.lineasProcesadas += parcial.lineasProcesadas;
+            total.lineasConError += parcial.lineasConError;
+        }
+        return total;
+    }
+
+    public int getParticiones() {
+        return particiones;
+    }
+
+    public TotalesPorVendedor getVentasPorVendedor() {
+        return ventasPorVendedor;
+    }
+
+    public UnidadesPorProducto getProductosVendidos() {
+        return productosVendidos;
+    }
+
+    public int getArchivosProcesados() {
+        return archivosProcesados;
+    }
+
+    public int getArchivosOmitidos() {
+        return archivosOmitidos;
+    }
+
+    public long getLineasProcesadas() {
+        return lineasProcesadas;
+    }
+
+    public long getLineasConError() {
+        return lineasConError;
+    }
+}
@@ -0,0 +1,82 @@
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+// Escritura de reportes CSV con un buffer grande
+// Los números se convierten a dígitos directamente, sin String.format por fila
+public class SalidaCsv implements Closeable {
+
+    private static final int TAMANO_BUFFER = 1024 * 1024;
+
+    private final Writer salida;
+    private final char[] digitos = new char[20];
+
+    public SalidaCsv(File destino) throws IOException {
+        // UTF-8 como los archivos de entrada, sin depender del juego de caracteres del sistema
+        this.salida = new BufferedWriter(new FileWriter(destino, StandardCharsets.UTF_8), TAMANO_BUFFER);
+    }
+
+    public SalidaCsv texto(String texto) throws IOException {
+        salida.write(texto);
+        return this;
+    }
+
+    public SalidaCsv caracter(char caracter) throws IOException {
+        salida.write(caracter);
+        return this;
+    }
+
+    public SalidaCsv entero(long valor) throws IOException {
+        if (valor == Long.MIN_VALUE) {
+            salida.write(Long.toString(valor));
+            return this;
+        }
+        if (valor < 0) {
+            salida.write('-');
+            valor = -valor;
+        }
+        int i = digitos.length;
+        do {
+            digitos[--i] = (char) ('0' + valor % 10);
+            valor /= 10;
+        } while (valor > 0);
+        salida.write(digitos, i, digitos.length - i);
+        return this;
+    }
+
+    // Escribe un importe en centavos como unidades: 150000 → "1500", 150025 → "1500.25"
+    // Los importes sin centavos se ven igual que antes, cuando se escribían redondeados a entero
+    public SalidaCsv importe(long centavos) throws IOException {
+        if (centavos == Long.MIN_VALUE) {
+            return importe(BigInteger.valueOf(centavos));
+        }
+        if (centavos < 0) {
+            salida.write('-');
+            centavos = -centavos;
+        }
+        entero(centavos / 100);
+        int resto = (int) (centavos % 100);
+        if (resto != 0) {
+            salida.write('.');
+            salida.write('0' + resto / 10);
+            salida.write('0' + resto % 10);
+        }
+        return this;
+    }
+
+    // Igual que importe(long) para los totales que se desbordaron
+    public SalidaCsv importe(BigInteger centavos) throws IOException {
+        salida.write(ImporteCentavos.comoTexto(centavos));
+        return this;
+    }
+
+    public SalidaCsv finDeLinea() throws IOException {
+        salida.write('\n');
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        salida.close();
+    }
+}
@@ -0,0 +1,344 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Consultas HTTP en JSON sobre los totales que mantiene el modo vigilancia, solo en la interfaz local
+// Cada actualización arma una instantánea ya ordenada y la reemplaza de una vez; las consultas nunca leen archivos
+//
+//   GET /vendedores?n=10        los n mejores vendedores
+//   GET /vendedores/<documento> total y puesto de un vendedor
+//   GET /productos?n=10         los n productos más vendidos
+//   GET /productos/<id>         unidades vendidas de un producto
+//   GET /estado                 resumen de la última actualización
+//   GET /metricas               las métricas de la ejecución (lo mismo que exporta --metricas)
+public class ServidorConsultas implements Closeable {
+
+    private static final DateTimeFormatter FECHA_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private static final int TOP_POR_DEFECTO = 10;
+    private static final int TOP_MAXIMO = 10_000;
+    private static final int HILOS = 4;
+
+    // Totales de una actualización, ordenados como en los reportes (mayor valor primero, a igual valor por nombre)
+    private static final class Instantanea {
+        final String actualizado;
+        final long lineas;
+        final long lineasConError;
+        final CatalogoProductos catalogo;
+
+        final long[] documentos;
+        final String[] nombresVendedores;
+        final String[] totales;
+        final Map<Long, Integer> puestoPorDocumento;
+
+        final int[] ids;
+        final String[] nombresProductos;
+        final long[] unidades;
+        final Map<Integer, Integer> puestoPorProducto;
+
+        Instantanea(AgregadorVentas totales, List<String[]> vendedores, CatalogoProductos catalogo) {
+            actualizado = LocalDateTime.now().format(FECHA_HORA);
+            lineas = totales.getLineasProcesadas();
+            lineasConError = totales.getLineasConError();
+            this.catalogo = catalogo;
+
+            // Si el documento se repite en vendedores.txt vale el nombre de su primera línea, como en el reporte
+            Map<Long, String> nombrePorDocumento = new HashMap<>();
+            for (String[] vendedor : vendedores) {
+                nombrePorDocumento.putIfAbsent(Long.parseLong(vendedor[1]), vendedor[2] + " " + vendedor[3]);
+            }
+
+            TotalesPorVendedor ventas = totales.getVentasPorVendedor();
+            int cantidadVendedores = ventas.tamano();
+            String[] nombres = new String[cantidadVendedores];
+            Integer[] orden = new Integer[cantidadVendedores];
+            for (int i = 0; i < cantidadVendedores; i++) {
+                nombres[i] = nombrePorDocumento.getOrDefault(ventas.documento(i), Long.toString(ventas.documento(i)));
+                orden[i] = i;
+            }
+            Arrays.sort(orden, (a, b) -> {
+                int comparacion = Long.compare(ventas.total(b), ventas.total(a));
+                return comparacion != 0 ? comparacion : nombres[a].compareTo(nombres[b]);
+            });
+
+            documentos = new long[cantidadVendedores];
+            nombresVendedores = new String[cantidadVendedores];
+            this.totales = new String[cantidadVendedores];
+            puestoPorDocumento = new HashMap<>(cantidadVendedores * 2);
+            for (int puesto = 0; puesto < cantidadVendedores; puesto++) {
+                int i = orden[puesto];
+                BigInteger desbordado = ventas.totalDesbordado(i);
+                documentos[puesto] = ventas.documento(i);
+                nombresVendedores[puesto] = nombres[i];
+                this.totales[puesto] = ImporteCentavos.comoTexto(
+                    desbordado != null ? desbordado : BigInteger.valueOf(ventas.total(i)));
+                puestoPorDocumento.put(ventas.documento(i), puesto);
+            }
+
+            UnidadesPorProducto productos = totales.getProductosVendidos();
+            int cantidadProductos = productos.tamano();
+            Integer[] ordenProductos = new Integer[cantidadProductos];
+            String[] nombresPorPosicion = new String[cantidadProductos];
+            for (int i = 0; i < cantidadProductos; i++) {
+                nombresPorPosicion[i] = catalogo.nombre(productos.id(i));
+                ordenProductos[i] = i;
+            }
+            Arrays.sort(ordenProductos, (a, b) -> {
+                int comparacion = Long.compare(productos.unidades(b), productos.unidades(a));
+                return comparacion != 0 ? comparacion : nombresPorPosicion[a].compareTo(nombresPorPosicion[b]);
+            });
+
+            ids = new int[cantidadProductos];
+            nombresProductos = new String[cantidadProductos];
+            unidades = new long[cantidadProductos];
+            puestoPorProducto = new HashMap<>(cantidadProductos * 2);
+            for (int puesto = 0; puesto < cantidadProductos; puesto++) {
+                int i = ordenProductos[puesto];
+                ids[puesto] = productos.id(i);
+                nombresProductos[puesto] = nombresPorPosicion[i];
+                unidades[puesto] = productos.unidades(i);
+                puestoPorProducto.put(productos.id(i), puesto);
+            }
+        }
+    }
+
+    // Respuesta de error con su código HTTP
+    private static final class ErrorConsulta extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final int codigo;
+
+        ErrorConsulta(int codigo, String mensaje) {
+            super(mensaje);
+            this.codigo = codigo;
+        }
+    }
+
+    private final HttpServer servidor;
+    private final ExecutorService hilos;
+    private final MetricasEjecucion metricas;
+
+    private volatile Instantanea actual;
+
+    // Abre el puerto en la interfaz local (127.0.0.1); con puerto 0 el sistema elige uno libre
+    public ServidorConsultas(int puerto, MetricasEjecucion metricas) throws IOException {
+        this.metricas = metricas;
+        servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto), 0);
+        hilos = Executors.newFixedThreadPool(HILOS, tarea -> {
+            Thread hilo = new Thread(tarea, "servidor-consultas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        servidor.setExecutor(hilos);
+        servidor.createContext("/", this::atender);
+        servidor.start();
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    // Arma la instantánea de una actualización; las consultas en curso terminan con la anterior
+    public void publicar(AgregadorVentas totales, List<String[]> vendedores, CatalogoProductos catalogo) {
+        actual = new Instantanea(totales, vendedores, catalogo);
+    }
+
+    private void atender(HttpExchange intercambio) throws IOException {
+        int codigo = 200;
+        String respuesta;
+        try {
+            if (!intercambio.getRequestMethod().equals("GET")) {
+                throw new ErrorConsulta(405, "Solo se aceptan consultas GET");
+            }
+            respuesta = responder(intercambio.getRequestURI().getPath(), parametros(intercambio.getRequestURI().getRawQuery()));
+        } catch (ErrorConsulta e) {
+            codigo = e.codigo;
+            StringBuilder json = new StringBuilder("{\"error\": ");
+            texto(json, e.getMessage());
+            respuesta = json.append("}\n").toString();
+        } catch (RuntimeException e) {
+            codigo = 500;
+            respuesta = "{\"error\": \"Error interno\"}\n";
+            System.err.println("Error al atender " + intercambio.getRequestURI() + ": " + e);
+        }
+
+        byte[] bytes = respuesta.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        intercambio.sendResponseHeaders(codigo, bytes.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+
+    private String responder(String ruta, Map<String, String> parametros) throws ErrorConsulta {
+        if (ruta.equals("/metricas")) {
+            return metricas.comoJson();
+        }
+
+        Instantanea instantanea = actual;
+        if (instantanea == null) {
+            throw new ErrorConsulta(503, "Los datos todavía se están cargando");
+        }
+
+        if (ruta.equals("/estado")) {
+            return estado(instantanea);
+        }
+        if (ruta.equals("/vendedores") || ruta.equals("/vendedores/")) {
+            return mejoresVendedores(instantanea, leerTop(parametros));
+        }
+        if (ruta.startsWith("/vendedores/")) {
+            return vendedor(instantanea, ruta.substring("/vendedores/".length()));
+        }
+        if (ruta.equals("/productos") || ruta.equals("/productos/")) {
+            return mejoresProductos(instantanea, leerTop(parametros));
+        }
+        if (ruta.startsWith("/productos/")) {
+            return producto(instantanea, ruta.substring("/productos/".length()));
+        }
+        throw new ErrorConsulta(404, "Consulta desconocida: " + ruta);
+    }
+
+    private static String estado(Instantanea instantanea) {
+        return "{\"actualizado\": \"" + instantanea.actualizado + "\", "
+            + "\"vendedores\": " + instantanea.documentos.length + ", "
+            + "\"productos\": " + instantanea.ids.length + ", "
+            + "\"lineas\": " + instantanea.lineas + ", "
+            + "\"lineas_con_error\": " + instantanea.lineasConError + "}\n";
+    }
+
+    private static String mejoresVendedores(Instantanea instantanea, int top) {
+        int filas = Math.min(top, instantanea.documentos.length);
+        StringBuilder json = new StringBuilder(64 + filas * 80);
+        json.append("{\"actualizado\": \"").append(instantanea.actualizado).append("\", \"vendedores\": [");
+        for (int puesto = 0; puesto < filas; puesto++) {
+            json.append(puesto == 0 ? "\n  " : ",\n  ");
+            filaVendedor(json, instantanea, puesto);
+        }
+        return json.append("\n]}\n").toString();
+    }
+
+    private static String vendedor(Instantanea instantanea, String texto) throws ErrorConsulta {
+        long documento;
+        try {
+            documento = Long.parseLong(texto);
+        } catch (NumberFormatException e) {
+            throw new ErrorConsulta(400, "Documento inválido: " + texto);
+        }
+        Integer puesto = instantanea.puestoPorDocumento.get(documento);
+        if (puesto == null) {
+            throw new ErrorConsulta(404, "No hay ventas del documento " + documento);
+        }
+        StringBuilder json = new StringBuilder(128);
+        filaVendedor(json, instantanea, puesto);
+        return json.append('\n').toString();
+    }
+
+    private static void filaVendedor(StringBuilder json, Instantanea instantanea, int puesto) {
+        json.append("{\"puesto\": ").append(puesto + 1)
+            .append(", \"documento\": ").append(instantanea.documentos[puesto])
+            .append(", \"nombre\": ");
+        texto(json, instantanea.nombresVendedores[puesto]);
+        json.append(", \"total\": ").append(instantanea.totales[puesto]).append('}');
+    }
+
+    private static String mejoresProductos(Instantanea instantanea, int top) {
+        int filas = Math.min(top, instantanea.ids.length);
+        StringBuilder json = new StringBuilder(64 + filas * 80);
+        json.append("{\"actualizado\": \"").append(instantanea.actualizado).append("\", \"productos\": [");
+        for (int puesto = 0; puesto < filas; puesto++) {
+            json.append(puesto == 0 ? "\n  " : ",\n  ");
+            filaProducto(json, instantanea, puesto);
+        }
+        return json.append("\n]}\n").toString();
+    }
+
+    private static String producto(Instantanea instantanea, String texto) throws ErrorConsulta {
+        int idProducto;
+        try {
+            idProducto = Integer.parseInt(texto);
+        } catch (NumberFormatException e) {
+            throw new ErrorConsulta(400, "ID de producto inválido: " + texto);
+        }
+        Integer puesto = instantanea.puestoPorProducto.get(idProducto);
+        if (puesto == null) {
+            throw new ErrorConsulta(404, "No hay ventas del producto " + idProducto);
+        }
+        StringBuilder json = new StringBuilder(128);
+        filaProducto(json, instantanea, puesto);
+        return json.append('\n').toString();
+    }
+
+    // El precio se busca en el catálogo solo para las filas que se responden
+    private static void filaProducto(StringBuilder json, Instantanea instantanea, int puesto) {
+        json.append("{\"puesto\": ").append(puesto + 1)
+            .append(", \"id\": ").append(instantanea.ids[puesto])
+            .append(", \"nombre\": ");
+        texto(json, instantanea.nombresProductos[puesto]);
+        json.append(", \"precio\": ")
+            .append(ImporteCentavos.comoTexto(BigInteger.valueOf(instantanea.catalogo.precioCatalogoCentavos(instantanea.ids[puesto]))))
+            .append(", \"unidades\": ").append(instantanea.unidades[puesto]).append('}');
+    }
+
+    private static int leerTop(Map<String, String> parametros) throws ErrorConsulta {
+        String valor = parametros.get("n");
+        if (valor == null) {
+            return TOP_POR_DEFECTO;
+        }
+        try {
+            int top = Integer.parseInt(valor);
+            if (top >= 1 && top <= TOP_MAXIMO) {
+                return top;
+            }
+        } catch (NumberFormatException e) {
+            // Se responde con el error de abajo
+        }
+        throw new ErrorConsulta(400, "n debe ser un número entre 1 y " + TOP_MAXIMO + ": " + valor);
+    }
+
+    private static Map<String, String> parametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null || consulta.isEmpty()) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int separador = par.indexOf('=');
+            if (separador > 0) {
+                parametros.put(par.substring(0, separador), par.substring(separador + 1));
+            }
+        }
+        return parametros;
+    }
+
+    // Cadena JSON con comillas, barras y caracteres de control escapados
+    private static void texto(StringBuilder json, String valor) {
+        json.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    // Deja de aceptar consultas; las que están en curso tienen un segundo para terminar
+    @Override
+    public void close() {
+        servidor.stop(1);
+        hilos.shutdownNow();
+    }
+}
@@ -0,0 +1,117 @@
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Total vendido por número de documento del vendedor, en centavos
+// Tabla de direccionamiento abierto sobre arreglos primitivos: sin Long, Double ni entradas de HashMap por vendedor
+// El nombre no se guarda aquí; el reporte lo busca en vendedores.txt al escribirse
+public class TotalesPorVendedor {
+
+    // Posición + 1 de la entrada de cada casilla; 0 = casilla libre
+    private int[] tabla;
+    private int mascara;
+
+    // Entradas en el orden en que aparecieron
+    private long[] documentos;
+    private long[] totales;
+    private int tamano;
+
+    // Totales que no caben en un long, por posición; en totales queda el valor saturado para ordenar
+    private final Map<Integer, BigInteger> desbordados = new HashMap<>();
+
+    public TotalesPorVendedor() {
+        this(64);
+    }
+
+    public TotalesPorVendedor(int capacidadEsperada) {
+        int capacidad = Math.max(4, capacidadEsperada);
+        tabla = new int[Integer.highestOneBit(capacidad * 2 - 1) << 1];
+        mascara = tabla.length - 1;
+        documentos = new long[capacidad];
+        totales = new long[capacidad];
+    }
+
+    // Guarda el total del vendedor; si ya estaba, lo reemplaza
+    public void asignar(long documento, ImporteCentavos total) {
+        asignar(documento, total.enLong());
+        if (total.excedeLong()) {
+            desbordados.put(posicion(documento), total.total());
+        }
+    }
+
+    public void asignar(long documento, long total) {
+        int casilla = mezclar(documento) & mascara;
+        while (tabla[casilla] != 0) {
+            int posicion = tabla[casilla] - 1;
+            if (documentos[posicion] == documento) {
+                totales[posicion] = total;
+                desbordados.remove(posicion);
+                return;
+            }
+            casilla = (casilla + 1) & mascara;
+        }
+
+        if (tamano == documentos.length) {
+            documentos = Arrays.copyOf(documentos, tamano * 2);
+            totales = Arrays.copyOf(totales, tamano * 2);
+        }
+        documentos[tamano] = documento;
+        totales[tamano] = total;
+        tabla[casilla] = ++tamano;
+
+        if (tamano * 2 > tabla.length) {
+            crecer();
+        }
+    }
+
+    // Posición de la entrada del vendedor (0..tamano-1), o -1 si no tiene
+    public int posicion(long documento) {
+        int casilla = mezclar(documento) & mascara;
+        while (tabla[casilla] != 0) {
+            int posicion = tabla[casilla] - 1;
+            if (documentos[posicion] == documento) {
+                return posicion;
+            }
+            casilla = (casilla + 1) & mascara;
+        }
+        return -1;
+    }
+
+    public int tamano() {
+        return tamano;
+    }
+
+    public long documento(int posicion) {
+        return documentos[posicion];
+    }
+
+    // Total en centavos; si se desbordó, Long.MAX_VALUE o Long.MIN_VALUE (sirve para ordenar)
+    public long total(int posicion) {
+        return totales[posicion];
+    }
+
+    // Total exacto si no cabe en un long, o null si total() ya es exacto
+    public BigInteger totalDesbordado(int posicion) {
+        return desbordados.isEmpty() ? null : desbordados.get(posicion);
+    }
+
+    // Duplica la tabla cuando se llena más de la mitad; las entradas no se mueven
+    private void crecer() {
+        tabla = new int[tabla.length * 2];
+        mascara = tabla.length - 1;
+        for (int posicion = 0; posicion < tamano; posicion++) {
+            int casilla = mezclar(documentos[posicion]) & mascara;
+            while (tabla[casilla] != 0) {
+                casilla = (casilla + 1) & mascara;
+            }
+            tabla[casilla] = posicion + 1;
+        }
+    }
+
+    // Reparte los documentos consecutivos (1000000000, 1000000001...) por toda la tabla
+    private static int mezclar(long documento) {
+        long h = documento * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
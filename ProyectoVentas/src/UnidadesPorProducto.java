@@ -0,0 +1,63 @@
+import java.util.Arrays;
+
+// Unidades vendidas por ID de producto
+// Claves y valores van en arreglos primitivos: sumar una venta no crea objetos Integer
+// Las entradas se recorren en el orden en que aparecieron
+public class UnidadesPorProducto {
+
+    // ID del producto → posición de su entrada en los arreglos
+    private final IndiceEnteros posicionPorId;
+    private int[] ids;
+    private long[] unidades;
+    private int tamano;
+
+    public UnidadesPorProducto() {
+        this(8);
+    }
+
+    public UnidadesPorProducto(int capacidadEsperada) {
+        int capacidad = Math.max(4, capacidadEsperada);
+        posicionPorId = new IndiceEnteros(capacidad);
+        ids = new int[capacidad];
+        unidades = new long[capacidad];
+    }
+
+    public void sumar(int idProducto, long cantidad) {
+        int posicion = posicionPorId.obtener(idProducto);
+        if (posicion < 0) {
+            if (tamano == ids.length) {
+                crecer();
+            }
+            posicion = tamano++;
+            posicionPorId.agregarSiAusente(idProducto, posicion);
+            ids[posicion] = idProducto;
+        }
+        unidades[posicion] += cantidad;
+    }
+
+    // Suma todas las entradas de otro conteo, en su orden
+    public void sumarTodo(UnidadesPorProducto otras) {
+        for (int i = 0; i < otras.tamano; i++) {
+            sumar(otras.ids[i], otras.unidades[i]);
+        }
+    }
+
+    public int tamano() {
+        return tamano;
+    }
+
+    // ID del producto de la entrada i (0..tamano-1)
+    public int id(int i) {
+        return ids[i];
+    }
+
+    public long unidades(int i) {
+        return unidades[i];
+    }
+
+    private void crecer() {
+        int capacidad = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacidad);
+        unidades = Arrays.copyOf(unidades, capacidad);
+    }
+}